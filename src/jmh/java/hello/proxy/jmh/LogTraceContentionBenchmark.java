@@ -0,0 +1,95 @@
+package hello.proxy.jmh;
+
+import hello.proxy.trace.TraceStatus;
+import hello.proxy.trace.logtrace.FieldLogTrace;
+import hello.proxy.trace.logtrace.LogTrace;
+import hello.proxy.trace.logtrace.ThreadLocalLogTrace;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * LogTrace 구현체별 begin/end 비용을 스레드 수에 따라 비교
+ * - trace : field (FieldLogTrace, 스레드 간 공유 필드) | threadLocal (ThreadLocalLogTrace)
+ * - depth : 한 번에 중첩하는 begin/end 깊이 (컨트롤러 -> 서비스 -> 저장소 = 3)
+ * - sink  : 로그가 도착하는 곳 (LogTraceSink)
+ * - 스레드 수는 LogTraceScaling 이 1, 4, 16, 64 로 바꿔가며 실행하고 처리량 표로 정리함
+ *   (jmh 태스크로 실행하면 스레드 1개)
+ * - 애플리케이션과 같이 LogTrace 인스턴스 하나를 모든 스레드가 같이 사용함
+ *   FieldLogTrace 는 여러 스레드가 같은 필드를 바꾸므로 추적이 섞이고 NullPointerException 이 날 수 있음 -> errors 카운터로 기록
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class LogTraceContentionBenchmark {
+
+    private static final String[] MESSAGES = new String[11];
+
+    static {
+        for (int i = 0; i < MESSAGES.length; i++) {
+            MESSAGES[i] = "OrderLayer" + i + ".call()";
+        }
+    }
+
+    @Param({"field", "threadLocal"})
+    private String trace;
+
+    @Param({"1", "3", "10"})
+    private int depth;
+
+    @Param({"noop", "memory", "file"})
+    private String sink;
+
+    private LogTrace logTrace;
+    private Runnable restoreSink;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        logTrace = trace.equals("field") ? new FieldLogTrace() : new ThreadLocalLogTrace();
+        restoreSink = LogTraceSink.of(sink).install();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        restoreSink.run();
+    }
+
+    /**
+     * depth 만큼 중첩한 begin/end 한 묶음이 ops 1번
+     */
+    @Benchmark
+    public void nested(Errors errors) {
+        try {
+            nest(depth);
+        } catch (RuntimeException e) {
+            errors.errors++;
+        }
+    }
+
+    private void nest(int remaining) {
+        TraceStatus status = logTrace.begin(MESSAGES[remaining]);
+        if (remaining > 1) {
+            nest(remaining - 1);
+        }
+        logTrace.end(status);
+    }
+
+    /**
+     * 스레드 간 공유 상태 때문에 실패한 호출 수 (FieldLogTrace)
+     */
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class Errors {
+        public long errors;
+    }
+}
@@ -0,0 +1,102 @@
+package hello.proxy.jmh;
+
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * LogTraceContentionBenchmark 를 스레드 수 1, 4, 16, 64 로 실행하고 처리량 변화를 표로 출력 (build.gradle 의 jmhLogTraceScaling 태스크)
+ * - 각 칸 : 처리량(ops/ms)과 스레드 1개 대비 배율. 배율이 스레드 수만큼 늘지 않는 곳부터 추적이 코어 수에 맞춰 늘지 않는 것
+ * - 사용법 : LogTraceScaling [스레드 수 ...]  (ex. LogTraceScaling 1 2 4 8)
+ */
+public class LogTraceScaling {
+
+    private static final int[] DEFAULT_THREADS = {1, 4, 16, 64};
+
+    public static void main(String[] args) throws RunnerException {
+        int[] threadCounts = args.length == 0 ? DEFAULT_THREADS : parse(args);
+
+        //(trace, sink, depth) -> 스레드 수별 처리량
+        Map<String, double[]> table = new LinkedHashMap<>();
+        Map<String, double[]> errors = new LinkedHashMap<>();
+        for (int t = 0; t < threadCounts.length; t++) {
+            Options options = new OptionsBuilder()
+                    .include(LogTraceContentionBenchmark.class.getSimpleName())
+                    .threads(threadCounts[t])
+                    .forks(1)
+                    .warmupIterations(2)
+                    .warmupTime(TimeValue.seconds(1))
+                    .measurementIterations(3)
+                    .measurementTime(TimeValue.seconds(2))
+                    .build();
+            Collection<RunResult> results = new Runner(options).run();
+            for (RunResult result : results) {
+                String key = String.format("%-11s %-6s %5s",
+                        result.getParams().getParam("trace"),
+                        result.getParams().getParam("sink"),
+                        result.getParams().getParam("depth"));
+                table.computeIfAbsent(key, k -> new double[threadCounts.length])[t] = result.getPrimaryResult().getScore();
+                if (result.getSecondaryResults().containsKey("errors")) {
+                    errors.computeIfAbsent(key, k -> new double[threadCounts.length])[t] =
+                            result.getSecondaryResults().get("errors").getScore();
+                }
+            }
+        }
+        print(threadCounts, table, errors);
+    }
+
+    private static void print(int[] threadCounts, Map<String, double[]> table, Map<String, double[]> errors) {
+        StringBuilder header = new StringBuilder(String.format("%-11s %-6s %5s", "trace", "sink", "depth"));
+        for (int threads : threadCounts) {
+            header.append(String.format(" | %8s thr=%-3d", "ops/ms", threads));
+        }
+        System.out.println();
+        System.out.println(header);
+        for (Map.Entry<String, double[]> row : table.entrySet()) {
+            double[] scores = row.getValue();
+            StringBuilder line = new StringBuilder(row.getKey());
+            for (double score : scores) {
+                double scale = scores[0] == 0 ? 0 : score / scores[0];
+                line.append(String.format(" | %9.1f x%-5.2f", score, scale));
+            }
+            double[] errorCounts = errors.get(row.getKey());
+            if (errorCounts != null && max(errorCounts) > 0) {
+                line.append("  errors/ms=").append(format(errorCounts));
+            }
+            System.out.println(line);
+        }
+    }
+
+    private static double max(double[] values) {
+        double max = 0;
+        for (double value : values) {
+            max = Math.max(max, value);
+        }
+        return max;
+    }
+
+    private static String format(double[] values) {
+        List<String> formatted = new ArrayList<>();
+        for (double value : values) {
+            formatted.add(String.format("%.1f", value));
+        }
+        return String.join("/", formatted);
+    }
+
+    private static int[] parse(String[] args) {
+        int[] threads = new int[args.length];
+        for (int i = 0; i < args.length; i++) {
+            threads[i] = Integer.parseInt(args[i]);
+        }
+        return threads;
+    }
+}
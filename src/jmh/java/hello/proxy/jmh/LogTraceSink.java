@@ -0,0 +1,145 @@
+package hello.proxy.jmh;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.FileAppender;
+import ch.qos.logback.core.OutputStreamAppender;
+import ch.qos.logback.core.helpers.NOPAppender;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * LogTrace 구현체의 로그가 도착하는 곳 (hello.proxy.trace.logtrace 로거의 appender 를 바꿈)
+ * - noop   : 로그 이벤트는 만들지만 appender 가 아무것도 하지 않음
+ * - memory : 로그 형식대로 문자열을 만들어서 메모리 버퍼에 씀 (가득 차면 비움)
+ * - file   : 스프링 부트 기본 형식과 비슷한 패턴으로 임시 파일에 씀 (매번 flush)
+ * memory, file 은 logback 의 OutputStreamAppender 라서 쓰기마다 appender 잠금을 잡음
+ */
+public enum LogTraceSink {
+
+    NOOP, MEMORY, FILE;
+
+    private static final String LOGGER = "hello.proxy.trace.logtrace";
+    private static final String PATTERN = "%d{yyyy-MM-dd HH:mm:ss.SSS} %5level [%thread] %logger{39} : %msg%n";
+
+    public static LogTraceSink of(String name) {
+        return valueOf(name.toUpperCase());
+    }
+
+    /**
+     * 로거를 이 sink 로만 기록하게 바꾸고, 되돌릴 때 호출할 작업을 반환
+     */
+    public Runnable install() {
+        LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
+        Logger logger = context.getLogger(LOGGER);
+        Level previousLevel = logger.getLevel();
+        boolean previousAdditive = logger.isAdditive();
+        //떼어낸 appender 는 멈추지 않고 보관했다가 되돌릴 때 다시 붙임
+        List<Appender<ILoggingEvent>> previousAppenders = new ArrayList<>();
+        logger.iteratorForAppenders().forEachRemaining(previousAppenders::add);
+
+        Appender<ILoggingEvent> appender = createAppender(context);
+        appender.start();
+        previousAppenders.forEach(logger::detachAppender);
+        logger.addAppender(appender);
+        logger.setAdditive(false);
+        logger.setLevel(Level.INFO);
+
+        return () -> {
+            logger.detachAndStopAllAppenders();
+            previousAppenders.forEach(logger::addAppender);
+            logger.setAdditive(previousAdditive);
+            logger.setLevel(previousLevel);
+        };
+    }
+
+    private Appender<ILoggingEvent> createAppender(LoggerContext context) {
+        switch (this) {
+            case NOOP: {
+                NOPAppender<ILoggingEvent> appender = new NOPAppender<>();
+                appender.setContext(context);
+                return appender;
+            }
+            case MEMORY: {
+                OutputStreamAppender<ILoggingEvent> appender = new OutputStreamAppender<>();
+                appender.setContext(context);
+                appender.setEncoder(encoder(context));
+                appender.setOutputStream(new MemoryOutputStream(1 << 20));
+                return appender;
+            }
+            case FILE: {
+                FileAppender<ILoggingEvent> appender = new FileAppender<>();
+                appender.setContext(context);
+                appender.setEncoder(encoder(context));
+                appender.setFile(tempFile().toString());
+                appender.setAppend(false);
+                return appender;
+            }
+            default:
+                throw new IllegalStateException("unknown sink: " + this);
+        }
+    }
+
+    private static PatternLayoutEncoder encoder(LoggerContext context) {
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(context);
+        encoder.setPattern(PATTERN);
+        encoder.start();
+        return encoder;
+    }
+
+    private static Path tempFile() {
+        try {
+            Path file = Files.createTempFile("log-trace-benchmark", ".log");
+            file.toFile().deleteOnExit();
+            return file;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * 크기가 정해진 메모리 버퍼. 가득 차면 처음부터 다시 씀 (appender 잠금 안에서만 호출됨)
+     */
+    static class MemoryOutputStream extends OutputStream {
+
+        private final byte[] buffer;
+        private int position;
+
+        MemoryOutputStream(int capacity) {
+            this.buffer = new byte[capacity];
+        }
+
+        @Override
+        public void write(int b) {
+            if (position == buffer.length) {
+                position = 0;
+            }
+            buffer[position++] = (byte) b;
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) {
+            if (length > buffer.length) {
+                offset += length - buffer.length;
+                length = buffer.length;
+            }
+            if (position + length > buffer.length) {
+                position = 0;
+            }
+            System.arraycopy(bytes, offset, buffer, position, length);
+            position += length;
+        }
+    }
+}
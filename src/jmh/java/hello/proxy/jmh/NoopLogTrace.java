@@ -0,0 +1,27 @@
+package hello.proxy.jmh;
+
+import hello.proxy.trace.TraceId;
+import hello.proxy.trace.TraceStatus;
+import hello.proxy.trace.logtrace.LogTrace;
+
+/**
+ * 아무것도 기록하지 않는 LogTrace (프록시 자체의 비용만 측정)
+ * begin 은 미리 만든 TraceStatus 를 반환하므로 할당하지 않음
+ */
+public class NoopLogTrace implements LogTrace {
+
+    private static final TraceStatus STATUS = new TraceStatus(new TraceId(), 0L, "noop");
+
+    @Override
+    public TraceStatus begin(String message) {
+        return STATUS;
+    }
+
+    @Override
+    public void end(TraceStatus status) {
+    }
+
+    @Override
+    public void exception(TraceStatus status, Exception e) {
+    }
+}
@@ -0,0 +1,27 @@
+package hello.proxy.jmh;
+
+import hello.proxy.app.v1.OrderRepositoryV1;
+import hello.proxy.infra.store.OrderRecord;
+
+import java.util.Optional;
+
+/**
+ * 저장하지 않는 OrderRepositoryV1 (sleep 없음)
+ * hello.proxy.app 패키지 밖에 있으므로 패키지 기반 포인트컷의 대상이 아님 -> 호출 1번에 프록시는 서비스 하나만 거침
+ */
+public class NoopOrderRepositoryV1 implements OrderRepositoryV1 {
+
+    @Override
+    public void save(String itemId) {
+    }
+
+    @Override
+    public Optional<OrderRecord> findOrder(String itemId) {
+        return Optional.empty();
+    }
+
+    @Override
+    public long countOrders(String itemId) {
+        return 0;
+    }
+}
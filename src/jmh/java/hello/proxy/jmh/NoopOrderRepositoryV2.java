@@ -0,0 +1,13 @@
+package hello.proxy.jmh;
+
+import hello.proxy.app.v2.OrderRepositoryV2;
+
+/**
+ * 저장하지 않는 OrderRepositoryV2 (클래스 기반 프록시 비교용)
+ */
+public class NoopOrderRepositoryV2 extends OrderRepositoryV2 {
+
+    @Override
+    public void save(String itemId) {
+    }
+}
@@ -0,0 +1,105 @@
+package hello.proxy.jmh;
+
+import hello.proxy.app.v1.OrderControllerV1Impl;
+import hello.proxy.app.v1.OrderRepositoryV1Impl;
+import hello.proxy.app.v1.OrderServiceV1Impl;
+import hello.proxy.app.v2.OrderControllerV2;
+import hello.proxy.app.v2.OrderRepositoryV2;
+import hello.proxy.app.v2.OrderServiceV2;
+import hello.proxy.app.v3.OrderControllerV3;
+import hello.proxy.config.pointcut.ExecutionPointcut;
+import hello.proxy.config.pointcut.TracePointcuts;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.aop.Pointcut;
+import org.springframework.aop.aspectj.AspectJExpressionPointcut;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Method;
+import java.util.List;
+
+/**
+ * ExecutionPointcut 과 AspectJExpressionPointcut 의 매칭 비용 비교
+ * - *Startup : 표현식 해석 + 대상 클래스 전체 첫 매칭 (빈 후처리 시점에 포인트컷 하나가 처음 쓰일 때의 비용)
+ * - *Match   : 이미 만든 포인트컷으로 대상 클래스 전체 매칭 (클래스 필터 + 모든 메서드)
+ * - expression : TracePointcuts 의 id
+ * ./gradlew jmh -Pjmh.includes=PointcutMatchingBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+public class PointcutMatchingBenchmark {
+
+    private static final List<Class<?>> TARGETS = List.of(
+            OrderControllerV1Impl.class, OrderServiceV1Impl.class, OrderRepositoryV1Impl.class,
+            OrderControllerV2.class, OrderServiceV2.class, OrderRepositoryV2.class,
+            OrderControllerV3.class
+    );
+
+    @Param({TracePointcuts.APP_ID, TracePointcuts.APP_EXCEPT_NO_LOG_ID})
+    private String expression;
+
+    private String source;
+    private Method[][] methods;
+    private Pointcut nativePointcut;
+    private Pointcut aspectJPointcut;
+
+    @Setup
+    public void setUp() {
+        source = TracePointcuts.expression(expression);
+        methods = new Method[TARGETS.size()][];
+        for (int i = 0; i < TARGETS.size(); i++) {
+            methods[i] = ReflectionUtils.getAllDeclaredMethods(TARGETS.get(i));
+        }
+        nativePointcut = ExecutionPointcut.parse(source);
+        aspectJPointcut = aspectJ(source);
+        //AspectJ 는 첫 매칭 때 표현식을 해석하므로 미리 한번 매칭
+        matchAll(aspectJPointcut);
+    }
+
+    @Benchmark
+    public int nativeStartup() {
+        return matchAll(ExecutionPointcut.parse(source));
+    }
+
+    @Benchmark
+    public int aspectJStartup() {
+        return matchAll(aspectJ(source));
+    }
+
+    @Benchmark
+    public int nativeMatch() {
+        return matchAll(nativePointcut);
+    }
+
+    @Benchmark
+    public int aspectJMatch() {
+        return matchAll(aspectJPointcut);
+    }
+
+    private int matchAll(Pointcut pointcut) {
+        int matched = 0;
+        for (int i = 0; i < methods.length; i++) {
+            Class<?> target = TARGETS.get(i);
+            if (!pointcut.getClassFilter().matches(target)) {
+                continue;
+            }
+            for (Method method : methods[i]) {
+                if (pointcut.getMethodMatcher().matches(method, target)) {
+                    matched++;
+                }
+            }
+        }
+        return matched;
+    }
+
+    private static Pointcut aspectJ(String expression) {
+        AspectJExpressionPointcut pointcut = new AspectJExpressionPointcut();
+        pointcut.setExpression(expression);
+        return pointcut;
+    }
+}
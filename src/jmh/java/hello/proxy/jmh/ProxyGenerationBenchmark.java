@@ -0,0 +1,196 @@
+package hello.proxy.jmh;
+
+import hello.proxy.app.v1.OrderRepositoryV1;
+import hello.proxy.app.v1.OrderServiceV1;
+import hello.proxy.app.v1.OrderServiceV1Impl;
+import hello.proxy.app.v2.OrderServiceV2;
+import hello.proxy.config.hotswap.AdvisorSwapRegistry;
+import hello.proxy.config.hotswap.HotSwapConfig;
+import hello.proxy.config.pointcut.IndexedPointcut;
+import hello.proxy.config.pointcut.TracePointcuts;
+import hello.proxy.config.v1_proxy.concrete_proxy.OrderServiceConcreteProxy;
+import hello.proxy.config.v1_proxy.interface_proxy.OrderServiceInterfaceProxy;
+import hello.proxy.config.v2_dynamicproxy.handler.LogTraceBasicHandler;
+import hello.proxy.config.v2_dynamicproxy.handler.LogTraceFilterHandler;
+import hello.proxy.config.v3_proxyfactory.advice.LogTraceAdvice;
+import hello.proxy.config.v4_postprocessor.postprocessor.PackageLogTracePostProcessor;
+import hello.proxy.config.v6_aop.aspect.LogTraceAspect;
+import hello.proxy.trace.logtrace.LogTrace;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.aspectj.annotation.AnnotationAwareAspectJAutoProxyCreator;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.NameMatchMethodPointcut;
+import org.springframework.context.support.GenericApplicationContext;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Proxy;
+import java.util.Map;
+
+/**
+ * 같은 로그 추적을 적용하는 방식별 호출 비용 비교 (OrderServiceV1.orderItem 1번 호출)
+ * - direct              : 프록시 없음 (기준값)
+ * - v1InterfaceProxy    : 직접 만든 인터페이스 기반 프록시 (config.v1_proxy)
+ * - v1ConcreteProxy     : 직접 만든 클래스 기반 프록시 (OrderServiceV2 를 상속)
+ * - v2DynamicProxy*     : JDK 동적 프록시 (Basic : 모든 메서드, Filter : 메서드 이름 패턴)
+ * - v3ProxyFactory*     : ProxyFactoryConfigV1 처럼 AdvisorSwapRegistry 인터셉터 안에 LogTraceAdvice 를 넣은 프록시 (Jdk : 인터페이스, Cglib : 클래스 기반)
+ * - v3ProxyFactoryBare  : 같은 어드바이저를 addAdvisor 로 바로 넣은 프록시 (교체 인터셉터 비용을 보기 위한 기준값)
+ * - v4BeanPostProcessor : BeanPostProcessorConfig 처럼 AdvisorSwapRegistry 를 넘긴 PackageLogTracePostProcessor 가 만든 프록시
+ * - v5AutoProxy         : 자동 프록시 생성기 + 어드바이저 빈 (AutoProxyConfig.advisor3 와 같은 포인트컷)
+ * - v6Aspect            : 자동 프록시 생성기 + @Aspect 빈 (LogTraceAspect)
+ * 저장소와 LogTrace 는 아무것도 하지 않으므로 측정값은 가로채기 방식 자체의 비용
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+public class ProxyGenerationBenchmark {
+
+    private static final String[] PATTERNS = {"request*", "order*", "save*"};
+    private static final String ITEM_ID = "itemA";
+
+    private final LogTrace logTrace = new NoopLogTrace();
+    private final OrderRepositoryV1 repository = new NoopOrderRepositoryV1();
+    private final AdvisorSwapRegistry advisorSwapRegistry = new AdvisorSwapRegistry();
+
+    private OrderServiceV1 direct;
+    private OrderServiceV1 v1InterfaceProxy;
+    private OrderServiceV2 v1ConcreteProxy;
+    private OrderServiceV1 v2DynamicProxyBasic;
+    private OrderServiceV1 v2DynamicProxyFilter;
+    private OrderServiceV1 v3ProxyFactoryJdk;
+    private OrderServiceV1 v3ProxyFactoryCglib;
+    private OrderServiceV1 v3ProxyFactoryBare;
+    private OrderServiceV1 v4BeanPostProcessor;
+    private OrderServiceV1 v5AutoProxy;
+    private OrderServiceV1 v6Aspect;
+
+    private GenericApplicationContext autoProxyContext;
+    private GenericApplicationContext aspectContext;
+
+    @Setup
+    public void setUp() {
+        direct = new OrderServiceV1Impl(repository);
+        v1InterfaceProxy = new OrderServiceInterfaceProxy(new OrderServiceV1Impl(repository), logTrace);
+        v1ConcreteProxy = new OrderServiceConcreteProxy(new OrderServiceV2(new NoopOrderRepositoryV2()), logTrace);
+        v2DynamicProxyBasic = jdkProxy(new LogTraceBasicHandler(new OrderServiceV1Impl(repository), logTrace));
+        v2DynamicProxyFilter = jdkProxy(new LogTraceFilterHandler(new OrderServiceV1Impl(repository), logTrace, PATTERNS));
+        v3ProxyFactoryJdk = proxyFactory("orderServiceJdk", false);
+        v3ProxyFactoryCglib = proxyFactory("orderServiceCglib", true);
+        ProxyFactory bareFactory = new ProxyFactory(new OrderServiceV1Impl(repository));
+        bareFactory.addAdvisor(nameMatchAdvisor());
+        v3ProxyFactoryBare = (OrderServiceV1) bareFactory.getProxy();
+        v4BeanPostProcessor = (OrderServiceV1) new PackageLogTracePostProcessor("hello.proxy.app", nameMatchAdvisor(), false,
+                advisorSwapRegistry, HotSwapConfig.LOG_TRACE)
+                .postProcessAfterInitialization(new OrderServiceV1Impl(repository), "orderService");
+
+        autoProxyContext = context();
+        autoProxyContext.registerBean("advisor", Advisor.class, () -> new DefaultPointcutAdvisor(
+                IndexedPointcut.of(TracePointcuts.APP_EXCEPT_NO_LOG_ID), new LogTraceAdvice(logTrace)));
+        v5AutoProxy = refresh(autoProxyContext);
+
+        aspectContext = context();
+        aspectContext.registerBean(LogTraceAspect.class, () -> new LogTraceAspect(logTrace));
+        v6Aspect = refresh(aspectContext);
+    }
+
+    @TearDown
+    public void tearDown() {
+        autoProxyContext.close();
+        aspectContext.close();
+    }
+
+    @Benchmark
+    public void direct() {
+        direct.orderItem(ITEM_ID);
+    }
+
+    @Benchmark
+    public void v1InterfaceProxy() {
+        v1InterfaceProxy.orderItem(ITEM_ID);
+    }
+
+    @Benchmark
+    public void v1ConcreteProxy() {
+        v1ConcreteProxy.orderItem(ITEM_ID);
+    }
+
+    @Benchmark
+    public void v2DynamicProxyBasic() {
+        v2DynamicProxyBasic.orderItem(ITEM_ID);
+    }
+
+    @Benchmark
+    public void v2DynamicProxyFilter() {
+        v2DynamicProxyFilter.orderItem(ITEM_ID);
+    }
+
+    @Benchmark
+    public void v3ProxyFactoryJdk() {
+        v3ProxyFactoryJdk.orderItem(ITEM_ID);
+    }
+
+    @Benchmark
+    public void v3ProxyFactoryCglib() {
+        v3ProxyFactoryCglib.orderItem(ITEM_ID);
+    }
+
+    @Benchmark
+    public void v3ProxyFactoryBare() {
+        v3ProxyFactoryBare.orderItem(ITEM_ID);
+    }
+
+    @Benchmark
+    public void v4BeanPostProcessor() {
+        v4BeanPostProcessor.orderItem(ITEM_ID);
+    }
+
+    @Benchmark
+    public void v5AutoProxy() {
+        v5AutoProxy.orderItem(ITEM_ID);
+    }
+
+    @Benchmark
+    public void v6Aspect() {
+        v6Aspect.orderItem(ITEM_ID);
+    }
+
+    private OrderServiceV1 jdkProxy(InvocationHandler handler) {
+        return (OrderServiceV1) Proxy.newProxyInstance(OrderServiceV1.class.getClassLoader(), new Class[]{OrderServiceV1.class}, handler);
+    }
+
+    private OrderServiceV1 proxyFactory(String beanName, boolean proxyTargetClass) {
+        OrderServiceV1Impl orderService = new OrderServiceV1Impl(repository);
+        ProxyFactory factory = new ProxyFactory(orderService);
+        factory.setProxyTargetClass(proxyTargetClass);
+        factory.addAdvice(advisorSwapRegistry.register(beanName, orderService.getClass(),
+                Map.of(HotSwapConfig.LOG_TRACE, nameMatchAdvisor())));
+        return (OrderServiceV1) factory.getProxy();
+    }
+
+    private Advisor nameMatchAdvisor() {
+        NameMatchMethodPointcut pointcut = new NameMatchMethodPointcut();
+        pointcut.setMappedNames(PATTERNS);
+        return new DefaultPointcutAdvisor(pointcut, new LogTraceAdvice(logTrace));
+    }
+
+    /**
+     * 스프링 부트가 등록하는 것과 같은 자동 프록시 생성기와 서비스 빈만 있는 컨테이너
+     */
+    private GenericApplicationContext context() {
+        GenericApplicationContext context = new GenericApplicationContext();
+        context.registerBean(AnnotationAwareAspectJAutoProxyCreator.class);
+        context.registerBean(OrderServiceV1.class, () -> new OrderServiceV1Impl(repository));
+        return context;
+    }
+
+    private OrderServiceV1 refresh(GenericApplicationContext context) {
+        context.refresh();
+        return context.getBean(OrderServiceV1.class);
+    }
+}
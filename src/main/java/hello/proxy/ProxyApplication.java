@@ -1,19 +1,18 @@
 package hello.proxy;
-import hello.proxy.config.AppV1Config;
-import hello.proxy.config.AppV2Config;
-import hello.proxy.config.v1_proxy.ConcreteProxyConfig;
-import hello.proxy.config.v1_proxy.InterfaceProxyConfig;
-import hello.proxy.config.v2_dynamicproxy.DynamicProxyBasicConfig;
-import hello.proxy.config.v2_dynamicproxy.DynamicProxyFilterConfig;
-import hello.proxy.config.v3_proxyfactory.ProxyFactoryConfigV1;
-import hello.proxy.config.v3_proxyfactory.ProxyFactoryConfigV2;
-import hello.proxy.config.v4_postprocessor.BeanPostProcessorConfig;
-import hello.proxy.config.v5_autoproxy.AutoProxyConfig;
-import hello.proxy.config.v6_aop.AopConfig;
+import hello.proxy.config.ProxyConfigSelector;
+import hello.proxy.config.agent.TraceAgentConfig;
+import hello.proxy.config.batch.GroupCommitConfig;
+import hello.proxy.config.bulk.BulkOrderConfig;
+import hello.proxy.config.deadline.DeadlineConfig;
+import hello.proxy.config.jdbc.JdbcOrderConfig;
+import hello.proxy.config.partition.PartitionConfig;
+import hello.proxy.config.store.OrderLogConfig;
+import hello.proxy.config.v7_weaving.CompileTimeWeavingConfig;
 import hello.proxy.trace.logtrace.LogTrace;
 import hello.proxy.trace.logtrace.ThreadLocalLogTrace;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Import;
 
@@ -21,17 +20,26 @@ import org.springframework.context.annotation.Import;
  * @Component 스캔 시작 패키지 대상을 hello.proxy.app 으로 함 -> config 패키지에 있는 @Configuration 은 컴포턴스 스캔 되지 않음
  * @Configuration 이 자동 등록 되지 안으니 이렇게 @Import 를 사용해 수동으로 등록
  */
-@SpringBootApplication(scanBasePackages = "hello.proxy.app")
-//@Import({AppV1Config.class, AppV2Config.class})
-//@Import(InterfaceProxyConfig.class) // v1에 프록시 적용
-//@Import(ConcreteProxyConfig.class) // v2에 프록시 적용
-//@Import(DynamicProxyBasicConfig.class) // JDK 동적 프록시 적용
-//@Import(DynamicProxyFilterConfig.class) // JDK 동적 프록시 적용 (no-log 해결)
-//@Import(ProxyFactoryConfigV1.class) // ProxyFactory 적용
-//@Import(ProxyFactoryConfigV2.class) // ProxyFactory 적용
-//@Import(BeanPostProcessorConfig.class)// 빈후처리기 v3 적용
-//@Import(AutoProxyConfig.class) // 스프링에서 제공하는 빈 후처리기 사용
-@Import(AopConfig.class) // @Aspect 사용
+//DataSource 는 JdbcOrderConfig 에서만 만듦 (자동 설정이 켜져 있으면 order.jdbc.enabled=false 여도 임베디드 H2 와 커넥션 풀이 생김)
+@SpringBootApplication(scanBasePackages = "hello.proxy.app", exclude = DataSourceAutoConfiguration.class)
+//ProxyConfigSelector : 아래처럼 @Import 를 주석으로 바꿔가며 고르던 설정을 proxy.config 로 선택
+//@Import({AppV1Config.class, AppV2Config.class}) // proxy.config=app
+//@Import(InterfaceProxyConfig.class) // v1에 프록시 적용, proxy.config=interface-proxy
+//@Import(ConcreteProxyConfig.class) // v2에 프록시 적용, proxy.config=concrete-proxy
+//@Import(DynamicProxyBasicConfig.class) // JDK 동적 프록시 적용, proxy.config=dynamic-proxy-basic
+//@Import(DynamicProxyFilterConfig.class) // JDK 동적 프록시 적용 (no-log 해결), proxy.config=dynamic-proxy-filter
+//@Import(ProxyFactoryConfigV1.class) // ProxyFactory 적용, proxy.config=proxy-factory-v1
+//@Import(ProxyFactoryConfigV2.class) // ProxyFactory 적용, proxy.config=proxy-factory-v2
+//@Import(BeanPostProcessorConfig.class)// 빈후처리기 v3 적용, proxy.config=bean-post-processor
+//@Import(AutoProxyConfig.class) // 스프링에서 제공하는 빈 후처리기 사용, proxy.config=auto-proxy
+//@Import(AopConfig.class) // @Aspect 사용, proxy.config=aop (기본값)
+//컴파일 시점 위빙 빌드에서는 ctw 프로필로 CompileTimeWeavingConfig 사용, TraceAgentConfig : 실행 중에 붙이는 자바 에이전트와 LogTrace 연결
+//DeadlineConfig : 요청 deadline 을 TraceId 에 담아서 각 계층에 전달, JdbcOrderConfig : order.jdbc.enabled=true 이면 V3 를 임베디드 DB 저장소로 교체
+//BulkOrderConfig : 모든 컨트롤러의 일괄 주문(requests, requests/stream)을 실행하는 BulkOrderRunner
+//PartitionConfig : order.partition.enabled=true 이면 모든 컨트롤러의 requestAsync 를 itemId 별 shard 에서 실행 (어떤 proxy.config 든 같음)
+//GroupCommitConfig, OrderLogConfig : order.group-commit.enabled, order.log.enabled 에 따라 저장소 구현을 바꿈 (어떤 proxy.config 든 같음)
+@Import({ProxyConfigSelector.class, CompileTimeWeavingConfig.class, TraceAgentConfig.class, DeadlineConfig.class, JdbcOrderConfig.class,
+		BulkOrderConfig.class, PartitionConfig.class, GroupCommitConfig.class, OrderLogConfig.class})
 public class ProxyApplication {
 	public static void main(String[] args) {
 		SpringApplication.run(ProxyApplication.class, args);
@@ -0,0 +1,21 @@
+package hello.proxy.agent;
+
+import net.bytebuddy.asm.Advice;
+
+/**
+ * 계측 대상 메서드의 앞뒤에 인라인되는 코드
+ * - ByteBuddy 는 이 메서드들을 호출하지 않고 바이트코드를 대상 메서드 안에 복사함 -> 프록시나 리플렉션 호출이 없음
+ * - origin 은 계측 시점에 상수로 들어가므로 호출마다 문자열을 만들지 않음
+ */
+public class TraceAdvice {
+
+    @Advice.OnMethodEnter
+    public static Object enter(@Advice.Origin("#t.#m") String origin) {
+        return TraceAgentBridge.enter(origin);
+    }
+
+    @Advice.OnMethodExit(onThrowable = Throwable.class)
+    public static void exit(@Advice.Enter Object token, @Advice.Thrown Throwable thrown) {
+        TraceAgentBridge.exit(token, thrown);
+    }
+}
@@ -0,0 +1,74 @@
+package hello.proxy.agent;
+
+import net.bytebuddy.agent.builder.AgentBuilder;
+import net.bytebuddy.agent.builder.ResettableClassFileTransformer;
+
+import java.lang.instrument.Instrumentation;
+
+/**
+ * 실행 중인 JVM 에 붙여서(attach) hello.proxy.app 메서드에 로그 추적을 켜고 끄는 자바 에이전트
+ * - on:{패턴,...} : 패턴에 맞는 메서드에 TraceAdvice 를 넣음. 이미 로딩된 클래스는 retransformClasses 로 다시 변환
+ *                  이미 켜져 있으면 기존 계측을 되돌린 뒤 새 패턴으로 다시 계측함
+ * - off : 계측을 모두 되돌림 (원래 바이트코드로 retransform)
+ * - 계측된 메서드는 TraceAgentBridge 를 통해 애플리케이션의 LogTrace 에 로그를 남김
+ *
+ * 에이전트 jar 는 ./gradlew agentJar 로 만들고 TraceAgentAttacher 로 붙임
+ * 에이전트 jar 를 여러 번 붙여도 같은 클래스가 사용되므로 static 필드로 현재 상태를 유지함
+ */
+public class TraceAgent {
+
+    private static final String ON = "on:";
+    private static final String OFF = "off";
+
+    private static ResettableClassFileTransformer transformer;
+    private static TracePatterns activePatterns;
+
+    /**
+     * -javaagent 로 시작할 때
+     */
+    public static void premain(String arguments, Instrumentation instrumentation) {
+        agentmain(arguments, instrumentation);
+    }
+
+    /**
+     * 실행 중인 JVM 에 붙였을 때
+     */
+    public static synchronized void agentmain(String arguments, Instrumentation instrumentation) {
+        String command = arguments == null ? "" : arguments.trim();
+        if (command.startsWith(ON)) {
+            reset(instrumentation);
+            install(TracePatterns.parse(command.substring(ON.length())), instrumentation);
+        } else if (command.equals(OFF)) {
+            reset(instrumentation);
+        } else {
+            throw new IllegalArgumentException("unknown trace agent command: " + command + " (on:<pattern,...> | off)");
+        }
+    }
+
+    private static void install(TracePatterns patterns, Instrumentation instrumentation) {
+        transformer = new AgentBuilder.Default()
+                .disableClassFormatChanges()
+                .with(AgentBuilder.RedefinitionStrategy.RETRANSFORMATION)
+                .type(patterns.typeMatcher())
+                .transform(new AgentBuilder.Transformer.ForAdvice()
+                        .include(TraceAgent.class.getClassLoader())
+                        .advice(patterns.methodMatcher(), TraceAdvice.class.getName()))
+                .installOn(instrumentation);
+        activePatterns = patterns;
+        System.out.println("[trace-agent] on " + patterns);
+    }
+
+    private static void reset(Instrumentation instrumentation) {
+        if (transformer == null) {
+            return;
+        }
+        transformer.reset(instrumentation, AgentBuilder.RedefinitionStrategy.RETRANSFORMATION);
+        System.out.println("[trace-agent] off " + activePatterns);
+        transformer = null;
+        activePatterns = null;
+    }
+
+    public static synchronized TracePatterns getActivePatterns() {
+        return activePatterns;
+    }
+}
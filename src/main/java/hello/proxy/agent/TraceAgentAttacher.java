@@ -0,0 +1,34 @@
+package hello.proxy.agent;
+
+import com.sun.tools.attach.VirtualMachine;
+
+import java.io.File;
+import java.util.Arrays;
+
+/**
+ * 실행 중인 JVM 에 TraceAgent 를 붙이는 도구 (에이전트 jar 의 Main-Class)
+ * - java -jar proxy-trace-agent.jar {pid} on hello.proxy.app.*
+ * - java -jar proxy-trace-agent.jar {pid} on hello.proxy.app.v1.*#order*,hello.proxy.app.v2.OrderControllerV2#request
+ * - java -jar proxy-trace-agent.jar {pid} off
+ * 대상 JVM 은 에이전트 jar 를 시스템 클래스패스에 추가하고 TraceAgent.agentmain() 을 호출함
+ */
+public class TraceAgentAttacher {
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 2 || !(args[1].equals("on") && args.length > 2 || args[1].equals("off"))) {
+            throw new IllegalArgumentException("usage: TraceAgentAttacher <pid> on <pattern>... | <pid> off");
+        }
+        String command = args[1].equals("on")
+                ? "on:" + String.join(",", Arrays.copyOfRange(args, 2, args.length))
+                : "off";
+
+        File agentJar = new File(TraceAgentAttacher.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+        VirtualMachine vm = VirtualMachine.attach(args[0]);
+        try {
+            vm.loadAgent(agentJar.getAbsolutePath(), command);
+        } finally {
+            vm.detach();
+        }
+        System.out.println("trace agent " + command + " -> pid " + args[0]);
+    }
+}
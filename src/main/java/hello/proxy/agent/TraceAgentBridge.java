@@ -0,0 +1,48 @@
+package hello.proxy.agent;
+
+/**
+ * 에이전트가 넣은 코드와 애플리케이션의 LogTrace 를 연결하는 통로
+ * - 계측된 메서드는 이 클래스의 static 메서드만 호출함. 이 클래스는 에이전트 jar 에 넣지 않으므로
+ *   계측된 클래스의 클래스 로더(애플리케이션)에 있는 이 클래스가 사용됨 -> 애플리케이션이 등록한 TraceSink 가 그대로 보임
+ * - TraceSink 가 없으면(애플리케이션이 아직 등록 전) 아무것도 하지 않음
+ */
+public final class TraceAgentBridge {
+
+    private static volatile TraceSink sink;
+
+    private TraceAgentBridge() {
+    }
+
+    public static void install(TraceSink traceSink) {
+        sink = traceSink;
+    }
+
+    public static void uninstall(TraceSink traceSink) {
+        if (sink == traceSink) {
+            sink = null;
+        }
+    }
+
+    /**
+     * @param origin 계측된 메서드 ("패키지.클래스.메서드"). 계측 시점에 상수로 들어감
+     * @return exit() 에 그대로 넘길 값
+     */
+    public static Object enter(String origin) {
+        TraceSink traceSink = sink;
+        return traceSink == null ? null : traceSink.enter(origin);
+    }
+
+    public static void exit(Object token, Throwable thrown) {
+        TraceSink traceSink = sink;
+        if (token != null && traceSink != null) {
+            traceSink.exit(token, thrown);
+        }
+    }
+
+    public interface TraceSink {
+
+        Object enter(String origin);
+
+        void exit(Object token, Throwable thrown);
+    }
+}
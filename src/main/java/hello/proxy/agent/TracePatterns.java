@@ -0,0 +1,86 @@
+package hello.proxy.agent;
+
+import net.bytebuddy.description.method.MethodDescription;
+import net.bytebuddy.description.type.TypeDescription;
+import net.bytebuddy.matcher.ElementMatcher;
+import net.bytebuddy.matcher.ElementMatchers;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import static net.bytebuddy.matcher.ElementMatchers.*;
+
+/**
+ * 계측 대상 패턴 목록
+ * - 패턴 형식 : {클래스 이름 패턴}[#{메서드 이름 패턴}], '*' 는 아무 문자열 (패키지 구분자 포함)
+ *   (ex) hello.proxy.app.*  hello.proxy.app.v1.OrderServiceV1Impl#orderItem  hello.proxy.app.v2.*#request*
+ * - 스프링이 만든 CGLIB 프록시 클래스($$)와 추상/합성 메서드, 생성자는 제외
+ */
+public class TracePatterns {
+
+    private final List<String> patterns;
+    private final ElementMatcher.Junction<TypeDescription> typeMatcher;
+    private final ElementMatcher.Junction<MethodDescription> methodMatcher;
+
+    private TracePatterns(List<String> patterns) {
+        ElementMatcher.Junction<TypeDescription> types = none();
+        ElementMatcher.Junction<MethodDescription> methods = none();
+        for (String pattern : patterns) {
+            int hash = pattern.indexOf('#');
+            String typePattern = hash < 0 ? pattern : pattern.substring(0, hash);
+            String methodPattern = hash < 0 ? "*" : pattern.substring(hash + 1);
+            types = types.or(ElementMatchers.<TypeDescription>nameMatches(toRegex(typePattern)));
+            methods = methods.or(isDeclaredBy(nameMatches(toRegex(typePattern))).and(nameMatches(toRegex(methodPattern))));
+        }
+        this.patterns = Collections.unmodifiableList(patterns);
+        this.typeMatcher = types.and(not(isInterface())).and(not(nameContains("$$")));
+        this.methodMatcher = methods.and(isMethod()).and(not(isAbstract())).and(not(isSynthetic()));
+    }
+
+    /**
+     * 콤마로 구분된 패턴 목록
+     */
+    public static TracePatterns parse(String patterns) {
+        List<String> result = new ArrayList<>();
+        for (String pattern : patterns.split(",")) {
+            if (!pattern.trim().isEmpty()) {
+                result.add(pattern.trim());
+            }
+        }
+        if (result.isEmpty()) {
+            throw new IllegalArgumentException("no trace pattern: " + patterns);
+        }
+        return new TracePatterns(result);
+    }
+
+    private static String toRegex(String pattern) {
+        String[] parts = pattern.split("\\*", -1);
+        StringBuilder regex = new StringBuilder();
+        for (int i = 0; i < parts.length; i++) {
+            if (i > 0) {
+                regex.append(".*");
+            }
+            regex.append(Pattern.quote(parts[i]));
+        }
+        return regex.toString();
+    }
+
+    public ElementMatcher.Junction<TypeDescription> typeMatcher() {
+        return typeMatcher;
+    }
+
+    public ElementMatcher.Junction<MethodDescription> methodMatcher() {
+        return methodMatcher;
+    }
+
+    public List<String> getPatterns() {
+        return patterns;
+    }
+
+    @Override
+    public String toString() {
+        return String.join(",", patterns);
+    }
+}
@@ -0,0 +1,213 @@
+package hello.proxy.app.bulk;
+
+import hello.proxy.infra.partition.PartitionedExecutor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * 여러 itemId 를 한 요청에서 병렬로 주문하고 항목별 결과를 반환
+ * - 실행은 일괄 주문 전용 스레드 풀 (threads 개, 대기 작업은 queueCapacity 개로 제한됨)
+ *   requestAsync 가 사용하는 PartitionedExecutor 와 스레드를 나눠 쓰지 않으므로 일괄 주문이 단건 비동기 주문을 밀어내지 않음
+ * - partitions 를 넘기면(opt-in) 대신 PartitionedExecutor 의 shard 스레드에서 실행
+ *   같은 itemId 는 같은 shard 에서 순서대로 실행되어야 할 때만 사용 (같은 shard 의 항목은 동시에 실행되지 않음)
+ * - 요청 스레드의 TraceId 가 실행 스레드로 넘어가므로(taskDecorator) 모든 항목이 컨트롤러 추적(root)의 자식으로 기록됨
+ * - 항목 하나가 실패해도 나머지는 계속 진행. 결과는 요청한 순서대로 반환
+ * - 큐가 가득 차서 거절된 항목은 실패 결과로 반환 (요청 스레드에서 대신 실행하지 않음)
+ * - 가장 늦게 끝난 항목을 critical path 로 표시하고 로그로 남김 (일괄 주문 전체 시간 = 이 항목이 끝난 시간)
+ *   실행 시간만 비교하면 큐에서 기다린 시간이 빠지므로, submit 한 시점부터 끝날 때까지의 시간(completedMillis)으로 비교
+ * - stream : 결과를 모으지 않고 끝나는 순서대로 바로 내보냄. 동시에 진행하는 항목 수를 스레드(shard) 수 * STREAM_WINDOW_PER_THREAD 로 제한하고
+ *   결과를 하나 내보내야 다음 항목을 시작하므로, 진행 중인 항목과 보내지 않은 결과는 일괄 주문 크기와 관계없이 window 개 이하
+ *   (요청 본문의 itemId 목록은 한 번에 읽으므로 그 크기만큼은 메모리를 사용함)
+ * - streaming : stream 을 streamExecutor 스레드에서 실행하고 결과를 NDJSON 응답으로 보냄 (BulkOrderConfig 에서 등록)
+ */
+@Slf4j
+public class BulkOrderRunner implements AutoCloseable {
+
+    private static final int STREAM_WINDOW_PER_THREAD = 4;
+
+    private final ThreadPoolExecutor itemExecutor;
+    private final PartitionedExecutor partitions;
+    private final Executor streamExecutor;
+    private final TaskDecorator taskDecorator;
+    private final Duration streamTimeout;
+
+    /**
+     * threads         : 일괄 주문 전용 스레드 수
+     * queueCapacity   : 전용 스레드 풀의 최대 대기 작업 수
+     * partitions      : null 이 아니면 전용 스레드 풀 대신 itemId 별 shard 에서 실행 (같은 itemId 의 순서가 필요할 때)
+     * streamExecutor  : streaming 응답을 만드는 스레드
+     * taskDecorator   : 요청 스레드의 문맥(TraceId)을 항목 실행 스레드와 streamExecutor 스레드로 넘김
+     * streamTimeout   : streaming 응답 하나의 최대 시간
+     */
+    public BulkOrderRunner(int threads, int queueCapacity, PartitionedExecutor partitions, Executor streamExecutor,
+                           TaskDecorator taskDecorator, Duration streamTimeout) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("threads must be positive: " + threads);
+        }
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("bulk-order-");
+        threadFactory.setDaemon(true);
+        this.itemExecutor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(queueCapacity), threadFactory);
+        this.itemExecutor.allowCoreThreadTimeOut(true);
+        this.partitions = partitions;
+        this.streamExecutor = streamExecutor;
+        this.taskDecorator = taskDecorator;
+        this.streamTimeout = streamTimeout;
+    }
+
+    public List<OrderResult> run(List<String> itemIds, Consumer<String> order) {
+        long start = System.nanoTime();
+        List<CompletableFuture<OrderResult>> futures = new ArrayList<>(itemIds.size());
+        for (String itemId : itemIds) {
+            futures.add(submit(itemId, () -> orderOne(itemId, order, start))
+                    .exceptionally(e -> rejected(itemId, e, start)));
+        }
+        List<OrderResult> results = new ArrayList<>(itemIds.size());
+        for (CompletableFuture<OrderResult> future : futures) {
+            results.add(future.join());
+        }
+        highlightCriticalPath(results, millisSince(start));
+        return results;
+    }
+
+    /**
+     * 결과를 한 줄씩 NDJSON 으로 보내는 응답
+     * 주문은 streamExecutor 스레드에서 진행되고 컨트롤러의 추적은 먼저 끝나므로, 요청 스레드의 문맥(TraceId)을 지금 담아 두고 그 스레드에서 다시 붙임
+     * -> 각 주문이 새 추적(root)이 아니라 요청의 추적으로 기록됨
+     */
+    public ResponseBodyEmitter streaming(List<String> itemIds, Consumer<String> order) {
+        NdjsonEmitter emitter = new NdjsonEmitter(streamTimeout.toMillis());
+        Runnable body = () -> {
+            try {
+                stream(itemIds, order, emitter::sendLine);
+                emitter.complete();
+            } catch (UncheckedIOException e) {
+                //클라이언트 연결이 끊긴 경우 등
+                emitter.completeWithError(e.getCause());
+            } catch (RuntimeException e) {
+                //streamTimeout 이 지나서 이미 끝난 응답에 보내려는 경우 등
+                emitter.completeWithError(e);
+            }
+        };
+        try {
+            streamExecutor.execute(taskDecorator.decorate(body));
+        } catch (RejectedExecutionException e) {
+            emitter.completeWithError(e);
+        }
+        return emitter;
+    }
+
+    /**
+     * 끝나는 순서대로 sink 에 전달. sink 가 막히면(느린 클라이언트) 새 항목을 시작하지 않음
+     */
+    public void stream(List<String> itemIds, Consumer<String> order, Consumer<OrderResult> sink) {
+        long start = System.nanoTime();
+        int threads = partitions != null ? partitions.getShardCount() : itemExecutor.getMaximumPoolSize();
+        int window = threads * STREAM_WINDOW_PER_THREAD;
+        //진행 중인 항목이 window 개를 넘지 않으므로 결과 큐가 가득 차는 일은 없음
+        BlockingQueue<OrderResult> completed = new ArrayBlockingQueue<>(window);
+        int submitted = 0;
+        for (int written = 0; written < itemIds.size(); written++) {
+            while (submitted < itemIds.size() && submitted - written < window) {
+                String itemId = itemIds.get(submitted++);
+                submit(itemId, () -> orderOne(itemId, order, start))
+                        .exceptionally(e -> rejected(itemId, e, start))
+                        .thenAccept(completed::add);
+            }
+            sink.accept(take(completed));
+        }
+    }
+
+    /**
+     * partitions 가 있으면 itemId 의 shard 에서, 없으면 전용 스레드 풀에서 실행
+     * 큐가 가득 차서 거절되면 예외로 완료된 future 를 반환 (rejected() 가 실패 결과로 바꿈)
+     */
+    private CompletableFuture<OrderResult> submit(String itemId, Supplier<OrderResult> task) {
+        if (partitions != null) {
+            return partitions.submit(itemId, task);
+        }
+        CompletableFuture<OrderResult> future = new CompletableFuture<>();
+        try {
+            itemExecutor.execute(taskDecorator.decorate(() -> {
+                try {
+                    future.complete(task.get());
+                } catch (Throwable e) {
+                    future.completeExceptionally(e);
+                }
+            }));
+        } catch (RejectedExecutionException e) {
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    private static OrderResult take(BlockingQueue<OrderResult> completed) {
+        try {
+            return completed.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("interrupted while streaming order results", e);
+        }
+    }
+
+    private static Throwable unwrap(Throwable e) {
+        return e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+    }
+
+    /**
+     * batchStart : 일괄 주문을 시작한 시점 (System.nanoTime)
+     */
+    private OrderResult orderOne(String itemId, Consumer<String> order, long batchStart) {
+        long start = System.nanoTime();
+        try {
+            order.accept(itemId);
+            return OrderResult.success(itemId, millisSince(start), millisSince(batchStart));
+        } catch (RuntimeException e) {
+            return OrderResult.failure(itemId, e, millisSince(start), millisSince(batchStart));
+        }
+    }
+
+    /**
+     * 큐가 가득 차서 거절된 항목은 실패 결과로 바꿈 (거절된 시점을 완료 시간으로 기록)
+     */
+    private static OrderResult rejected(String itemId, Throwable e, long batchStart) {
+        return OrderResult.failure(itemId, unwrap(e), 0, millisSince(batchStart));
+    }
+
+    private static long millisSince(long startNanos) {
+        return (System.nanoTime() - startNanos) / 1_000_000;
+    }
+
+    private void highlightCriticalPath(List<OrderResult> results, long totalMillis) {
+        results.stream()
+                .max(Comparator.comparingLong(OrderResult::getCompletedMillis))
+                .ifPresent(critical -> {
+                    critical.markCriticalPath();
+                    log.info("bulk order size={} time={}ms critical path={}", results.size(), totalMillis, critical);
+                });
+    }
+
+    @Override
+    public void close() {
+        itemExecutor.shutdown();
+    }
+}
@@ -0,0 +1,44 @@
+package hello.proxy.app.bulk;
+
+import org.springframework.http.MediaType;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * OrderResult 를 한 줄에 하나씩 JSON 으로 보내는 응답 (newline-delimited JSON)
+ * - 직렬화는 스프링 MVC 의 메시지 컨버터가 함 -> 스프링 부트가 만든 ObjectMapper (spring.jackson.* 설정)를 그대로 사용
+ * - timeout 은 이 응답에만 적용됨 (spring.mvc.async.request-timeout 으로 모든 비동기 응답의 시간을 늘리지 않음)
+ * - 한 건을 보낼 때마다 flush 되어 클라이언트가 바로 읽을 수 있음
+ * - 클라이언트가 느리게 읽으면 send 가 막히고, 그동안 다음 주문을 시작하지 않음 (BulkOrderRunner.stream)
+ */
+public class NdjsonEmitter extends ResponseBodyEmitter {
+
+    private static final String NEWLINE = "\n";
+
+    public NdjsonEmitter(long timeoutMillis) {
+        super(timeoutMillis);
+    }
+
+    @Override
+    protected void extendResponse(ServerHttpResponse outputMessage) {
+        super.extendResponse(outputMessage);
+        outputMessage.getHeaders().setContentType(MediaType.APPLICATION_NDJSON);
+    }
+
+    /**
+     * JSON 과 줄바꿈을 다른 send 와 섞이지 않게 이어서 보냄 (SseEmitter 와 같은 방식)
+     */
+    public void sendLine(OrderResult result) {
+        try {
+            synchronized (this) {
+                send(result, MediaType.APPLICATION_JSON);
+                send(NEWLINE, MediaType.TEXT_PLAIN);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
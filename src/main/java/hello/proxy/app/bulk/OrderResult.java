@@ -0,0 +1,68 @@
+package hello.proxy.app.bulk;
+
+/**
+ * 일괄 주문에서 항목 하나의 결과
+ * - error : 실패한 경우 예외 메시지, 성공이면 null
+ * - elapsedMillis : 항목을 실행한 시간 (shard 큐에서 기다린 시간 제외)
+ * - completedMillis : 일괄 주문을 시작(submit)한 뒤 이 항목이 끝날 때까지 걸린 시간 (같은 shard 의 앞 항목을 기다린 시간 포함)
+ * - criticalPath : 일괄 주문 전체 시간을 정한 항목 (completedMillis 가 가장 큰 항목. 실행 시간이 가장 긴 항목과 다를 수 있음)
+ */
+public class OrderResult {
+
+    private final String itemId;
+    private final boolean success;
+    private final String error;
+    private final long elapsedMillis;
+    private final long completedMillis;
+    private boolean criticalPath;
+
+    private OrderResult(String itemId, boolean success, String error, long elapsedMillis, long completedMillis) {
+        this.itemId = itemId;
+        this.success = success;
+        this.error = error;
+        this.elapsedMillis = elapsedMillis;
+        this.completedMillis = completedMillis;
+    }
+
+    public static OrderResult success(String itemId, long elapsedMillis, long completedMillis) {
+        return new OrderResult(itemId, true, null, elapsedMillis, completedMillis);
+    }
+
+    public static OrderResult failure(String itemId, Throwable e, long elapsedMillis, long completedMillis) {
+        return new OrderResult(itemId, false, e.getClass().getSimpleName() + ": " + e.getMessage(), elapsedMillis, completedMillis);
+    }
+
+    void markCriticalPath() {
+        this.criticalPath = true;
+    }
+
+    public String getItemId() {
+        return itemId;
+    }
+
+    public boolean isSuccess() {
+        return success;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    public long getCompletedMillis() {
+        return completedMillis;
+    }
+
+    public boolean isCriticalPath() {
+        return criticalPath;
+    }
+
+    @Override
+    public String toString() {
+        return "OrderResult[" + itemId + (success ? " ok" : " " + error) + " " + elapsedMillis + "ms (done at " + completedMillis + "ms)"
+                + (criticalPath ? " critical" : "") + "]";
+    }
+}
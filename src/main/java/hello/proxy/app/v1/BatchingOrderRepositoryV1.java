@@ -0,0 +1,37 @@
+package hello.proxy.app.v1;
+
+import hello.proxy.infra.batch.GroupCommitter;
+import hello.proxy.infra.store.OrderIndex;
+import hello.proxy.infra.store.OrderRecord;
+
+import java.util.Optional;
+
+/**
+ * 저장 요청을 GroupCommitter 로 모아서 한 번에 저장하는 OrderRepositoryV1
+ * 호출한 스레드는 자기 항목이 저장될 때까지 기다림 (기존 save 와 같은 의미)
+ */
+public class BatchingOrderRepositoryV1 implements OrderRepositoryV1 {
+
+    private final GroupCommitter<String> committer;
+    private final OrderIndex orderIndex = new OrderIndex();
+
+    public BatchingOrderRepositoryV1(GroupCommitter<String> committer) {
+        this.committer = committer;
+    }
+
+    @Override
+    public void save(String itemId) {
+        committer.commit(itemId);
+        orderIndex.add(itemId);
+    }
+
+    @Override
+    public Optional<OrderRecord> findOrder(String itemId) {
+        return Optional.ofNullable(orderIndex.findLatest(itemId));
+    }
+
+    @Override
+    public long countOrders(String itemId) {
+        return orderIndex.count(itemId);
+    }
+}
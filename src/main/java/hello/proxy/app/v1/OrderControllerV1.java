@@ -1,9 +1,18 @@
 package hello.proxy.app.v1;
 
+import hello.proxy.app.bulk.OrderResult;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * 스프링은 @Controller 또는 @RequestMapping 이 있어야 스프링 컨트롤러로 인식
@@ -16,6 +25,27 @@ public interface OrderControllerV1 {
     @GetMapping("/v1/request")
     String request(@RequestParam("itemId") String itemId);
 
+    /**
+     * itemId 의 shard 스레드에서 주문하고 완료되면 응답 (요청 스레드는 바로 반환됨)
+     */
+    @GetMapping("/v1/request-async")
+    CompletableFuture<String> requestAsync(@RequestParam("itemId") String itemId);
+
+    /**
+     * 여러 itemId 를 한 번에 병렬로 주문 (요청 본문 : ["itemA", "itemB", ...])
+     */
+    @PostMapping("/v1/requests")
+    List<OrderResult> requestAll(@RequestBody List<String> itemIds);
+
+    /**
+     * requestAll 과 같지만 결과를 모으지 않고 끝나는 순서대로 한 줄씩 보냄 (application/x-ndjson, order.bulk.stream-timeout 까지)
+     */
+    @PostMapping(value = "/v1/requests/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    ResponseBodyEmitter requestAllStream(@RequestBody List<String> itemIds);
+
+    @GetMapping("/v1/orders")
+    Map<String, Object> findOrder(@RequestParam("itemId") String itemId);
+
     @GetMapping("/v1/no-log")
     String noLog();
 }
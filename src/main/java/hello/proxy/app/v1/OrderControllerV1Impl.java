@@ -1,11 +1,33 @@
 package hello.proxy.app.v1;
 
+import hello.proxy.app.bulk.BulkOrderRunner;
+import hello.proxy.app.bulk.OrderResult;
+import hello.proxy.infra.partition.PartitionedExecutor;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
 public class OrderControllerV1Impl implements OrderControllerV1{
 
     private final OrderServiceV1 orderService;
+    private final PartitionedExecutor partitions;
+    private final BulkOrderRunner bulkOrderRunner;
 
     public OrderControllerV1Impl(OrderServiceV1 orderService) {
+        this(orderService, null, null);
+    }
+
+    /**
+     * partitions 가 없으면 requestAsync 도 요청 스레드에서 바로 실행
+     * bulkOrderRunner 가 없으면 일괄 주문(requests)은 사용할 수 없음
+     */
+    public OrderControllerV1Impl(OrderServiceV1 orderService, PartitionedExecutor partitions, BulkOrderRunner bulkOrderRunner) {
         this.orderService = orderService;
+        this.partitions = partitions;
+        this.bulkOrderRunner = bulkOrderRunner;
     }
 
     @Override
@@ -14,6 +36,46 @@ public class OrderControllerV1Impl implements OrderControllerV1{
         return "ok";
     }
 
+    @Override
+    public CompletableFuture<String> requestAsync(String itemId) {
+        if (partitions == null) {
+            return CompletableFuture.completedFuture(request(itemId));
+        }
+        return partitions.submit(itemId, () -> {
+            orderService.orderItem(itemId);
+            return "ok";
+        });
+    }
+
+    @Override
+    public List<OrderResult> requestAll(List<String> itemIds) {
+        return bulkOrderRunner().run(itemIds, orderService::orderItem);
+    }
+
+    @Override
+    public ResponseBodyEmitter requestAllStream(List<String> itemIds) {
+        return bulkOrderRunner().streaming(itemIds, orderService::orderItem);
+    }
+
+    @Override
+    public Map<String, Object> findOrder(String itemId) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("itemId", itemId);
+        result.put("count", orderService.countOrders(itemId));
+        orderService.findOrder(itemId).ifPresent(record -> {
+            result.put("lastOffset", record.getOffset());
+            result.put("lastOrderedAt", record.getTimestampMillis());
+        });
+        return result;
+    }
+
+    private BulkOrderRunner bulkOrderRunner() {
+        if (bulkOrderRunner == null) {
+            throw new IllegalStateException("bulk order is not configured");
+        }
+        return bulkOrderRunner;
+    }
+
     @Override
     public String noLog() {
         return "ok";
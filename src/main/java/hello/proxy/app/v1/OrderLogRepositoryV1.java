@@ -0,0 +1,43 @@
+package hello.proxy.app.v1;
+
+import hello.proxy.infra.store.OrderIndex;
+import hello.proxy.infra.store.OrderLog;
+import hello.proxy.infra.store.OrderRecord;
+
+import java.util.Optional;
+
+/**
+ * 주문을 OrderLog(memory-mapped append-only 로그)에 저장하는 OrderRepositoryV1
+ * 항목 검사는 OrderRepositoryV1Impl 과 같고, 저장 시간은 sleep 대신 실제 쓰기와 force 비용임
+ * 조회용 OrderIndex 는 시작할 때 로그 전체를 읽어서 다시 만듦 (압축이 합친 기록은 합친 주문 수(count)만큼 더함)
+ */
+public class OrderLogRepositoryV1 implements OrderRepositoryV1 {
+
+    private final OrderLog orderLog;
+    private final OrderIndex orderIndex = new OrderIndex();
+
+    public OrderLogRepositoryV1(OrderLog orderLog) {
+        this.orderLog = orderLog;
+        orderLog.forEach(record -> orderIndex.add(record.getItemId(), record.getCount(), record.getOffset(), record.getTimestampMillis()));
+    }
+
+    @Override
+    public void save(String itemId) {
+        if (itemId.equals("ex")) {
+            throw new IllegalStateException("예외 발생!");
+        }
+        //재시작 후 로그에서 다시 만든 인덱스와 같은 값이 되도록 로그에 쓴 timestamp 를 사용
+        OrderRecord record = orderLog.appendRecord(itemId);
+        orderIndex.add(itemId, record.getOffset(), record.getTimestampMillis());
+    }
+
+    @Override
+    public Optional<OrderRecord> findOrder(String itemId) {
+        return Optional.ofNullable(orderIndex.findLatest(itemId));
+    }
+
+    @Override
+    public long countOrders(String itemId) {
+        return orderIndex.count(itemId);
+    }
+}
@@ -1,6 +1,17 @@
 package hello.proxy.app.v1;
 
+import hello.proxy.infra.store.OrderRecord;
+
+import java.util.Optional;
+
 public interface OrderRepositoryV1 {
 
     void save(String itemId);
+
+    /**
+     * itemId 의 마지막 주문
+     */
+    Optional<OrderRecord> findOrder(String itemId);
+
+    long countOrders(String itemId);
 }
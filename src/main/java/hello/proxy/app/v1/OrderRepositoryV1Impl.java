@@ -1,7 +1,13 @@
 package hello.proxy.app.v1;
 
+import hello.proxy.infra.store.OrderIndex;
+import hello.proxy.infra.store.OrderRecord;
+
+import java.util.Optional;
+
 public class OrderRepositoryV1Impl implements OrderRepositoryV1{
 
+    private final OrderIndex orderIndex = new OrderIndex();
 
     @Override
     public void save(String itemId) {
@@ -10,6 +16,17 @@ public class OrderRepositoryV1Impl implements OrderRepositoryV1{
             throw new IllegalStateException("예외 발생!");
         }
         sleep(1000);
+        orderIndex.add(itemId);
+    }
+
+    @Override
+    public Optional<OrderRecord> findOrder(String itemId) {
+        return Optional.ofNullable(orderIndex.findLatest(itemId));
+    }
+
+    @Override
+    public long countOrders(String itemId) {
+        return orderIndex.count(itemId);
     }
 
     private void sleep(int millis){
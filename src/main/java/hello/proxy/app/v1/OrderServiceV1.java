@@ -1,6 +1,14 @@
 package hello.proxy.app.v1;
 
+import hello.proxy.infra.store.OrderRecord;
+
+import java.util.Optional;
+
 public interface OrderServiceV1 {
 
     void orderItem(String itemId);
+
+    Optional<OrderRecord> findOrder(String itemId);
+
+    long countOrders(String itemId);
 }
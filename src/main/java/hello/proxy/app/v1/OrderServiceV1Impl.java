@@ -1,5 +1,9 @@
 package hello.proxy.app.v1;
 
+import hello.proxy.infra.store.OrderRecord;
+
+import java.util.Optional;
+
 public class OrderServiceV1Impl implements OrderServiceV1{
 
     private final OrderRepositoryV1 orderRepository;
@@ -12,4 +16,14 @@ public class OrderServiceV1Impl implements OrderServiceV1{
     public void orderItem(String itemId) {
         orderRepository.save(itemId);
     }
+
+    @Override
+    public Optional<OrderRecord> findOrder(String itemId) {
+        return orderRepository.findOrder(itemId);
+    }
+
+    @Override
+    public long countOrders(String itemId) {
+        return orderRepository.countOrders(itemId);
+    }
 }
@@ -0,0 +1,21 @@
+package hello.proxy.app.v2;
+
+import hello.proxy.infra.batch.GroupCommitter;
+
+/**
+ * 저장 요청을 GroupCommitter 로 모아서 한 번에 저장하는 OrderRepositoryV2
+ */
+public class BatchingOrderRepositoryV2 extends OrderRepositoryV2 {
+
+    private final GroupCommitter<String> committer;
+
+    public BatchingOrderRepositoryV2(GroupCommitter<String> committer) {
+        this.committer = committer;
+    }
+
+    @Override
+    public void save(String itemId) {
+        committer.commit(itemId);
+        orderIndex.add(itemId);
+    }
+}
@@ -1,10 +1,22 @@
 package hello.proxy.app.v2;
 
+import hello.proxy.app.bulk.BulkOrderRunner;
+import hello.proxy.app.bulk.OrderResult;
 import hello.proxy.app.v1.OrderServiceV1;
+import hello.proxy.infra.partition.PartitionedExecutor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @Slf4j
 @RequestMapping
@@ -12,9 +24,21 @@ import org.springframework.web.bind.annotation.ResponseBody;
 public class OrderControllerV2 {
 
     private final OrderServiceV2 orderService;
+    private final PartitionedExecutor partitions;
+    private final BulkOrderRunner bulkOrderRunner;
 
     public OrderControllerV2(OrderServiceV2 orderService) {
+        this(orderService, null, null);
+    }
+
+    /**
+     * partitions 가 없으면 requestAsync 도 요청 스레드에서 바로 실행
+     * bulkOrderRunner 가 없으면 일괄 주문(requests)은 사용할 수 없음
+     */
+    public OrderControllerV2(OrderServiceV2 orderService, PartitionedExecutor partitions, BulkOrderRunner bulkOrderRunner) {
         this.orderService = orderService;
+        this.partitions = partitions;
+        this.bulkOrderRunner = bulkOrderRunner;
     }
 
     @GetMapping("/v2/request")
@@ -23,6 +47,46 @@ public class OrderControllerV2 {
         return "ok";
     }
 
+    @GetMapping("/v2/request-async")
+    public CompletableFuture<String> requestAsync(String itemId) {
+        if (partitions == null) {
+            return CompletableFuture.completedFuture(request(itemId));
+        }
+        return partitions.submit(itemId, () -> {
+            orderService.orderItem(itemId);
+            return "ok";
+        });
+    }
+
+    @PostMapping("/v2/requests")
+    public List<OrderResult> requestAll(@RequestBody List<String> itemIds) {
+        return bulkOrderRunner().run(itemIds, orderService::orderItem);
+    }
+
+    @PostMapping(value = "/v2/requests/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseBodyEmitter requestAllStream(@RequestBody List<String> itemIds) {
+        return bulkOrderRunner().streaming(itemIds, orderService::orderItem);
+    }
+
+    @GetMapping("/v2/orders")
+    public Map<String, Object> findOrder(String itemId) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("itemId", itemId);
+        result.put("count", orderService.countOrders(itemId));
+        orderService.findOrder(itemId).ifPresent(record -> {
+            result.put("lastOffset", record.getOffset());
+            result.put("lastOrderedAt", record.getTimestampMillis());
+        });
+        return result;
+    }
+
+    private BulkOrderRunner bulkOrderRunner() {
+        if (bulkOrderRunner == null) {
+            throw new IllegalStateException("bulk order is not configured");
+        }
+        return bulkOrderRunner;
+    }
+
 
     @GetMapping("/v2/no-log")
     public String noLog() {
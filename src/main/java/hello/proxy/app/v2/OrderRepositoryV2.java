@@ -1,13 +1,43 @@
 package hello.proxy.app.v2;
 
+import hello.proxy.infra.store.OrderIndex;
+import hello.proxy.infra.store.OrderRecord;
+
+import java.util.Optional;
+
 public class OrderRepositoryV2 {
 
+    protected final OrderIndex orderIndex;
+
+    public OrderRepositoryV2() {
+        this(new OrderIndex());
+    }
+
+    /**
+     * 모든 메서드를 다시 구현하는 하위 클래스(클래스 기반 프록시, 다른 저장소)는 인덱스가 필요 없으므로 null 을 넘김
+     */
+    protected OrderRepositoryV2(OrderIndex orderIndex) {
+        this.orderIndex = orderIndex;
+    }
+
     public void save(String itemId) {
 
         if(itemId.equals("ex")){
             throw new IllegalStateException("예외 발생!");
         }
         sleep(1000);
+        orderIndex.add(itemId);
+    }
+
+    /**
+     * itemId 의 마지막 주문
+     */
+    public Optional<OrderRecord> findOrder(String itemId) {
+        return Optional.ofNullable(orderIndex.findLatest(itemId));
+    }
+
+    public long countOrders(String itemId) {
+        return orderIndex.count(itemId);
     }
 
     private void sleep(int millis){
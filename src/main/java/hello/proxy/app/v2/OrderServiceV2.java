@@ -1,6 +1,9 @@
 package hello.proxy.app.v2;
 
 import hello.proxy.app.v1.OrderRepositoryV1;
+import hello.proxy.infra.store.OrderRecord;
+
+import java.util.Optional;
 
 public class OrderServiceV2 {
 
@@ -13,4 +16,12 @@ public class OrderServiceV2 {
     public void orderItem(String itemId) {
         orderRepository.save(itemId);
     }
+
+    public Optional<OrderRecord> findOrder(String itemId) {
+        return orderRepository.findOrder(itemId);
+    }
+
+    public long countOrders(String itemId) {
+        return orderRepository.countOrders(itemId);
+    }
 }
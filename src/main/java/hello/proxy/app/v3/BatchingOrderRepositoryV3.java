@@ -0,0 +1,22 @@
+package hello.proxy.app.v3;
+
+import hello.proxy.infra.batch.GroupCommitter;
+
+/**
+ * 저장 요청을 GroupCommitter 로 모아서 한 번에 저장하는 OrderRepositoryV3
+ * 컴포넌트 스캔 대상이 아님. GroupCommitConfig 에서 @Primary 로 등록해서 스캔된 OrderRepositoryV3 대신 주입됨
+ */
+public class BatchingOrderRepositoryV3 extends OrderRepositoryV3 {
+
+    private final GroupCommitter<String> committer;
+
+    public BatchingOrderRepositoryV3(GroupCommitter<String> committer) {
+        this.committer = committer;
+    }
+
+    @Override
+    public void save(String itemId) {
+        committer.commit(itemId);
+        orderIndex.add(itemId);
+    }
+}
@@ -0,0 +1,45 @@
+package hello.proxy.app.v3;
+
+import hello.proxy.infra.batch.GroupCommitter;
+import hello.proxy.infra.jdbc.JdbcOrderStore;
+import hello.proxy.infra.store.OrderRecord;
+
+import java.util.Optional;
+
+/**
+ * 주문을 JDBC(임베디드 DB)에 저장하는 OrderRepositoryV3
+ * - committer 가 있으면 GroupCommitter 로 모아서 JDBC 배치로 저장, 없으면 save 마다 insert 1번
+ * - 저장 시간은 sleep 대신 실제 statement 실행 시간이므로 로그 추적에도 그대로 보임
+ * - 조회도 DB 에서 함 (OrderIndex 사용 안 함)
+ * 컴포넌트 스캔 대상이 아님. JdbcOrderConfig 에서 @Primary 로 등록해서 스캔된 OrderRepositoryV3 대신 주입됨
+ */
+public class JdbcOrderRepositoryV3 extends OrderRepositoryV3 {
+
+    private final JdbcOrderStore store;
+    private final GroupCommitter<String> committer;
+
+    public JdbcOrderRepositoryV3(JdbcOrderStore store, GroupCommitter<String> committer) {
+        super(null);
+        this.store = store;
+        this.committer = committer;
+    }
+
+    @Override
+    public void save(String itemId) {
+        if (committer != null) {
+            committer.commit(itemId);
+        } else {
+            store.insert(itemId);
+        }
+    }
+
+    @Override
+    public Optional<OrderRecord> findOrder(String itemId) {
+        return Optional.ofNullable(store.findLatest(itemId));
+    }
+
+    @Override
+    public long countOrders(String itemId) {
+        return store.count(itemId);
+    }
+}
@@ -1,19 +1,40 @@
 package hello.proxy.app.v3;
 
+import hello.proxy.app.bulk.BulkOrderRunner;
+import hello.proxy.app.bulk.OrderResult;
+import hello.proxy.infra.partition.PartitionedExecutor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.ResponseBody;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @Slf4j
 @RestController
 public class OrderControllerV3 {
 
     private final OrderServiceV3 orderService;
+    private final PartitionedExecutor partitions;
+    private final BulkOrderRunner bulkOrderRunner;
 
-    public OrderControllerV3(OrderServiceV3 orderService) {
+    /**
+     * PartitionConfig 가 없으면 requestAsync 도 요청 스레드에서 바로 실행
+     */
+    public OrderControllerV3(OrderServiceV3 orderService, ObjectProvider<PartitionedExecutor> partitions,
+                             BulkOrderRunner bulkOrderRunner) {
         this.orderService = orderService;
+        this.partitions = partitions.getIfAvailable();
+        this.bulkOrderRunner = bulkOrderRunner;
     }
 
     @GetMapping("/v3/request")
@@ -22,6 +43,39 @@ public class OrderControllerV3 {
         return "ok";
     }
 
+    @GetMapping("/v3/request-async")
+    public CompletableFuture<String> requestAsync(String itemId) {
+        if (partitions == null) {
+            return CompletableFuture.completedFuture(request(itemId));
+        }
+        return partitions.submit(itemId, () -> {
+            orderService.orderItem(itemId);
+            return "ok";
+        });
+    }
+
+    @PostMapping("/v3/requests")
+    public List<OrderResult> requestAll(@RequestBody List<String> itemIds) {
+        return bulkOrderRunner.run(itemIds, orderService::orderItem);
+    }
+
+    @PostMapping(value = "/v3/requests/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseBodyEmitter requestAllStream(@RequestBody List<String> itemIds) {
+        return bulkOrderRunner.streaming(itemIds, orderService::orderItem);
+    }
+
+    @GetMapping("/v3/orders")
+    public Map<String, Object> findOrder(String itemId) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("itemId", itemId);
+        result.put("count", orderService.countOrders(itemId));
+        orderService.findOrder(itemId).ifPresent(record -> {
+            result.put("lastOffset", record.getOffset());
+            result.put("lastOrderedAt", record.getTimestampMillis());
+        });
+        return result;
+    }
+
 
     @GetMapping("/v3/no-log")
     public String noLog() {
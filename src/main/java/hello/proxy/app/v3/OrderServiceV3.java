@@ -1,7 +1,10 @@
 package hello.proxy.app.v3;
 
+import hello.proxy.infra.store.OrderRecord;
 import org.springframework.stereotype.Service;
 
+import java.util.Optional;
+
 @Service
 public class OrderServiceV3 {
 
@@ -14,4 +17,12 @@ public class OrderServiceV3 {
     public void orderItem(String itemId) {
         orderRepository.save(itemId);
     }
+
+    public Optional<OrderRecord> findOrder(String itemId) {
+        return orderRepository.findOrder(itemId);
+    }
+
+    public long countOrders(String itemId) {
+        return orderRepository.countOrders(itemId);
+    }
 }
@@ -1,16 +1,36 @@
 package hello.proxy.config;
 
+import hello.proxy.app.bulk.BulkOrderRunner;
 import hello.proxy.app.v1.*;
+import hello.proxy.infra.batch.GroupCommitter;
+import hello.proxy.infra.partition.PartitionedExecutor;
+import hello.proxy.infra.store.OrderLog;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 @Configuration
 public class AppV1Config {
 
+    private final ObjectProvider<OrderLog> orderLog;
+    private final ObjectProvider<GroupCommitter<String>> orderGroupCommitter;
+    private final ObjectProvider<PartitionedExecutor> orderPartitions;
 
+    public AppV1Config(ObjectProvider<OrderLog> orderLog, @Qualifier("orderGroupCommitter") ObjectProvider<GroupCommitter<String>> orderGroupCommitter,
+                       ObjectProvider<PartitionedExecutor> orderPartitions) {
+        this.orderLog = orderLog;
+        this.orderGroupCommitter = orderGroupCommitter;
+        this.orderPartitions = orderPartitions;
+    }
+
+    /**
+     * order.partition.enabled=true 이면 requestAsync 를 itemId 별 shard 에서 실행 (PartitionConfig)
+     * 일괄 주문은 BulkOrderRunner 가 실행 (BulkOrderConfig)
+     */
     @Bean
-    public OrderControllerV1 orderControllerV1(){
-        return new OrderControllerV1Impl(orderServiceV1());
+    public OrderControllerV1 orderControllerV1(BulkOrderRunner bulkOrderRunner){
+        return new OrderControllerV1Impl(orderServiceV1(), orderPartitions.getIfAvailable(), bulkOrderRunner);
     }
 
     @Bean
@@ -18,8 +38,12 @@ public class AppV1Config {
         return new OrderServiceV1Impl(orderRepositoryV1());
     }
 
+    /**
+     * order.log.enabled=true 이면 memory-mapped 로그에 저장하는 저장소 사용 (OrderLogConfig)
+     * order.group-commit.enabled=true 이면 저장 요청을 모아서 저장하는 저장소 사용 (GroupCommitConfig)
+     */
     @Bean
     public OrderRepositoryV1 orderRepositoryV1(){
-        return new OrderRepositoryV1Impl();
+        return OrderRepositories.v1(orderLog.getIfAvailable(), orderGroupCommitter.getIfAvailable());
     }
 }
@@ -1,24 +1,46 @@
 package hello.proxy.config;
+import hello.proxy.app.bulk.BulkOrderRunner;
 import hello.proxy.app.v2.OrderControllerV2;
 import hello.proxy.app.v2.OrderRepositoryV2;
 import hello.proxy.app.v2.OrderServiceV2;
+import hello.proxy.infra.batch.GroupCommitter;
+import hello.proxy.infra.partition.PartitionedExecutor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 @Configuration
 public class AppV2Config {
 
+    private final ObjectProvider<GroupCommitter<String>> orderGroupCommitter;
+    private final ObjectProvider<PartitionedExecutor> orderPartitions;
 
+    public AppV2Config(@Qualifier("orderGroupCommitter") ObjectProvider<GroupCommitter<String>> orderGroupCommitter,
+                       ObjectProvider<PartitionedExecutor> orderPartitions) {
+        this.orderGroupCommitter = orderGroupCommitter;
+        this.orderPartitions = orderPartitions;
+    }
+
+    /**
+     * order.partition.enabled=true 이면 requestAsync 를 itemId 별 shard 에서 실행 (PartitionConfig)
+     * 일괄 주문은 BulkOrderRunner 가 실행 (BulkOrderConfig)
+     */
     @Bean
-    public OrderControllerV2 orderControllerV2(){return new OrderControllerV2(orderServiceV2());}
+    public OrderControllerV2 orderControllerV2(BulkOrderRunner bulkOrderRunner){
+        return new OrderControllerV2(orderServiceV2(), orderPartitions.getIfAvailable(), bulkOrderRunner);
+    }
 
     @Bean
     public OrderServiceV2 orderServiceV2(){
         return new OrderServiceV2(orderRepositoryV2());
     }
 
+    /**
+     * order.group-commit.enabled=true 이면 저장 요청을 모아서 저장하는 저장소 사용 (GroupCommitConfig)
+     */
     @Bean
     public OrderRepositoryV2 orderRepositoryV2(){
-        return new OrderRepositoryV2();
+        return OrderRepositories.v2(orderGroupCommitter.getIfAvailable());
     }
 }
@@ -0,0 +1,32 @@
+package hello.proxy.config;
+
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.util.StringUtils;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * "패턴=시간,패턴=시간" 형식의 설정값을 읽음 (시간은 300ms, 1s 처럼 지정, 숫자만 쓰면 ms)
+ * (ex) proxy.hedge.method-timeouts=OrderRepositoryV1.find*=300ms,*Service*.find*=1s
+ *      trace.deadline.endpoints=/v1/request=2s,/v2/**=3s
+ * 순서를 유지하므로 먼저 적은 패턴이 우선함
+ */
+public final class DurationPatterns {
+
+    private DurationPatterns() {
+    }
+
+    public static Map<String, Duration> parse(String value) {
+        Map<String, Duration> durations = new LinkedHashMap<>();
+        for (String entry : StringUtils.commaDelimitedListToStringArray(value)) {
+            String[] pair = StringUtils.split(entry.trim(), "=");
+            if (pair == null) {
+                throw new IllegalArgumentException("invalid duration entry: " + entry);
+            }
+            durations.put(pair[0].trim(), DurationStyle.detectAndParse(pair[1].trim()));
+        }
+        return durations;
+    }
+}
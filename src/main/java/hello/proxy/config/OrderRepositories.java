@@ -0,0 +1,45 @@
+package hello.proxy.config;
+
+import hello.proxy.app.v1.BatchingOrderRepositoryV1;
+import hello.proxy.app.v1.OrderLogRepositoryV1;
+import hello.proxy.app.v1.OrderRepositoryV1;
+import hello.proxy.app.v1.OrderRepositoryV1Impl;
+import hello.proxy.app.v2.BatchingOrderRepositoryV2;
+import hello.proxy.app.v2.OrderRepositoryV2;
+import hello.proxy.infra.batch.GroupCommitter;
+import hello.proxy.infra.store.OrderLog;
+
+/**
+ * 설정에 따라 V1, V2 저장소 구현을 고름 (AppV1Config, AppV2Config 와 저장소를 직접 만드는 프록시 설정이 같이 사용)
+ * - orderLog : order.log.enabled=true 일 때만 있음 (OrderLogConfig)
+ * - orderGroupCommitter : order.group-commit.enabled=true 일 때만 있음 (GroupCommitConfig)
+ * - 둘 다 없으면 기존 메모리 저장소
+ */
+public final class OrderRepositories {
+
+    private OrderRepositories() {
+    }
+
+    /**
+     * OrderLog 가 있으면 OrderLog 기반 저장소, 없고 GroupCommitter 가 있으면 group commit 저장소
+     */
+    public static OrderRepositoryV1 v1(OrderLog orderLog, GroupCommitter<String> orderGroupCommitter) {
+        if (orderLog != null) {
+            return new OrderLogRepositoryV1(orderLog);
+        }
+        if (orderGroupCommitter != null) {
+            return new BatchingOrderRepositoryV1(orderGroupCommitter);
+        }
+        return new OrderRepositoryV1Impl();
+    }
+
+    /**
+     * OrderLog 는 V1 에만 적용됨
+     */
+    public static OrderRepositoryV2 v2(GroupCommitter<String> orderGroupCommitter) {
+        if (orderGroupCommitter != null) {
+            return new BatchingOrderRepositoryV2(orderGroupCommitter);
+        }
+        return new OrderRepositoryV2();
+    }
+}
@@ -0,0 +1,84 @@
+package hello.proxy.config;
+
+import hello.proxy.config.tracing.TraceSwitchConfig;
+import hello.proxy.config.v1_proxy.ConcreteProxyConfig;
+import hello.proxy.config.v1_proxy.InterfaceProxyConfig;
+import hello.proxy.config.v2_dynamicproxy.DynamicProxyBasicConfig;
+import hello.proxy.config.v2_dynamicproxy.DynamicProxyFilterConfig;
+import hello.proxy.config.v3_proxyfactory.ProxyFactoryConfigV1;
+import hello.proxy.config.v3_proxyfactory.ProxyFactoryConfigV2;
+import hello.proxy.config.v4_postprocessor.BeanPostProcessorConfig;
+import hello.proxy.config.v5_autoproxy.AutoProxyConfig;
+import hello.proxy.config.v6_aop.AopConfig;
+import hello.proxy.config.v7_weaving.CompileTimeWeavingConfig;
+import org.springframework.context.EnvironmentAware;
+import org.springframework.context.annotation.ImportSelector;
+import org.springframework.core.env.Environment;
+import org.springframework.core.env.Profiles;
+import org.springframework.core.type.AnnotationMetadata;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * proxy.config 로 ProxyApplication 에 등록할 설정을 선택 (코드를 고치지 않고 프록시 방식을 바꿔가며 실행)
+ * (ex) proxy.config=interface-proxy
+ * - app                  : AppV1Config, AppV2Config (프록시 없음)
+ * - interface-proxy      : InterfaceProxyConfig (v1)
+ * - concrete-proxy       : ConcreteProxyConfig (v2)
+ * - dynamic-proxy-basic  : DynamicProxyBasicConfig (v1, JDK 동적 프록시)
+ * - dynamic-proxy-filter : DynamicProxyFilterConfig (v1, JDK 동적 프록시 + no-log 제외)
+ * - proxy-factory-v1     : ProxyFactoryConfigV1 (v1)
+ * - proxy-factory-v2     : ProxyFactoryConfigV2 (v2)
+ * - bean-post-processor  : BeanPostProcessorConfig
+ * - auto-proxy           : AutoProxyConfig
+ * - aop (기본값)          : AopConfig (@Aspect)
+ * - 어떤 설정이든 TraceSwitchConfig 를 같이 등록 (직접 만든 프록시, 동적 프록시, 에이전트도 실행 중 스위치를 따름)
+ * - ctw 프로필(컴파일 시점 위빙 빌드)에서는 위빙된 클래스가 추적하므로 아무것도 등록하지 않음 (CompileTimeWeavingConfig 사용)
+ */
+public class ProxyConfigSelector implements ImportSelector, EnvironmentAware {
+
+    public static final String PROPERTY = "proxy.config";
+    public static final String DEFAULT = "aop";
+
+    public static final Map<String, Class<?>> CONFIGS;
+
+    static {
+        Map<String, Class<?>> configs = new LinkedHashMap<>();
+        configs.put("app", AppV1Config.class);
+        configs.put("interface-proxy", InterfaceProxyConfig.class);
+        configs.put("concrete-proxy", ConcreteProxyConfig.class);
+        configs.put("dynamic-proxy-basic", DynamicProxyBasicConfig.class);
+        configs.put("dynamic-proxy-filter", DynamicProxyFilterConfig.class);
+        configs.put("proxy-factory-v1", ProxyFactoryConfigV1.class);
+        configs.put("proxy-factory-v2", ProxyFactoryConfigV2.class);
+        configs.put("bean-post-processor", BeanPostProcessorConfig.class);
+        configs.put("auto-proxy", AutoProxyConfig.class);
+        configs.put("aop", AopConfig.class);
+        CONFIGS = Collections.unmodifiableMap(configs);
+    }
+
+    private Environment environment;
+
+    @Override
+    public void setEnvironment(Environment environment) {
+        this.environment = environment;
+    }
+
+    @Override
+    public String[] selectImports(AnnotationMetadata importingClassMetadata) {
+        if (environment.acceptsProfiles(Profiles.of(CompileTimeWeavingConfig.PROFILE))) {
+            return new String[0];
+        }
+        String name = environment.getProperty(PROPERTY, DEFAULT);
+        Class<?> config = CONFIGS.get(name);
+        if (config == null) {
+            throw new IllegalArgumentException(PROPERTY + " must be one of " + CONFIGS.keySet() + ": " + name);
+        }
+        if (config == AppV1Config.class) {
+            return new String[]{AppV1Config.class.getName(), AppV2Config.class.getName(), TraceSwitchConfig.class.getName()};
+        }
+        return new String[]{config.getName(), TraceSwitchConfig.class.getName()};
+    }
+}
@@ -0,0 +1,68 @@
+package hello.proxy.config.agent;
+
+import hello.proxy.agent.TraceAgentBridge;
+import hello.proxy.config.tracing.TraceSwitch;
+import hello.proxy.trace.TraceStatus;
+import hello.proxy.trace.logtrace.LogTrace;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.util.ClassUtils;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * 에이전트가 계측한 메서드의 호출을 LogTrace 로 전달
+ * - 빈이 초기화되면 TraceAgentBridge 에 등록하고, 컨테이너가 종료되면 해제함
+ * - 에이전트가 붙지 않은 JVM 에서는 아무도 호출하지 않으므로 비용이 없음
+ * - deadline 은 TraceSwitch 와 관계없이 먼저 확인 (지났으면 예외가 대상 메서드 밖으로 나감. 본문은 실행되지 않음)
+ * - TraceSwitch 가 꺼져 있으면(전체, 패키지, 메서드) null 을 반환 -> exit() 도 호출되지 않음
+ * - 로그 메시지는 다른 방식과 같은 형식("클래스명.메서드명(..)")으로, 메서드당 한 번만 만듦
+ */
+public class LogTraceAgentSink implements TraceAgentBridge.TraceSink, InitializingBean, DisposableBean {
+
+    private final LogTrace logTrace;
+    private final ConcurrentMap<String, String> labels = new ConcurrentHashMap<>();
+
+    public LogTraceAgentSink(LogTrace logTrace) {
+        this.logTrace = logTrace;
+    }
+
+    @Override
+    public Object enter(String origin) {
+        logTrace.checkDeadline();
+        if (!TraceSwitch.isEnabled(origin)) {
+            return null;
+        }
+        String label = labels.get(origin);
+        if (label == null) {
+            label = labels.computeIfAbsent(origin, LogTraceAgentSink::toLabel);
+        }
+        return logTrace.begin(label);
+    }
+
+    @Override
+    public void exit(Object token, Throwable thrown) {
+        TraceStatus status = (TraceStatus) token;
+        if (thrown == null) {
+            logTrace.end(status);
+        } else {
+            logTrace.exception(status, thrown instanceof Exception ? (Exception) thrown : new Exception(thrown));
+        }
+    }
+
+    private static String toLabel(String origin) {
+        int methodSeparator = origin.lastIndexOf('.');
+        return ClassUtils.getShortName(origin.substring(0, methodSeparator)) + origin.substring(methodSeparator) + "(..)";
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        TraceAgentBridge.install(this);
+    }
+
+    @Override
+    public void destroy() {
+        TraceAgentBridge.uninstall(this);
+    }
+}
@@ -0,0 +1,22 @@
+package hello.proxy.config.agent;
+
+import hello.proxy.trace.logtrace.LogTrace;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 자바 에이전트(hello.proxy.agent.TraceAgent) 연결 설정
+ * - 재배포 없이 실행 중인 JVM 에 에이전트를 붙여서 로그 추적을 켤 수 있도록 LogTrace 를 미리 연결해 둠
+ *   ./gradlew agentJar
+ *   java -jar build/libs/proxy-0.0.1-SNAPSHOT-trace-agent.jar {pid} on hello.proxy.app.*
+ *   java -jar build/libs/proxy-0.0.1-SNAPSHOT-trace-agent.jar {pid} off
+ * - 프록시 방식과 함께 켜면 같은 메서드의 로그가 두 번 남으므로, 에이전트를 쓸 때는 프록시 설정을 Import 하지 않는 것을 권장
+ */
+@Configuration
+public class TraceAgentConfig {
+
+    @Bean
+    public LogTraceAgentSink logTraceAgentSink(LogTrace logTrace) {
+        return new LogTraceAgentSink(logTrace);
+    }
+}
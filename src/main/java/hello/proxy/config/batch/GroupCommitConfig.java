@@ -0,0 +1,43 @@
+package hello.proxy.config.batch;
+
+import hello.proxy.app.v3.BatchingOrderRepositoryV3;
+import hello.proxy.app.v3.OrderRepositoryV3;
+import hello.proxy.infra.batch.GroupCommitter;
+import hello.proxy.infra.batch.OrderBatchWriter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import java.time.Duration;
+
+/**
+ * order.group-commit.enabled=true 이면 저장소의 save 를 group commit 으로 바꿈 (ProxyApplication 에서 Import)
+ * (ex) order.group-commit.max-batch-size=100   (한 번에 저장하는 최대 항목 수)
+ *      order.group-commit.max-delay=5ms        (첫 요청부터 배치를 모으는 최대 시간)
+ *      order.group-commit.write-time=1000ms    (배치 1번을 저장하는 시간, 기존 save 1번의 비용)
+ * - V1, V2 는 GroupCommitter 가 있으면 Batching 저장소를 사용함 (OrderRepositories)
+ *   AppV1Config, AppV2Config 뿐 아니라 저장소를 직접 만드는 프록시 설정(v1 프록시, 동적 프록시, ProxyFactory)도 같음
+ * - V3 는 컴포넌트 스캔된 OrderRepositoryV3 대신 @Primary 인 BatchingOrderRepositoryV3 가 주입됨
+ * - V1, V2, V3 가 같은 GroupCommitter 를 사용하므로 세 버전의 저장 요청이 한 배치로 모임
+ * - order.jdbc.enabled=true 이면 V3 는 JdbcOrderConfig 의 저장소를 사용함
+ */
+@Configuration
+@ConditionalOnProperty(name = "order.group-commit.enabled", havingValue = "true")
+public class GroupCommitConfig {
+
+    @Bean
+    public GroupCommitter<String> orderGroupCommitter(@Value("${order.group-commit.max-batch-size:100}") int maxBatchSize,
+                                                      @Value("${order.group-commit.max-delay:5ms}") Duration maxDelay,
+                                                      @Value("${order.group-commit.write-time:1000ms}") Duration writeTime) {
+        return new GroupCommitter<>("order", new OrderBatchWriter(writeTime.toMillis()), maxBatchSize, maxDelay);
+    }
+
+    @Bean
+    @Primary
+    @ConditionalOnProperty(name = "order.jdbc.enabled", havingValue = "false", matchIfMissing = true)
+    public OrderRepositoryV3 batchingOrderRepositoryV3(GroupCommitter<String> orderGroupCommitter) {
+        return new BatchingOrderRepositoryV3(orderGroupCommitter);
+    }
+}
@@ -0,0 +1,49 @@
+package hello.proxy.config.bulk;
+
+import hello.proxy.app.bulk.BulkOrderRunner;
+import hello.proxy.infra.partition.PartitionedExecutor;
+import hello.proxy.trace.logtrace.LogTrace;
+import hello.proxy.trace.logtrace.LogTraceTaskDecorator;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.concurrent.Executor;
+
+/**
+ * 일괄 주문(requests, requests/stream)을 실행하는 BulkOrderRunner 등록 (ProxyApplication 에서 Import, 모든 proxy.config 의 컨트롤러가 사용)
+ * (ex) order.bulk.threads=0               (일괄 주문 전용 스레드 수, 0 이면 CPU 수)
+ *      order.bulk.queue-capacity=10000     (전용 스레드 풀의 최대 대기 항목 수, 넘으면 그 항목은 실패 결과)
+ *      order.bulk.partitioned=false        (true 면 전용 스레드 대신 PartitionedExecutor 의 shard 에서 실행 -> 같은 itemId 의 순서 보장, order.partition.enabled=true 필요)
+ *      order.bulk.stream-timeout=10m       (requests/stream 응답 하나의 최대 시간. 다른 비동기 응답의 시간 제한은 바꾸지 않음)
+ * - 전용 스레드 풀은 빈으로 등록하지 않고 BulkOrderRunner 가 소유함 (컨테이너 종료 시 close)
+ *   (Executor 빈이 있으면 스프링 부트의 applicationTaskExecutor 가 등록되지 않음)
+ * - streaming 응답은 스프링 부트의 applicationTaskExecutor 에서 만듦 (spring.task.execution.* 으로 스레드 수 설정)
+ */
+@Configuration
+public class BulkOrderConfig {
+
+    @Bean
+    public BulkOrderRunner bulkOrderRunner(@Value("${order.bulk.threads:0}") int threads,
+                                           @Value("${order.bulk.queue-capacity:10000}") int queueCapacity,
+                                           @Value("${order.bulk.partitioned:false}") boolean partitioned,
+                                           ObjectProvider<PartitionedExecutor> orderPartitions,
+                                           @Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME) Executor streamExecutor,
+                                           LogTrace logTrace,
+                                           @Value("${order.bulk.stream-timeout:10m}") Duration streamTimeout) {
+        PartitionedExecutor partitions = null;
+        if (partitioned) {
+            partitions = orderPartitions.getIfAvailable();
+            if (partitions == null) {
+                throw new IllegalStateException("order.bulk.partitioned=true requires order.partition.enabled=true");
+            }
+        }
+        int threadCount = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        return new BulkOrderRunner(threadCount, queueCapacity, partitions, streamExecutor,
+                new LogTraceTaskDecorator(logTrace), streamTimeout);
+    }
+}
@@ -0,0 +1,40 @@
+package hello.proxy.config.deadline;
+
+import hello.proxy.config.DurationPatterns;
+import hello.proxy.trace.logtrace.LogTrace;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.util.StringUtils;
+
+/**
+ * 요청 deadline 설정
+ * (ex) trace.deadline.header=X-Request-Timeout        (요청 헤더 이름)
+ *      trace.deadline.default=3s                      (전체 기본값, 비우면 없음)
+ *      trace.deadline.endpoints=/v1/request=2s,/v2/**=3s
+ * - 필터는 다른 필터보다 먼저 실행해서 남은 시간을 최대한 정확하게 계산함
+ */
+@Configuration
+public class DeadlineConfig {
+
+    @Bean
+    public FilterRegistrationBean<DeadlineFilter> deadlineFilter(LogTrace logTrace,
+                                                                 @Value("${trace.deadline.header:X-Request-Timeout}") String header,
+                                                                 @Value("${trace.deadline.default:}") String defaultBudget,
+                                                                 @Value("${trace.deadline.endpoints:}") String endpointBudgets) {
+        DeadlineFilter filter = new DeadlineFilter(logTrace, header,
+                StringUtils.hasText(defaultBudget) ? DurationStyle.detectAndParse(defaultBudget) : null,
+                DurationPatterns.parse(endpointBudgets));
+        FilterRegistrationBean<DeadlineFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+
+    @Bean
+    public DeadlineExceptionHandler deadlineExceptionHandler() {
+        return new DeadlineExceptionHandler();
+    }
+}
@@ -0,0 +1,23 @@
+package hello.proxy.config.deadline;
+
+import hello.proxy.trace.DeadlineExceededException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+/**
+ * deadline 이 지나서 중단된 요청은 504 로 응답 (클라이언트가 이미 기다리지 않으므로 본문은 짧게)
+ */
+@Slf4j
+@RestControllerAdvice
+public class DeadlineExceptionHandler {
+
+    @ExceptionHandler(DeadlineExceededException.class)
+    @ResponseStatus(HttpStatus.GATEWAY_TIMEOUT)
+    public String deadlineExceeded(DeadlineExceededException e) {
+        log.info("request abandoned: {}", e.getMessage());
+        return e.getMessage();
+    }
+}
@@ -0,0 +1,86 @@
+package hello.proxy.config.deadline;
+
+import hello.proxy.trace.Deadline;
+import hello.proxy.trace.TraceId;
+import hello.proxy.trace.logtrace.LogTrace;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.StringUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 요청마다 deadline 을 정해서 LogTrace 의 요청 TraceId(requestRoot)에 담는 필터
+ * - 요청 헤더(ex. X-Request-Timeout: 500ms, 숫자만 있으면 ms)가 있으면 그 값을 사용
+ * - 엔드포인트 기본값(경로 패턴 -> 시간) 또는 전체 기본값이 있으면 헤더 값과 비교해서 더 짧은 쪽을 사용
+ * - 둘 다 없으면 deadline 없이 그대로 진행 (기존과 같음)
+ * - 이후 각 계층은 LogTrace.checkDeadline() 으로 남은 시간을 확인함. 요청이 끝나면 원래 상태로 되돌림
+ * - 처음 deadline 을 담을 때 Deadline 확인 스위치를 켬 (그 전까지 각 계층의 확인은 트레이스를 조회하지 않음)
+ */
+@Slf4j
+public class DeadlineFilter extends OncePerRequestFilter {
+
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    private final LogTrace logTrace;
+    private final String header;
+    private final Duration defaultBudget;
+    private final Map<String, Duration> endpointBudgets;
+
+    public DeadlineFilter(LogTrace logTrace, String header, Duration defaultBudget, Map<String, Duration> endpointBudgets) {
+        this.logTrace = logTrace;
+        this.header = header;
+        this.defaultBudget = defaultBudget;
+        this.endpointBudgets = new LinkedHashMap<>(endpointBudgets);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        Duration budget = budget(request);
+        if (budget == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        Deadline.enableChecks();
+        TraceId previous = logTrace.attach(TraceId.requestRoot(Deadline.after(budget)));
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            logTrace.restore(previous);
+        }
+    }
+
+    private Duration budget(HttpServletRequest request) {
+        Duration budget = endpointBudget(request.getServletPath());
+        String value = request.getHeader(header);
+        if (!StringUtils.hasText(value)) {
+            return budget;
+        }
+        try {
+            Duration requested = DurationStyle.detectAndParse(value.trim());
+            return budget == null || requested.compareTo(budget) < 0 ? requested : budget;
+        } catch (IllegalArgumentException e) {
+            log.debug("invalid {} header: {}", header, value);
+            return budget;
+        }
+    }
+
+    private Duration endpointBudget(String path) {
+        for (Map.Entry<String, Duration> entry : endpointBudgets.entrySet()) {
+            if (pathMatcher.match(entry.getKey(), path)) {
+                return entry.getValue();
+            }
+        }
+        return defaultBudget;
+    }
+}
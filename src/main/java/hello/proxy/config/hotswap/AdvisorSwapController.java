@@ -0,0 +1,67 @@
+package hello.proxy.config.hotswap;
+
+import hello.proxy.config.v3_proxyfactory.advice.HistogramAdvice;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 어드바이저 교체 관리 API (HotSwapConfig 에서 빈으로 등록)
+ * - GET  /admin/advisors
+ * - POST /admin/advisors/add?advisor=histogram&bean=order*
+ * - POST /admin/advisors/remove?advisor=logTrace&package=hello.proxy.app.v2
+ * - POST /admin/advisors/replace?from=logTrace&to=histogram
+ * - GET  /admin/advisors/histogram
+ */
+@RestController
+@RequestMapping("/admin/advisors")
+public class AdvisorSwapController {
+
+    private final AdvisorSwapRegistry registry;
+    private final HistogramAdvice histogramAdvice;
+
+    public AdvisorSwapController(AdvisorSwapRegistry registry, HistogramAdvice histogramAdvice) {
+        this.registry = registry;
+        this.histogramAdvice = histogramAdvice;
+    }
+
+    @GetMapping
+    public Map<String, Object> status() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("definitions", registry.getDefinitions());
+        status.put("proxies", registry.getAdvisors());
+        return status;
+    }
+
+    @PostMapping("/add")
+    public List<String> add(@RequestParam String advisor,
+                            @RequestParam(required = false) String bean,
+                            @RequestParam(name = "package", required = false) String packageName) {
+        return registry.add(advisor, bean, packageName);
+    }
+
+    @PostMapping("/remove")
+    public List<String> remove(@RequestParam String advisor,
+                               @RequestParam(required = false) String bean,
+                               @RequestParam(name = "package", required = false) String packageName) {
+        return registry.remove(advisor, bean, packageName);
+    }
+
+    @PostMapping("/replace")
+    public List<String> replace(@RequestParam String from, @RequestParam String to,
+                                @RequestParam(required = false) String bean,
+                                @RequestParam(name = "package", required = false) String packageName) {
+        return registry.replace(from, to, bean, packageName);
+    }
+
+    @GetMapping("/histogram")
+    public Map<String, Map<String, Long>> histogram() {
+        return histogramAdvice.getHistograms();
+    }
+}
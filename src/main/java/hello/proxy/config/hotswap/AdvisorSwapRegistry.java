@@ -0,0 +1,126 @@
+package hello.proxy.config.hotswap;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.aop.Advisor;
+import org.springframework.util.PatternMatchUtils;
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.UnaryOperator;
+
+/**
+ * 실행 중인 프록시의 어드바이저를 바꾸는 저장소
+ * - 프록시를 만드는 곳(ProxyFactoryConfigV1/V2, PackageLogTracePostProcessor)에서 register() 로 얻은 인터셉터를 프록시에 등록함
+ * - 교체에 사용할 어드바이저는 이름을 붙여서 미리 정의함 (defineAdvisor)
+ * - 대상 프록시는 빈 이름 패턴(*, xxx*, *xxx)과 패키지(하위 패키지 포함)로 고름. 둘 다 비어 있으면 전체
+ */
+@Slf4j
+public class AdvisorSwapRegistry {
+
+    private final Map<String, Advisor> definitions = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, SwappableAdvisorInterceptor> proxies = new ConcurrentHashMap<>();
+
+    public void defineAdvisor(String name, Advisor advisor) {
+        definitions.put(name, advisor);
+    }
+
+    public SwappableAdvisorInterceptor register(String beanName, Class<?> targetClass, Map<String, Advisor> advisors) {
+        SwappableAdvisorInterceptor interceptor = new SwappableAdvisorInterceptor(beanName, targetClass, advisors);
+        proxies.put(beanName, interceptor);
+        return interceptor;
+    }
+
+    /**
+     * 어드바이저를 체인 끝에 추가. 이미 있으면 그대로 둠
+     */
+    public List<String> add(String advisorName, String beanNamePattern, String packageName) {
+        Advisor advisor = definition(advisorName);
+        return apply(beanNamePattern, packageName, advisors -> {
+            advisors.putIfAbsent(advisorName, advisor);
+            return advisors;
+        }, "add " + advisorName);
+    }
+
+    public List<String> remove(String advisorName, String beanNamePattern, String packageName) {
+        return apply(beanNamePattern, packageName, advisors -> {
+            advisors.remove(advisorName);
+            return advisors;
+        }, "remove " + advisorName);
+    }
+
+    /**
+     * from 이 있던 자리에 to 를 넣음. from 이 없는 프록시는 그대로 둠
+     */
+    public List<String> replace(String from, String to, String beanNamePattern, String packageName) {
+        Advisor advisor = definition(to);
+        return apply(beanNamePattern, packageName, advisors -> {
+            if (!advisors.containsKey(from)) {
+                return advisors;
+            }
+            Map<String, Advisor> replaced = new LinkedHashMap<>();
+            advisors.forEach((name, current) -> {
+                if (name.equals(from)) {
+                    replaced.put(to, advisor);
+                } else if (!name.equals(to)) {
+                    replaced.put(name, current);
+                }
+            });
+            return replaced;
+        }, "replace " + from + " -> " + to);
+    }
+
+    /**
+     * 빈 이름별 현재 어드바이저 이름 목록
+     */
+    public Map<String, List<String>> getAdvisors() {
+        Map<String, List<String>> result = new TreeMap<>();
+        proxies.forEach((beanName, interceptor) -> result.put(beanName, interceptor.getAdvisorNames()));
+        return result;
+    }
+
+    public List<String> getDefinitions() {
+        List<String> names = new ArrayList<>(definitions.keySet());
+        Collections.sort(names);
+        return names;
+    }
+
+    private Advisor definition(String name) {
+        Advisor advisor = definitions.get(name);
+        if (advisor == null) {
+            throw new IllegalArgumentException("unknown advisor: " + name + " (defined: " + getDefinitions() + ")");
+        }
+        return advisor;
+    }
+
+    private List<String> apply(String beanNamePattern, String packageName,
+                               UnaryOperator<Map<String, Advisor>> change, String description) {
+        List<String> changed = new ArrayList<>();
+        for (SwappableAdvisorInterceptor interceptor : proxies.values()) {
+            if (matches(interceptor, beanNamePattern, packageName)) {
+                interceptor.update(change);
+                changed.add(interceptor.getBeanName());
+            }
+        }
+        Collections.sort(changed);
+        log.info("advisor swap: {} beans={}", description, changed);
+        return changed;
+    }
+
+    private static boolean matches(SwappableAdvisorInterceptor interceptor, String beanNamePattern, String packageName) {
+        if (StringUtils.hasText(beanNamePattern) && !PatternMatchUtils.simpleMatch(beanNamePattern, interceptor.getBeanName())) {
+            return false;
+        }
+        if (StringUtils.hasText(packageName)) {
+            String targetPackage = interceptor.getTargetClass().getPackageName();
+            return targetPackage.equals(packageName) || targetPackage.startsWith(packageName + ".");
+        }
+        return true;
+    }
+}
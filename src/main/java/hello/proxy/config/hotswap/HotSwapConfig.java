@@ -0,0 +1,42 @@
+package hello.proxy.config.hotswap;
+
+import hello.proxy.config.v3_proxyfactory.advice.HistogramAdvice;
+import hello.proxy.config.v3_proxyfactory.advice.LogTraceAdvice;
+import hello.proxy.trace.logtrace.LogTrace;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.NameMatchMethodPointcut;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 어드바이저 교체 설정. 프록시를 직접 만드는 설정(ProxyFactoryConfigV1/V2, BeanPostProcessorConfig)에서 Import
+ * - logTrace : 기존 설정과 같은 포인트컷 + LogTraceAdvice
+ * - histogram : 같은 포인트컷 + HistogramAdvice (로그 없이 실행 시간 분포만 기록)
+ */
+@Configuration
+public class HotSwapConfig {
+
+    public static final String LOG_TRACE = "logTrace";
+    public static final String HISTOGRAM = "histogram";
+
+    @Bean
+    public HistogramAdvice histogramAdvice() {
+        return new HistogramAdvice();
+    }
+
+    @Bean
+    public AdvisorSwapRegistry advisorSwapRegistry(LogTrace logTrace, HistogramAdvice histogramAdvice) {
+        NameMatchMethodPointcut pointcut = new NameMatchMethodPointcut();
+        pointcut.setMappedNames("request*", "order*", "save*");
+
+        AdvisorSwapRegistry registry = new AdvisorSwapRegistry();
+        registry.defineAdvisor(LOG_TRACE, new DefaultPointcutAdvisor(pointcut, new LogTraceAdvice(logTrace)));
+        registry.defineAdvisor(HISTOGRAM, new DefaultPointcutAdvisor(pointcut, histogramAdvice));
+        return registry;
+    }
+
+    @Bean
+    public AdvisorSwapController advisorSwapController(AdvisorSwapRegistry advisorSwapRegistry, HistogramAdvice histogramAdvice) {
+        return new AdvisorSwapController(advisorSwapRegistry, histogramAdvice);
+    }
+}
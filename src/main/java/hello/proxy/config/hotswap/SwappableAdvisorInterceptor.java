@@ -0,0 +1,210 @@
+package hello.proxy.config.hotswap;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.IntroductionAdvisor;
+import org.springframework.aop.MethodMatcher;
+import org.springframework.aop.Pointcut;
+import org.springframework.aop.PointcutAdvisor;
+import org.springframework.aop.ProxyMethodInvocation;
+import org.springframework.aop.framework.adapter.AdvisorAdapterRegistry;
+import org.springframework.aop.framework.adapter.GlobalAdvisorAdapterRegistry;
+import org.springframework.aop.support.MethodMatchers;
+
+import java.lang.reflect.AccessibleObject;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.UnaryOperator;
+
+/**
+ * 프록시 생성 후에도 어드바이저를 바꿀 수 있는 인터셉터. 프록시에는 이 인터셉터 하나만 등록함
+ * - 어드바이저 목록과 메서드별 인터셉터 체인 캐시를 하나의 불변 스냅샷으로 묶어서 volatile 필드 하나로 교체함
+ *   -> 어드바이저 변경과 체인 캐시 무효화가 한 번에 일어남
+ *   (Advised.addAdvisor() 는 목록 변경과 캐시 삭제가 따로 일어나서, 그 사이에 옛 목록으로 만든 체인이 캐시에 남을 수 있음)
+ * - 호출은 시작할 때 읽은 스냅샷의 체인을 끝까지 사용함 -> 실행 중인 호출은 교체의 영향을 받지 않음
+ * - 이름을 붙여서 어드바이저를 관리함 (AdvisorSwapRegistry 에서 이름으로 추가/삭제/교체)
+ */
+public class SwappableAdvisorInterceptor implements MethodInterceptor {
+
+    private static final AdvisorAdapterRegistry adapterRegistry = GlobalAdvisorAdapterRegistry.getInstance();
+
+    private final String beanName;
+    private final Class<?> targetClass;
+    private volatile Snapshot snapshot;
+
+    public SwappableAdvisorInterceptor(String beanName, Class<?> targetClass, Map<String, Advisor> advisors) {
+        this.beanName = beanName;
+        this.targetClass = targetClass;
+        this.snapshot = new Snapshot(advisors);
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        MethodInterceptor[] chain = snapshot.chain(invocation.getMethod(), targetClass);
+        if (chain.length == 0) {
+            return invocation.proceed();
+        }
+        return new ChainInvocation(invocation, chain, 0).proceed();
+    }
+
+    /**
+     * 현재 어드바이저 목록으로 새 목록을 만들어서 교체 (동시에 여러 변경이 오면 순서대로 적용)
+     */
+    public synchronized void update(UnaryOperator<Map<String, Advisor>> change) {
+        Map<String, Advisor> advisors = change.apply(new LinkedHashMap<>(snapshot.advisors));
+        this.snapshot = new Snapshot(advisors);
+    }
+
+    public List<String> getAdvisorNames() {
+        return new ArrayList<>(snapshot.advisors.keySet());
+    }
+
+    public String getBeanName() {
+        return beanName;
+    }
+
+    public Class<?> getTargetClass() {
+        return targetClass;
+    }
+
+    private static final class Snapshot {
+
+        private final Map<String, Advisor> advisors;
+        private final ConcurrentMap<Method, MethodInterceptor[]> chains = new ConcurrentHashMap<>();
+
+        private Snapshot(Map<String, Advisor> advisors) {
+            for (Advisor advisor : advisors.values()) {
+                if (advisor instanceof IntroductionAdvisor) {
+                    throw new IllegalArgumentException("introduction advisor is not supported: " + advisor);
+                }
+            }
+            this.advisors = Collections.unmodifiableMap(new LinkedHashMap<>(advisors));
+        }
+
+        private MethodInterceptor[] chain(Method method, Class<?> targetClass) {
+            MethodInterceptor[] chain = chains.get(method);
+            if (chain == null) {
+                chain = chains.computeIfAbsent(method, key -> buildChain(key, targetClass));
+            }
+            return chain;
+        }
+
+        /**
+         * DefaultAdvisorChainFactory 와 같은 기준으로 체인을 만듦
+         * 실행 시점 인자를 보는 포인트컷(isRuntime)은 호출마다 인자를 확인하는 인터셉터로 감쌈
+         */
+        private MethodInterceptor[] buildChain(Method method, Class<?> targetClass) {
+            List<MethodInterceptor> chain = new ArrayList<>();
+            for (Advisor advisor : advisors.values()) {
+                if (!(advisor instanceof PointcutAdvisor)) {
+                    Collections.addAll(chain, adapterRegistry.getInterceptors(advisor));
+                    continue;
+                }
+                Pointcut pointcut = ((PointcutAdvisor) advisor).getPointcut();
+                MethodMatcher methodMatcher = pointcut.getMethodMatcher();
+                if (!pointcut.getClassFilter().matches(targetClass)
+                        || !MethodMatchers.matches(methodMatcher, method, targetClass, false)) {
+                    continue;
+                }
+                for (MethodInterceptor interceptor : adapterRegistry.getInterceptors(advisor)) {
+                    chain.add(methodMatcher.isRuntime() ? dynamic(methodMatcher, interceptor, targetClass) : interceptor);
+                }
+            }
+            return chain.toArray(new MethodInterceptor[0]);
+        }
+
+        private static MethodInterceptor dynamic(MethodMatcher methodMatcher, MethodInterceptor interceptor, Class<?> targetClass) {
+            return invocation -> methodMatcher.matches(invocation.getMethod(), targetClass, invocation.getArguments())
+                    ? interceptor.invoke(invocation)
+                    : invocation.proceed();
+        }
+    }
+
+    /**
+     * 스냅샷의 체인을 차례로 호출하고, 끝나면 프록시의 원래 호출(outer)을 진행함
+     */
+    private static final class ChainInvocation implements ProxyMethodInvocation {
+
+        private final MethodInvocation outer;
+        private final MethodInterceptor[] chain;
+        private final int index;
+
+        private ChainInvocation(MethodInvocation outer, MethodInterceptor[] chain, int index) {
+            this.outer = outer;
+            this.chain = chain;
+            this.index = index;
+        }
+
+        @Override
+        public Object proceed() throws Throwable {
+            if (index == chain.length) {
+                return outer.proceed();
+            }
+            return chain[index].invoke(new ChainInvocation(outer, chain, index + 1));
+        }
+
+        @Override
+        public Method getMethod() {
+            return outer.getMethod();
+        }
+
+        @Override
+        public Object[] getArguments() {
+            return outer.getArguments();
+        }
+
+        @Override
+        public Object getThis() {
+            return outer.getThis();
+        }
+
+        @Override
+        public AccessibleObject getStaticPart() {
+            return outer.getStaticPart();
+        }
+
+        @Override
+        public Object getProxy() {
+            return proxyInvocation().getProxy();
+        }
+
+        @Override
+        public MethodInvocation invocableClone() {
+            return new ChainInvocation(proxyInvocation().invocableClone(), chain, index);
+        }
+
+        @Override
+        public MethodInvocation invocableClone(Object... arguments) {
+            return new ChainInvocation(proxyInvocation().invocableClone(arguments), chain, index);
+        }
+
+        @Override
+        public void setArguments(Object... arguments) {
+            proxyInvocation().setArguments(arguments);
+        }
+
+        @Override
+        public void setUserAttribute(String key, Object value) {
+            proxyInvocation().setUserAttribute(key, value);
+        }
+
+        @Override
+        public Object getUserAttribute(String key) {
+            return proxyInvocation().getUserAttribute(key);
+        }
+
+        private ProxyMethodInvocation proxyInvocation() {
+            if (outer instanceof ProxyMethodInvocation) {
+                return (ProxyMethodInvocation) outer;
+            }
+            throw new IllegalStateException("not a proxy invocation: " + outer);
+        }
+    }
+}
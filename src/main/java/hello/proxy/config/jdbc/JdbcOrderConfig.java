@@ -0,0 +1,64 @@
+package hello.proxy.config.jdbc;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import hello.proxy.app.v3.JdbcOrderRepositoryV3;
+import hello.proxy.app.v3.OrderRepositoryV3;
+import hello.proxy.infra.batch.GroupCommitter;
+import hello.proxy.infra.jdbc.JdbcOrderStore;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import java.time.Duration;
+
+/**
+ * order.jdbc.enabled=true 이면 OrderRepositoryV3 를 임베디드 DB(H2 파일) 저장소로 바꿈 (ProxyApplication 에서 Import)
+ * (ex) order.jdbc.url=jdbc:h2:file:./data/order-db
+ *      order.jdbc.pool-size=10
+ *      order.jdbc.batch.enabled=true         (false 이면 save 마다 insert 1번)
+ *      order.jdbc.batch.max-batch-size=100
+ *      order.jdbc.batch.max-delay=5ms
+ * - 커넥션 풀은 HikariCP. DataSource 는 이 설정에서만 만듦 (ProxyApplication 에서 DataSourceAutoConfiguration 을 제외)
+ *   -> 꺼져 있으면 DataSource, 커넥션 풀, H2 가 생기지 않음 (spring-jdbc, H2 클래스는 클래스패스에만 있음)
+ * - 배치 저장용 GroupCommitter 는 jdbcOrderCommitter 로 등록 (GroupCommitConfig 의 orderGroupCommitter 와 별개)
+ * - GroupCommitConfig 와 같이 켜면 V3 는 이 저장소를 사용함 (V1, V2 는 그대로 group commit)
+ */
+@Configuration
+@ConditionalOnProperty(name = "order.jdbc.enabled", havingValue = "true")
+public class JdbcOrderConfig {
+
+    @Bean
+    public HikariDataSource orderDataSource(@Value("${order.jdbc.url:jdbc:h2:file:./data/order-db}") String url,
+                                            @Value("${order.jdbc.pool-size:10}") int poolSize) {
+        HikariConfig config = new HikariConfig();
+        config.setPoolName("order-db");
+        config.setJdbcUrl(url);
+        config.setMaximumPoolSize(poolSize);
+        return new HikariDataSource(config);
+    }
+
+    @Bean
+    public JdbcOrderStore jdbcOrderStore(HikariDataSource orderDataSource) {
+        return new JdbcOrderStore(orderDataSource);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "order.jdbc.batch.enabled", havingValue = "true", matchIfMissing = true)
+    public GroupCommitter<String> jdbcOrderCommitter(JdbcOrderStore jdbcOrderStore,
+                                                     @Value("${order.jdbc.batch.max-batch-size:100}") int maxBatchSize,
+                                                     @Value("${order.jdbc.batch.max-delay:5ms}") Duration maxDelay) {
+        return new GroupCommitter<>("jdbc-order", jdbcOrderStore, maxBatchSize, maxDelay);
+    }
+
+    @Bean
+    @Primary
+    public OrderRepositoryV3 jdbcOrderRepositoryV3(JdbcOrderStore jdbcOrderStore,
+                                                   @Qualifier("jdbcOrderCommitter") ObjectProvider<GroupCommitter<String>> jdbcOrderCommitter) {
+        return new JdbcOrderRepositoryV3(jdbcOrderStore, jdbcOrderCommitter.getIfAvailable());
+    }
+}
@@ -0,0 +1,158 @@
+package hello.proxy.config.lazy;
+
+import lombok.extern.slf4j.Slf4j;
+import org.aopalliance.intercept.Interceptor;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.IntroductionAdvisor;
+import org.springframework.aop.PointcutAdvisor;
+import org.springframework.aop.framework.AdvisedSupport;
+import org.springframework.aop.framework.AopInfrastructureBean;
+import org.springframework.aop.framework.ReflectiveMethodInvocation;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.Aware;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.core.annotation.AnnotationAwareOrderComparator;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
+
+import java.io.Closeable;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 첫 호출 시점에 어드바이저 매칭과 어드바이스 체인을 만드는 지연(lazy) 프록시
+ * - 컨텍스트 시작 시점에는 클래스 조건(ClassFilter)만 통과한 후보 어드바이저로 JDK 동적 프록시(자리 표시자)만 만듦
+ *   메서드를 하나하나 포인트컷에 매칭하는 일(AopUtils.findAdvisorsThatCanApply), ProxyFactory 설정, 메서드별 어드바이스 체인 계산은 미룸
+ * - 첫 호출이 들어오면 후보 중 실제로 적용할 어드바이저를 고르고 AdvisedSupport 를 한번만 만듦(double-checked locking)
+ *   이후에는 이 핸들러가 직접 어드바이스 체인을 실행함. 적용할 어드바이저가 없으면 target 을 바로 호출함
+ *   -> 자리 표시자가 곧 프록시 역할을 하므로, 만들어진 뒤에도 "자리 표시자 -> 실제 프록시 -> target" 같은 추가 호출 단계가 남지 않음
+ * - 메서드별 어드바이스 체인은 AdvisedSupport 내부 캐시를 그대로 사용함 (JdkDynamicAopProxy 와 같은 방식)
+ *
+ * (주의)
+ * - 자리 표시자도 프록시 클래스가 필요하므로 시작 시점에 Proxy.newProxyInstance 는 호출됨
+ *   (JDK 가 인터페이스 조합별로 프록시 클래스를 캐시하므로 같은 인터페이스의 빈은 클래스를 다시 만들지 않음)
+ * - JDK 동적 프록시로만 자리 표시자를 만들 수 있으므로 인터페이스가 있는 빈만 대상임. 인터페이스가 없으면 createProxy() 가 null 을 반환하고, 호출한 쪽에서 기존처럼 바로 프록시를 만듦
+ * - 자리 표시자는 AopInfrastructureBean 을 구현함. 그래서 스프링 자동 프록시 생성기가 이 객체를 다시 프록시로 감싸지 않음
+ */
+@Slf4j
+public class LazyAdvisedInvocationHandler implements InvocationHandler {
+
+    private final Object target;
+    private final Class<?> targetClass;
+    private final List<Advisor> candidates;
+
+    private volatile AdvisedSupport advised;
+
+    private LazyAdvisedInvocationHandler(Object target, List<Advisor> candidates) {
+        this.target = target;
+        this.targetClass = target.getClass();
+        this.candidates = List.copyOf(candidates);
+    }
+
+    /**
+     * target 이 구현한 인터페이스로 자리 표시자 프록시를 만듦. 프록시로 노출할 인터페이스가 없으면 null
+     * candidates 는 클래스 조건만 확인한 후보 어드바이저 (메서드 매칭은 첫 호출 시점에 함)
+     */
+    public static Object createProxy(Object target, List<Advisor> candidates) {
+        List<Class<?>> interfaces = proxyInterfaces(target.getClass());
+        if (interfaces.isEmpty()) {
+            return null;
+        }
+        interfaces.add(AopInfrastructureBean.class);
+
+        LazyAdvisedInvocationHandler handler = new LazyAdvisedInvocationHandler(target, candidates);
+        ClassLoader classLoader = target.getClass().getClassLoader();
+        return Proxy.newProxyInstance(classLoader, interfaces.toArray(new Class<?>[0]), handler);
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        if (ReflectionUtils.isEqualsMethod(method)) {
+            return proxy == args[0];
+        }
+        if (ReflectionUtils.isHashCodeMethod(method)) {
+            return System.identityHashCode(proxy);
+        }
+
+        List<Object> chain = getAdvised().getInterceptorsAndDynamicInterceptionAdvice(method, targetClass);
+
+        Object result;
+        if (chain.isEmpty()) {
+            result = AopUtils.invokeJoinpointUsingReflection(target, method, args);
+        } else {
+            result = new LazyMethodInvocation(proxy, target, method, args, targetClass, chain).proceed();
+        }
+
+        //target 이 자기 자신(this)을 반환하면 프록시를 대신 반환
+        if (result == target && method.getReturnType().isInstance(proxy)) {
+            return proxy;
+        }
+        return result;
+    }
+
+    private AdvisedSupport getAdvised() {
+        AdvisedSupport advised = this.advised;
+        if (advised == null) {
+            synchronized (this) {
+                advised = this.advised;
+                if (advised == null) {
+                    List<Advisor> advisors = AopUtils.findAdvisorsThatCanApply(candidates, targetClass);
+                    AnnotationAwareOrderComparator.sort(advisors);
+                    advised = new AdvisedSupport();
+                    advised.setTarget(target);
+                    advisors.forEach(advised::addAdvisor);
+                    advised.setFrozen(true);
+                    this.advised = advised;
+                    log.debug("materialize lazy proxy: target={} candidates={} advisors={}", targetClass, candidates.size(), advisors.size());
+                }
+            }
+        }
+        return advised;
+    }
+
+    /**
+     * 시작 시점에 하는 가벼운 확인 - 클래스 조건만 봄 (메서드별 매칭은 하지 않음)
+     */
+    public static boolean classMatches(Advisor advisor, Class<?> targetClass) {
+        if (advisor instanceof IntroductionAdvisor) {
+            return ((IntroductionAdvisor) advisor).getClassFilter().matches(targetClass);
+        }
+        if (advisor instanceof PointcutAdvisor) {
+            return ((PointcutAdvisor) advisor).getPointcut().getClassFilter().matches(targetClass);
+        }
+        return true;
+    }
+
+    /**
+     * ProxyFactory 가 프록시 인터페이스에서 제외하는 콜백 인터페이스(InitializingBean, Aware 등)는 빼고 남은 인터페이스
+     */
+    private static List<Class<?>> proxyInterfaces(Class<?> targetClass) {
+        List<Class<?>> interfaces = new ArrayList<>();
+        for (Class<?> ifc : ClassUtils.getAllInterfacesForClassAsSet(targetClass)) {
+            if (isConfigurationCallbackInterface(ifc) || ifc.getMethods().length == 0) {
+                continue;
+            }
+            interfaces.add(ifc);
+        }
+        return interfaces;
+    }
+
+    private static boolean isConfigurationCallbackInterface(Class<?> ifc) {
+        return InitializingBean.class == ifc || DisposableBean.class == ifc || Closeable.class == ifc ||
+                AutoCloseable.class == ifc || Interceptor.class.isAssignableFrom(ifc) || Aware.class.isAssignableFrom(ifc);
+    }
+
+    /**
+     * ReflectiveMethodInvocation 의 생성자가 protected 라서 하위 클래스로 사용
+     */
+    private static class LazyMethodInvocation extends ReflectiveMethodInvocation {
+        LazyMethodInvocation(Object proxy, Object target, Method method, Object[] arguments,
+                             Class<?> targetClass, List<Object> interceptorsAndDynamicMethodMatchers) {
+            super(proxy, target, method, arguments, targetClass, interceptorsAndDynamicMethodMatchers);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package hello.proxy.config.lazy;
+
+import lombok.extern.slf4j.Slf4j;
+import org.aopalliance.aop.Advice;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.Pointcut;
+import org.springframework.aop.framework.AopInfrastructureBean;
+import org.springframework.aop.framework.autoproxy.BeanFactoryAdvisorRetrievalHelper;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.BeanFactoryAware;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.core.Ordered;
+import org.springframework.core.PriorityOrdered;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 자동 프록시 생성기의 지연 프록시 버전
+ * - 스프링 빈으로 등록된 Advisor 를 모두 찾아서 적용 가능한 빈에 프록시를 적용하는 것은 자동 프록시 생성기와 같음
+ * - 차이점은 실제 프록시 대신 LazyAdvisedInvocationHandler 자리 표시자를 등록하고,
+ *   메서드별 포인트컷 매칭과 어드바이스 체인은 첫 호출 시점에 만든다는 것 (시작 시점에는 클래스 조건만 확인)
+ * - 클래스 조건은 통과했지만 실제로 적용할 메서드가 없는 빈도 자리 표시자가 됨 -> 첫 호출에서 어드바이저가 없으면 target 을 바로 호출
+ *
+ * 스프링 자동 프록시 생성기(AnnotationAwareAspectJAutoProxyCreator)와의 관계
+ * - PriorityOrdered 를 구현해서 자동 프록시 생성기보다 먼저 실행됨
+ * - 자리 표시자는 AopInfrastructureBean 이므로 자동 프록시 생성기는 그대로 통과시킴 (같은 빈에 프록시가 두번 적용되지 않음)
+ * - 인터페이스가 없어서 자리 표시자를 만들 수 없는 빈은 원본을 반환하고, 기존처럼 자동 프록시 생성기가 바로 프록시를 만듦
+ */
+@Slf4j
+public class LazyAdvisorAutoProxyCreator implements BeanPostProcessor, BeanFactoryAware, PriorityOrdered {
+
+    private BeanFactoryAdvisorRetrievalHelper advisorRetrievalHelper;
+
+    @Override
+    public void setBeanFactory(BeanFactory beanFactory) throws BeansException {
+        if (!(beanFactory instanceof ConfigurableListableBeanFactory)) {
+            throw new IllegalArgumentException("LazyAdvisorAutoProxyCreator requires a ConfigurableListableBeanFactory: " + beanFactory);
+        }
+        this.advisorRetrievalHelper = new BeanFactoryAdvisorRetrievalHelper((ConfigurableListableBeanFactory) beanFactory);
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) throws BeansException {
+        Class<?> beanClass = bean.getClass();
+        if (isInfrastructureClass(beanClass)) {
+            return bean;
+        }
+
+        //생성 중인 Advisor 는 BeanFactoryAdvisorRetrievalHelper 가 알아서 건너뜀
+        List<Advisor> candidates = new ArrayList<>();
+        for (Advisor advisor : advisorRetrievalHelper.findAdvisorBeans()) {
+            if (LazyAdvisedInvocationHandler.classMatches(advisor, beanClass)) {
+                candidates.add(advisor);
+            }
+        }
+        if (candidates.isEmpty()) {
+            return bean;
+        }
+
+        Object proxy = LazyAdvisedInvocationHandler.createProxy(bean, candidates);
+        if (proxy == null) {
+            log.debug("lazy proxy not available (no interface), fall back to eager proxy: beanName={}", beanName);
+            return bean;
+        }
+        log.debug("register lazy proxy: beanName={} target={}", beanName, beanClass);
+        return proxy;
+    }
+
+    private boolean isInfrastructureClass(Class<?> beanClass) {
+        return Advice.class.isAssignableFrom(beanClass) ||
+                Pointcut.class.isAssignableFrom(beanClass) ||
+                Advisor.class.isAssignableFrom(beanClass) ||
+                AopInfrastructureBean.class.isAssignableFrom(beanClass);
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+}
@@ -0,0 +1,31 @@
+package hello.proxy.config.partition;
+
+import hello.proxy.infra.partition.PartitionedExecutor;
+import hello.proxy.trace.logtrace.LogTrace;
+import hello.proxy.trace.logtrace.LogTraceTaskDecorator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * order.partition.enabled=true 이면 주문 작업을 itemId 별 shard 로 나눠서 실행하는 PartitionedExecutor 등록 (ProxyApplication 에서 Import)
+ * (ex) order.partition.shards=8              (0 이면 CPU 수)
+ *      order.partition.queue-capacity=10000   (shard 별 최대 대기 작업 수)
+ * - /v1, /v2, /v3/request-async 가 사용함 (일괄 주문은 order.bulk.partitioned=true 일 때만). 요청의 TraceId 를 shard 스레드로 넘겨서 서비스, 저장소 추적이 같은 요청으로 이어짐
+ * - 꺼져 있으면 shard 스레드를 만들지 않고, 컨트롤러는 요청 스레드에서 바로 실행함
+ * - proxy.config 로 어떤 설정을 고르든 등록되도록 앱 설정(AppV1Config, AppV2Config)이 아니라 ProxyApplication 에서 Import 하고,
+ *   컨트롤러를 직접 만드는 설정(v1 프록시, 동적 프록시, ProxyFactory)도 모두 ObjectProvider 로 받아서 넘김
+ */
+@Configuration
+@ConditionalOnProperty(name = "order.partition.enabled", havingValue = "true")
+public class PartitionConfig {
+
+    @Bean
+    public PartitionedExecutor orderPartitions(LogTrace logTrace,
+                                               @Value("${order.partition.shards:0}") int shards,
+                                               @Value("${order.partition.queue-capacity:10000}") int queueCapacity) {
+        int shardCount = shards > 0 ? shards : Runtime.getRuntime().availableProcessors();
+        return new PartitionedExecutor("order", shardCount, queueCapacity, new LogTraceTaskDecorator(logTrace));
+    }
+}
@@ -0,0 +1,527 @@
+package hello.proxy.config.pointcut;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.aop.ClassFilter;
+import org.springframework.aop.MethodMatcher;
+import org.springframework.aop.Pointcut;
+import org.springframework.aop.aspectj.AspectJExpressionPointcut;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.util.ClassUtils;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * 자주 쓰는 execution() 표현식만 직접 해석하는 가벼운 포인트컷
+ * - AspectJExpressionPointcut 은 단순한 표현식도 AspectJ weaver(World, PointcutParser 등)를 모두 올려서 해석함
+ * - 아래 범위의 표현식은 작은 매처 트리로 컴파일해서 직접 매칭하고, 그 밖의 표현식은 AspectJExpressionPointcut 으로 넘김 (forExpression)
+ *
+ * 지원하는 문법
+ * - execution([접근제어자] 반환타입 [선언타입.]메서드이름(파라미터))
+ * - 접근제어자 : public, protected, private, static, final
+ * - 타입 : '*', 기본형, 패키지를 포함한 타입 이름, java.lang 타입의 단순 이름, 배열('[]'), 이름 중간의 '*'
+ * - 선언 타입 : 'hello.proxy.app..' 처럼 '..' 로 하위 패키지 포함, 'hello.proxy.app.*Service' 처럼 '*' 사용
+ * - 메서드 이름 : 'save*', '*Item' 같은 '*' 패턴
+ * - 파라미터 : '..'(개수 상관 없음), '*'(아무 타입 하나), 타입 이름
+ * - 조합 : &&, ||, !, 괄호
+ *
+ * 매칭 규칙은 스프링 AOP 에서 AspectJExpressionPointcut 을 쓸 때와 같게 맞춤
+ * - 대상 클래스 기준으로 가장 구체적인 메서드(AopUtils.getMostSpecificMethod)를 찾아서 비교
+ * - 선언 타입은 해당 메서드를 선언한 상위 타입(상위 클래스, 인터페이스) 중 하나라도 패턴에 맞으면 매칭
+ */
+@Slf4j
+public class ExecutionPointcut implements Pointcut, ClassFilter, MethodMatcher {
+
+    private final String expression;
+    private final Node root;
+
+    private ExecutionPointcut(String expression, Node root) {
+        this.expression = expression;
+        this.root = root;
+    }
+
+    /**
+     * 지원하는 표현식이면 ExecutionPointcut, 아니면 AspectJExpressionPointcut 을 반환
+     */
+    public static Pointcut forExpression(String expression) {
+        try {
+            return parse(expression);
+        } catch (IllegalArgumentException e) {
+            log.debug("fall back to AspectJ: expression={} reason={}", expression, e.getMessage());
+            AspectJExpressionPointcut pointcut = new AspectJExpressionPointcut();
+            pointcut.setExpression(expression);
+            return pointcut;
+        }
+    }
+
+    /**
+     * @throws IllegalArgumentException 지원하지 않는 표현식
+     */
+    public static ExecutionPointcut parse(String expression) {
+        return new ExecutionPointcut(expression, new Parser(expression).parse());
+    }
+
+    @Override
+    public ClassFilter getClassFilter() {
+        return this;
+    }
+
+    @Override
+    public MethodMatcher getMethodMatcher() {
+        return this;
+    }
+
+    @Override
+    public boolean matches(Class<?> clazz) {
+        return root.couldMatch(clazz);
+    }
+
+    @Override
+    public boolean matches(Method method, Class<?> targetClass) {
+        Class<?> userClass = targetClass != null ? ClassUtils.getUserClass(targetClass) : method.getDeclaringClass();
+        Method specificMethod = AopUtils.getMostSpecificMethod(method, userClass);
+        return root.matches(specificMethod, userClass);
+    }
+
+    @Override
+    public boolean isRuntime() {
+        return false;
+    }
+
+    @Override
+    public boolean matches(Method method, Class<?> targetClass, Object... args) {
+        return matches(method, targetClass);
+    }
+
+    public String getExpression() {
+        return expression;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return this == other || (other instanceof ExecutionPointcut && expression.equals(((ExecutionPointcut) other).expression));
+    }
+
+    @Override
+    public int hashCode() {
+        return expression.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return "ExecutionPointcut: " + expression;
+    }
+
+    private interface Node {
+        /**
+         * 클래스 필터. 확실히 매칭되지 않는 경우에만 false
+         */
+        boolean couldMatch(Class<?> targetClass);
+
+        boolean matches(Method method, Class<?> targetClass);
+    }
+
+    private static class And implements Node {
+        private final Node left;
+        private final Node right;
+
+        And(Node left, Node right) {
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        public boolean couldMatch(Class<?> targetClass) {
+            return left.couldMatch(targetClass) && right.couldMatch(targetClass);
+        }
+
+        @Override
+        public boolean matches(Method method, Class<?> targetClass) {
+            return left.matches(method, targetClass) && right.matches(method, targetClass);
+        }
+    }
+
+    private static class Or implements Node {
+        private final Node left;
+        private final Node right;
+
+        Or(Node left, Node right) {
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        public boolean couldMatch(Class<?> targetClass) {
+            return left.couldMatch(targetClass) || right.couldMatch(targetClass);
+        }
+
+        @Override
+        public boolean matches(Method method, Class<?> targetClass) {
+            return left.matches(method, targetClass) || right.matches(method, targetClass);
+        }
+    }
+
+    private static class Not implements Node {
+        private final Node node;
+
+        Not(Node node) {
+            this.node = node;
+        }
+
+        /**
+         * 부정 조건은 클래스만 보고 판단할 수 없음
+         */
+        @Override
+        public boolean couldMatch(Class<?> targetClass) {
+            return true;
+        }
+
+        @Override
+        public boolean matches(Method method, Class<?> targetClass) {
+            return !node.matches(method, targetClass);
+        }
+    }
+
+    private static class Execution implements Node {
+        private final int modifiers;
+        private final TypePattern returnType;
+        private final TypePattern declaringType;
+        private final NamePattern methodName;
+        private final List<TypePattern> parameters;
+
+        Execution(int modifiers, TypePattern returnType, TypePattern declaringType, NamePattern methodName, List<TypePattern> parameters) {
+            this.modifiers = modifiers;
+            this.returnType = returnType;
+            this.declaringType = declaringType;
+            this.methodName = methodName;
+            this.parameters = parameters;
+        }
+
+        @Override
+        public boolean couldMatch(Class<?> targetClass) {
+            if (declaringType.isAny()) {
+                return true;
+            }
+            for (Class<?> type : hierarchy(targetClass)) {
+                if (declaringType.matches(type)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public boolean matches(Method method, Class<?> targetClass) {
+            return (method.getModifiers() & modifiers) == modifiers &&
+                    methodName.matches(method.getName()) &&
+                    returnType.matches(method.getReturnType()) &&
+                    matchesParameters(method.getParameterTypes(), 0, 0) &&
+                    matchesDeclaringType(method, targetClass);
+        }
+
+        private boolean matchesDeclaringType(Method method, Class<?> targetClass) {
+            if (declaringType.isAny() || declaringType.matches(method.getDeclaringClass())) {
+                return true;
+            }
+            //상위 타입에 같은 시그니처가 선언되어 있으면 그 타입도 선언 타입 후보
+            for (Class<?> type : hierarchy(targetClass)) {
+                if (declaringType.matches(type) && declares(type, method)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private boolean matchesParameters(Class<?>[] types, int typeIndex, int patternIndex) {
+            if (patternIndex == parameters.size()) {
+                return typeIndex == types.length;
+            }
+            TypePattern pattern = parameters.get(patternIndex);
+            if (pattern.isAnySequence()) {
+                for (int i = typeIndex; i <= types.length; i++) {
+                    if (matchesParameters(types, i, patternIndex + 1)) {
+                        return true;
+                    }
+                }
+                return false;
+            }
+            return typeIndex < types.length && pattern.matches(types[typeIndex]) &&
+                    matchesParameters(types, typeIndex + 1, patternIndex + 1);
+        }
+
+        private static Set<Class<?>> hierarchy(Class<?> targetClass) {
+            Set<Class<?>> types = new LinkedHashSet<>();
+            for (Class<?> type = targetClass; type != null; type = type.getSuperclass()) {
+                types.add(type);
+            }
+            types.addAll(ClassUtils.getAllInterfacesForClassAsSet(targetClass));
+            return types;
+        }
+
+        private static boolean declares(Class<?> type, Method method) {
+            try {
+                type.getDeclaredMethod(method.getName(), method.getParameterTypes());
+                return true;
+            } catch (NoSuchMethodException e) {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * '*' 만 와일드카드로 쓰는 이름 패턴
+     */
+    private static class NamePattern {
+        private final Pattern regex;
+
+        NamePattern(String pattern) {
+            this.regex = pattern.equals("*") ? null : Pattern.compile(toRegex(pattern, false));
+        }
+
+        boolean matches(String name) {
+            return regex == null || regex.matcher(name).matches();
+        }
+    }
+
+    private static class TypePattern {
+        private static final TypePattern ANY = new TypePattern(null, null);
+        private static final TypePattern ANY_SEQUENCE = new TypePattern(null, null);
+
+        private final Pattern regex;
+        private final Pattern javaLangRegex;
+
+        private TypePattern(Pattern regex, Pattern javaLangRegex) {
+            this.regex = regex;
+            this.javaLangRegex = javaLangRegex;
+        }
+
+        static TypePattern of(String pattern) {
+            if (pattern.equals("*")) {
+                return ANY;
+            }
+            if (pattern.equals("..")) {
+                return ANY_SEQUENCE;
+            }
+            Pattern regex = Pattern.compile(toRegex(pattern, true));
+            //패키지가 없는 이름은 java.lang 타입으로도 비교 (String -> java.lang.String)
+            Pattern javaLangRegex = pattern.indexOf('.') < 0 ? Pattern.compile("java\\.lang\\." + toRegex(pattern, true)) : null;
+            return new TypePattern(regex, javaLangRegex);
+        }
+
+        boolean isAny() {
+            return this == ANY;
+        }
+
+        boolean isAnySequence() {
+            return this == ANY_SEQUENCE;
+        }
+
+        boolean matches(Class<?> type) {
+            if (regex == null) {
+                return true;
+            }
+            String name = type.getTypeName();
+            return regex.matcher(name).matches() || (javaLangRegex != null && javaLangRegex.matcher(name).matches());
+        }
+    }
+
+    /**
+     * '*' : '.' 을 제외한 아무 문자열, '..' : 하위 패키지 포함 (타입 패턴에서만)
+     */
+    private static String toRegex(String pattern, boolean typePattern) {
+        StringBuilder sb = new StringBuilder();
+        int i = 0;
+        while (i < pattern.length()) {
+            char c = pattern.charAt(i);
+            if (typePattern && pattern.startsWith("..", i)) {
+                sb.append("\\.(?:.*\\.)?");
+                i += 2;
+            } else if (c == '*') {
+                sb.append(typePattern ? "[^.]*" : ".*");
+                i++;
+            } else if (c == '[' && pattern.startsWith("[]", i)) {
+                sb.append("\\[\\]");
+                i += 2;
+            } else {
+                sb.append(Pattern.quote(String.valueOf(c)));
+                i++;
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * 재귀 하강 파서
+     * or  := and ('||' and)*
+     * and := not ('&&' not)*
+     * not := '!' not | '(' or ')' | execution
+     */
+    private static class Parser {
+
+        private static final Pattern TYPE_NAME = Pattern.compile("[\\w$.*]+(\\[\\])*");
+        private static final Pattern METHOD_NAME = Pattern.compile("[\\w$*]+");
+
+        private final String expression;
+        private int position;
+
+        Parser(String expression) {
+            this.expression = expression;
+        }
+
+        Node parse() {
+            Node node = parseOr();
+            skipWhitespace();
+            if (position != expression.length()) {
+                throw unsupported("unexpected '" + expression.substring(position) + "'");
+            }
+            return node;
+        }
+
+        private Node parseOr() {
+            Node node = parseAnd();
+            while (consume("||")) {
+                node = new Or(node, parseAnd());
+            }
+            return node;
+        }
+
+        private Node parseAnd() {
+            Node node = parseNot();
+            while (consume("&&")) {
+                node = new And(node, parseNot());
+            }
+            return node;
+        }
+
+        private Node parseNot() {
+            if (consume("!")) {
+                return new Not(parseNot());
+            }
+            if (consume("(")) {
+                Node node = parseOr();
+                expect(")");
+                return node;
+            }
+            if (consume("execution(")) {
+                int end = closingParenthesis();
+                String pattern = expression.substring(position, end);
+                position = end + 1;
+                return parseExecution(pattern.trim());
+            }
+            throw unsupported("unsupported designator at " + position);
+        }
+
+        /**
+         * execution( 다음부터 짝이 맞는 ')' 위치
+         */
+        private int closingParenthesis() {
+            int depth = 1;
+            for (int i = position; i < expression.length(); i++) {
+                char c = expression.charAt(i);
+                if (c == '(') {
+                    depth++;
+                } else if (c == ')' && --depth == 0) {
+                    return i;
+                }
+            }
+            throw unsupported("unbalanced parentheses");
+        }
+
+        private Node parseExecution(String pattern) {
+            int paramsStart = pattern.indexOf('(');
+            if (paramsStart < 0 || !pattern.endsWith(")") || pattern.indexOf('(', paramsStart + 1) >= 0) {
+                throw unsupported("unsupported execution pattern: " + pattern);
+            }
+            List<TypePattern> parameters = parseParameters(pattern.substring(paramsStart + 1, pattern.length() - 1));
+
+            String[] tokens = pattern.substring(0, paramsStart).trim().split("\\s+");
+            if (tokens.length < 2) {
+                throw unsupported("missing return type: " + pattern);
+            }
+            int modifiers = 0;
+            for (int i = 0; i < tokens.length - 2; i++) {
+                modifiers |= modifier(tokens[i]);
+            }
+            TypePattern returnType = typePattern(tokens[tokens.length - 2]);
+
+            String qualifiedName = tokens[tokens.length - 1];
+            int lastDot = qualifiedName.lastIndexOf('.');
+            String declaringType = lastDot < 0 ? "*" : qualifiedName.substring(0, lastDot);
+            String methodName = qualifiedName.substring(lastDot + 1);
+            if (declaringType.endsWith(".")) {
+                //'hello.proxy.app..*' -> 선언 타입 'hello.proxy.app..*' + 메서드 이름 '*'
+                declaringType = declaringType + "*";
+            }
+            if (!METHOD_NAME.matcher(methodName).matches()) {
+                throw unsupported("unsupported method name pattern: " + methodName);
+            }
+            return new Execution(modifiers, returnType, typePattern(declaringType), new NamePattern(methodName), parameters);
+        }
+
+        private List<TypePattern> parseParameters(String params) {
+            List<TypePattern> parameters = new ArrayList<>();
+            if (params.isBlank()) {
+                return parameters;
+            }
+            for (String param : Arrays.asList(params.split(","))) {
+                parameters.add(typePattern(param.trim()));
+            }
+            return parameters;
+        }
+
+        private TypePattern typePattern(String pattern) {
+            if (!pattern.equals("..") && !TYPE_NAME.matcher(pattern).matches()) {
+                throw unsupported("unsupported type pattern: " + pattern);
+            }
+            return TypePattern.of(pattern);
+        }
+
+        private int modifier(String token) {
+            switch (token) {
+                case "public":
+                    return Modifier.PUBLIC;
+                case "protected":
+                    return Modifier.PROTECTED;
+                case "private":
+                    return Modifier.PRIVATE;
+                case "static":
+                    return Modifier.STATIC;
+                case "final":
+                    return Modifier.FINAL;
+                default:
+                    throw unsupported("unsupported modifier: " + token);
+            }
+        }
+
+        private boolean consume(String token) {
+            skipWhitespace();
+            if (expression.startsWith(token, position)) {
+                position += token.length();
+                return true;
+            }
+            return false;
+        }
+
+        private void expect(String token) {
+            if (!consume(token)) {
+                throw unsupported("expected '" + token + "' at " + position);
+            }
+        }
+
+        private void skipWhitespace() {
+            while (position < expression.length() && Character.isWhitespace(expression.charAt(position))) {
+                position++;
+            }
+        }
+
+        private IllegalArgumentException unsupported(String reason) {
+            return new IllegalArgumentException(reason + " [" + expression + "]");
+        }
+    }
+}
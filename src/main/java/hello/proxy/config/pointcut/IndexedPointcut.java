@@ -0,0 +1,170 @@
+package hello.proxy.config.pointcut;
+
+import org.springframework.aop.ClassFilter;
+import org.springframework.aop.MethodMatcher;
+import org.springframework.aop.Pointcut;
+import org.springframework.util.ClassUtils;
+
+import java.lang.reflect.Method;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 빌드 시점 인덱스(PointcutIndex)를 먼저 조회하는 포인트컷
+ * - 인덱스에 결과가 있으면(hit) 표현식을 해석하지 않고 바로 반환
+ * - 인덱스에 없으면(miss) 그때 ExecutionPointcut.forExpression() 으로 포인트컷을 만들어서 매칭함
+ *   (단순한 execution() 표현식은 직접 해석하고, 그 외의 표현식만 AspectJExpressionPointcut 사용)
+ *   -> 모든 대상이 인덱스에 있으면 표현식 파싱과 AspectJ weaver 관련 객체가 아예 만들어지지 않음
+ * - 인덱스에 없는 클래스 대부분은 스프링, 스프링 부트의 인프라 빈이므로 fallback 전에 패키지로 먼저 걸러냄
+ *   execution(* hello.proxy.app..*(..)) 처럼 선언 타입이 패키지로 시작하면, 클래스와 상위 타입(부모 클래스, 인터페이스)이
+ *   모두 그 패키지 밖일 때 매칭될 수 없으므로 바로 false (|| 가 있거나 패키지를 알 수 없는 표현식은 이 확인을 하지 않음)
+ * - DefaultPointcutAdvisor 에 기존 포인트컷처럼 넣어서 사용
+ */
+public class IndexedPointcut implements Pointcut, ClassFilter, MethodMatcher {
+
+    //execution([접근 제어자] 반환 타입 패키지..
+    private static final Pattern EXECUTION_PACKAGE = Pattern.compile("^execution\\((?:\\S+\\s+)+([A-Za-z_]\\w*(?:\\.[A-Za-z_]\\w*)*)\\.\\.");
+
+    private final String id;
+    private final String expression;
+    private final PointcutIndex index;
+    private final String packagePrefix; //null 이면 패키지로 걸러내지 않음
+
+    private volatile Pointcut fallback;
+
+    public IndexedPointcut(String id, String expression, PointcutIndex index) {
+        this.id = id;
+        this.expression = expression;
+        this.index = index;
+        this.packagePrefix = packagePrefix(expression);
+    }
+
+    /**
+     * TracePointcuts 에 등록된 id 로 생성. 클래스패스의 인덱스를 사용
+     */
+    public static IndexedPointcut of(String id) {
+        return new IndexedPointcut(id, TracePointcuts.expression(id), PointcutIndex.getDefault());
+    }
+
+    @Override
+    public ClassFilter getClassFilter() {
+        return this;
+    }
+
+    @Override
+    public MethodMatcher getMethodMatcher() {
+        return this;
+    }
+
+    @Override
+    public boolean matches(Class<?> clazz) {
+        Boolean indexed = index.matchesClass(id, expression, clazz);
+        if (indexed != null) {
+            return indexed;
+        }
+        if (!couldMatch(clazz)) {
+            return false;
+        }
+        return fallback().getClassFilter().matches(clazz);
+    }
+
+    @Override
+    public boolean matches(Method method, Class<?> targetClass) {
+        Boolean indexed = index.matchesMethod(id, expression, method, targetClass);
+        if (indexed != null) {
+            return indexed;
+        }
+        if (!couldMatch(targetClass != null ? targetClass : method.getDeclaringClass())) {
+            return false;
+        }
+        return fallback().getMethodMatcher().matches(method, targetClass);
+    }
+
+    /**
+     * execution() 표현식은 실행 시점 인자를 보지 않으므로 정적 매칭만 사용
+     */
+    @Override
+    public boolean isRuntime() {
+        return false;
+    }
+
+    @Override
+    public boolean matches(Method method, Class<?> targetClass, Object... args) {
+        return fallback().getMethodMatcher().matches(method, targetClass, args);
+    }
+
+    /**
+     * 클래스나 상위 타입 중 하나라도 표현식의 패키지 안에 있어야 매칭될 수 있음
+     */
+    private boolean couldMatch(Class<?> clazz) {
+        if (packagePrefix == null) {
+            return true;
+        }
+        for (Class<?> type = clazz; type != null; type = type.getSuperclass()) {
+            if (inPackage(type)) {
+                return true;
+            }
+        }
+        for (Class<?> ifc : ClassUtils.getAllInterfacesForClassAsSet(clazz)) {
+            if (inPackage(ifc)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean inPackage(Class<?> type) {
+        String packageName = type.getPackageName();
+        return packageName.equals(packagePrefix) || packageName.startsWith(packagePrefix + ".");
+    }
+
+    /**
+     * && 로 연결된 execution() 중 부정(!)이 아닌 것의 선언 타입이 "패키지.." 로 시작하면 그 패키지
+     */
+    static String packagePrefix(String expression) {
+        if (expression.contains("||")) {
+            return null;
+        }
+        for (String term : expression.split("&&")) {
+            Matcher matcher = EXECUTION_PACKAGE.matcher(term.trim());
+            if (matcher.find()) {
+                return matcher.group(1);
+            }
+        }
+        return null;
+    }
+
+    private Pointcut fallback() {
+        Pointcut pointcut = this.fallback;
+        if (pointcut == null) {
+            synchronized (this) {
+                pointcut = this.fallback;
+                if (pointcut == null) {
+                    pointcut = ExecutionPointcut.forExpression(expression);
+                    this.fallback = pointcut;
+                }
+            }
+        }
+        return pointcut;
+    }
+
+    /**
+     * 표현식 포인트컷(fallback)이 만들어졌는지 여부
+     */
+    public boolean isFallbackCreated() {
+        return fallback != null;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getExpression() {
+        return expression;
+    }
+
+    @Override
+    public String toString() {
+        return "IndexedPointcut[" + id + "]: " + expression;
+    }
+}
@@ -0,0 +1,304 @@
+package hello.proxy.config.pointcut;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.asm.Type;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 빌드 시점에 미리 계산해둔 포인트컷 매칭 결과 (META-INF/pointcut-index.tsv)
+ * - PointcutIndexGenerator 가 컴파일된 클래스에 포인트컷 표현식을 적용해서 "클래스, 메서드 디스크립터, 매칭된 포인트컷 id" 를 기록함
+ * - 실행 시점에는 IndexedPointcut 이 이 인덱스를 먼저 조회하고, 인덱스에 없는 경우(miss)에만 실제 표현식으로 매칭함
+ *
+ * 인덱스를 믿을 수 없는 경우는 miss 로 처리함
+ * - 포인트컷 표현식이 인덱스를 만들 때와 다른 경우 (표현식 해시 비교)
+ * - 클래스 구조(상위 타입, 메서드 시그니처, 접근 제어자)가 인덱스를 만들 때와 다른 경우 (클래스 fingerprint 비교)
+ * - 인덱스에 없는 클래스, 메서드
+ *
+ * 파일 형식 (탭 구분)
+ *   expression  {id}  {표현식 해시}
+ *   class       {클래스 이름}  {fingerprint}  {클래스 필터에 매칭된 id 목록}
+ *   method      {클래스 이름}  {메서드 이름 + 디스크립터}  {매칭된 id 목록}
+ */
+@Slf4j
+public class PointcutIndex {
+
+    public static final String LOCATION = "META-INF/pointcut-index.tsv";
+
+    private static final String EXPRESSION = "expression";
+    private static final String CLASS = "class";
+    private static final String METHOD = "method";
+    private static final String SEPARATOR = "\t";
+    private static final String ID_SEPARATOR = ",";
+
+    private static volatile PointcutIndex defaultIndex;
+
+    private final Map<String, String> expressionHashes;
+    private final Map<String, ClassEntry> classes;
+
+    private final Map<Class<?>, Optional<ClassEntry>> verifiedClasses = new ConcurrentHashMap<>();
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+
+    private PointcutIndex(Map<String, String> expressionHashes, Map<String, ClassEntry> classes) {
+        this.expressionHashes = expressionHashes;
+        this.classes = classes;
+    }
+
+    /**
+     * 클래스패스의 인덱스. 처음 사용할 때 한번만 읽음
+     */
+    public static PointcutIndex getDefault() {
+        PointcutIndex index = defaultIndex;
+        if (index == null) {
+            synchronized (PointcutIndex.class) {
+                index = defaultIndex;
+                if (index == null) {
+                    index = load(ClassUtils.getDefaultClassLoader());
+                    defaultIndex = index;
+                }
+            }
+        }
+        return index;
+    }
+
+    public static PointcutIndex load(ClassLoader classLoader) {
+        try (InputStream in = classLoader.getResourceAsStream(LOCATION)) {
+            if (in == null) {
+                log.debug("pointcut index not found: {}", LOCATION);
+                return empty();
+            }
+            PointcutIndex index = read(new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8)));
+            log.debug("pointcut index loaded: expressions={} classes={}", index.expressionHashes.size(), index.classes.size());
+            return index;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read " + LOCATION, e);
+        }
+    }
+
+    public static PointcutIndex empty() {
+        return new PointcutIndex(Collections.emptyMap(), Collections.emptyMap());
+    }
+
+    /**
+     * 클래스 필터 결과. 인덱스로 판단할 수 없으면 null
+     */
+    public Boolean matchesClass(String id, String expression, Class<?> clazz) {
+        ClassEntry entry = indexedEntry(id, expression, clazz);
+        if (entry == null) {
+            return miss();
+        }
+        return hit(entry.classIds.contains(id));
+    }
+
+    /**
+     * 메서드 매칭 결과. 인덱스로 판단할 수 없으면 null
+     */
+    public Boolean matchesMethod(String id, String expression, Method method, Class<?> targetClass) {
+        ClassEntry entry = indexedEntry(id, expression, targetClass);
+        if (entry == null) {
+            return miss();
+        }
+        Set<String> ids = entry.methods.get(methodKey(method));
+        if (ids == null) {
+            return miss();
+        }
+        return hit(ids.contains(id));
+    }
+
+    public long getHitCount() {
+        return hitCount.sum();
+    }
+
+    public long getMissCount() {
+        return missCount.sum();
+    }
+
+    private ClassEntry indexedEntry(String id, String expression, Class<?> clazz) {
+        if (clazz == null || !expressionHash(expression).equals(expressionHashes.get(id))) {
+            return null;
+        }
+        return verifiedClasses.computeIfAbsent(clazz, this::verify).orElse(null);
+    }
+
+    private Optional<ClassEntry> verify(Class<?> clazz) {
+        ClassEntry entry = classes.get(clazz.getName());
+        if (entry == null || !entry.fingerprint.equals(fingerprint(clazz))) {
+            return Optional.empty();
+        }
+        return Optional.of(entry);
+    }
+
+    private Boolean hit(boolean result) {
+        hitCount.increment();
+        return result;
+    }
+
+    private Boolean miss() {
+        missCount.increment();
+        return null;
+    }
+
+    /**
+     * AopUtils.canApply() 가 매칭해보는 메서드와 같은 범위 (대상 클래스와 상위 클래스, 모든 인터페이스의 메서드)
+     */
+    static List<Method> candidateMethods(Class<?> targetClass) {
+        Set<Class<?>> classes = new LinkedHashSet<>();
+        if (!Proxy.isProxyClass(targetClass)) {
+            classes.add(ClassUtils.getUserClass(targetClass));
+        }
+        classes.addAll(ClassUtils.getAllInterfacesForClassAsSet(targetClass));
+
+        List<Method> methods = new ArrayList<>();
+        for (Class<?> clazz : classes) {
+            Collections.addAll(methods, ReflectionUtils.getAllDeclaredMethods(clazz));
+        }
+        return methods;
+    }
+
+    static String methodKey(Method method) {
+        return method.getName() + Type.getMethodDescriptor(method);
+    }
+
+    static String expressionHash(String expression) {
+        return Integer.toHexString(expression.hashCode());
+    }
+
+    /**
+     * 포인트컷 매칭 결과에 영향을 주는 클래스 구조(상위 타입, 메서드 선언 클래스, 시그니처, 접근 제어자)의 해시
+     */
+    static String fingerprint(Class<?> clazz) {
+        TreeMap<String, String> signatures = new TreeMap<>();
+        for (Method method : candidateMethods(clazz)) {
+            signatures.put(method.getDeclaringClass().getName() + "#" + methodKey(method), Modifier.toString(method.getModifiers()));
+        }
+        StringBuilder sb = new StringBuilder();
+        for (Class<?> type = clazz; type != null; type = type.getSuperclass()) {
+            sb.append(type.getName()).append(';');
+        }
+        for (Class<?> ifc : ClassUtils.getAllInterfacesForClassAsSet(clazz)) {
+            sb.append(ifc.getName()).append(';');
+        }
+        signatures.forEach((signature, modifiers) -> sb.append(signature).append(' ').append(modifiers).append(';'));
+        return Long.toHexString(hash64(sb));
+    }
+
+    /**
+     * FNV-1a 64bit
+     */
+    private static long hash64(CharSequence value) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    private static PointcutIndex read(BufferedReader reader) throws IOException {
+        Map<String, String> expressionHashes = new HashMap<>();
+        Map<String, ClassEntry> classes = new HashMap<>();
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            String[] fields = line.split(SEPARATOR, -1);
+            switch (fields[0]) {
+                case EXPRESSION:
+                    expressionHashes.put(fields[1], fields[2]);
+                    break;
+                case CLASS:
+                    classes.put(fields[1], new ClassEntry(fields[2], ids(fields[3])));
+                    break;
+                case METHOD:
+                    ClassEntry entry = classes.get(fields[1]);
+                    if (entry != null) {
+                        entry.methods.put(fields[2], ids(fields[3]));
+                    }
+                    break;
+                default:
+                    log.warn("unknown pointcut index entry: {}", line);
+            }
+        }
+        return new PointcutIndex(expressionHashes, classes);
+    }
+
+    private static Set<String> ids(String value) {
+        if (value.isEmpty()) {
+            return Collections.emptySet();
+        }
+        return Set.of(value.split(ID_SEPARATOR));
+    }
+
+    private static class ClassEntry {
+        private final String fingerprint;
+        private final Set<String> classIds;
+        private final Map<String, Set<String>> methods = new HashMap<>();
+
+        private ClassEntry(String fingerprint, Set<String> classIds) {
+            this.fingerprint = fingerprint;
+            this.classIds = classIds;
+        }
+    }
+
+    /**
+     * 인덱스 파일 작성 (PointcutIndexGenerator 에서 사용)
+     */
+    static class Writer {
+
+        private final Map<String, String> expressions = new LinkedHashMap<>();
+        private final List<String> lines = new ArrayList<>();
+
+        void expression(String id, String expression) {
+            expressions.put(id, expression);
+        }
+
+        void type(Class<?> clazz, Set<String> classIds, Map<String, Set<String>> methodIds) {
+            lines.add(String.join(SEPARATOR, CLASS, clazz.getName(), fingerprint(clazz), String.join(ID_SEPARATOR, classIds)));
+            methodIds.forEach((methodKey, ids) ->
+                    lines.add(String.join(SEPARATOR, METHOD, clazz.getName(), methodKey, String.join(ID_SEPARATOR, ids))));
+        }
+
+        void writeTo(Path file) throws IOException {
+            Files.createDirectories(file.getParent());
+            try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+                writer.write("# generated by PointcutIndexGenerator");
+                writer.newLine();
+                for (Map.Entry<String, String> entry : expressions.entrySet()) {
+                    writer.write(String.join(SEPARATOR, EXPRESSION, entry.getKey(), expressionHash(entry.getValue())));
+                    writer.newLine();
+                }
+                for (String line : lines) {
+                    writer.write(line);
+                    writer.newLine();
+                }
+            }
+        }
+    }
+}
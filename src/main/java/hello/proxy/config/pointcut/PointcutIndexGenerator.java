@@ -0,0 +1,98 @@
+package hello.proxy.config.pointcut;
+
+import org.springframework.aop.ClassFilter;
+import org.springframework.aop.MethodMatcher;
+import org.springframework.aop.aspectj.AspectJExpressionPointcut;
+import org.springframework.util.ClassUtils;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * 빌드 시점 포인트컷 인덱스 생성기 (build.gradle 의 generatePointcutIndex 태스크에서 실행)
+ * - 컴파일된 클래스 디렉토리에서 basePackage 하위 클래스를 모두 읽어서 TracePointcuts 의 표현식을 AspectJ 로 매칭함
+ * - 결과를 PointcutIndex 형식으로 기록함. 실행 시점에는 이 결과를 읽기만 함
+ *
+ * 사용법: PointcutIndexGenerator {클래스 디렉토리} {출력 파일} [basePackage]
+ */
+public class PointcutIndexGenerator {
+
+    private static final String DEFAULT_BASE_PACKAGE = "hello.proxy.app";
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            throw new IllegalArgumentException("usage: PointcutIndexGenerator <classesDir> <outputFile> [basePackage]");
+        }
+        Path classesDir = Paths.get(args[0]);
+        Path outputFile = Paths.get(args[1]);
+        String basePackage = args.length > 2 ? args[2] : DEFAULT_BASE_PACKAGE;
+
+        long startNanos = System.nanoTime();
+        List<Class<?>> classes = loadClasses(classesDir, basePackage);
+        PointcutIndex.Writer writer = new PointcutIndex.Writer();
+
+        Map<String, AspectJExpressionPointcut> pointcuts = new TreeMap<>();
+        TracePointcuts.expressions().forEach((id, expression) -> {
+            AspectJExpressionPointcut pointcut = new AspectJExpressionPointcut();
+            pointcut.setExpression(expression);
+            pointcuts.put(id, pointcut);
+            writer.expression(id, expression);
+        });
+
+        for (Class<?> clazz : classes) {
+            Set<String> classIds = new LinkedHashSet<>();
+            Map<String, Set<String>> methodIds = new TreeMap<>();
+            for (Map.Entry<String, AspectJExpressionPointcut> entry : pointcuts.entrySet()) {
+                ClassFilter classFilter = entry.getValue().getClassFilter();
+                MethodMatcher methodMatcher = entry.getValue().getMethodMatcher();
+                boolean classMatched = classFilter.matches(clazz);
+                if (classMatched) {
+                    classIds.add(entry.getKey());
+                }
+                for (Method method : PointcutIndex.candidateMethods(clazz)) {
+                    Set<String> ids = methodIds.computeIfAbsent(PointcutIndex.methodKey(method), key -> new LinkedHashSet<>());
+                    if (classMatched && methodMatcher.matches(method, clazz)) {
+                        ids.add(entry.getKey());
+                    }
+                }
+            }
+            writer.type(clazz, classIds, methodIds);
+        }
+
+        writer.writeTo(outputFile);
+        System.out.printf("pointcut index: expressions=%d classes=%d time=%dms -> %s%n",
+                pointcuts.size(), classes.size(), (System.nanoTime() - startNanos) / 1_000_000, outputFile);
+    }
+
+    private static List<Class<?>> loadClasses(Path classesDir, String basePackage) throws IOException {
+        Path packageDir = classesDir.resolve(basePackage.replace('.', '/'));
+        if (!Files.isDirectory(packageDir)) {
+            return List.of();
+        }
+        ClassLoader classLoader = ClassUtils.getDefaultClassLoader();
+        try (Stream<Path> paths = Files.walk(packageDir)) {
+            return paths.filter(path -> path.toString().endsWith(ClassUtils.CLASS_FILE_SUFFIX))
+                    .map(path -> toClassName(classesDir, path))
+                    .sorted()
+                    .map(className -> ClassUtils.resolveClassName(className, classLoader))
+                    .filter(clazz -> !clazz.isInterface() && !clazz.isAnnotation())
+                    .collect(Collectors.toList());
+        }
+    }
+
+    private static String toClassName(Path classesDir, Path classFile) {
+        String relative = classesDir.relativize(classFile).toString();
+        return relative.substring(0, relative.length() - ClassUtils.CLASS_FILE_SUFFIX.length())
+                .replace('/', '.').replace('\\', '.');
+    }
+}
@@ -0,0 +1,46 @@
+package hello.proxy.config.pointcut;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 프로젝트에서 사용하는 포인트컷 표현식 모음
+ * - 어드바이저(AutoProxyConfig), @Aspect(LogTraceAspect), 빌드 시점 인덱스 생성기(PointcutIndexGenerator)가 같은 표현식을 쓰도록 한 곳에 모음
+ * - 애노테이션 값(@Around)에도 쓸 수 있도록 컴파일 시점 상수로 선언
+ * - 각 표현식은 인덱스에서 사용하는 id 를 가짐
+ * - 저장 로그, group commit, JDBC 저장소, shard executor 같은 인프라는 hello.proxy.infra 에 두어서 추적/위빙 대상에서 제외
+ *   (ex) PartitionedExecutor.submit 이 추적되면 TaskDecorator 가 요청의 TraceId 대신 submit 의 추적 상태를 넘기게 됨
+ */
+public final class TracePointcuts {
+
+    public static final String APP_ID = "app";
+    public static final String APP = "execution(* hello.proxy.app..*(..))";
+
+    public static final String APP_EXCEPT_NO_LOG_ID = "appExceptNoLog";
+    public static final String APP_EXCEPT_NO_LOG = "execution(* hello.proxy.app..*(..)) && !execution(* hello.proxy.app..noLog(..))";
+
+    private static final Map<String, String> EXPRESSIONS = new LinkedHashMap<>();
+
+    static {
+        EXPRESSIONS.put(APP_ID, APP);
+        EXPRESSIONS.put(APP_EXCEPT_NO_LOG_ID, APP_EXCEPT_NO_LOG);
+    }
+
+    private TracePointcuts() {
+    }
+
+    /**
+     * id -> 포인트컷 표현식
+     */
+    public static Map<String, String> expressions() {
+        return EXPRESSIONS;
+    }
+
+    public static String expression(String id) {
+        String expression = EXPRESSIONS.get(id);
+        if (expression == null) {
+            throw new IllegalArgumentException("Unknown pointcut id: " + id);
+        }
+        return expression;
+    }
+}
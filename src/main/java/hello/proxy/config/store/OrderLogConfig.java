@@ -0,0 +1,35 @@
+package hello.proxy.config.store;
+
+import hello.proxy.infra.store.FsyncPolicy;
+import hello.proxy.infra.store.OrderLog;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Paths;
+import java.time.Duration;
+
+/**
+ * order.log.enabled=true 이면 OrderRepositoryV1 을 OrderLog 기반 저장소로 바꿈 (ProxyApplication 에서 Import)
+ * (ex) order.log.directory=./data/order-log
+ *      order.log.segment-size=64MB
+ *      order.log.fsync=group            (always | periodic | group)
+ *      order.log.fsync-interval=2ms     (periodic : force 주기, group : append 를 모으는 최대 시간)
+ * - V1 저장소를 만드는 모든 설정(AppV1Config, v1 프록시, 동적 프록시, ProxyFactory)이 OrderRepositories 로 같은 저장소를 고름
+ * - 압축은 JMX 의 compact 오퍼레이션으로 실행
+ */
+@Configuration
+@ConditionalOnProperty(name = "order.log.enabled", havingValue = "true")
+public class OrderLogConfig {
+
+    @Bean
+    public OrderLog orderLog(@Value("${order.log.directory:./data/order-log}") String directory,
+                             @Value("${order.log.segment-size:64MB}") DataSize segmentSize,
+                             @Value("${order.log.fsync:group}") String fsync,
+                             @Value("${order.log.fsync-interval:2ms}") Duration fsyncInterval) {
+        return new OrderLog(Paths.get(directory), Math.toIntExact(segmentSize.toBytes()),
+                FsyncPolicy.valueOf(fsync.toUpperCase()), fsyncInterval);
+    }
+}
@@ -0,0 +1,250 @@
+package hello.proxy.config.tracing;
+
+import hello.proxy.config.v6_aop.metadata.TraceMetadataCache;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedOperation;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.PatternMatchUtils;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MutableCallSite;
+import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * 실행 중에 로그 추적을 켜고 끄는 스위치 (JMX: hello.proxy:type=TraceSwitch, HTTP: /trace/switch)
+ * - 전체 : static final MutableCallSite 의 target 을 상수 true/false 로 바꿈
+ *          JIT 는 static final 호출 지점을 상수로 취급해서 분기 자체를 없애고, target 이 바뀌면 그 코드를 무효화(deopt)함
+ *          -> 켜져 있든 꺼져 있든 호출마다 volatile 읽기가 없음
+ * - 패키지/메서드 : 규칙(Rules)은 한 곳(static)에 두고 모든 추적 지점이 같은 규칙으로 판단함
+ *   - 규칙의 키는 모든 경로에서 "실제로 실행되는 메서드 본문을 선언한 클래스" + 메서드명
+ *     (AopUtils.getMostSpecificMethod 결과의 선언 클래스. 에이전트가 계측한 타입(#t)과 같음)
+ *     -> 인터페이스로 호출해도, 하위 클래스 인스턴스여도 같은 규칙이 적용됨 (ex) OrderServiceV1Impl.orderItem
+ *   - TraceMetadataCache 를 사용하는 곳(@Aspect, LogTraceInterceptor, 위빙된 애스펙트) : 캐시 항목(sampled)에 규칙을 미리 반영 -> 어드바이스는 원래 하던 캐시 조회 결과만 봄
+ *   - 그 외(직접 만든 v1 프록시, JDK 동적 프록시 핸들러, LogTraceAdvice, HedgingAdvice, 에이전트) : isEnabled(target 클래스, 메서드명) 으로 확인
+ *     target 클래스는 Rules 안에서 한 번만 선언 클래스로 바꾸고 결과를 기억함 (규칙이 바뀌면 새로 계산)
+ *   - 규칙도 static final MutableCallSite 에 상수로 둠 -> 규칙이 없으면 전체 스위치와 마찬가지로 분기 자체가 없어짐 (volatile 읽기 없음)
+ * - 꺼진 메서드는 바로 target 을 호출함 (시간 측정, 트레이스 조회, 객체 생성 없음)
+ * 메서드 패턴은 trace.aop.exclude 와 같은 "클래스명.메서드명" 형식 (ex) *.noLog, OrderServiceV1Impl.* (클래스명은 인터페이스가 아니라 구현 클래스)
+ */
+@Slf4j
+@ManagedResource(objectName = "hello.proxy:type=TraceSwitch", description = "Runtime tracing switch")
+public class TraceSwitch {
+
+    private static final MutableCallSite GLOBAL = new MutableCallSite(MethodHandles.constant(boolean.class, true));
+    private static final MethodHandle GLOBAL_ENABLED = GLOBAL.dynamicInvoker();
+
+    private static final MutableCallSite RULES = new MutableCallSite(MethodHandles.constant(Rules.class, Rules.NONE));
+    private static final MethodHandle CURRENT_RULES = RULES.dynamicInvoker();
+
+    private final List<TraceMetadataCache> metadataCaches;
+    private final Set<String> disabledPackages = new TreeSet<>();
+    private final Set<String> disabledMethods = new TreeSet<>();
+
+    /**
+     * metadataCaches : 규칙을 미리 반영할 캐시 (TraceMetadataCache 를 사용하지 않는 설정이면 없음)
+     */
+    public TraceSwitch(TraceMetadataCache... metadataCaches) {
+        this.metadataCaches = List.of(metadataCaches);
+        Rules current = rules();
+        this.metadataCaches.forEach(cache -> cache.applySwitch(current::allows));
+    }
+
+    /**
+     * 어드바이스에서 호출. 전체 스위치가 켜져 있는지
+     */
+    public static boolean isEnabled() {
+        try {
+            return (boolean) GLOBAL_ENABLED.invokeExact();
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * 전체 스위치와 패키지/메서드 스위치를 모두 확인 (TraceMetadataCache 를 사용하지 않는 추적 지점에서 호출)
+     * targetClass : 호출 대상 객체의 클래스 (인터페이스가 아님). 메서드를 선언한 클래스로 바꿔서 판단함
+     */
+    public static boolean isEnabled(Class<?> targetClass, String methodName) {
+        if (!isEnabled()) {
+            return false;
+        }
+        Rules current = rules();
+        return current == Rules.NONE || current.allows(targetClass, methodName);
+    }
+
+    /**
+     * qualifiedMethod : "패키지.클래스명.메서드명" (클래스를 로드하지 않는 에이전트에서 사용, 클래스는 계측한 타입)
+     */
+    public static boolean isEnabled(String qualifiedMethod) {
+        if (!isEnabled()) {
+            return false;
+        }
+        Rules current = rules();
+        return current == Rules.NONE || current.allows(qualifiedMethod);
+    }
+
+    private static Rules rules() {
+        try {
+            return (Rules) CURRENT_RULES.invokeExact();
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    static void setGlobal(boolean enabled) {
+        if (isEnabled() == enabled) {
+            return;
+        }
+        GLOBAL.setTarget(MethodHandles.constant(boolean.class, enabled));
+        MutableCallSite.syncAll(new MutableCallSite[]{GLOBAL});
+    }
+
+    @ManagedAttribute(description = "Global tracing switch")
+    public boolean isGlobalEnabled() {
+        return isEnabled();
+    }
+
+    @ManagedAttribute(description = "Global tracing switch")
+    public synchronized void setGlobalEnabled(boolean enabled) {
+        setGlobal(enabled);
+        log.info("trace switch global={}", enabled);
+    }
+
+    @ManagedOperation(description = "Enable or disable tracing for a package and its sub packages")
+    public synchronized void setPackageEnabled(String packageName, boolean enabled) {
+        update(disabledPackages, packageName, enabled);
+        log.info("trace switch package={} enabled={}", packageName, enabled);
+    }
+
+    @ManagedOperation(description = "Enable or disable tracing for methods matching ClassName.methodName pattern")
+    public synchronized void setMethodEnabled(String pattern, boolean enabled) {
+        update(disabledMethods, pattern, enabled);
+        log.info("trace switch method={} enabled={}", pattern, enabled);
+    }
+
+    /**
+     * 전체 스위치를 켜고 패키지/메서드 스위치를 모두 지움
+     */
+    @ManagedOperation(description = "Enable tracing everywhere")
+    public synchronized void reset() {
+        disabledPackages.clear();
+        disabledMethods.clear();
+        applyRules(Rules.NONE);
+        setGlobal(true);
+        log.info("trace switch reset");
+    }
+
+    @ManagedAttribute(description = "Disabled packages")
+    public synchronized Set<String> getDisabledPackages() {
+        return Collections.unmodifiableSet(new TreeSet<>(disabledPackages));
+    }
+
+    @ManagedAttribute(description = "Disabled method patterns")
+    public synchronized Set<String> getDisabledMethods() {
+        return Collections.unmodifiableSet(new TreeSet<>(disabledMethods));
+    }
+
+    private void update(Set<String> disabled, String value, boolean enabled) {
+        if (enabled) {
+            disabled.remove(value);
+        } else {
+            disabled.add(value);
+        }
+        applyRules(new Rules(disabledPackages.toArray(new String[0]), disabledMethods.toArray(new String[0])));
+    }
+
+    /**
+     * 규칙을 먼저 바꾸고 캐시에 반영함
+     */
+    private void applyRules(Rules newRules) {
+        RULES.setTarget(MethodHandles.constant(Rules.class, newRules));
+        MutableCallSite.syncAll(new MutableCallSite[]{RULES});
+        metadataCaches.forEach(cache -> cache.applySwitch(newRules::allows));
+    }
+
+    /**
+     * 꺼진 패키지, 메서드 패턴. 바뀌면 새 객체로 교체하므로 판단 결과를 객체 안에 캐시해도 됨
+     */
+    static final class Rules {
+
+        static final Rules NONE = new Rules(new String[0], new String[0]);
+
+        private final String[] packages;
+        private final String[] methods;
+        private final ConcurrentMap<Class<?>, ConcurrentMap<String, Boolean>> results = new ConcurrentHashMap<>();
+        private final ConcurrentMap<String, Boolean> qualifiedResults = new ConcurrentHashMap<>();
+
+        Rules(String[] packages, String[] methods) {
+            this.packages = packages;
+            this.methods = methods;
+        }
+
+        /**
+         * method : 실제로 실행되는 메서드 (TraceMetadataCache 가 AopUtils.getMostSpecificMethod 로 찾아서 넘김)
+         */
+        boolean allows(Method method) {
+            if (isEmpty()) {
+                return true;
+            }
+            return evaluate(method.getDeclaringClass().getName(), method.getName());
+        }
+
+        boolean allows(Class<?> targetClass, String methodName) {
+            if (isEmpty()) {
+                return true;
+            }
+            ConcurrentMap<String, Boolean> methods = results.get(targetClass);
+            if (methods == null) {
+                methods = results.computeIfAbsent(targetClass, key -> new ConcurrentHashMap<>());
+            }
+            Boolean allowed = methods.get(methodName);
+            if (allowed == null) {
+                allowed = methods.computeIfAbsent(methodName,
+                        name -> evaluate(declaringClass(targetClass, name).getName(), name));
+            }
+            return allowed;
+        }
+
+        boolean allows(String qualifiedMethod) {
+            if (isEmpty()) {
+                return true;
+            }
+            return qualifiedResults.computeIfAbsent(qualifiedMethod, key -> {
+                int methodSeparator = key.lastIndexOf('.');
+                return evaluate(key.substring(0, methodSeparator), key.substring(methodSeparator + 1));
+            });
+        }
+
+        /**
+         * targetClass 에서 methodName 을 찾아 그 메서드를 선언한 클래스 (상속받은 메서드면 상위 클래스)
+         */
+        private static Class<?> declaringClass(Class<?> targetClass, String methodName) {
+            Method method = ReflectionUtils.findMethod(ClassUtils.getUserClass(targetClass), methodName, (Class<?>[]) null);
+            return method != null ? method.getDeclaringClass() : targetClass;
+        }
+
+        private boolean isEmpty() {
+            return packages.length == 0 && methods.length == 0;
+        }
+
+        private boolean evaluate(String className, String methodName) {
+            for (String packageName : packages) {
+                if (className.startsWith(packageName + ".")) {
+                    return false;
+                }
+            }
+            return methods.length == 0 || !PatternMatchUtils.simpleMatch(methods,
+                    ClassUtils.getShortName(className) + "." + methodName);
+        }
+    }
+}
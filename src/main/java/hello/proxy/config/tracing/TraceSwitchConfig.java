@@ -0,0 +1,25 @@
+package hello.proxy.config.tracing;
+
+import hello.proxy.config.v6_aop.metadata.TraceMetadataCache;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 실행 중 로그 추적 스위치 설정. 추적이 동작하는 모든 설정에서 Import (ProxyConfigSelector, AopConfig, CompileTimeWeavingConfig)
+ * - TraceMetadataCache 는 AopConfig, CompileTimeWeavingConfig 에만 있으므로 있을 때만 규칙을 반영함
+ * - JMX 로 노출하려면 spring.jmx.enabled=true (application.properties)
+ */
+@Configuration
+public class TraceSwitchConfig {
+
+    @Bean
+    public TraceSwitch traceSwitch(ObjectProvider<TraceMetadataCache> traceMetadataCaches) {
+        return new TraceSwitch(traceMetadataCaches.orderedStream().toArray(TraceMetadataCache[]::new));
+    }
+
+    @Bean
+    public TraceSwitchController traceSwitchController(TraceSwitch traceSwitch) {
+        return new TraceSwitchController(traceSwitch);
+    }
+}
@@ -0,0 +1,62 @@
+package hello.proxy.config.tracing;
+
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * TraceSwitch 의 HTTP 접근점 (TraceSwitchConfig 에서 빈으로 등록)
+ * - GET  /trace/switch
+ * - POST /trace/switch/global?enabled=false
+ * - POST /trace/switch/package?name=hello.proxy.app.v2&enabled=false
+ * - POST /trace/switch/method?pattern=OrderRepositoryV1Impl.*&enabled=false
+ * - POST /trace/switch/reset
+ */
+@RestController
+@RequestMapping("/trace/switch")
+public class TraceSwitchController {
+
+    private final TraceSwitch traceSwitch;
+
+    public TraceSwitchController(TraceSwitch traceSwitch) {
+        this.traceSwitch = traceSwitch;
+    }
+
+    @GetMapping
+    public Map<String, Object> status() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("global", traceSwitch.isGlobalEnabled());
+        status.put("disabledPackages", traceSwitch.getDisabledPackages());
+        status.put("disabledMethods", traceSwitch.getDisabledMethods());
+        return status;
+    }
+
+    @PostMapping("/global")
+    public Map<String, Object> global(@RequestParam boolean enabled) {
+        traceSwitch.setGlobalEnabled(enabled);
+        return status();
+    }
+
+    @PostMapping("/package")
+    public Map<String, Object> packageSwitch(@RequestParam String name, @RequestParam boolean enabled) {
+        traceSwitch.setPackageEnabled(name, enabled);
+        return status();
+    }
+
+    @PostMapping("/method")
+    public Map<String, Object> method(@RequestParam String pattern, @RequestParam boolean enabled) {
+        traceSwitch.setMethodEnabled(pattern, enabled);
+        return status();
+    }
+
+    @PostMapping("/reset")
+    public Map<String, Object> reset() {
+        traceSwitch.reset();
+        return status();
+    }
+}
@@ -1,16 +1,22 @@
 package hello.proxy.config.v1_proxy;
 
+import hello.proxy.app.bulk.BulkOrderRunner;
 import hello.proxy.app.v1.*;
 import hello.proxy.app.v2.OrderControllerV2;
 import hello.proxy.app.v2.OrderRepositoryV2;
 import hello.proxy.app.v2.OrderServiceV2;
+import hello.proxy.config.OrderRepositories;
 import hello.proxy.config.v1_proxy.concrete_proxy.OrderControllerConcreteProxy;
 import hello.proxy.config.v1_proxy.concrete_proxy.OrderRepositoryConcreteProxy;
 import hello.proxy.config.v1_proxy.concrete_proxy.OrderServiceConcreteProxy;
 import hello.proxy.config.v1_proxy.interface_proxy.OrderControllerInterfaceProxy;
 import hello.proxy.config.v1_proxy.interface_proxy.OrderRepositoryInterfaceProxy;
 import hello.proxy.config.v1_proxy.interface_proxy.OrderServiceInterfaceProxy;
+import hello.proxy.infra.batch.GroupCommitter;
+import hello.proxy.infra.partition.PartitionedExecutor;
 import hello.proxy.trace.logtrace.LogTrace;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -37,10 +43,20 @@ import org.springframework.context.annotation.Configuration;
 @Configuration
 public class ConcreteProxyConfig {
 
+    private final ObjectProvider<GroupCommitter<String>> orderGroupCommitter;
+
+    /**
+     * 저장소 구현은 AppV2Config 와 같은 기준으로 고름 (order.group-commit.enabled)
+     */
+    public ConcreteProxyConfig(@Qualifier("orderGroupCommitter") ObjectProvider<GroupCommitter<String>> orderGroupCommitter) {
+        this.orderGroupCommitter = orderGroupCommitter;
+    }
+
     @Bean
-    public OrderControllerV2 orderController(LogTrace logTrace){
+    public OrderControllerV2 orderController(LogTrace logTrace, BulkOrderRunner bulkOrderRunner,
+                                             ObjectProvider<PartitionedExecutor> orderPartitions){
 
-        OrderControllerV2 orderController = new OrderControllerV2(orderService(logTrace));
+        OrderControllerV2 orderController = new OrderControllerV2(orderService(logTrace), orderPartitions.getIfAvailable(), bulkOrderRunner);
 
         return new OrderControllerConcreteProxy(orderController, logTrace);
     }
@@ -56,7 +72,7 @@ public class ConcreteProxyConfig {
     @Bean
     public OrderRepositoryV2 orderRepository(LogTrace logTrace){
 
-        OrderRepositoryV2 repositoryImpl = new OrderRepositoryV2();
+        OrderRepositoryV2 repositoryImpl = OrderRepositories.v2(orderGroupCommitter.getIfAvailable());
 
         return new OrderRepositoryConcreteProxy(repositoryImpl, logTrace);
     }
@@ -1,10 +1,17 @@
 package hello.proxy.config.v1_proxy;
 
+import hello.proxy.app.bulk.BulkOrderRunner;
 import hello.proxy.app.v1.*;
+import hello.proxy.config.OrderRepositories;
 import hello.proxy.config.v1_proxy.interface_proxy.OrderControllerInterfaceProxy;
 import hello.proxy.config.v1_proxy.interface_proxy.OrderRepositoryInterfaceProxy;
 import hello.proxy.config.v1_proxy.interface_proxy.OrderServiceInterfaceProxy;
+import hello.proxy.infra.batch.GroupCommitter;
+import hello.proxy.infra.partition.PartitionedExecutor;
+import hello.proxy.infra.store.OrderLog;
 import hello.proxy.trace.logtrace.LogTrace;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -27,10 +34,22 @@ import org.springframework.context.annotation.Configuration;
 @Configuration
 public class InterfaceProxyConfig {
 
+    private final ObjectProvider<OrderLog> orderLog;
+    private final ObjectProvider<GroupCommitter<String>> orderGroupCommitter;
+
+    /**
+     * 저장소 구현은 AppV1Config 와 같은 기준으로 고름 (order.log.enabled, order.group-commit.enabled)
+     */
+    public InterfaceProxyConfig(ObjectProvider<OrderLog> orderLog, @Qualifier("orderGroupCommitter") ObjectProvider<GroupCommitter<String>> orderGroupCommitter) {
+        this.orderLog = orderLog;
+        this.orderGroupCommitter = orderGroupCommitter;
+    }
+
     @Bean
-    public OrderControllerV1 orderController(LogTrace logTrace){
+    public OrderControllerV1 orderController(LogTrace logTrace, BulkOrderRunner bulkOrderRunner,
+                                             ObjectProvider<PartitionedExecutor> orderPartitions){
 
-        OrderControllerV1Impl controllerImpl = new OrderControllerV1Impl(orderService(logTrace));
+        OrderControllerV1Impl controllerImpl = new OrderControllerV1Impl(orderService(logTrace), orderPartitions.getIfAvailable(), bulkOrderRunner);
 
         return new OrderControllerInterfaceProxy(controllerImpl, logTrace);
     }
@@ -46,7 +65,7 @@ public class InterfaceProxyConfig {
     @Bean
     public OrderRepositoryV1 orderRepository(LogTrace logTrace){
 
-        OrderRepositoryV1Impl repositoryImpl = new OrderRepositoryV1Impl();
+        OrderRepositoryV1 repositoryImpl = OrderRepositories.v1(orderLog.getIfAvailable(), orderGroupCommitter.getIfAvailable());
 
         return new OrderRepositoryInterfaceProxy(repositoryImpl, logTrace);
     }
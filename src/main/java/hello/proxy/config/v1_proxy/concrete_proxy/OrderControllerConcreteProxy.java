@@ -1,9 +1,16 @@
 package hello.proxy.config.v1_proxy.concrete_proxy;
 
+import hello.proxy.app.bulk.OrderResult;
 import hello.proxy.app.v2.OrderControllerV2;
 import hello.proxy.app.v2.OrderServiceV2;
+import hello.proxy.config.tracing.TraceSwitch;
 import hello.proxy.trace.TraceStatus;
 import hello.proxy.trace.logtrace.LogTrace;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * 클래스 기반 프록시의 단점
@@ -26,6 +33,11 @@ public class OrderControllerConcreteProxy extends OrderControllerV2 {
 
     @Override
     public String request(String itemId) {
+        logTrace.checkDeadline();
+        if (!TraceSwitch.isEnabled(target.getClass(), "request")) {
+            return target.request(itemId);
+        }
+
         TraceStatus status = null;
         try{
             status = logTrace.begin("OrderController.request()");
@@ -40,6 +52,94 @@ public class OrderControllerConcreteProxy extends OrderControllerV2 {
         }
     }
 
+    @Override
+    public CompletableFuture<String> requestAsync(String itemId) {
+
+        logTrace.checkDeadline();
+        if (!TraceSwitch.isEnabled(target.getClass(), "requestAsync")) {
+            return target.requestAsync(itemId);
+        }
+
+        TraceStatus status = null;
+        try{
+            status = logTrace.begin("OrderController.requestAsync()");
+
+            CompletableFuture<String> result = target.requestAsync(itemId);
+
+            logTrace.end(status);
+            return result;
+        }catch(Exception e){
+            logTrace.exception(status, e);
+            throw e;
+        }
+    }
+
+    @Override
+    public List<OrderResult> requestAll(List<String> itemIds) {
+
+        logTrace.checkDeadline();
+        if (!TraceSwitch.isEnabled(target.getClass(), "requestAll")) {
+            return target.requestAll(itemIds);
+        }
+
+        TraceStatus status = null;
+        try{
+            status = logTrace.begin("OrderController.requestAll()");
+
+            List<OrderResult> result = target.requestAll(itemIds);
+
+            logTrace.end(status);
+            return result;
+        }catch(Exception e){
+            logTrace.exception(status, e);
+            throw e;
+        }
+    }
+
+    @Override
+    public ResponseBodyEmitter requestAllStream(List<String> itemIds) {
+
+        logTrace.checkDeadline();
+        if (!TraceSwitch.isEnabled(target.getClass(), "requestAllStream")) {
+            return target.requestAllStream(itemIds);
+        }
+
+        TraceStatus status = null;
+        try{
+            status = logTrace.begin("OrderController.requestAllStream()");
+
+            ResponseBodyEmitter result = target.requestAllStream(itemIds);
+
+            logTrace.end(status);
+            return result;
+        }catch(Exception e){
+            logTrace.exception(status, e);
+            throw e;
+        }
+    }
+
+    @Override
+    public Map<String, Object> findOrder(String itemId) {
+
+        logTrace.checkDeadline();
+        if (!TraceSwitch.isEnabled(target.getClass(), "findOrder")) {
+            return target.findOrder(itemId);
+        }
+
+        TraceStatus status = null;
+        try{
+            status = logTrace.begin("OrderController.findOrder()");
+
+            Map<String, Object> result = target.findOrder(itemId);
+
+            logTrace.end(status);
+            return result;
+        }catch(Exception e){
+            logTrace.exception(status, e);
+            throw e;
+        }
+    }
+
     @Override
     public String noLog() {
         return target.noLog();
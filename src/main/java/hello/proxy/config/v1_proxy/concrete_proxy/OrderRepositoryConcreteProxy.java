@@ -1,15 +1,20 @@
 package hello.proxy.config.v1_proxy.concrete_proxy;
 
 import hello.proxy.app.v2.OrderRepositoryV2;
+import hello.proxy.config.tracing.TraceSwitch;
+import hello.proxy.infra.store.OrderRecord;
 import hello.proxy.trace.TraceStatus;
 import hello.proxy.trace.logtrace.LogTrace;
 
+import java.util.Optional;
+
 public class OrderRepositoryConcreteProxy extends OrderRepositoryV2 {
 
     private final OrderRepositoryV2 target;
     private final LogTrace logTrace;
 
     public OrderRepositoryConcreteProxy(OrderRepositoryV2 target, LogTrace logTrace) {
+        super(null);
         this.target = target;
         this.logTrace = logTrace;
     }
@@ -17,6 +22,12 @@ public class OrderRepositoryConcreteProxy extends OrderRepositoryV2 {
     @Override
     public void save(String itemId) {
 
+        logTrace.checkDeadline();
+        if (!TraceSwitch.isEnabled(target.getClass(), "save")) {
+            target.save(itemId);
+            return;
+        }
+
         TraceStatus status = null;
         try{
             status = logTrace.begin("OrderRepository.request()");
@@ -30,4 +41,48 @@ public class OrderRepositoryConcreteProxy extends OrderRepositoryV2 {
         }
 
     }
+
+    @Override
+    public Optional<OrderRecord> findOrder(String itemId) {
+
+        logTrace.checkDeadline();
+        if (!TraceSwitch.isEnabled(target.getClass(), "findOrder")) {
+            return target.findOrder(itemId);
+        }
+
+        TraceStatus status = null;
+        try{
+            status = logTrace.begin("OrderRepository.findOrder()");
+
+            Optional<OrderRecord> result = target.findOrder(itemId);
+
+            logTrace.end(status);
+            return result;
+        }catch(Exception e){
+            logTrace.exception(status, e);
+            throw e;
+        }
+    }
+
+    @Override
+    public long countOrders(String itemId) {
+
+        logTrace.checkDeadline();
+        if (!TraceSwitch.isEnabled(target.getClass(), "countOrders")) {
+            return target.countOrders(itemId);
+        }
+
+        TraceStatus status = null;
+        try{
+            status = logTrace.begin("OrderRepository.countOrders()");
+
+            long result = target.countOrders(itemId);
+
+            logTrace.end(status);
+            return result;
+        }catch(Exception e){
+            logTrace.exception(status, e);
+            throw e;
+        }
+    }
 }
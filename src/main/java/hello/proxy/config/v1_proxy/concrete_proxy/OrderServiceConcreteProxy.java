@@ -2,9 +2,13 @@ package hello.proxy.config.v1_proxy.concrete_proxy;
 
 import hello.proxy.app.v2.OrderRepositoryV2;
 import hello.proxy.app.v2.OrderServiceV2;
+import hello.proxy.config.tracing.TraceSwitch;
+import hello.proxy.infra.store.OrderRecord;
 import hello.proxy.trace.TraceStatus;
 import hello.proxy.trace.logtrace.LogTrace;
 
+import java.util.Optional;
+
 public class OrderServiceConcreteProxy extends OrderServiceV2 {
 
     private final OrderServiceV2 target;
@@ -19,6 +23,12 @@ public class OrderServiceConcreteProxy extends OrderServiceV2 {
     @Override
     public void orderItem(String itemId) {
 
+        logTrace.checkDeadline();
+        if (!TraceSwitch.isEnabled(target.getClass(), "orderItem")) {
+            target.orderItem(itemId);
+            return;
+        }
+
         TraceStatus status = null;
         try{
             status = logTrace.begin("OrderService.orderItem()");
@@ -32,4 +42,48 @@ public class OrderServiceConcreteProxy extends OrderServiceV2 {
         }
 
     }
+
+    @Override
+    public Optional<OrderRecord> findOrder(String itemId) {
+
+        logTrace.checkDeadline();
+        if (!TraceSwitch.isEnabled(target.getClass(), "findOrder")) {
+            return target.findOrder(itemId);
+        }
+
+        TraceStatus status = null;
+        try{
+            status = logTrace.begin("OrderService.findOrder()");
+
+            Optional<OrderRecord> result = target.findOrder(itemId);
+
+            logTrace.end(status);
+            return result;
+        }catch(Exception e){
+            logTrace.exception(status, e);
+            throw e;
+        }
+    }
+
+    @Override
+    public long countOrders(String itemId) {
+
+        logTrace.checkDeadline();
+        if (!TraceSwitch.isEnabled(target.getClass(), "countOrders")) {
+            return target.countOrders(itemId);
+        }
+
+        TraceStatus status = null;
+        try{
+            status = logTrace.begin("OrderService.countOrders()");
+
+            long result = target.countOrders(itemId);
+
+            logTrace.end(status);
+            return result;
+        }catch(Exception e){
+            logTrace.exception(status, e);
+            throw e;
+        }
+    }
 }
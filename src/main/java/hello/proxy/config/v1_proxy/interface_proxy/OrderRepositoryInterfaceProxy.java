@@ -1,10 +1,14 @@
 package hello.proxy.config.v1_proxy.interface_proxy;
 
 import hello.proxy.app.v1.OrderRepositoryV1;
+import hello.proxy.config.tracing.TraceSwitch;
+import hello.proxy.infra.store.OrderRecord;
 import hello.proxy.trace.TraceStatus;
 import hello.proxy.trace.logtrace.LogTrace;
 import lombok.RequiredArgsConstructor;
 
+import java.util.Optional;
+
 @RequiredArgsConstructor
 public class OrderRepositoryInterfaceProxy implements OrderRepositoryV1 {
 
@@ -14,6 +18,12 @@ public class OrderRepositoryInterfaceProxy implements OrderRepositoryV1 {
     @Override
     public void save(String itemId) {
 
+        logTrace.checkDeadline();
+        if (!TraceSwitch.isEnabled(target.getClass(), "save")) {
+            target.save(itemId);
+            return;
+        }
+
         TraceStatus status = null;
         try{
             status = logTrace.begin("OrderRepository.request()");
@@ -26,4 +36,48 @@ public class OrderRepositoryInterfaceProxy implements OrderRepositoryV1 {
             throw e;
         }
     }
+
+    @Override
+    public Optional<OrderRecord> findOrder(String itemId) {
+
+        logTrace.checkDeadline();
+        if (!TraceSwitch.isEnabled(target.getClass(), "findOrder")) {
+            return target.findOrder(itemId);
+        }
+
+        TraceStatus status = null;
+        try{
+            status = logTrace.begin("OrderRepository.findOrder()");
+
+            Optional<OrderRecord> result = target.findOrder(itemId);
+
+            logTrace.end(status);
+            return result;
+        }catch(Exception e){
+            logTrace.exception(status, e);
+            throw e;
+        }
+    }
+
+    @Override
+    public long countOrders(String itemId) {
+
+        logTrace.checkDeadline();
+        if (!TraceSwitch.isEnabled(target.getClass(), "countOrders")) {
+            return target.countOrders(itemId);
+        }
+
+        TraceStatus status = null;
+        try{
+            status = logTrace.begin("OrderRepository.countOrders()");
+
+            long result = target.countOrders(itemId);
+
+            logTrace.end(status);
+            return result;
+        }catch(Exception e){
+            logTrace.exception(status, e);
+            throw e;
+        }
+    }
 }
@@ -1,8 +1,15 @@
 package hello.proxy.config.v2_dynamicproxy;
 
+import hello.proxy.app.bulk.BulkOrderRunner;
 import hello.proxy.app.v1.*;
+import hello.proxy.config.OrderRepositories;
 import hello.proxy.config.v2_dynamicproxy.handler.LogTraceBasicHandler;
+import hello.proxy.infra.batch.GroupCommitter;
+import hello.proxy.infra.partition.PartitionedExecutor;
+import hello.proxy.infra.store.OrderLog;
 import hello.proxy.trace.logtrace.LogTrace;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -11,9 +18,20 @@ import java.lang.reflect.Proxy;
 @Configuration
 public class DynamicProxyBasicConfig {
 
+    private final ObjectProvider<OrderLog> orderLog;
+    private final ObjectProvider<GroupCommitter<String>> orderGroupCommitter;
+
+    /**
+     * 저장소 구현은 AppV1Config 와 같은 기준으로 고름 (order.log.enabled, order.group-commit.enabled)
+     */
+    public DynamicProxyBasicConfig(ObjectProvider<OrderLog> orderLog, @Qualifier("orderGroupCommitter") ObjectProvider<GroupCommitter<String>> orderGroupCommitter) {
+        this.orderLog = orderLog;
+        this.orderGroupCommitter = orderGroupCommitter;
+    }
+
     @Bean
     public OrderRepositoryV1 orderRepositoryV1(LogTrace logTrace){
-        OrderRepositoryV1 orderRepository = new OrderRepositoryV1Impl();
+        OrderRepositoryV1 orderRepository = OrderRepositories.v1(orderLog.getIfAvailable(), orderGroupCommitter.getIfAvailable());
         LogTraceBasicHandler handler = new LogTraceBasicHandler(orderRepository, logTrace);
 
         return (OrderRepositoryV1)Proxy.newProxyInstance(OrderRepositoryV1.class.getClassLoader(), new Class[]{OrderRepositoryV1.class}, handler);
@@ -28,8 +46,9 @@ public class DynamicProxyBasicConfig {
     }
 
     @Bean
-    public OrderControllerV1 orderControllerV1(LogTrace logTrace){
-        OrderControllerV1 orderController = new OrderControllerV1Impl(orderServiceV1(logTrace));
+    public OrderControllerV1 orderControllerV1(LogTrace logTrace, BulkOrderRunner bulkOrderRunner,
+                                               ObjectProvider<PartitionedExecutor> orderPartitions){
+        OrderControllerV1 orderController = new OrderControllerV1Impl(orderServiceV1(logTrace), orderPartitions.getIfAvailable(), bulkOrderRunner);
         LogTraceBasicHandler handler = new LogTraceBasicHandler(orderController, logTrace);
 
         return (OrderControllerV1)Proxy.newProxyInstance(OrderControllerV1.class.getClassLoader(), new Class[]{OrderControllerV1.class}, handler);
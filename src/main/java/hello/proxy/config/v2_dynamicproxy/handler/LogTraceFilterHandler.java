@@ -1,5 +1,6 @@
 package hello.proxy.config.v2_dynamicproxy.handler;
 
+import hello.proxy.config.tracing.TraceSwitch;
 import hello.proxy.trace.TraceStatus;
 import hello.proxy.trace.logtrace.LogTrace;
 import lombok.extern.slf4j.Slf4j;
@@ -36,6 +37,11 @@ public class LogTraceFilterHandler implements InvocationHandler {
             return method.invoke(target, args);
         }
 
+        logTrace.checkDeadline();
+        if (!TraceSwitch.isEnabled(target.getClass(), method.getName())) {
+            return method.invoke(target, args);
+        }
+
         TraceStatus status = null;
         try{
             String message = method.getDeclaringClass().getSimpleName() + "." + method.getName() + "()"; // 로그 추적기에 사용할 메시지
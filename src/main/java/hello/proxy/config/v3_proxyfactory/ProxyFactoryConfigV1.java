@@ -1,25 +1,57 @@
 package hello.proxy.config.v3_proxyfactory;
 
+import hello.proxy.app.bulk.BulkOrderRunner;
 import hello.proxy.app.v1.*;
+import hello.proxy.config.OrderRepositories;
+import hello.proxy.config.hotswap.AdvisorSwapRegistry;
+import hello.proxy.config.hotswap.HotSwapConfig;
 import hello.proxy.config.v3_proxyfactory.advice.LogTraceAdvice;
+import hello.proxy.infra.batch.GroupCommitter;
+import hello.proxy.infra.partition.PartitionedExecutor;
+import hello.proxy.infra.store.OrderLog;
 import hello.proxy.trace.logtrace.LogTrace;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.aop.Advisor;
 import org.springframework.aop.framework.ProxyFactory;
 import org.springframework.aop.support.DefaultPointcutAdvisor;
 import org.springframework.aop.support.NameMatchMethodPointcut;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+
+import java.util.Map;
 
 @Slf4j
 @Configuration
+@Import(HotSwapConfig.class)
 public class ProxyFactoryConfigV1 {
 
+    /**
+     * 프록시에는 AdvisorSwapRegistry 가 관리하는 인터셉터 하나만 등록하고, 실제 어드바이저는 그 안에서 이름으로 관리함
+     * -> 프록시를 다시 만들지 않고 /admin/advisors 로 어드바이저를 추가/삭제/교체할 수 있음
+     */
+    private final AdvisorSwapRegistry advisorSwapRegistry;
+    /**
+     * 저장소 구현은 AppV1Config 와 같은 기준으로 고름 (order.log.enabled, order.group-commit.enabled)
+     */
+    private final ObjectProvider<OrderLog> orderLog;
+    private final ObjectProvider<GroupCommitter<String>> orderGroupCommitter;
+
+    public ProxyFactoryConfigV1(AdvisorSwapRegistry advisorSwapRegistry, ObjectProvider<OrderLog> orderLog,
+                                @Qualifier("orderGroupCommitter") ObjectProvider<GroupCommitter<String>> orderGroupCommitter) {
+        this.advisorSwapRegistry = advisorSwapRegistry;
+        this.orderLog = orderLog;
+        this.orderGroupCommitter = orderGroupCommitter;
+    }
+
     @Bean
-    public OrderControllerV1 orderControllerV1(LogTrace logTrace){
-        OrderControllerV1Impl orderController = new OrderControllerV1Impl(orderServiceV1(logTrace));
+    public OrderControllerV1 orderControllerV1(LogTrace logTrace, BulkOrderRunner bulkOrderRunner,
+                                               ObjectProvider<PartitionedExecutor> orderPartitions){
+        OrderControllerV1Impl orderController = new OrderControllerV1Impl(orderServiceV1(logTrace), orderPartitions.getIfAvailable(), bulkOrderRunner);
         ProxyFactory proxyFactory = new ProxyFactory(orderController);
-        proxyFactory.addAdvisor(getAdvisor(logTrace));
+        proxyFactory.addAdvice(advisorSwapRegistry.register("orderControllerV1", orderController.getClass(), Map.of(HotSwapConfig.LOG_TRACE, getAdvisor(logTrace))));
         OrderControllerV1 proxy = (OrderControllerV1) proxyFactory.getProxy();
         log.info("ProxyFactory proxy={}, target={}", proxy.getClass(), orderController.getClass());
         return proxy;
@@ -29,7 +61,7 @@ public class ProxyFactoryConfigV1 {
     public OrderServiceV1 orderServiceV1(LogTrace logTrace){
         OrderServiceV1Impl orderService = new OrderServiceV1Impl(orderRepositoryV1(logTrace));
         ProxyFactory proxyFactory = new ProxyFactory(orderService);
-        proxyFactory.addAdvisor(getAdvisor(logTrace));
+        proxyFactory.addAdvice(advisorSwapRegistry.register("orderServiceV1", orderService.getClass(), Map.of(HotSwapConfig.LOG_TRACE, getAdvisor(logTrace))));
         OrderServiceV1 proxy = (OrderServiceV1) proxyFactory.getProxy();
         log.info("ProxyFactory proxy={}, target={}", proxy.getClass(), orderService.getClass());
         return proxy;
@@ -37,9 +69,9 @@ public class ProxyFactoryConfigV1 {
 
     @Bean
     public OrderRepositoryV1 orderRepositoryV1(LogTrace logTrace){
-        OrderRepositoryV1Impl orderRepository = new OrderRepositoryV1Impl();
+        OrderRepositoryV1 orderRepository = OrderRepositories.v1(orderLog.getIfAvailable(), orderGroupCommitter.getIfAvailable());
         ProxyFactory factory = new ProxyFactory(orderRepository);
-        factory.addAdvisor(getAdvisor(logTrace));
+        factory.addAdvice(advisorSwapRegistry.register("orderRepositoryV1", orderRepository.getClass(), Map.of(HotSwapConfig.LOG_TRACE, getAdvisor(logTrace))));
         OrderRepositoryV1 proxy = (OrderRepositoryV1) factory.getProxy();
         log.info("ProxyFactory proxy={}, target={}", proxy.getClass(), orderRepository.getClass());
         return proxy;
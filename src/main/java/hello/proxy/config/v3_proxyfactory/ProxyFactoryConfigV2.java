@@ -1,18 +1,29 @@
 package hello.proxy.config.v3_proxyfactory;
 
+import hello.proxy.app.bulk.BulkOrderRunner;
 import hello.proxy.app.v1.*;
 import hello.proxy.app.v2.OrderControllerV2;
 import hello.proxy.app.v2.OrderRepositoryV2;
 import hello.proxy.app.v2.OrderServiceV2;
+import hello.proxy.config.OrderRepositories;
+import hello.proxy.config.hotswap.AdvisorSwapRegistry;
+import hello.proxy.config.hotswap.HotSwapConfig;
 import hello.proxy.config.v3_proxyfactory.advice.LogTraceAdvice;
+import hello.proxy.infra.batch.GroupCommitter;
+import hello.proxy.infra.partition.PartitionedExecutor;
 import hello.proxy.trace.logtrace.LogTrace;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.aop.Advisor;
 import org.springframework.aop.framework.ProxyFactory;
 import org.springframework.aop.support.DefaultPointcutAdvisor;
 import org.springframework.aop.support.NameMatchMethodPointcut;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+
+import java.util.Map;
 
 /**
  * 남은 문제
@@ -26,13 +37,31 @@ import org.springframework.context.annotation.Configuration;
  */
 @Slf4j
 @Configuration
+@Import(HotSwapConfig.class)
 public class ProxyFactoryConfigV2 {
 
+    /**
+     * 프록시에는 AdvisorSwapRegistry 가 관리하는 인터셉터 하나만 등록하고, 실제 어드바이저는 그 안에서 이름으로 관리함
+     * -> 프록시를 다시 만들지 않고 /admin/advisors 로 어드바이저를 추가/삭제/교체할 수 있음
+     */
+    private final AdvisorSwapRegistry advisorSwapRegistry;
+    /**
+     * 저장소 구현은 AppV2Config 와 같은 기준으로 고름 (order.group-commit.enabled)
+     */
+    private final ObjectProvider<GroupCommitter<String>> orderGroupCommitter;
+
+    public ProxyFactoryConfigV2(AdvisorSwapRegistry advisorSwapRegistry,
+                                @Qualifier("orderGroupCommitter") ObjectProvider<GroupCommitter<String>> orderGroupCommitter) {
+        this.advisorSwapRegistry = advisorSwapRegistry;
+        this.orderGroupCommitter = orderGroupCommitter;
+    }
+
     @Bean
-    public OrderControllerV2 orderControllerV2(LogTrace logTrace){
-        OrderControllerV2 orderController = new OrderControllerV2(orderServiceV2(logTrace));
+    public OrderControllerV2 orderControllerV2(LogTrace logTrace, BulkOrderRunner bulkOrderRunner,
+                                               ObjectProvider<PartitionedExecutor> orderPartitions){
+        OrderControllerV2 orderController = new OrderControllerV2(orderServiceV2(logTrace), orderPartitions.getIfAvailable(), bulkOrderRunner);
         ProxyFactory proxyFactory = new ProxyFactory(orderController);
-        proxyFactory.addAdvisor(getAdvisor(logTrace));
+        proxyFactory.addAdvice(advisorSwapRegistry.register("orderControllerV2", orderController.getClass(), Map.of(HotSwapConfig.LOG_TRACE, getAdvisor(logTrace))));
         OrderControllerV2 proxy = (OrderControllerV2) proxyFactory.getProxy();
         log.info("ProxyFactory proxy={}, target={}", proxy.getClass(), orderController.getClass());
         return proxy;
@@ -42,7 +71,7 @@ public class ProxyFactoryConfigV2 {
     public OrderServiceV2 orderServiceV2(LogTrace logTrace){
         OrderServiceV2 orderService = new OrderServiceV2(orderRepositoryV2(logTrace));
         ProxyFactory proxyFactory = new ProxyFactory(orderService);
-        proxyFactory.addAdvisor(getAdvisor(logTrace));
+        proxyFactory.addAdvice(advisorSwapRegistry.register("orderServiceV2", orderService.getClass(), Map.of(HotSwapConfig.LOG_TRACE, getAdvisor(logTrace))));
         OrderServiceV2 proxy = (OrderServiceV2) proxyFactory.getProxy();
         log.info("ProxyFactory proxy={}, target={}", proxy.getClass(), orderService.getClass());
         return proxy;
@@ -50,9 +79,9 @@ public class ProxyFactoryConfigV2 {
 
     @Bean
     public OrderRepositoryV2 orderRepositoryV2(LogTrace logTrace){
-        OrderRepositoryV2 orderRepository = new OrderRepositoryV2();
+        OrderRepositoryV2 orderRepository = OrderRepositories.v2(orderGroupCommitter.getIfAvailable());
         ProxyFactory factory = new ProxyFactory(orderRepository);
-        factory.addAdvisor(getAdvisor(logTrace));
+        factory.addAdvice(advisorSwapRegistry.register("orderRepositoryV2", orderRepository.getClass(), Map.of(HotSwapConfig.LOG_TRACE, getAdvisor(logTrace))));
         OrderRepositoryV2 proxy = (OrderRepositoryV2) factory.getProxy();
         log.info("ProxyFactory proxy={}, target={}", proxy.getClass(), orderRepository.getClass());
         return proxy;
@@ -0,0 +1,235 @@
+package hello.proxy.config.v3_proxyfactory.advice;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import lombok.extern.slf4j.Slf4j;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.ProxyMethodInvocation;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedOperation;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.ToIntFunction;
+
+/**
+ * 메서드 결과를 인자별로 캐시하는 어드바이스 (CacheProxy 를 일반화)
+ * - CacheProxy 는 값 하나를 동기화 없는 필드에 저장하고 만료도 없었음
+ *   -> 메서드 + 인자를 키로 Caffeine 캐시에 저장 (W-TinyLFU 교체 정책, 잠금 없는 읽기)
+ * - 키는 target + 메서드 + 인자 (같은 어드바이스를 여러 빈에 적용해도 결과가 섞이지 않음)
+ * - 설정은 Caffeine 스펙 문자열 (ex) "maximumSize=10000,expireAfterWrite=10m,refreshAfterWrite=1m"
+ *   - maximumSize / maximumWeight(weigher 필요) : 크기/무게 제한
+ *   - expireAfterWrite / expireAfterAccess : TTL
+ *   - refreshAfterWrite : 시간이 지난 항목을 읽으면 이전 값을 바로 반환하고, 백그라운드에서 같은 인자로 다시 호출해서 갱신 (refresh-ahead)
+ * - 값은 항상 가로챈 호출이 넣으므로 로더가 없는 Cache(put/getIfPresent)를 사용하고, refresh-ahead 는 이 어드바이스가 직접 예약함
+ *   (Caffeine 의 refreshAfterWrite 는 LoadingCache 가 필요하므로 스펙에서 빼고 시간만 사용)
+ *   - 항목에는 값과 프록시만 보관하고, 갱신은 키에 있는 메서드와 인자 복사본으로 프록시를 다시 호출함
+ *     -> 호출 객체(MethodInvocation) 복사본을 항목마다 들고 있지 않음. 갱신 호출도 앞뒤 어드바이스를 모두 거침
+ *   - 갱신 호출이 이 어드바이스에 다시 들어오면 캐시를 건너뛰고 target 을 호출해서 새 값을 넣음
+ *   - 항목당 갱신은 한 번에 하나. 갱신이 실패하면 이전 값을 유지하고 다음 읽기에서 다시 시도함
+ * - null 결과도 캐시함. 예외는 캐시하지 않음
+ * - 같은 키가 동시에 처음 호출되면 target 이 여러 번 호출될 수 있음 (동시 호출 합치기는 별도 어드바이스에서 처리)
+ * - 캐시별 적중/실패/제거 수는 getter 와 JMX 로 확인
+ */
+@Slf4j
+@ManagedResource(description = "Method result cache")
+public class CachingAdvice implements MethodInterceptor {
+
+    private static final Object NULL_VALUE = new Object();
+    private static final String REFRESH_AFTER_WRITE = "refreshAfterWrite";
+
+    private final String name;
+    private final long refreshAfterNanos;
+    private final Executor refreshExecutor;
+    private final Cache<InvocationKey, CachedValue> cache;
+    /**
+     * 갱신 중인 스레드가 다시 호출하는 키 (이 키는 캐시를 건너뜀)
+     */
+    private final ThreadLocal<InvocationKey> refreshingKey = new ThreadLocal<>();
+
+    public CachingAdvice(String name, String spec) {
+        this(name, spec, null);
+    }
+
+    /**
+     * @param weigher 값의 무게 (maximumWeight 를 사용할 때 필요)
+     */
+    public CachingAdvice(String name, String spec, ToIntFunction<Object> weigher) {
+        this(name, spec, weigher, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * @param refreshExecutor refresh-ahead 갱신 호출을 실행할 스레드 (Caffeine 의 기본값과 같은 commonPool)
+     */
+    public CachingAdvice(String name, String spec, ToIntFunction<Object> weigher, Executor refreshExecutor) {
+        this.name = name;
+        this.refreshExecutor = refreshExecutor;
+        List<String> cacheSpec = new ArrayList<>();
+        long refreshAfter = 0;
+        for (String option : StringUtils.commaDelimitedListToStringArray(spec)) {
+            String[] pair = option.trim().split("=", 2);
+            if (pair[0].equals(REFRESH_AFTER_WRITE) && pair.length == 2) {
+                refreshAfter = DurationStyle.SIMPLE.parse(pair[1].trim()).toNanos();
+            } else {
+                cacheSpec.add(option.trim());
+            }
+        }
+        this.refreshAfterNanos = refreshAfter;
+        Caffeine<Object, Object> builder = Caffeine.from(String.join(",", cacheSpec));
+        if (!cacheSpec.contains("recordStats")) {
+            builder.recordStats();
+        }
+        if (weigher == null) {
+            this.cache = builder.build();
+        } else {
+            this.cache = builder.<InvocationKey, CachedValue>weigher((key, cached) -> weigher.applyAsInt(cached.value))
+                    .build();
+        }
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        InvocationKey key = InvocationKey.of(invocation.getThis(), invocation.getMethod(), invocation.getArguments());
+        CachedValue cached = cache.getIfPresent(key);
+        if (cached != null) {
+            if (refreshAfterNanos > 0) {
+                if (cached.isRefreshing() && key.equals(refreshingKey.get())) {
+                    //갱신 호출 -> 안쪽 호출은 평소처럼 캐시를 사용하도록 먼저 지움
+                    refreshingKey.remove();
+                    return load(invocation, key);
+                }
+                refreshIfStale(key, cached);
+            }
+            return cached.value == NULL_VALUE ? null : cached.value;
+        }
+        return load(invocation, key);
+    }
+
+    private Object load(MethodInvocation invocation, InvocationKey key) throws Throwable {
+        Object result = invocation.proceed();
+        cache.put(key, new CachedValue(result == null ? NULL_VALUE : result, proxyOf(invocation)));
+        return result;
+    }
+
+    /**
+     * 갱신할 때 다시 호출할 프록시 (refresh-ahead 를 사용하지 않거나 프록시를 알 수 없으면 null)
+     */
+    private Object proxyOf(MethodInvocation invocation) {
+        if (refreshAfterNanos > 0 && invocation instanceof ProxyMethodInvocation) {
+            return ((ProxyMethodInvocation) invocation).getProxy();
+        }
+        return null;
+    }
+
+    private void refreshIfStale(InvocationKey key, CachedValue cached) {
+        if (cached.proxy == null || System.nanoTime() - cached.writtenNanos < refreshAfterNanos || !cached.startRefresh()) {
+            return;
+        }
+        try {
+            refreshExecutor.execute(() -> refresh(key, cached));
+        } catch (RejectedExecutionException e) {
+            cached.refreshFailed();
+        }
+    }
+
+    /**
+     * 프록시를 다시 호출 -> 이 어드바이스의 load() 가 새 값을 넣음
+     */
+    private void refresh(InvocationKey key, CachedValue cached) {
+        refreshingKey.set(key);
+        try {
+            AopUtils.invokeJoinpointUsingReflection(cached.proxy, key.getMethod(), key.copyArguments());
+        } catch (Throwable e) {
+            cached.refreshFailed();
+            log.warn("cache refresh failed name={} key={}", name, key, e);
+        } finally {
+            refreshingKey.remove();
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    @ManagedAttribute
+    public long getHitCount() {
+        return cache.stats().hitCount();
+    }
+
+    @ManagedAttribute
+    public long getMissCount() {
+        return cache.stats().missCount();
+    }
+
+    @ManagedAttribute
+    public long getEvictionCount() {
+        return cache.stats().evictionCount();
+    }
+
+    @ManagedAttribute
+    public double getHitRate() {
+        return cache.stats().hitRate();
+    }
+
+    @ManagedAttribute
+    public long getEstimatedSize() {
+        return cache.estimatedSize();
+    }
+
+    /**
+     * 밀린 정리 작업(제거, 만료)을 바로 수행
+     */
+    public void cleanUp() {
+        cache.cleanUp();
+    }
+
+    @ManagedOperation
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    @Override
+    public String toString() {
+        return "CachingAdvice[" + name + "] " + cache.stats();
+    }
+
+    private static final class CachedValue {
+
+        private final Object value;
+        private final Object proxy;
+        private final long writtenNanos = System.nanoTime();
+        private final AtomicBoolean refreshing;
+
+        private CachedValue(Object value, Object proxy) {
+            this.value = value;
+            this.proxy = proxy;
+            this.refreshing = proxy == null ? null : new AtomicBoolean();
+        }
+
+        private boolean isRefreshing() {
+            return refreshing != null && refreshing.get();
+        }
+
+        private boolean startRefresh() {
+            return refreshing.compareAndSet(false, true);
+        }
+
+        private void refreshFailed() {
+            refreshing.set(false);
+        }
+    }
+}
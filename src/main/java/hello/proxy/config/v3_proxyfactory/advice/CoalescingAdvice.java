@@ -0,0 +1,126 @@
+package hello.proxy.config.v3_proxyfactory.advice;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 같은 인자로 동시에 들어온 호출을 하나로 합치는 어드바이스 (single-flight)
+ * - 처음 들어온 호출(leader)만 target 을 호출하고, 실행 중에 같은 키로 들어온 호출(waiter)은 그 결과나 예외를 그대로 받음
+ *   (ex) 같은 itemId 로 orderItem() 이 동시에 100번 호출되어도 1초 걸리는 save() 는 한 번만 실행됨
+ * - 키 : 메서드 + keyArgumentIndexes 위치의 인자 (비어 있으면 전체 인자)
+ * - maxWaiters : 한 호출을 기다리는 waiter 수 제한. 넘치면 기다리지 않고 각자 target 을 호출함
+ * - timeout : waiter 가 기다리는 최대 시간. 넘으면 CoalescingTimeoutException (leader 호출은 계속 진행됨)
+ * - 호출이 끝나면 키를 지움 -> 결과를 저장하지 않음 (캐시가 아님)
+ */
+public class CoalescingAdvice implements MethodInterceptor {
+
+    private final int[] keyArgumentIndexes;
+    private final int maxWaiters;
+    private final long timeoutNanos;
+
+    private final ConcurrentMap<InvocationKey, InFlight> inFlight = new ConcurrentHashMap<>();
+
+    private final LongAdder executedCount = new LongAdder();
+    private final LongAdder coalescedCount = new LongAdder();
+    private final LongAdder overflowCount = new LongAdder();
+    private final LongAdder timeoutCount = new LongAdder();
+
+    public CoalescingAdvice(int[] keyArgumentIndexes, int maxWaiters, Duration timeout) {
+        this.keyArgumentIndexes = keyArgumentIndexes.clone();
+        this.maxWaiters = maxWaiters;
+        this.timeoutNanos = timeout.toNanos();
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        InvocationKey key = InvocationKey.of(invocation.getThis(), invocation.getMethod(), invocation.getArguments(), keyArgumentIndexes);
+        InFlight mine = new InFlight();
+        InFlight leader = inFlight.putIfAbsent(key, mine);
+        if (leader == null) {
+            return lead(invocation, key, mine);
+        }
+        if (leader.waiters.incrementAndGet() > maxWaiters) {
+            leader.waiters.decrementAndGet();
+            overflowCount.increment();
+            executedCount.increment();
+            return invocation.proceed();
+        }
+        return await(leader, key);
+    }
+
+    private Object lead(MethodInvocation invocation, InvocationKey key, InFlight mine) throws Throwable {
+        executedCount.increment();
+        try {
+            Object result = invocation.proceed();
+            mine.result.complete(result);
+            return result;
+        } catch (Throwable e) {
+            mine.result.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    private Object await(InFlight leader, InvocationKey key) throws Throwable {
+        coalescedCount.increment();
+        try {
+            return leader.result.get(timeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (ExecutionException e) {
+            throw e.getCause();
+        } catch (TimeoutException e) {
+            timeoutCount.increment();
+            throw new CoalescingTimeoutException("coalesced call timed out: " + key);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw e;
+        }
+    }
+
+    /**
+     * target 을 실제로 호출한 수 (leader + 넘쳐서 각자 호출한 수)
+     */
+    public long getExecutedCount() {
+        return executedCount.sum();
+    }
+
+    /**
+     * 다른 호출의 결과를 기다린 수
+     */
+    public long getCoalescedCount() {
+        return coalescedCount.sum();
+    }
+
+    public long getOverflowCount() {
+        return overflowCount.sum();
+    }
+
+    public long getTimeoutCount() {
+        return timeoutCount.sum();
+    }
+
+    public int getInFlightCount() {
+        return inFlight.size();
+    }
+
+    private static final class InFlight {
+        private final CompletableFuture<Object> result = new CompletableFuture<>();
+        private final AtomicInteger waiters = new AtomicInteger();
+    }
+
+    public static class CoalescingTimeoutException extends RuntimeException {
+        public CoalescingTimeoutException(String message) {
+            super(message);
+        }
+    }
+}
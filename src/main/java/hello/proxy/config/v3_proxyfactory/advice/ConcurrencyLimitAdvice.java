@@ -0,0 +1,165 @@
+package hello.proxy.config.v3_proxyfactory.advice;
+
+import hello.proxy.config.v3_proxyfactory.advice.limit.ConcurrencyLimit;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedResource;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 동시 실행 수를 제한하는 어드바이스
+ * - 동시 실행 수가 limit 에 도달하면 새 호출은 바로 거절(LimitExceededException)하거나, maxQueue 개까지 queueTimeout 동안 기다림
+ * - limit 은 ConcurrencyLimit 구현체(VegasLimit, GradientLimit)가 호출 시간을 보고 자동으로 조정함
+ *   -> 대상이 느려지면 limit 이 줄어서 대기가 쌓이기 전에 거절하고, 빨라지면 다시 늘어남
+ * - 실행 중인 호출 수와 대기 수는 원자 변수로 관리하고, 대기가 있을 때만 잠금을 사용함
+ * - limit, 실행 중 수, 대기 수, 거절 수는 getter 와 JMX 로 확인
+ */
+@ManagedResource(description = "Adaptive concurrency limit")
+public class ConcurrencyLimitAdvice implements MethodInterceptor {
+
+    private final ConcurrencyLimit limit;
+    private final int maxQueue;
+    private final long queueTimeoutNanos;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition released = lock.newCondition();
+
+    private final LongAdder acceptedCount = new LongAdder();
+    private final LongAdder rejectedCount = new LongAdder();
+
+    /**
+     * 대기 없이 바로 거절
+     */
+    public ConcurrencyLimitAdvice(ConcurrencyLimit limit) {
+        this(limit, 0, Duration.ZERO);
+    }
+
+    public ConcurrencyLimitAdvice(ConcurrencyLimit limit, int maxQueue, Duration queueTimeout) {
+        this.limit = limit;
+        this.maxQueue = maxQueue;
+        this.queueTimeoutNanos = queueTimeout.toNanos();
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        int inFlightAtStart = acquire(invocation);
+        long startNanos = System.nanoTime();
+        try {
+            return invocation.proceed();
+        } finally {
+            long rttNanos = System.nanoTime() - startNanos;
+            release();
+            limit.onSample(rttNanos, inFlightAtStart);
+        }
+    }
+
+    private int acquire(MethodInvocation invocation) throws InterruptedException {
+        int acquired = tryAcquire();
+        if (acquired < 0) {
+            acquired = awaitInQueue(invocation);
+        }
+        acceptedCount.increment();
+        return acquired;
+    }
+
+    /**
+     * @return 획득 후 동시 실행 수, 실패하면 -1
+     */
+    private int tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit.getLimit()) {
+                return -1;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return current + 1;
+            }
+        }
+    }
+
+    private int awaitInQueue(MethodInvocation invocation) throws InterruptedException {
+        if (queued.incrementAndGet() > maxQueue) {
+            queued.decrementAndGet();
+            throw reject(invocation);
+        }
+        lock.lock();
+        try {
+            long remainingNanos = queueTimeoutNanos;
+            while (true) {
+                int acquired = tryAcquire();
+                if (acquired > 0) {
+                    return acquired;
+                }
+                if (remainingNanos <= 0) {
+                    throw reject(invocation);
+                }
+                remainingNanos = released.awaitNanos(remainingNanos);
+            }
+        } finally {
+            queued.decrementAndGet();
+            lock.unlock();
+        }
+    }
+
+    private void release() {
+        inFlight.decrementAndGet();
+        if (queued.get() > 0) {
+            lock.lock();
+            try {
+                released.signal();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private LimitExceededException reject(MethodInvocation invocation) {
+        rejectedCount.increment();
+        return new LimitExceededException("concurrency limit exceeded: " + invocation.getMethod().getName()
+                + " limit=" + limit.getLimit() + " inFlight=" + inFlight.get());
+    }
+
+    @ManagedAttribute
+    public int getLimit() {
+        return limit.getLimit();
+    }
+
+    @ManagedAttribute
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    @ManagedAttribute
+    public int getQueued() {
+        return queued.get();
+    }
+
+    @ManagedAttribute
+    public long getAcceptedCount() {
+        return acceptedCount.sum();
+    }
+
+    @ManagedAttribute
+    public long getRejectedCount() {
+        return rejectedCount.sum();
+    }
+
+    @Override
+    public String toString() {
+        return "ConcurrencyLimitAdvice[" + limit + " inFlight=" + inFlight.get() + " rejected=" + rejectedCount.sum() + "]";
+    }
+
+    public static class LimitExceededException extends RuntimeException {
+        public LimitExceededException(String message) {
+            super(message);
+        }
+    }
+}
@@ -0,0 +1,330 @@
+package hello.proxy.config.v3_proxyfactory.advice;
+
+import hello.proxy.config.tracing.TraceSwitch;
+import hello.proxy.config.v6_aop.metadata.TraceMetadataCache;
+import hello.proxy.trace.TraceId;
+import hello.proxy.trace.TraceStatus;
+import hello.proxy.trace.logtrace.LogTrace;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.ProxyMethodInvocation;
+import org.springframework.aop.interceptor.ExposeInvocationInterceptor;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.PatternMatchUtils;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 느린 호출에 예비 호출(backup)을 하나 더 보내서 먼저 끝난 결과를 사용하는 어드바이스 (request hedging)
+ * - 같은 인자로 두 번 호출해도 되는 읽기 메서드에만 적용해야 함
+ * - 첫 호출(primary)이 최근 호출 시간의 percentile(ex. p95) 보다 오래 걸리면 executor 에서 backup 을 호출함
+ *   최근 호출 시간이 minSamples 개보다 적으면 backup 을 보내지 않음
+ *   -> 이때 timeout 도 없으면 backup 이 나갈 일이 없으므로 executor 를 거치지 않고 호출한 스레드에서 바로 진행
+ * - executor 가 작업을 거절하면(스레드 수 제한) primary 는 호출한 스레드에서 진행하고 backup 은 보내지 않음
+ * - executor 는 이 어드바이스 전용이어야 함. 컨테이너가 종료되면 같이 종료함
+ * - 먼저 성공한 결과를 반환하고, 진 쪽은 cancelLoser 이면 인터럽트로 취소하고 아니면 결과를 버림
+ *   두 호출이 모두 실패하면 마지막 예외를 던짐
+ * - timeout : 호출 전체의 최대 시간. 메서드별 값은 methodTimeouts ("ShortClass.method" 패턴 -> 시간) 로 지정
+ *   넘으면 HedgeTimeoutException. 0 이면 제한 없음
+ * - 두 호출은 모두 executor 스레드에서 실행되므로 호출한 스레드의 TraceId 를 넘겨받아서 같은 추적 트리에 표시함
+ *   (ex) |-->hedge:primary OrderRepositoryV1.find(..)
+ *        |-->hedge:backup OrderRepositoryV1.find(..)
+ * - primary/backup 승리 수, backup 을 보낸 수, timeout 수는 getter 와 JMX 로 확인
+ */
+@ManagedResource(description = "Request hedging")
+public class HedgingAdvice implements MethodInterceptor, DisposableBean {
+
+    private static final int WINDOW_SIZE = 128;
+    private static final int RECOMPUTE_INTERVAL = 16;
+
+    private final ExecutorService executor;
+    private final LogTrace logTrace;
+    private final double percentile;
+    private final int minSamples;
+    private final long timeoutNanos;
+    private final Map<String, Long> methodTimeoutNanos = new LinkedHashMap<>();
+    private final boolean cancelLoser;
+
+    private final ConcurrentMap<Method, MethodState> methods = new ConcurrentHashMap<>();
+
+    private final LongAdder callCount = new LongAdder();
+    private final LongAdder hedgedCount = new LongAdder();
+    private final LongAdder primaryWinCount = new LongAdder();
+    private final LongAdder backupWinCount = new LongAdder();
+    private final LongAdder timeoutCount = new LongAdder();
+
+    public HedgingAdvice(ExecutorService executor, LogTrace logTrace, double percentile, int minSamples,
+                         Duration timeout, Map<String, Duration> methodTimeouts, boolean cancelLoser) {
+        this.executor = executor;
+        this.logTrace = logTrace;
+        this.percentile = percentile;
+        this.minSamples = Math.min(minSamples, WINDOW_SIZE);
+        this.timeoutNanos = timeout.toNanos();
+        methodTimeouts.forEach((pattern, value) -> this.methodTimeoutNanos.put(pattern, value.toNanos()));
+        this.cancelLoser = cancelLoser;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        if (!(invocation instanceof ProxyMethodInvocation)) {
+            return invocation.proceed();
+        }
+        ProxyMethodInvocation methodInvocation = (ProxyMethodInvocation) invocation;
+        MethodState state = methods.computeIfAbsent(invocation.getMethod(), this::createState);
+        callCount.increment();
+
+        long delay = state.delayNanos;
+        if (delay < 0 && state.timeoutNanos <= 0) {
+            return proceedInline(invocation, state);
+        }
+        long deadline = state.timeoutNanos > 0 ? System.nanoTime() + state.timeoutNanos : Long.MAX_VALUE;
+        Race race = new Race(state, logTrace.currentTraceId());
+        if (!race.start(methodInvocation.invocableClone(), false)) {
+            return proceedInline(invocation, state);
+        }
+        try {
+            if (delay >= 0 && delay < remaining(deadline)) {
+                if (race.await(delay)) {
+                    return race.value();
+                }
+                if (race.start(methodInvocation.invocableClone(), true)) {
+                    hedgedCount.increment();
+                }
+            }
+            if (race.await(remaining(deadline))) {
+                return race.value();
+            }
+            timeoutCount.increment();
+            throw new HedgeTimeoutException("hedged call timed out: " + state.label
+                    + " timeout=" + TimeUnit.NANOSECONDS.toMillis(state.timeoutNanos) + "ms");
+        } finally {
+            race.cancelRemaining();
+        }
+    }
+
+    /**
+     * backup 을 보낼 수 없을 때. 호출 시간은 그대로 기록해서 minSamples 를 채움
+     */
+    private Object proceedInline(MethodInvocation invocation, MethodState state) throws Throwable {
+        long startNanos = System.nanoTime();
+        Object value = invocation.proceed();
+        state.record(System.nanoTime() - startNanos, percentile, minSamples);
+        primaryWinCount.increment();
+        return value;
+    }
+
+    private static long remaining(long deadline) {
+        if (deadline == Long.MAX_VALUE) {
+            return Long.MAX_VALUE;
+        }
+        return Math.max(0, deadline - System.nanoTime());
+    }
+
+    private MethodState createState(Method method) {
+        String name = ClassUtils.getShortName(method.getDeclaringClass()) + "." + method.getName();
+        long timeout = timeoutNanos;
+        for (Map.Entry<String, Long> entry : methodTimeoutNanos.entrySet()) {
+            if (PatternMatchUtils.simpleMatch(entry.getKey(), name)) {
+                timeout = entry.getValue();
+                break;
+            }
+        }
+        return new MethodState(TraceMetadataCache.label(method), timeout);
+    }
+
+    @ManagedAttribute
+    public long getCallCount() {
+        return callCount.sum();
+    }
+
+    /**
+     * backup 을 보낸 수
+     */
+    @ManagedAttribute
+    public long getHedgedCount() {
+        return hedgedCount.sum();
+    }
+
+    @ManagedAttribute
+    public long getPrimaryWinCount() {
+        return primaryWinCount.sum();
+    }
+
+    /**
+     * backup 이 먼저 끝난 수 (hedgedCount - backupWinCount 가 backup 이 진 수)
+     */
+    @ManagedAttribute
+    public long getBackupWinCount() {
+        return backupWinCount.sum();
+    }
+
+    @ManagedAttribute
+    public long getTimeoutCount() {
+        return timeoutCount.sum();
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    @Override
+    public String toString() {
+        return "HedgingAdvice[p" + percentile + " hedged=" + hedgedCount.sum() + " backupWins=" + backupWinCount.sum() + "]";
+    }
+
+    /**
+     * 한 호출의 primary, backup 경쟁. start() 와 cancelRemaining() 은 호출한 스레드에서만 사용
+     */
+    private final class Race {
+
+        private final MethodState state;
+        private final TraceId traceId;
+        private final CompletableFuture<Object> result = new CompletableFuture<>();
+        //아직 끝나지 않은 호출 수. 0 이 되면 모두 실패한 것
+        private final AtomicInteger pending = new AtomicInteger(1);
+        private final List<Future<?>> attempts = new ArrayList<>(2);
+
+        private Race(MethodState state, TraceId traceId) {
+            this.state = state;
+            this.traceId = traceId;
+        }
+
+        private boolean start(ProxyMethodInvocation invocation, boolean backup) {
+            if (backup && pending.getAndUpdate(count -> count == 0 ? 0 : count + 1) == 0) {
+                return false;
+            }
+            try {
+                attempts.add(executor.submit(() -> run(invocation, backup)));
+                return true;
+            } catch (RejectedExecutionException e) {
+                fail(e);
+                return false;
+            }
+        }
+
+        private void run(ProxyMethodInvocation invocation, boolean backup) {
+            TraceId previous = logTrace.attach(traceId);
+            TraceStatus status = null;
+            long startNanos = System.nanoTime();
+            try {
+                //시도마다 대상을 새로 호출하므로 각 시도 앞에서 deadline 확인 (늦게 시작된 backup 은 여기서 멈춤)
+                logTrace.checkDeadline();
+                if (TraceSwitch.isEnabled(invocation.getThis().getClass(), invocation.getMethod().getName())) {
+                    status = logTrace.begin((backup ? "hedge:backup " : "hedge:primary ") + state.label);
+                }
+                //다른 스레드에서도 @Aspect 어드바이스가 현재 MethodInvocation 을 찾을 수 있도록 노출
+                Object value = ExposeInvocationInterceptor.INSTANCE.invoke(invocation);
+                if (status != null) {
+                    logTrace.end(status);
+                }
+                state.record(System.nanoTime() - startNanos, percentile, minSamples);
+                if (result.complete(value)) {
+                    (backup ? backupWinCount : primaryWinCount).increment();
+                }
+            } catch (Throwable e) {
+                if (status != null && e instanceof Exception) {
+                    logTrace.exception(status, (Exception) e);
+                }
+                fail(e);
+            } finally {
+                logTrace.restore(previous);
+            }
+        }
+
+        private void fail(Throwable e) {
+            if (pending.decrementAndGet() == 0) {
+                result.completeExceptionally(e);
+            }
+        }
+
+        private boolean await(long nanos) throws InterruptedException {
+            try {
+                result.get(nanos, TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                return false;
+            } catch (ExecutionException e) {
+                //value() 에서 원래 예외를 던짐
+            }
+            return true;
+        }
+
+        private Object value() throws Throwable {
+            try {
+                return result.get();
+            } catch (ExecutionException e) {
+                throw e.getCause();
+            }
+        }
+
+        private void cancelRemaining() {
+            if (!cancelLoser) {
+                return;
+            }
+            for (Future<?> attempt : attempts) {
+                attempt.cancel(true);
+            }
+        }
+    }
+
+    /**
+     * 메서드별 timeout 과 최근 호출 시간 (고정 크기 ring buffer)
+     * percentile 은 RECOMPUTE_INTERVAL 번 기록할 때마다 다시 계산해서 저장해 둠 (호출마다 정렬하지 않음)
+     */
+    private static final class MethodState {
+
+        private final String label;
+        private final long timeoutNanos;
+        private final long[] samples = new long[WINDOW_SIZE];
+        private int next;
+        private int count;
+        private int sinceRecompute;
+        //-1 이면 backup 을 보내지 않음
+        private volatile long delayNanos = -1;
+
+        private MethodState(String label, long timeoutNanos) {
+            this.label = label;
+            this.timeoutNanos = timeoutNanos;
+        }
+
+        private synchronized void record(long nanos, double percentile, int minSamples) {
+            samples[next] = nanos;
+            next = (next + 1) % WINDOW_SIZE;
+            count = Math.min(count + 1, WINDOW_SIZE);
+            if (count < minSamples || ++sinceRecompute < RECOMPUTE_INTERVAL && delayNanos >= 0) {
+                return;
+            }
+            sinceRecompute = 0;
+            long[] sorted = Arrays.copyOf(samples, count);
+            Arrays.sort(sorted);
+            int index = (int) Math.ceil(percentile / 100 * count) - 1;
+            delayNanos = sorted[Math.max(0, Math.min(count - 1, index))];
+        }
+    }
+
+    public static class HedgeTimeoutException extends RuntimeException {
+        public HedgeTimeoutException(String message) {
+            super(message);
+        }
+    }
+}
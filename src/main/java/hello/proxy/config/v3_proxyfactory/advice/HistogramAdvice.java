@@ -0,0 +1,79 @@
+package hello.proxy.config.v3_proxyfactory.advice;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.util.ClassUtils;
+
+import java.lang.reflect.Method;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 로그 없이 메서드별 실행 시간 분포만 기록하는 어드바이스 (LogTraceAdvice 보다 가벼운 계측)
+ * - 구간은 2의 거듭제곱 마이크로초 (0: 1us 미만, 1: 1~2us, 2: 2~4us ... 마지막 구간은 그 이상 전부)
+ * - 구간 카운터는 LongAdder 라서 여러 스레드가 동시에 기록해도 경합이 적음
+ */
+public class HistogramAdvice implements MethodInterceptor {
+
+    private static final int BUCKETS = 32;
+
+    private final ConcurrentMap<Method, LongAdder[]> histograms = new ConcurrentHashMap<>();
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        long startNanos = System.nanoTime();
+        try {
+            return invocation.proceed();
+        } finally {
+            record(invocation.getMethod(), System.nanoTime() - startNanos);
+        }
+    }
+
+    private void record(Method method, long elapsedNanos) {
+        LongAdder[] buckets = histograms.get(method);
+        if (buckets == null) {
+            buckets = histograms.computeIfAbsent(method, key -> newBuckets());
+        }
+        buckets[bucket(elapsedNanos)].increment();
+    }
+
+    static int bucket(long elapsedNanos) {
+        long micros = elapsedNanos / 1_000;
+        int bucket = micros == 0 ? 0 : 64 - Long.numberOfLeadingZeros(micros);
+        return Math.min(bucket, BUCKETS - 1);
+    }
+
+    private static LongAdder[] newBuckets() {
+        LongAdder[] buckets = new LongAdder[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            buckets[i] = new LongAdder();
+        }
+        return buckets;
+    }
+
+    /**
+     * "클래스명.메서드명" -> (구간 상한 "<Nus" -> 호출 수). 호출이 없는 구간은 생략
+     */
+    public Map<String, Map<String, Long>> getHistograms() {
+        Map<String, Map<String, Long>> result = new TreeMap<>();
+        histograms.forEach((method, buckets) -> {
+            Map<String, Long> counts = new LinkedHashMap<>();
+            for (int i = 0; i < BUCKETS; i++) {
+                long count = buckets[i].sum();
+                if (count > 0) {
+                    counts.put(i == BUCKETS - 1 ? ">=" + (1L << (i - 1)) + "us" : "<" + (1L << i) + "us", count);
+                }
+            }
+            result.put(ClassUtils.getShortName(method.getDeclaringClass()) + "." + method.getName(), counts);
+        });
+        return result;
+    }
+
+    public void clear() {
+        histograms.clear();
+    }
+}
@@ -0,0 +1,76 @@
+package hello.proxy.config.v3_proxyfactory.advice;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+
+/**
+ * target + 메서드 + 인자로 만든 키 (CachingAdvice, CoalescingAdvice 에서 사용)
+ * - 같은 어드바이스를 여러 빈에 적용해도 서로 다른 target 의 결과가 섞이지 않도록 target 은 동일성(==)으로 비교
+ * - 인자 배열은 복사해서 보관 (호출한 쪽이 배열을 바꿔도 키가 바뀌지 않음)
+ * - 배열 인자도 내용으로 비교 (Arrays.deepEquals)
+ */
+final class InvocationKey {
+
+    private final Object target;
+    private final Method method;
+    private final Object[] arguments;
+    private final int hash;
+
+    private InvocationKey(Object target, Method method, Object[] arguments) {
+        this.target = target;
+        this.method = method;
+        this.arguments = arguments;
+        this.hash = 31 * (31 * System.identityHashCode(target) + method.hashCode()) + Arrays.deepHashCode(arguments);
+    }
+
+    static InvocationKey of(Object target, Method method, Object[] arguments) {
+        return new InvocationKey(target, method, arguments.clone());
+    }
+
+    /**
+     * 지정한 위치의 인자만 키로 사용. indexes 가 비어 있으면 전체 인자
+     */
+    static InvocationKey of(Object target, Method method, Object[] arguments, int[] indexes) {
+        if (indexes.length == 0) {
+            return of(target, method, arguments);
+        }
+        Object[] selected = new Object[indexes.length];
+        for (int i = 0; i < indexes.length; i++) {
+            selected[i] = arguments[indexes[i]];
+        }
+        return new InvocationKey(target, method, selected);
+    }
+
+    Method getMethod() {
+        return method;
+    }
+
+    /**
+     * 다시 호출할 때 사용할 인자 복사본 (키로 선택한 인자만 있으면 전체 인자가 아님)
+     */
+    Object[] copyArguments() {
+        return arguments.clone();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof InvocationKey)) {
+            return false;
+        }
+        InvocationKey other = (InvocationKey) o;
+        return hash == other.hash && target == other.target && method.equals(other.method) && Arrays.deepEquals(arguments, other.arguments);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        return method.getName() + Arrays.deepToString(arguments);
+    }
+}
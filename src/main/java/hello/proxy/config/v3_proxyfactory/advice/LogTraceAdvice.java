@@ -1,5 +1,6 @@
 package hello.proxy.config.v3_proxyfactory.advice;
 
+import hello.proxy.config.tracing.TraceSwitch;
 import hello.proxy.trace.TraceStatus;
 import hello.proxy.trace.logtrace.LogTrace;
 import org.aopalliance.intercept.MethodInterceptor;
@@ -17,6 +18,10 @@ public class LogTraceAdvice implements MethodInterceptor {
 
     @Override
     public Object invoke(MethodInvocation invocation) throws Throwable {
+        logTrace.checkDeadline();
+        if (!TraceSwitch.isEnabled(invocation.getThis().getClass(), invocation.getMethod().getName())) {
+            return invocation.proceed();
+        }
         TraceStatus status = null;
         try{
             Method method = invocation.getMethod();
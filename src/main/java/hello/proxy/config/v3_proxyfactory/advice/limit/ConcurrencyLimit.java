@@ -0,0 +1,17 @@
+package hello.proxy.config.v3_proxyfactory.advice.limit;
+
+/**
+ * 동시에 실행할 수 있는 호출 수(limit)를 정하는 알고리즘
+ * - ConcurrencyLimitAdvice 가 호출이 끝날 때마다 걸린 시간(rtt)과 그때의 동시 실행 수를 알려줌
+ * - 구현체는 이 값으로 limit 을 늘리거나 줄임
+ */
+public interface ConcurrencyLimit {
+
+    int getLimit();
+
+    /**
+     * @param rttNanos 호출에 걸린 시간
+     * @param inFlight 호출을 시작할 때의 동시 실행 수
+     */
+    void onSample(long rttNanos, int inFlight);
+}
@@ -0,0 +1,27 @@
+package hello.proxy.config.v3_proxyfactory.advice.limit;
+
+/**
+ * 바뀌지 않는 limit
+ */
+public class FixedLimit implements ConcurrencyLimit {
+
+    private final int limit;
+
+    public FixedLimit(int limit) {
+        this.limit = limit;
+    }
+
+    @Override
+    public int getLimit() {
+        return limit;
+    }
+
+    @Override
+    public void onSample(long rttNanos, int inFlight) {
+    }
+
+    @Override
+    public String toString() {
+        return "FixedLimit[" + limit + "]";
+    }
+}
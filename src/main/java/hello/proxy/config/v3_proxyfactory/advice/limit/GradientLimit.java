@@ -0,0 +1,60 @@
+package hello.proxy.config.v3_proxyfactory.advice.limit;
+
+/**
+ * 응답 시간 기울기(gradient) 방식의 limit
+ * - 장기 평균 rtt(지수 이동 평균)와 방금 측정한 rtt 의 비율로 limit 을 조정함
+ *   gradient = tolerance * longRtt / rtt  (0.5 ~ 1.0 사이로 제한)
+ *   newLimit = limit * gradient + sqrt(limit)  (sqrt(limit) 만큼은 대기를 허용해서 limit 이 늘어날 여지를 둠)
+ * - 갑자기 크게 바뀌지 않도록 smoothing 비율만큼만 반영함
+ * - 동시 실행 수가 limit 의 절반도 안 되면 limit 을 늘리지 않음
+ */
+public class GradientLimit implements ConcurrencyLimit {
+
+    private static final double TOLERANCE = 1.5;
+    private static final double SMOOTHING = 0.2;
+    private static final int LONG_WINDOW = 600;
+
+    private final int minLimit;
+    private final int maxLimit;
+
+    private volatile int limit;
+    private double estimatedLimit;
+    private double longRttNanos;
+    private int samples;
+
+    public GradientLimit(int initialLimit, int minLimit, int maxLimit) {
+        this.limit = initialLimit;
+        this.estimatedLimit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+    }
+
+    @Override
+    public int getLimit() {
+        return limit;
+    }
+
+    @Override
+    public synchronized void onSample(long rttNanos, int inFlight) {
+        if (rttNanos <= 0) {
+            return;
+        }
+        //처음 LONG_WINDOW 개는 단순 평균, 이후는 지수 이동 평균
+        samples = Math.min(samples + 1, LONG_WINDOW);
+        longRttNanos += (rttNanos - longRttNanos) / samples;
+
+        if (inFlight * 2 < estimatedLimit) {
+            return;
+        }
+        double gradient = Math.max(0.5, Math.min(1.0, TOLERANCE * longRttNanos / rttNanos));
+        double newLimit = estimatedLimit * gradient + Math.sqrt(estimatedLimit);
+        estimatedLimit = estimatedLimit * (1 - SMOOTHING) + newLimit * SMOOTHING;
+        estimatedLimit = Math.max(minLimit, Math.min(maxLimit, estimatedLimit));
+        limit = (int) estimatedLimit;
+    }
+
+    @Override
+    public String toString() {
+        return "GradientLimit[" + limit + "]";
+    }
+}
@@ -0,0 +1,70 @@
+package hello.proxy.config.v3_proxyfactory.advice.limit;
+
+/**
+ * TCP Vegas 방식의 limit
+ * - 부하가 없을 때의 rtt(지금까지의 최소 rtt)와 현재 rtt 를 비교해서 대기열 길이를 추정함
+ *   queue = limit * (1 - noLoadRtt / rtt)
+ * - queue < alpha 이면 여유가 있으므로 limit 을 늘리고, queue > beta 이면 밀리고 있으므로 줄임
+ *   alpha = 3 * log10(limit), beta = 6 * log10(limit)
+ * - 동시 실행 수가 limit 의 절반도 안 되면 limit 을 늘리지 않음 (부하가 적어서 생긴 여유는 판단 근거가 아님)
+ * - 최소 rtt 는 probeInterval 번 마다 다시 측정함 (대상의 기본 응답 시간이 바뀌는 경우 대비)
+ */
+public class VegasLimit implements ConcurrencyLimit {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final int probeInterval;
+
+    private volatile int limit;
+    private long noLoadRttNanos;
+    private int samplesSinceProbe;
+
+    public VegasLimit(int initialLimit, int minLimit, int maxLimit) {
+        this(initialLimit, minLimit, maxLimit, 1_000);
+    }
+
+    public VegasLimit(int initialLimit, int minLimit, int maxLimit, int probeInterval) {
+        this.limit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.probeInterval = probeInterval;
+    }
+
+    @Override
+    public int getLimit() {
+        return limit;
+    }
+
+    @Override
+    public synchronized void onSample(long rttNanos, int inFlight) {
+        if (rttNanos <= 0) {
+            return;
+        }
+        if (++samplesSinceProbe >= probeInterval) {
+            samplesSinceProbe = 0;
+            noLoadRttNanos = 0;
+        }
+        if (noLoadRttNanos == 0 || rttNanos < noLoadRttNanos) {
+            noLoadRttNanos = rttNanos;
+            return;
+        }
+
+        int current = limit;
+        double queue = current * (1 - (double) noLoadRttNanos / rttNanos);
+        double log = Math.max(1, Math.log10(current));
+        int next = current;
+        if (queue < 3 * log) {
+            if (inFlight * 2 >= current) {
+                next = current + (int) Math.ceil(log);
+            }
+        } else if (queue > 6 * log) {
+            next = current - (int) Math.ceil(log);
+        }
+        limit = Math.max(minLimit, Math.min(maxLimit, next));
+    }
+
+    @Override
+    public String toString() {
+        return "VegasLimit[" + limit + "]";
+    }
+}
@@ -2,6 +2,8 @@ package hello.proxy.config.v4_postprocessor;
 
 import hello.proxy.config.AppV1Config;
 import hello.proxy.config.AppV2Config;
+import hello.proxy.config.hotswap.AdvisorSwapRegistry;
+import hello.proxy.config.hotswap.HotSwapConfig;
 import hello.proxy.config.v3_proxyfactory.advice.LogTraceAdvice;
 import hello.proxy.config.v4_postprocessor.postprocessor.PackageLogTracePostProcessor;
 import hello.proxy.trace.logtrace.LogTrace;
@@ -9,6 +11,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.aop.Advisor;
 import org.springframework.aop.support.DefaultPointcutAdvisor;
 import org.springframework.aop.support.NameMatchMethodPointcut;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Import;
@@ -19,15 +22,19 @@ import org.springframework.context.annotation.Import;
  */
 @Slf4j
 @Configuration
-@Import({AppV1Config.class, AppV2Config.class}) // 여기말고 ProxyApplication 부분에 해도 됨
+@Import({AppV1Config.class, AppV2Config.class, HotSwapConfig.class}) // 여기말고 ProxyApplication 부분에 해도 됨
 public class BeanPostProcessorConfig {
 
     /**
      * 빈 후처리기 스프링 빈으로 등록
+     * proxy.lazy-init=true 이면 프록시를 첫 호출 시점에 만듦
+     * 만들어진 프록시의 어드바이저는 AdvisorSwapRegistry 로 실행 중에 교체할 수 있음
      */
     @Bean
-    public PackageLogTracePostProcessor logTracePostProcessor(LogTrace logTrace){
-        return new PackageLogTracePostProcessor("hello.proxy.app", getAdvisor(logTrace));
+    public PackageLogTracePostProcessor logTracePostProcessor(LogTrace logTrace, AdvisorSwapRegistry advisorSwapRegistry,
+                                                              @Value("${proxy.lazy-init:false}") boolean lazyInit){
+        return new PackageLogTracePostProcessor("hello.proxy.app", getAdvisor(logTrace), lazyInit,
+                advisorSwapRegistry, HotSwapConfig.LOG_TRACE);
     }
 
     private Advisor getAdvisor(LogTrace logTrace) {
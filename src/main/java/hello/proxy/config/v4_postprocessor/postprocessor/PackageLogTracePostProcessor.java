@@ -1,11 +1,22 @@
 package hello.proxy.config.v4_postprocessor.postprocessor;
 
+import hello.proxy.config.hotswap.AdvisorSwapRegistry;
+import hello.proxy.config.lazy.LazyAdvisedInvocationHandler;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.aop.Advisor;
 import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
 import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.SmartInitializingSingleton;
 import org.springframework.beans.factory.config.BeanPostProcessor;
 
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
 /**
  * 원본 객체를 프록시 객체로 변환하는 역할을 함. 이때 프록시 팩토리를 사용하는데, 프록시 팩토리는 advisor 가 필요하기 때문에 이부분은 외부에서 주입 받게 함
  * 모든 스프링 빈들에 프록시를 적용할 필요는 없음 -> 특정 패키지와 그 하위에 위치한 스프링 빈들만 프록시를 적용함 (조건문 부분)
@@ -13,35 +24,141 @@ import org.springframework.beans.factory.config.BeanPostProcessor;
  * 프록시 적용 대상 체크
  * - 우리가 직접 등록한 스프링 빈들 뿐만 아니라 스프링 부트가 기본으로 등록하는 수많은 빈들이 빈 후처리기에 넘어옴. 그래서 어떤 빈을 프록시로 만들 것인지 기준이 필요함
  * - 스프링 부트가 기본으로 제공하는 빈 중에는 프록시 객체를 만들 수 없는 빈들도 있음. 따라서 모든 객체를 프록시로 만들 경우 오류가 발생함
+ *
+ * 포인트컷 기반 적용 대상 체크
+ * - 패키지 조건만 보면 포인트컷에 매칭되는 메서드가 하나도 없는 빈까지 프록시로 만들게 됨 (어드바이스가 한번도 호출되지 않는데 프록시 호출 비용만 추가됨)
+ * - AopUtils.canApply() 로 어드바이저가 해당 클래스의 메서드 중 하나라도 적용 가능한지 확인하고, 적용할 곳이 없으면 원본을 그대로 반환함
+ * - 메서드를 하나하나 매칭하는 비용이 있으므로 판단 결과는 빈 클래스 단위로 캐시함 (같은 클래스의 빈이 여러개여도 한번만 매칭)
+ * - 빈 후처리 결과(검사한 빈 수, 프록시 생성 수, 생략 수, 소요 시간)는 모든 싱글톤 빈 생성이 끝난 시점에 한번 요약해서 로그로 남김
+ *
+ * 지연 프록시 (lazyProxy = true)
+ * - 인터페이스가 있는 빈은 클래스 조건만 확인하고 자리 표시자를 등록함. 메서드 매칭과 어드바이스 체인은 첫 호출 시점에 만듦 (LazyAdvisedInvocationHandler 참고)
+ * - 인터페이스가 없는 빈은 기존처럼 메서드 매칭 후 바로 프록시를 만듦
+ *
+ * 어드바이저 교체 (advisorSwapRegistry 가 있을 때)
+ * - 프록시에는 AdvisorSwapRegistry 에 등록한 인터셉터 하나만 넣고, advisor 는 advisorName 이라는 이름으로 그 안에 넣음
+ * - 프록시 생성 후에도 /admin/advisors 로 어드바이저를 추가/삭제/교체할 수 있음
  */
 @Slf4j
-public class PackageLogTracePostProcessor implements BeanPostProcessor {
+public class PackageLogTracePostProcessor implements BeanPostProcessor, SmartInitializingSingleton {
 
     private final String basePackage;
     private final Advisor advisor;
+    private final boolean lazyProxy;
+    private final AdvisorSwapRegistry advisorSwapRegistry;
+    private final String advisorName;
+
+    private final Map<Class<?>, Boolean> proxyTargetCache = new ConcurrentHashMap<>();
+
+    private final LongAdder scannedCount = new LongAdder();
+    private final LongAdder proxiedCount = new LongAdder();
+    private final LongAdder skippedCount = new LongAdder();
+    private final LongAdder elapsedNanos = new LongAdder();
 
     public PackageLogTracePostProcessor(String basePackage, Advisor advisor) {
+        this(basePackage, advisor, false);
+    }
+
+    public PackageLogTracePostProcessor(String basePackage, Advisor advisor, boolean lazyProxy) {
+        this(basePackage, advisor, lazyProxy, null, null);
+    }
+
+    public PackageLogTracePostProcessor(String basePackage, Advisor advisor, boolean lazyProxy,
+                                        AdvisorSwapRegistry advisorSwapRegistry, String advisorName) {
         this.basePackage = basePackage;
         this.advisor = advisor;
+        this.lazyProxy = lazyProxy;
+        this.advisorSwapRegistry = advisorSwapRegistry;
+        this.advisorName = advisorName;
     }
 
     @Override
     public Object postProcessAfterInitialization(Object bean, String beanName) throws BeansException {
-        log.info("param beanName={} bean={}", beanName, bean.getClass());
+        long startNanos = System.nanoTime();
+        try {
+            return wrapIfNecessary(bean, beanName);
+        } finally {
+            elapsedNanos.add(System.nanoTime() - startNanos);
+        }
+    }
+
+    private Object wrapIfNecessary(Object bean, String beanName) {
+        scannedCount.increment();
+        log.debug("param beanName={} bean={}", beanName, bean.getClass());
 
         //프록시 적용 대상 여부 체크
         //프록시 적용 대상이 아니면 원본을 그대로 진행
-        String packageName = bean.getClass().getPackageName();
+        Class<?> beanClass = bean.getClass();
+        String packageName = beanClass.getPackageName();
         if(!packageName.startsWith(basePackage)){
             return bean;
         }
 
+        //지연 프록시 모드면 클래스 조건만 보고 자리 표시자를 반환 (인터페이스가 없으면 null 이므로 아래에서 메서드 매칭 후 바로 프록시 생성)
+        if(lazyProxy && LazyAdvisedInvocationHandler.classMatches(advisor, beanClass)){
+            Object lazy = LazyAdvisedInvocationHandler.createProxy(bean, List.of(proxyAdvisor(bean, beanName)));
+            if(lazy != null){
+                proxiedCount.increment();
+                log.debug("create lazy proxy: target={} proxy={}", beanClass, lazy.getClass());
+                return lazy;
+            }
+        }
+
+        //패키지는 맞지만 어드바이저를 적용할 메서드가 하나도 없으면 원본을 그대로 진행
+        if(!isProxyTarget(beanClass)){
+            skippedCount.increment();
+            log.debug("skip proxy: no advised method beanName={} target={}", beanName, beanClass);
+            return bean;
+        }
+
+        Advisor proxyAdvisor = proxyAdvisor(bean, beanName);
+
         //프록시 대상이면 프록시를 만들어서 반환
         ProxyFactory proxyFactory = new ProxyFactory(bean);
-        proxyFactory.addAdvisor(advisor);
+        proxyFactory.addAdvisor(proxyAdvisor);
 
         Object proxy = proxyFactory.getProxy();
-        log.info("create proxy: target={} proxy={}", bean.getClass(), proxy.getClass());
+        proxiedCount.increment();
+        log.debug("create proxy: target={} proxy={}", beanClass, proxy.getClass());
         return proxy;
     }
+
+    /**
+     * 교체 가능한 프록시면 모든 메서드에서 호출되는 인터셉터를 반환 (포인트컷 판단은 인터셉터 안에서 함)
+     */
+    private Advisor proxyAdvisor(Object bean, String beanName) {
+        if (advisorSwapRegistry == null) {
+            return advisor;
+        }
+        return new DefaultPointcutAdvisor(advisorSwapRegistry.register(beanName, bean.getClass(), Map.of(advisorName, advisor)));
+    }
+
+    private boolean isProxyTarget(Class<?> beanClass) {
+        return proxyTargetCache.computeIfAbsent(beanClass, targetClass -> AopUtils.canApply(advisor, targetClass));
+    }
+
+    /**
+     * 모든 싱글톤 빈의 생성과 후처리가 끝난 뒤 한번 호출됨 -> 시작 시점 요약 로그
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        log.info("LogTrace post processing summary: scanned={} proxied={} skipped={} time={}ms",
+                getScannedCount(), getProxiedCount(), getSkippedCount(), TimeUnit.NANOSECONDS.toMillis(elapsedNanos.sum()));
+    }
+
+    public long getScannedCount() {
+        return scannedCount.sum();
+    }
+
+    public long getProxiedCount() {
+        return proxiedCount.sum();
+    }
+
+    public long getSkippedCount() {
+        return skippedCount.sum();
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos.sum();
+    }
 }
@@ -2,12 +2,15 @@ package hello.proxy.config.v5_autoproxy;
 
 import hello.proxy.config.AppV1Config;
 import hello.proxy.config.AppV2Config;
+import hello.proxy.config.lazy.LazyAdvisorAutoProxyCreator;
+import hello.proxy.config.pointcut.IndexedPointcut;
+import hello.proxy.config.pointcut.TracePointcuts;
 import hello.proxy.config.v3_proxyfactory.advice.LogTraceAdvice;
 import hello.proxy.trace.logtrace.LogTrace;
 import org.springframework.aop.Advisor;
-import org.springframework.aop.aspectj.AspectJExpressionPointcut;
 import org.springframework.aop.support.DefaultPointcutAdvisor;
 import org.springframework.aop.support.NameMatchMethodPointcut;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Import;
@@ -48,9 +51,20 @@ import org.springframework.context.annotation.Import;
  * 3. advisor1, advisor2 의 포인트컷을 모두 만족하지 않음 -> 프록시가 생성되지 않음
  */
 @Configuration
-@Import({AppV1Config.class, AppV2Config.class})
+@Import({AppV1Config.class, AppV2Config.class, OptionalAdvisorConfig.class})
 public class AutoProxyConfig {
 
+    /**
+     * proxy.lazy-init=true 이면 자동 프록시 생성기보다 먼저 동작하는 지연 프록시 생성기를 등록
+     * - 인터페이스가 있는 빈은 자리 표시자를 등록하고 첫 호출 시점에 어드바이스 체인을 만듦
+     * - 빈 후처리기는 다른 빈보다 먼저 만들어져야 하므로 static 으로 등록
+     */
+    @Bean
+    @ConditionalOnProperty(name = "proxy.lazy-init", havingValue = "true")
+    public static LazyAdvisorAutoProxyCreator lazyAdvisorAutoProxyCreator() {
+        return new LazyAdvisorAutoProxyCreator();
+    }
+
     /**
      * 어드바이저만 등록하면 자동 프록시 생성기가 처리해줌
      */
@@ -85,9 +99,11 @@ public class AutoProxyConfig {
          * - 'hello.proxy.app..' :해당 패키지와 그 하위 패키지
          * - '*(..)' : '*' 은 모든 메서드 이름, '(..)' 은 파라미터는 상관 없다는 의미
          * 이후 강의에서 상세히 설명
+         *
+         * 표현식은 TracePointcuts 에 모아두고, IndexedPointcut 으로 빌드 시점 인덱스(PointcutIndex)를 먼저 조회함
+         * 인덱스에 없는 클래스/메서드만 표현식으로 매칭 (단순한 execution() 은 ExecutionPointcut 이 직접 해석, 나머지는 AspectJExpressionPointcut)
          */
-        AspectJExpressionPointcut pointcut = new AspectJExpressionPointcut();
-        pointcut.setExpression("execution(* hello.proxy.app..*(..))");
+        IndexedPointcut pointcut = IndexedPointcut.of(TracePointcuts.APP_ID);
 
         LogTraceAdvice advice = new LogTraceAdvice(logTrace);
         return new DefaultPointcutAdvisor(pointcut, advice);
@@ -102,10 +118,9 @@ public class AutoProxyConfig {
     @Bean
     public Advisor advisor3(LogTrace logTrace){
 
-        AspectJExpressionPointcut pointcut = new AspectJExpressionPointcut();
-        pointcut.setExpression("execution(* hello.proxy.app..*(..)) && !execution(* hello.proxy.app..noLog(..))");
+        IndexedPointcut pointcut = IndexedPointcut.of(TracePointcuts.APP_EXCEPT_NO_LOG_ID);
 
         LogTraceAdvice advice = new LogTraceAdvice(logTrace);
         return new DefaultPointcutAdvisor(pointcut, advice);
     }
-}
\ No newline at end of file
+}
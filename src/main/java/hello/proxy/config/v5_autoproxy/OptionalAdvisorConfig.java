@@ -0,0 +1,152 @@
+package hello.proxy.config.v5_autoproxy;
+
+import hello.proxy.config.DurationPatterns;
+import hello.proxy.config.pointcut.ExecutionPointcut;
+import hello.proxy.config.v3_proxyfactory.advice.CachingAdvice;
+import hello.proxy.config.v3_proxyfactory.advice.CoalescingAdvice;
+import hello.proxy.config.v3_proxyfactory.advice.ConcurrencyLimitAdvice;
+import hello.proxy.config.v3_proxyfactory.advice.HedgingAdvice;
+import hello.proxy.config.v3_proxyfactory.advice.limit.ConcurrencyLimit;
+import hello.proxy.config.v3_proxyfactory.advice.limit.FixedLimit;
+import hello.proxy.config.v3_proxyfactory.advice.limit.GradientLimit;
+import hello.proxy.config.v3_proxyfactory.advice.limit.VegasLimit;
+import hello.proxy.trace.logtrace.LogTrace;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.time.Duration;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 설정값이 있을 때만 등록하는 어드바이저 모음 (AutoProxyConfig, AopConfig 에서 Import)
+ * 어드바이저만 등록하면 자동 프록시 생성기가 적용해줌. 로그 추적보다 먼저 실행되도록 순서를 앞에 둠
+ * 실행 순서 : 캐시(0) -> 호출 합치기(1) -> hedging(2) -> 동시 실행 제한(3) -> 로그 추적
+ * (hedging 의 primary, backup 은 각각 동시 실행 제한과 로그 추적을 거침)
+ */
+@Configuration
+public class OptionalAdvisorConfig {
+
+    /**
+     * proxy.cache.pointcut 이 있으면 해당 메서드의 결과를 캐시하는 어드바이저를 등록 (읽기가 많은 메서드용)
+     * (ex) proxy.cache.pointcut=execution(* hello.proxy.app..*Repository*.find*(..))
+     *      proxy.cache.spec=maximumSize=10000,expireAfterWrite=10m,refreshAfterWrite=1m
+     * - 캐시 적중 시 뒤쪽 어드바이스와 target 을 모두 건너뜀
+     */
+    @Bean
+    @ConditionalOnProperty(name = "proxy.cache.pointcut")
+    public CachingAdvice cachingAdvice(@Value("${proxy.cache.spec:maximumSize=10000,expireAfterWrite=10m}") String spec) {
+        return new CachingAdvice("proxyCache", spec);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "proxy.cache.pointcut")
+    public Advisor cachingAdvisor(CachingAdvice cachingAdvice, @Value("${proxy.cache.pointcut}") String expression) {
+        DefaultPointcutAdvisor advisor = new DefaultPointcutAdvisor(ExecutionPointcut.forExpression(expression), cachingAdvice);
+        advisor.setOrder(0);
+        return advisor;
+    }
+
+    /**
+     * proxy.coalesce.pointcut 이 있으면 같은 인자로 동시에 들어온 호출을 하나로 합치는 어드바이저를 등록
+     * (ex) proxy.coalesce.pointcut=execution(* hello.proxy.app.v1.OrderServiceV1.orderItem(..))
+     *      proxy.coalesce.key-args=0        (키로 사용할 인자 위치, 비우면 전체 인자)
+     *      proxy.coalesce.max-waiters=1000  (한 호출을 기다리는 최대 수)
+     *      proxy.coalesce.timeout=5s        (기다리는 최대 시간)
+     */
+    @Bean
+    @ConditionalOnProperty(name = "proxy.coalesce.pointcut")
+    public CoalescingAdvice coalescingAdvice(@Value("${proxy.coalesce.key-args:}") int[] keyArgumentIndexes,
+                                             @Value("${proxy.coalesce.max-waiters:1000}") int maxWaiters,
+                                             @Value("${proxy.coalesce.timeout:5s}") Duration timeout) {
+        return new CoalescingAdvice(keyArgumentIndexes, maxWaiters, timeout);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "proxy.coalesce.pointcut")
+    public Advisor coalescingAdvisor(CoalescingAdvice coalescingAdvice, @Value("${proxy.coalesce.pointcut}") String expression) {
+        DefaultPointcutAdvisor advisor = new DefaultPointcutAdvisor(ExecutionPointcut.forExpression(expression), coalescingAdvice);
+        advisor.setOrder(1);
+        return advisor;
+    }
+
+    /**
+     * proxy.hedge.pointcut 이 있으면 느린 호출에 backup 호출을 보내는 어드바이저를 등록 (두 번 호출해도 되는 읽기 메서드만)
+     * (ex) proxy.hedge.pointcut=execution(* hello.proxy.app..*Repository*.find*(..))
+     *      proxy.hedge.percentile=95        (최근 호출 시간의 p95 를 넘으면 backup 호출)
+     *      proxy.hedge.min-samples=20       (최근 호출이 이보다 적으면 backup 을 보내지 않음)
+     *      proxy.hedge.timeout=0            (호출 전체의 최대 시간, 0 이면 제한 없음)
+     *      proxy.hedge.method-timeouts=OrderRepositoryV1.find*=300ms,*Service*.find*=1s
+     *      proxy.hedge.cancel-loser=true    (진 호출을 인터럽트로 취소)
+     *      proxy.hedge.max-threads=64       (hedging 전용 스레드 수 제한, 넘으면 primary 는 호출한 스레드에서 실행하고 backup 은 보내지 않음)
+     * - 스레드 풀은 빈으로 등록하지 않고 어드바이스가 소유함
+     *   (Executor 빈이 있으면 스프링 부트의 applicationTaskExecutor 가 등록되지 않고, 다른 빈이 타입으로 주입받을 수 있음)
+     */
+    @Bean
+    @ConditionalOnProperty(name = "proxy.hedge.pointcut")
+    public HedgingAdvice hedgingAdvice(@Value("${proxy.hedge.max-threads:64}") int maxThreads, LogTrace logTrace,
+                                       @Value("${proxy.hedge.percentile:95}") double percentile,
+                                       @Value("${proxy.hedge.min-samples:20}") int minSamples,
+                                       @Value("${proxy.hedge.timeout:0}") Duration timeout,
+                                       @Value("${proxy.hedge.method-timeouts:}") String methodTimeouts,
+                                       @Value("${proxy.hedge.cancel-loser:true}") boolean cancelLoser) {
+        ThreadPoolExecutor hedgingExecutor = new ThreadPoolExecutor(0, maxThreads, 60, TimeUnit.SECONDS,
+                new SynchronousQueue<>(), new CustomizableThreadFactory("hedge-"));
+        return new HedgingAdvice(hedgingExecutor, logTrace, percentile, minSamples, timeout,
+                DurationPatterns.parse(methodTimeouts), cancelLoser);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "proxy.hedge.pointcut")
+    public Advisor hedgingAdvisor(HedgingAdvice hedgingAdvice, @Value("${proxy.hedge.pointcut}") String expression) {
+        DefaultPointcutAdvisor advisor = new DefaultPointcutAdvisor(ExecutionPointcut.forExpression(expression), hedgingAdvice);
+        advisor.setOrder(2);
+        return advisor;
+    }
+
+    /**
+     * proxy.limit.pointcut 이 있으면 동시 실행 수를 제한하는 어드바이저를 등록 (느린 저장소 계층 보호)
+     * (ex) proxy.limit.pointcut=execution(* hello.proxy.app..*Repository*.save(..))
+     *      proxy.limit.algorithm=vegas      (vegas | gradient | fixed)
+     *      proxy.limit.initial=20, proxy.limit.min=1, proxy.limit.max=200
+     *      proxy.limit.max-queue=0          (0 이면 limit 초과 시 바로 거절)
+     *      proxy.limit.queue-timeout=50ms   (대기열에서 기다리는 최대 시간)
+     */
+    @Bean
+    @ConditionalOnProperty(name = "proxy.limit.pointcut")
+    public ConcurrencyLimitAdvice concurrencyLimitAdvice(@Value("${proxy.limit.algorithm:vegas}") String algorithm,
+                                                         @Value("${proxy.limit.initial:20}") int initialLimit,
+                                                         @Value("${proxy.limit.min:1}") int minLimit,
+                                                         @Value("${proxy.limit.max:200}") int maxLimit,
+                                                         @Value("${proxy.limit.max-queue:0}") int maxQueue,
+                                                         @Value("${proxy.limit.queue-timeout:50ms}") Duration queueTimeout) {
+        return new ConcurrencyLimitAdvice(concurrencyLimit(algorithm, initialLimit, minLimit, maxLimit), maxQueue, queueTimeout);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "proxy.limit.pointcut")
+    public Advisor concurrencyLimitAdvisor(ConcurrencyLimitAdvice concurrencyLimitAdvice, @Value("${proxy.limit.pointcut}") String expression) {
+        DefaultPointcutAdvisor advisor = new DefaultPointcutAdvisor(ExecutionPointcut.forExpression(expression), concurrencyLimitAdvice);
+        advisor.setOrder(3);
+        return advisor;
+    }
+
+    private static ConcurrencyLimit concurrencyLimit(String algorithm, int initialLimit, int minLimit, int maxLimit) {
+        switch (algorithm) {
+            case "vegas":
+                return new VegasLimit(initialLimit, minLimit, maxLimit);
+            case "gradient":
+                return new GradientLimit(initialLimit, minLimit, maxLimit);
+            case "fixed":
+                return new FixedLimit(initialLimit);
+            default:
+                throw new IllegalArgumentException("unknown proxy.limit.algorithm: " + algorithm);
+        }
+    }
+}
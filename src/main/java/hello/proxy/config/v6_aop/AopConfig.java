@@ -2,17 +2,51 @@ package hello.proxy.config.v6_aop;
 
 import hello.proxy.config.AppV1Config;
 import hello.proxy.config.AppV2Config;
+import hello.proxy.config.tracing.TraceSwitchConfig;
+import hello.proxy.config.pointcut.IndexedPointcut;
+import hello.proxy.config.pointcut.TracePointcuts;
+import hello.proxy.config.v5_autoproxy.OptionalAdvisorConfig;
 import hello.proxy.config.v6_aop.aspect.LogTraceAspect;
+import hello.proxy.config.v6_aop.aspect.LogTraceInterceptor;
+import hello.proxy.config.v6_aop.metadata.TraceMetadataCache;
+import hello.proxy.config.v7_weaving.CompileTimeWeavingConfig;
 import hello.proxy.trace.logtrace.LogTrace;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Import;
+import org.springframework.context.annotation.Profile;
 
+/**
+ * trace.aop.advice-style 로 어드바이스 방식을 선택
+ * - aspect (기본값) : @Aspect(LogTraceAspect) 사용
+ * - interceptor : 같은 포인트컷에 MethodInterceptor(LogTraceInterceptor) 를 Advisor 로 등록. 호출당 추가 객체 생성이 없음
+ * trace.aop.exclude : 로그를 남기지 않을 "클래스명.메서드명" 패턴 목록 (ex) *.noLog
+ * 컴파일 시점 위빙 빌드(ctw 프로필)에서는 프록시 대신 CompileTimeWeavingConfig 를 사용하므로 비활성화
+ */
 @Configuration
-@Import({AppV1Config.class, AppV2Config.class})
+@Profile("!" + CompileTimeWeavingConfig.PROFILE)
+@Import({AppV1Config.class, AppV2Config.class, TraceSwitchConfig.class, OptionalAdvisorConfig.class})
 public class AopConfig {
+
+    @Bean
+    public TraceMetadataCache traceMetadataCache(@Value("${trace.aop.exclude:}") String[] excludePatterns) {
+        return TraceMetadataCache.excluding(excludePatterns);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "trace.aop.advice-style", havingValue = "aspect", matchIfMissing = true)
+    public LogTraceAspect logTraceAspect(LogTrace logTrace, TraceMetadataCache traceMetadataCache){
+        return new LogTraceAspect(logTrace, traceMetadataCache);
+    }
+
     @Bean
-    public LogTraceAspect logTraceAspect(LogTrace logTrace){
-        return new LogTraceAspect(logTrace);
+    @ConditionalOnProperty(name = "trace.aop.advice-style", havingValue = "interceptor")
+    public Advisor logTraceAdvisor(LogTrace logTrace, TraceMetadataCache traceMetadataCache) {
+        IndexedPointcut pointcut = IndexedPointcut.of(TracePointcuts.APP_ID);
+        return new DefaultPointcutAdvisor(pointcut, new LogTraceInterceptor(logTrace, traceMetadataCache));
     }
 }
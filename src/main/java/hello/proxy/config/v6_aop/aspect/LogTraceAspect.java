@@ -1,11 +1,16 @@
 package hello.proxy.config.v6_aop.aspect;
 
+import hello.proxy.config.pointcut.TracePointcuts;
+import hello.proxy.config.tracing.TraceSwitch;
+import hello.proxy.config.v6_aop.metadata.TraceMetadata;
+import hello.proxy.config.v6_aop.metadata.TraceMetadataCache;
 import hello.proxy.trace.TraceStatus;
 import hello.proxy.trace.logtrace.LogTrace;
 import lombok.extern.slf4j.Slf4j;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
 
 
 /**
@@ -35,9 +40,15 @@ import org.aspectj.lang.annotation.Aspect;
 public class LogTraceAspect {
 
     private final LogTrace logTrace;
+    private final TraceMetadataCache metadataCache;
 
     public LogTraceAspect(LogTrace logTrace) {
+        this(logTrace, new TraceMetadataCache());
+    }
+
+    public LogTraceAspect(LogTrace logTrace, TraceMetadataCache metadataCache) {
         this.logTrace = logTrace;
+        this.metadataCache = metadataCache;
     }
 
     /**
@@ -47,13 +58,23 @@ public class LogTraceAspect {
      *      - @Around 의 메서드는 어드바이스가 됨
      * ProceedingJoinPoint : 어드바이스에서 살펴본 MethodInvocation 과 유사한 기능. 내부에 실제 호출 대상, 전달 인자, 그리고 어떤 객체와 어떤 메서드가 호출되었는지 정보가 포함되어 있음
      * ProceedingJointPoint.proceed() : 실제 호출 대상(target) 호출
+     * 표현식은 TracePointcuts.APP 상수를 사용 (빌드 시점 포인트컷 인덱스에도 같은 표현식이 기록됨)
+     * 로그 메시지는 호출마다 toShortString() 으로 만들지 않고 메서드별로 캐시된 TraceMetadata 의 label 을 사용
      */
-    @Around("execution(* hello.proxy.app..*(..))")
+    @Around(TracePointcuts.APP)
     public Object execute(ProceedingJoinPoint joinPoint) throws  Throwable{
+        logTrace.checkDeadline();
+        if (!TraceSwitch.isEnabled()) {
+            return joinPoint.proceed();
+        }
+        TraceMetadata metadata = metadataCache.get(((MethodSignature) joinPoint.getSignature()).getMethod(), joinPoint.getTarget());
+        if (!metadata.isSampled()) {
+            return joinPoint.proceed();
+        }
+
         TraceStatus status = null;
         try{
-            String message = joinPoint.getSignature().toShortString();
-            status = logTrace.begin(message);
+            status = logTrace.begin(metadata.getLabel());
 
             Object result = joinPoint.proceed();
 
@@ -0,0 +1,52 @@
+package hello.proxy.config.v6_aop.aspect;
+
+import hello.proxy.config.tracing.TraceSwitch;
+import hello.proxy.config.v6_aop.metadata.TraceMetadata;
+import hello.proxy.config.v6_aop.metadata.TraceMetadataCache;
+import hello.proxy.trace.TraceStatus;
+import hello.proxy.trace.logtrace.LogTrace;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+
+/**
+ * LogTraceAspect 와 같은 일을 하는 MethodInterceptor (호출이 많은 메서드용 가벼운 어드바이스)
+ * - @Aspect 의 @Around 는 호출마다 ProceedingJoinPoint(MethodInvocationProceedingJoinPoint)와 Signature 객체를 새로 만들고,
+ *   어드바이스 메서드도 리플렉션으로 호출함 (AspectJAroundAdvice -> invokeAdviceMethod)
+ * - MethodInterceptor 는 프록시가 넘겨준 MethodInvocation 을 그대로 사용하므로 이런 추가 객체가 없음
+ * - 로그 메시지는 LogTraceAspect 와 같은 TraceMetadataCache 를 사용하므로 두 방식의 로그 형식이 같음
+ */
+public class LogTraceInterceptor implements MethodInterceptor {
+
+    private final LogTrace logTrace;
+    private final TraceMetadataCache metadataCache;
+
+    public LogTraceInterceptor(LogTrace logTrace, TraceMetadataCache metadataCache) {
+        this.logTrace = logTrace;
+        this.metadataCache = metadataCache;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        logTrace.checkDeadline();
+        if (!TraceSwitch.isEnabled()) {
+            return invocation.proceed();
+        }
+        TraceMetadata metadata = metadataCache.get(invocation.getMethod(), invocation.getThis());
+        if (!metadata.isSampled()) {
+            return invocation.proceed();
+        }
+
+        TraceStatus status = null;
+        try{
+            status = logTrace.begin(metadata.getLabel());
+
+            Object result = invocation.proceed();
+
+            logTrace.end(status);
+            return result;
+        } catch (Exception e){
+            logTrace.exception(status, e);
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package hello.proxy.config.v6_aop.metadata;
+
+import java.lang.reflect.Method;
+
+/**
+ * 조인 포인트(메서드) 하나에 대한 로그 추적 정보. 메서드당 한 번만 만들어서 재사용함
+ * - label : 로그에 남길 문자열 (Signature.toShortString() 과 같은 형식)
+ * - methodId : 캐시에 등록된 순서대로 부여하는 번호
+ * - targetMethod : 실제로 실행되는 메서드 (인터페이스 메서드면 target 클래스의 구현 메서드). TraceSwitch 규칙은 이 메서드로 판단함
+ * - sampled : 로그를 남길 대상인지 여부. false 면 어드바이스는 로그 없이 바로 target 을 호출함
+ *             (trace.aop.exclude 설정과 TraceSwitch 의 패키지/메서드 스위치를 모두 반영한 값)
+ */
+public final class TraceMetadata {
+
+    private final Method method;
+    private final Method targetMethod;
+    private final String label;
+    private final int methodId;
+    private final boolean sampled;
+
+    TraceMetadata(Method method, Method targetMethod, String label, int methodId, boolean sampled) {
+        this.method = method;
+        this.targetMethod = targetMethod;
+        this.label = label;
+        this.methodId = methodId;
+        this.sampled = sampled;
+    }
+
+    /**
+     * 스위치가 바뀌면 기존 객체를 바꾸지 않고 새 객체로 교체함 (label, methodId 는 유지)
+     */
+    TraceMetadata withSampled(boolean sampled) {
+        return this.sampled == sampled ? this : new TraceMetadata(method, targetMethod, label, methodId, sampled);
+    }
+
+    public Method getMethod() {
+        return method;
+    }
+
+    public Method getTargetMethod() {
+        return targetMethod;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    public int getMethodId() {
+        return methodId;
+    }
+
+    public boolean isSampled() {
+        return sampled;
+    }
+
+    @Override
+    public String toString() {
+        return "TraceMetadata[" + methodId + "]: " + label + (sampled ? "" : " (not sampled)");
+    }
+}
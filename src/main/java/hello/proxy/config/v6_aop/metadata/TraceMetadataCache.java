@@ -0,0 +1,107 @@
+package hello.proxy.config.v6_aop.metadata;
+
+import org.springframework.aop.support.AopUtils;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ObjectUtils;
+import org.springframework.util.PatternMatchUtils;
+
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+
+/**
+ * 조인 포인트별 TraceMetadata 캐시
+ * - AspectJ 의 JoinPoint.StaticPart 는 위빙된 코드에서는 조인 포인트마다 하나지만,
+ *   스프링 AOP 에서는 getStaticPart() 가 호출마다 새로 만들어지는 ProceedingJoinPoint 자신을 반환함
+ *   -> 두 경우 모두 조인 포인트마다 하나뿐인 Method 를 키로 사용
+ * - 처음 호출될 때 한 번만 label, methodId, sampled 를 계산하고, 이후에는 조회만 함 (호출마다 문자열을 만들지 않음)
+ * - 실행 중 스위치(TraceSwitch)로 로그 대상이 바뀌면 applySwitch() 로 캐시된 항목을 새 값으로 교체함
+ *   스위치 규칙은 다른 추적 지점과 같은 키(실제로 실행되는 메서드)로 판단하도록, 처음 만들 때 target 클래스의 구현 메서드를 찾아 둠
+ *   -> 어드바이스는 호출마다 스위치를 확인하지 않고, 원래 하던 캐시 조회 결과(sampled)만 봄
+ */
+public class TraceMetadataCache {
+
+    private final ConcurrentMap<Method, TraceMetadata> cache = new ConcurrentHashMap<>();
+    private final AtomicInteger sequence = new AtomicInteger();
+    private final Predicate<Method> sampler;
+    private volatile Predicate<Method> switchFilter = method -> true;
+
+    /**
+     * 모든 메서드를 로그 대상으로 함
+     */
+    public TraceMetadataCache() {
+        this(method -> true);
+    }
+
+    public TraceMetadataCache(Predicate<Method> sampler) {
+        this.sampler = sampler;
+    }
+
+    /**
+     * "클래스명.메서드명" 패턴(*, xxx*, *xxx, *xxx*)에 해당하는 메서드는 로그를 남기지 않음
+     * (ex) "*.noLog", "OrderRepositoryV1.*"
+     */
+    public static TraceMetadataCache excluding(String... patterns) {
+        if (ObjectUtils.isEmpty(patterns)) {
+            return new TraceMetadataCache();
+        }
+        return new TraceMetadataCache(method -> !PatternMatchUtils.simpleMatch(patterns,
+                ClassUtils.getShortName(method.getDeclaringClass()) + "." + method.getName()));
+    }
+
+    public TraceMetadata get(Method method) {
+        return get(method, null);
+    }
+
+    /**
+     * target : 호출 대상 객체. 처음 등록할 때만 클래스를 확인함 (null 이면 method 를 그대로 사용)
+     */
+    public TraceMetadata get(Method method, Object target) {
+        //이미 등록된 메서드는 computeIfAbsent 의 람다/락 비용 없이 바로 반환
+        TraceMetadata metadata = cache.get(method);
+        if (metadata != null) {
+            return metadata;
+        }
+        return cache.computeIfAbsent(method, key -> create(key, target == null ? null : AopUtils.getTargetClass(target)));
+    }
+
+    private TraceMetadata create(Method method, Class<?> targetClass) {
+        Method targetMethod = AopUtils.getMostSpecificMethod(method, targetClass);
+        return new TraceMetadata(method, targetMethod, label(method), sequence.getAndIncrement(),
+                isSampled(method, targetMethod));
+    }
+
+    /**
+     * Signature.toShortString() 과 같은 형식 - 파라미터가 없으면 "()", 있으면 "(..)"
+     * (ex) OrderControllerV2.noLog(), OrderControllerV2.request(..)
+     */
+    public static String label(Method method) {
+        String parameters = method.getParameterCount() == 0 ? "()" : "(..)";
+        return ClassUtils.getShortName(method.getDeclaringClass()) + "." + method.getName() + parameters;
+    }
+
+    private boolean isSampled(Method method, Method targetMethod) {
+        return sampler.test(method) && switchFilter.test(targetMethod);
+    }
+
+    /**
+     * 새 스위치 조건을 적용. 이후 만들어지는 항목과 이미 캐시된 항목 모두 반영됨
+     * (조건을 먼저 바꾸고 교체하므로, 동시에 만들어지는 항목도 ConcurrentHashMap 의 잠금 순서상 새 조건을 따름)
+     */
+    public synchronized void applySwitch(Predicate<Method> switchFilter) {
+        this.switchFilter = switchFilter;
+        cache.replaceAll((method, metadata) -> metadata.withSampled(isSampled(method, metadata.getTargetMethod())));
+    }
+
+    public int size() {
+        return cache.size();
+    }
+
+    public Collection<TraceMetadata> entries() {
+        return Collections.unmodifiableCollection(cache.values());
+    }
+}
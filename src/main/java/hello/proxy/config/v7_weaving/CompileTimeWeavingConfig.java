@@ -0,0 +1,44 @@
+package hello.proxy.config.v7_weaving;
+
+import hello.proxy.config.AppV1Config;
+import hello.proxy.config.AppV2Config;
+import hello.proxy.config.tracing.TraceSwitchConfig;
+import hello.proxy.config.v6_aop.metadata.TraceMetadataCache;
+import hello.proxy.config.v7_weaving.aspect.WovenLogTraceAspect;
+import hello.proxy.trace.logtrace.LogTrace;
+import org.aspectj.lang.Aspects;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.annotation.Profile;
+
+/**
+ * 컴파일 시점 위빙 설정 (ctw 프로필)
+ * - 위빙된 클래스로 빌드하면 WeavingProfileEnvironmentPostProcessor 가 ctw 프로필을 자동으로 활성화함
+ * - ctw 프로필에서는 프록시 기반 AopConfig 가 비활성화되고, 이미 위빙된 애스펙트에 LogTrace 만 연결함
+ */
+@Configuration
+@Profile(CompileTimeWeavingConfig.PROFILE)
+@Import({AppV1Config.class, AppV2Config.class, TraceSwitchConfig.class})
+public class CompileTimeWeavingConfig {
+
+    public static final String PROFILE = "ctw";
+
+    @Bean
+    public TraceMetadataCache traceMetadataCache(@Value("${trace.aop.exclude:}") String[] excludePatterns) {
+        return TraceMetadataCache.excluding(excludePatterns);
+    }
+
+    /**
+     * 애스펙트 인스턴스는 AspectJ 가 관리하는 싱글톤을 그대로 빈으로 등록
+     * 위빙되지 않은 빌드에서 ctw 프로필을 켜면 여기서 NoAspectBoundException 이 발생함
+     */
+    @Bean
+    public WovenLogTraceAspect wovenLogTraceAspect(LogTrace logTrace, TraceMetadataCache traceMetadataCache) {
+        WovenLogTraceAspect aspect = Aspects.aspectOf(WovenLogTraceAspect.class);
+        aspect.setMetadataCache(traceMetadataCache);
+        aspect.setLogTrace(logTrace);
+        return aspect;
+    }
+}
@@ -0,0 +1,33 @@
+package hello.proxy.config.v7_weaving;
+
+import hello.proxy.config.v7_weaving.aspect.WovenLogTraceAspect;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.env.EnvironmentPostProcessor;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.ConfigurableEnvironment;
+import org.springframework.core.env.Profiles;
+import org.springframework.util.ClassUtils;
+
+/**
+ * 위빙된 클래스가 있으면 ctw 프로필을 활성화 (META-INF/spring.factories 로 등록)
+ * - ajc 가 애스펙트를 컴파일하면 aspectOf() 메서드가 추가됨 -> 이것으로 컴파일 시점 위빙 빌드인지 판단
+ */
+public class WeavingProfileEnvironmentPostProcessor implements EnvironmentPostProcessor, Ordered {
+
+    @Override
+    public void postProcessEnvironment(ConfigurableEnvironment environment, SpringApplication application) {
+        if (!isWoven() || environment.acceptsProfiles(Profiles.of(CompileTimeWeavingConfig.PROFILE))) {
+            return;
+        }
+        environment.addActiveProfile(CompileTimeWeavingConfig.PROFILE);
+    }
+
+    static boolean isWoven() {
+        return ClassUtils.hasMethod(WovenLogTraceAspect.class, "aspectOf");
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.LOWEST_PRECEDENCE;
+    }
+}
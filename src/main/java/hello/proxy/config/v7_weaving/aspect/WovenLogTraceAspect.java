@@ -0,0 +1,66 @@
+package hello.proxy.config.v7_weaving.aspect;
+
+import hello.proxy.config.pointcut.TracePointcuts;
+import hello.proxy.config.tracing.TraceSwitch;
+import hello.proxy.config.v6_aop.metadata.TraceMetadata;
+import hello.proxy.config.v6_aop.metadata.TraceMetadataCache;
+import hello.proxy.trace.TraceStatus;
+import hello.proxy.trace.logtrace.LogTrace;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+
+/**
+ * 컴파일 시점 위빙용 LogTraceAspect (./gradlew build -Pweaving=ctw)
+ * - AspectJ 컴파일러(ajc)가 hello.proxy.app 클래스의 메서드 본문에 이 어드바이스 호출 코드를 직접 넣음
+ *   -> 프록시가 없으므로 프록시를 거치는 호출 단계가 없고, 내부 호출(this.xxx())도 로그가 남음
+ * - 애스펙트 인스턴스는 스프링이 아니라 AspectJ 가 만듦 (싱글톤, Aspects.aspectOf() 로 조회)
+ *   -> 기본 생성자가 필요하므로 LogTrace 는 CompileTimeWeavingConfig 에서 setter 로 주입함
+ *   -> 주입되기 전(스프링 컨테이너 밖에서 호출 등)에는 로그 없이 바로 target 을 호출함
+ * - ajc 로 컴파일되면 스프링은 이 클래스를 @Aspect 빈으로 처리하지 않음 (AbstractAspectJAdvisorFactory.compiledByAjc)
+ * - 위빙된 코드에서 Signature 는 조인 포인트마다 하나라서 getMethod() 결과도 재사용됨
+ */
+@Aspect
+public class WovenLogTraceAspect {
+
+    private volatile LogTrace logTrace;
+    private volatile TraceMetadataCache metadataCache = new TraceMetadataCache();
+
+    @Around(TracePointcuts.APP)
+    public Object execute(ProceedingJoinPoint joinPoint) throws Throwable {
+        LogTrace logTrace = this.logTrace;
+        if (logTrace == null) {
+            return joinPoint.proceed();
+        }
+        logTrace.checkDeadline();
+        if (!TraceSwitch.isEnabled()) {
+            return joinPoint.proceed();
+        }
+        TraceMetadata metadata = metadataCache.get(((MethodSignature) joinPoint.getSignature()).getMethod(), joinPoint.getTarget());
+        if (!metadata.isSampled()) {
+            return joinPoint.proceed();
+        }
+
+        TraceStatus status = null;
+        try{
+            status = logTrace.begin(metadata.getLabel());
+
+            Object result = joinPoint.proceed();
+
+            logTrace.end(status);
+            return result;
+        } catch (Exception e){
+            logTrace.exception(status, e);
+            throw e;
+        }
+    }
+
+    public void setLogTrace(LogTrace logTrace) {
+        this.logTrace = logTrace;
+    }
+
+    public void setMetadataCache(TraceMetadataCache metadataCache) {
+        this.metadataCache = metadataCache;
+    }
+}
@@ -0,0 +1,16 @@
+package hello.proxy.infra.batch;
+
+import java.util.List;
+
+/**
+ * GroupCommitter 가 모은 항목을 한 번에 저장하는 쪽
+ * - check : 항목별 검사. 예외를 던지면 그 항목을 저장한 호출만 실패하고 나머지는 계속 진행
+ * - write : 검사를 통과한 항목 전체를 한 번에 저장 (ex. 한 번의 fsync). 예외를 던지면 배치 전체가 실패
+ */
+public interface BatchWriter<T> {
+
+    default void check(T item) {
+    }
+
+    void write(List<T> items);
+}
@@ -0,0 +1,249 @@
+package hello.proxy.infra.batch;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedResource;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 동시에 들어온 저장 요청을 모아서 한 번에 저장하는 group commit
+ * - 저장 요청은 큐에 넣고, 전용 스레드(flusher)가 첫 요청부터 maxDelay 동안 또는 maxBatchSize 개가 될 때까지 모아서 BatchWriter 로 저장함
+ * - 저장하는 동안 들어온 요청은 다음 배치로 모이므로, 동시 요청이 많을수록 배치가 커지고 저장 횟수는 늘지 않음
+ *   (ex) 저장 1번에 1초 걸릴 때 100개가 동시에 들어오면 1초 + maxDelay 정도에 모두 끝남
+ * - commit() 은 자기 항목이 저장될 때까지 기다리고, 자기 항목의 예외(check) 또는 배치 전체의 예외(write)를 그대로 던짐
+ * - 배치 크기, 저장 시간은 getter 와 JMX 로 확인
+ */
+@Slf4j
+@ManagedResource(description = "Group commit")
+public class GroupCommitter<T> implements AutoCloseable {
+
+    private final String name;
+    private final BatchWriter<T> writer;
+    private final int maxBatchSize;
+    private final long maxDelayNanos;
+
+    private final BlockingQueue<Pending<T>> queue = new LinkedBlockingQueue<>();
+    private final Thread flusher;
+    private boolean closed;
+
+    private final LongAdder flushCount = new LongAdder();
+    private final LongAdder committedCount = new LongAdder();
+    private final LongAdder failedCount = new LongAdder();
+    private final LongAdder flushedItemCount = new LongAdder();
+    private final LongAccumulator maxBatch = new LongAccumulator(Math::max, 0);
+    private final LongAdder flushNanos = new LongAdder();
+    private final LongAccumulator maxFlushNanos = new LongAccumulator(Math::max, 0);
+
+    public GroupCommitter(String name, BatchWriter<T> writer, int maxBatchSize, Duration maxDelay) {
+        this.name = name;
+        this.writer = writer;
+        this.maxBatchSize = maxBatchSize;
+        this.maxDelayNanos = maxDelay.toNanos();
+        this.flusher = new Thread(this::run, "group-commit-" + name);
+        this.flusher.setDaemon(true);
+        this.flusher.start();
+    }
+
+    /**
+     * item 이 저장될 때까지 기다림
+     */
+    public void commit(T item) {
+        try {
+            submit(item).get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException(cause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("interrupted while waiting for group commit: " + name, e);
+        }
+    }
+
+    /**
+     * 기다리지 않고 저장 완료 시점의 future 를 반환
+     */
+    public CompletableFuture<Void> submit(T item) {
+        Pending<T> pending = new Pending<>(item);
+        synchronized (this) {
+            if (closed) {
+                throw new IllegalStateException("group committer closed: " + name);
+            }
+            queue.add(pending);
+        }
+        return pending.result;
+    }
+
+    private void run() {
+        List<Pending<T>> batch = new ArrayList<>(maxBatchSize);
+        while (true) {
+            try {
+                Pending<T> first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    if (isClosed()) {
+                        return;
+                    }
+                    continue;
+                }
+                batch.add(first);
+                collect(batch);
+            } catch (InterruptedException e) {
+                //flusher 는 close() 후 큐가 빌 때까지 멈추지 않음. 모은 요청은 그대로 저장
+            }
+            if (!batch.isEmpty()) {
+                flush(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    private void collect(List<Pending<T>> batch) throws InterruptedException {
+        long windowEnd = System.nanoTime() + maxDelayNanos;
+        while (batch.size() < maxBatchSize) {
+            long remaining = windowEnd - System.nanoTime();
+            Pending<T> next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : queue.poll();
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+        }
+    }
+
+    private void flush(List<Pending<T>> batch) {
+        List<Pending<T>> accepted = new ArrayList<>(batch.size());
+        List<T> items = new ArrayList<>(batch.size());
+        for (Pending<T> pending : batch) {
+            try {
+                writer.check(pending.item);
+                accepted.add(pending);
+                items.add(pending.item);
+            } catch (Throwable e) {
+                failedCount.increment();
+                pending.result.completeExceptionally(e);
+            }
+        }
+        if (accepted.isEmpty()) {
+            return;
+        }
+
+        long startNanos = System.nanoTime();
+        Throwable failure = null;
+        try {
+            writer.write(items);
+        } catch (Throwable e) {
+            log.warn("group commit failed: {} size={}", name, items.size(), e);
+            failure = e;
+        }
+        long elapsedNanos = System.nanoTime() - startNanos;
+        flushCount.increment();
+        flushNanos.add(elapsedNanos);
+        maxFlushNanos.accumulate(elapsedNanos);
+        flushedItemCount.add(accepted.size());
+        maxBatch.accumulate(accepted.size());
+
+        for (Pending<T> pending : accepted) {
+            if (failure == null) {
+                pending.result.complete(null);
+            } else {
+                pending.result.completeExceptionally(failure);
+            }
+        }
+        if (failure == null) {
+            committedCount.add(accepted.size());
+        } else {
+            failedCount.add(accepted.size());
+        }
+    }
+
+    private synchronized boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * 새 요청은 받지 않고, 이미 받은 요청을 모두 저장할 때까지 기다림
+     */
+    @Override
+    public void close() throws InterruptedException {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+        }
+        flusher.join();
+    }
+
+    @ManagedAttribute
+    public long getFlushCount() {
+        return flushCount.sum();
+    }
+
+    @ManagedAttribute
+    public long getCommittedCount() {
+        return committedCount.sum();
+    }
+
+    @ManagedAttribute
+    public long getFailedCount() {
+        return failedCount.sum();
+    }
+
+    @ManagedAttribute
+    public int getQueued() {
+        return queue.size();
+    }
+
+    /**
+     * 저장 1번당 평균 항목 수
+     */
+    @ManagedAttribute
+    public double getAverageBatchSize() {
+        long flushes = flushCount.sum();
+        return flushes == 0 ? 0 : (double) flushedItemCount.sum() / flushes;
+    }
+
+    @ManagedAttribute
+    public long getMaxBatchSize() {
+        return maxBatch.get();
+    }
+
+    @ManagedAttribute
+    public double getAverageFlushMillis() {
+        long flushes = flushCount.sum();
+        return flushes == 0 ? 0 : flushNanos.sum() / 1_000_000.0 / flushes;
+    }
+
+    @ManagedAttribute
+    public double getMaxFlushMillis() {
+        return maxFlushNanos.get() / 1_000_000.0;
+    }
+
+    @Override
+    public String toString() {
+        return "GroupCommitter[" + name + " flushes=" + flushCount.sum() + " avgBatch=" + getAverageBatchSize() + "]";
+    }
+
+    private static final class Pending<T> {
+        private final T item;
+        private final CompletableFuture<Void> result = new CompletableFuture<>();
+
+        private Pending(T item) {
+            this.item = item;
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package hello.proxy.infra.batch;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.List;
+
+/**
+ * OrderRepositoryV1Impl, V2, V3 의 save 를 배치 저장으로 바꾼 것
+ * - 항목 검사는 기존과 같음 ("ex" 이면 IllegalStateException)
+ * - 저장은 항목 수와 관계없이 배치마다 writeMillis 만큼 걸림 (기존 save 1번의 비용)
+ */
+@Slf4j
+public class OrderBatchWriter implements BatchWriter<String> {
+
+    private final long writeMillis;
+
+    public OrderBatchWriter(long writeMillis) {
+        this.writeMillis = writeMillis;
+    }
+
+    @Override
+    public void check(String itemId) {
+        if (itemId.equals("ex")) {
+            throw new IllegalStateException("예외 발생!");
+        }
+    }
+
+    @Override
+    public void write(List<String> itemIds) {
+        log.debug("write batch size={}", itemIds.size());
+        sleep(writeMillis);
+    }
+
+    private void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
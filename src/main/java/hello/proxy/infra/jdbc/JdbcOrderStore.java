@@ -0,0 +1,132 @@
+package hello.proxy.infra.jdbc;
+
+import hello.proxy.infra.batch.BatchWriter;
+import hello.proxy.infra.store.OrderRecord;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 주문을 orders 테이블에 저장하는 JDBC 저장소 (H2 파일 DB 등, 커넥션 풀은 DataSource 가 담당)
+ * - insert     : 주문 1건마다 prepared statement 1번 실행 (auto commit)
+ * - write      : BatchWriter 구현. 배치 전체를 addBatch/executeBatch 로 보내고 트랜잭션 1번으로 commit
+ *                GroupCommitter 와 함께 쓰면 크기(maxBatchSize) 또는 시간(maxDelay) 기준으로 모아서 저장함
+ * - 항목 검사는 기존 저장소와 같음 ("ex" 이면 IllegalStateException)
+ * - 두 방식 비교를 위해 statement 실행 수, 저장한 행 수, 실행 시간을 getter 와 JMX 로 확인
+ */
+@Slf4j
+@ManagedResource(description = "JDBC order store")
+public class JdbcOrderStore implements BatchWriter<String> {
+
+    private static final String INSERT = "insert into orders (item_id, ordered_at) values (?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    private final LongAdder statementCount = new LongAdder();
+    private final LongAdder insertedRows = new LongAdder();
+    private final LongAdder statementNanos = new LongAdder();
+
+    public JdbcOrderStore(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        jdbcTemplate.execute("create table if not exists orders (" +
+                "id bigint auto_increment primary key, " +
+                "item_id varchar(255) not null, " +
+                "ordered_at bigint not null)");
+        jdbcTemplate.execute("create index if not exists orders_item_id on orders (item_id, id)");
+    }
+
+    @Override
+    public void check(String itemId) {
+        if (itemId.equals("ex")) {
+            throw new IllegalStateException("예외 발생!");
+        }
+    }
+
+    /**
+     * 주문 1건 저장 (배치 없이)
+     */
+    public void insert(String itemId) {
+        check(itemId);
+        long start = System.nanoTime();
+        jdbcTemplate.update(INSERT, itemId, System.currentTimeMillis());
+        record(1, start);
+    }
+
+    /**
+     * 배치 저장. 한 트랜잭션이므로 실패하면 배치 전체가 저장되지 않음
+     */
+    @Override
+    public void write(List<String> itemIds) {
+        long start = System.nanoTime();
+        long orderedAt = System.currentTimeMillis();
+        transactionTemplate.executeWithoutResult(status ->
+                jdbcTemplate.batchUpdate(INSERT, itemIds, itemIds.size(), (ps, itemId) -> {
+                    ps.setString(1, itemId);
+                    ps.setLong(2, orderedAt);
+                }));
+        record(itemIds.size(), start);
+        log.debug("write batch size={}", itemIds.size());
+    }
+
+    /**
+     * itemId 의 마지막 주문. 없으면 null (offset 은 orders.id)
+     */
+    public OrderRecord findLatest(String itemId) {
+        return jdbcTemplate.query("select id, ordered_at from orders where item_id = ? order by id desc limit 1",
+                rs -> rs.next() ? new OrderRecord(rs.getLong(1), rs.getLong(2), itemId) : null,
+                itemId);
+    }
+
+    public long count(String itemId) {
+        Long count = jdbcTemplate.queryForObject("select count(*) from orders where item_id = ?", Long.class, itemId);
+        return count == null ? 0 : count;
+    }
+
+    private void record(int rows, long startNanos) {
+        statementNanos.add(System.nanoTime() - startNanos);
+        statementCount.increment();
+        insertedRows.add(rows);
+    }
+
+    /**
+     * insert 또는 배치 write 실행 수
+     */
+    @ManagedAttribute
+    public long getStatementCount() {
+        return statementCount.sum();
+    }
+
+    @ManagedAttribute
+    public long getInsertedRows() {
+        return insertedRows.sum();
+    }
+
+    @ManagedAttribute
+    public double getAverageStatementMillis() {
+        long count = statementCount.sum();
+        return count == 0 ? 0 : statementNanos.sum() / 1_000_000.0 / count;
+    }
+
+    /**
+     * 행 1개를 저장하는 데 든 평균 시간 (배치일수록 작아짐)
+     */
+    @ManagedAttribute
+    public double getAverageRowMillis() {
+        long rows = insertedRows.sum();
+        return rows == 0 ? 0 : statementNanos.sum() / 1_000_000.0 / rows;
+    }
+
+    @Override
+    public String toString() {
+        return "JdbcOrderStore[statements=" + getStatementCount() + " rows=" + getInsertedRows() + "]";
+    }
+}
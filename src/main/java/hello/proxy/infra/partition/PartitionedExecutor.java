@@ -0,0 +1,164 @@
+package hello.proxy.infra.partition;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedResource;
+
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * key(itemId)의 해시로 shard 를 정해서, shard 마다 스레드 1개가 순서대로 실행하는 executor (single writer)
+ * - 같은 key 의 작업은 항상 같은 shard 에서 들어온 순서대로 실행됨 -> key 별 상태는 잠금 없이 shard 스레드만 사용하면 됨
+ * - 다른 key 는 다른 shard 로 흩어지므로 Tomcat 스레드가 잠금 하나에 줄 서지 않음
+ * - shard 큐가 가득 차면 future 를 RejectedExecutionException 으로 완료 (요청 스레드를 막지 않음)
+ * - taskDecorator 로 요청 스레드의 문맥(ex. LogTrace 의 TraceId)을 shard 스레드에 넘김
+ * - shard 별 큐 길이, 최대 큐 길이, 실행 수는 getter 와 JMX 로 확인 (몰리는 shard 확인)
+ */
+@Slf4j
+@ManagedResource(description = "Hash-partitioned single-writer executor")
+public class PartitionedExecutor implements AutoCloseable {
+
+    private final String name;
+    private final ThreadPoolExecutor[] shards;
+    private final TaskDecorator taskDecorator;
+
+    private final LongAdder[] submittedCounts;
+    private final LongAccumulator[] maxQueueDepths;
+    private final LongAdder rejectedCount = new LongAdder();
+
+    public PartitionedExecutor(String name, int shardCount, int queueCapacity, TaskDecorator taskDecorator) {
+        if (shardCount < 1) {
+            throw new IllegalArgumentException("shardCount must be positive: " + shardCount);
+        }
+        this.name = name;
+        this.taskDecorator = taskDecorator;
+        this.shards = new ThreadPoolExecutor[shardCount];
+        this.submittedCounts = new LongAdder[shardCount];
+        this.maxQueueDepths = new LongAccumulator[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            String threadName = "partition-" + name + "-" + i;
+            shards[i] = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(queueCapacity), runnable -> {
+                Thread thread = new Thread(runnable, threadName);
+                thread.setDaemon(true);
+                return thread;
+            });
+            submittedCounts[i] = new LongAdder();
+            maxQueueDepths[i] = new LongAccumulator(Math::max, 0);
+        }
+    }
+
+    /**
+     * key 의 shard 에서 task 를 실행하고 결과를 future 로 반환
+     */
+    public <T> CompletableFuture<T> submit(String key, Supplier<T> task) {
+        int shard = shardOf(key);
+        CompletableFuture<T> future = new CompletableFuture<>();
+        Runnable runnable = taskDecorator.decorate(() -> {
+            try {
+                future.complete(task.get());
+            } catch (Throwable e) {
+                future.completeExceptionally(e);
+            }
+        });
+        try {
+            shards[shard].execute(runnable);
+        } catch (RejectedExecutionException e) {
+            rejectedCount.increment();
+            future.completeExceptionally(e);
+            return future;
+        }
+        submittedCounts[shard].increment();
+        maxQueueDepths[shard].accumulate(shards[shard].getQueue().size());
+        return future;
+    }
+
+    public CompletableFuture<Void> execute(String key, Runnable task) {
+        return submit(key, () -> {
+            task.run();
+            return null;
+        });
+    }
+
+    /**
+     * hashCode 의 위 비트를 섞어서 shard 수가 2의 제곱수일 때도 고르게 나눔
+     */
+    public int shardOf(String key) {
+        int hash = key.hashCode();
+        return Math.floorMod(hash ^ (hash >>> 16), shards.length);
+    }
+
+    /**
+     * 이미 받은 작업은 모두 실행하고 종료
+     */
+    @Override
+    public void close() throws InterruptedException {
+        for (ThreadPoolExecutor shard : shards) {
+            shard.shutdown();
+        }
+        for (ThreadPoolExecutor shard : shards) {
+            if (!shard.awaitTermination(10, TimeUnit.SECONDS)) {
+                log.warn("partition {} did not finish queued tasks: {}", name, shard);
+            }
+        }
+    }
+
+    @ManagedAttribute
+    public int getShardCount() {
+        return shards.length;
+    }
+
+    /**
+     * shard 별 현재 큐 길이
+     */
+    @ManagedAttribute
+    public int[] getQueueDepths() {
+        return Arrays.stream(shards).mapToInt(shard -> shard.getQueue().size()).toArray();
+    }
+
+    /**
+     * shard 별 지금까지 가장 길었던 큐 길이
+     */
+    @ManagedAttribute
+    public long[] getMaxQueueDepths() {
+        return Arrays.stream(maxQueueDepths).mapToLong(LongAccumulator::get).toArray();
+    }
+
+    @ManagedAttribute
+    public long[] getSubmittedCounts() {
+        return Arrays.stream(submittedCounts).mapToLong(LongAdder::sum).toArray();
+    }
+
+    /**
+     * 현재 큐가 가장 긴 shard
+     */
+    @ManagedAttribute
+    public int getHottestShard() {
+        int[] depths = getQueueDepths();
+        int hottest = 0;
+        for (int i = 1; i < depths.length; i++) {
+            if (depths[i] > depths[hottest]) {
+                hottest = i;
+            }
+        }
+        return hottest;
+    }
+
+    @ManagedAttribute
+    public long getRejectedCount() {
+        return rejectedCount.sum();
+    }
+
+    @Override
+    public String toString() {
+        return "PartitionedExecutor[" + name + " shards=" + shards.length + " queueDepths=" + Arrays.toString(getQueueDepths()) + "]";
+    }
+}
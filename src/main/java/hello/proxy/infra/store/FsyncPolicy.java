@@ -0,0 +1,22 @@
+package hello.proxy.infra.store;
+
+/**
+ * OrderLog 가 디스크에 반영(force)하는 시점
+ */
+public enum FsyncPolicy {
+
+    /**
+     * append 마다 force. append 가 반환되면 저장이 보장됨
+     */
+    ALWAYS,
+
+    /**
+     * fsyncInterval 마다 백그라운드에서 force. append 는 바로 반환하고, 장애 시 마지막 interval 동안의 기록은 잃을 수 있음
+     */
+    PERIODIC,
+
+    /**
+     * 동시에 들어온 append 를 모아서 한 번만 force (GroupCommitter). append 가 반환되면 저장이 보장됨
+     */
+    GROUP
+}
@@ -0,0 +1,233 @@
+package hello.proxy.infra.store;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/**
+ * OrderLog 의 세그먼트 파일 하나 (파일 전체를 memory-mapped 로 사용)
+ * - 파일 이름은 첫 기록의 offset (ex. 00000000000000001024.log)
+ * - 기록 형식 : [int bodyLength][int crc32(body)][body = long offset, long timestamp, int count, itemId(UTF-8)]
+ *   count 는 기록이 나타내는 주문 수 (append 는 1, 압축이 합친 기록은 합친 주문 수)
+ * - 새 파일은 0 으로 채워져 있으므로 bodyLength 가 0 인 곳이 기록의 끝
+ * - 쓰기는 OrderLog 의 잠금 안에서만 함. 읽기(forEach)는 이미 쓴 범위(writePosition 이전)만 봄
+ * - 다 쓴 세그먼트(sealed)는 다시 쓰지 않음. 닫기 전에 force 했으므로 다시 열 때 검사하지 않고, 0 인 길이까지만 읽음
+ */
+final class LogSegment {
+
+    static final String SUFFIX = ".log";
+    static final int HEADER_BYTES = 4 + 4;
+    private static final int BODY_FIXED_BYTES = 8 + 8 + 4;
+
+    private final Path path;
+    private final long baseOffset;
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+
+    private volatile int writePosition;
+    private volatile long nextOffset;
+
+    private LogSegment(Path path, long baseOffset, FileChannel channel, MappedByteBuffer buffer) {
+        this.path = path;
+        this.baseOffset = baseOffset;
+        this.channel = channel;
+        this.buffer = buffer;
+        this.nextOffset = baseOffset;
+    }
+
+    /**
+     * 새 세그먼트. 파일을 capacity 크기로 만들고 전체를 매핑함
+     */
+    static LogSegment create(Path file, long baseOffset, int capacity) {
+        return map(file, baseOffset, capacity);
+    }
+
+    /**
+     * 다 쓴 세그먼트를 읽기용으로 열기 (검사 없음)
+     */
+    static LogSegment openSealed(Path path) {
+        int size = (int) Math.min(Integer.MAX_VALUE, path.toFile().length());
+        LogSegment segment = map(path, parseBaseOffset(path), size);
+        segment.writePosition = size;
+        return segment;
+    }
+
+    /**
+     * 마지막 세그먼트(tail)를 열고 처음부터 다시 읽어서 마지막 정상 기록 다음을 쓰기 위치로 정함 (장애 복구)
+     * 중간에 끊긴 기록(길이 초과, crc 불일치) 부터 파일 끝까지는 0 으로 지움
+     */
+    static LogSegment recover(Path path) {
+        try {
+            int size = (int) Math.min(Integer.MAX_VALUE, path.toFile().length());
+            LogSegment segment = map(path, parseBaseOffset(path), size);
+            segment.scan();
+            segment.clearFrom(segment.writePosition);
+            return segment;
+        } catch (RuntimeException e) {
+            throw new IllegalStateException("cannot recover segment: " + path, e);
+        }
+    }
+
+    private static LogSegment map(Path path, long baseOffset, int capacity) {
+        try {
+            FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+            return new LogSegment(path, baseOffset, channel, buffer);
+        } catch (IOException e) {
+            throw new UncheckedIOException("cannot map segment: " + path, e);
+        }
+    }
+
+    static int recordBytes(byte[] itemId) {
+        return HEADER_BYTES + BODY_FIXED_BYTES + itemId.length;
+    }
+
+    boolean hasRoom(int recordBytes) {
+        return writePosition + recordBytes <= buffer.capacity();
+    }
+
+    /**
+     * 기록을 쓰고 offset 을 반환. body 를 먼저 쓰고 길이를 마지막에 써서, 길이가 보이면 body 도 다 써진 상태가 되게 함
+     */
+    long append(long offset, long timestampMillis, int count, byte[] itemId) {
+        int position = writePosition;
+        int bodyLength = BODY_FIXED_BYTES + itemId.length;
+        int bodyPosition = position + HEADER_BYTES;
+        buffer.putLong(bodyPosition, offset);
+        buffer.putLong(bodyPosition + 8, timestampMillis);
+        buffer.putInt(bodyPosition + 16, count);
+        slice(bodyPosition + BODY_FIXED_BYTES, itemId.length).put(itemId);
+        buffer.putInt(position + 4, crc(bodyPosition, bodyLength));
+        buffer.putInt(position, bodyLength);
+
+        writePosition = position + HEADER_BYTES + bodyLength;
+        nextOffset = offset + 1;
+        return offset;
+    }
+
+    void force() {
+        buffer.force();
+    }
+
+    /**
+     * 이미 쓴 기록을 순서대로 전달
+     */
+    void forEach(Consumer<OrderRecord> consumer) {
+        int limit = writePosition;
+        int position = 0;
+        while (position + HEADER_BYTES <= limit) {
+            int bodyLength = buffer.getInt(position);
+            if (bodyLength <= 0) {
+                break;
+            }
+            consumer.accept(read(position + HEADER_BYTES, bodyLength));
+            position += HEADER_BYTES + bodyLength;
+        }
+    }
+
+    /**
+     * 처음부터 정상 기록을 찾아서 writePosition, nextOffset 을 정함
+     */
+    private void scan() {
+        int position = 0;
+        long next = baseOffset;
+        int capacity = buffer.capacity();
+        while (position + HEADER_BYTES <= capacity) {
+            int bodyLength = buffer.getInt(position);
+            int bodyPosition = position + HEADER_BYTES;
+            if (bodyLength < BODY_FIXED_BYTES || bodyPosition + bodyLength > capacity
+                    || buffer.getInt(position + 4) != crc(bodyPosition, bodyLength)) {
+                break;
+            }
+            next = buffer.getLong(bodyPosition) + 1;
+            position = bodyPosition + bodyLength;
+        }
+        this.writePosition = position;
+        this.nextOffset = next;
+    }
+
+    private OrderRecord read(int bodyPosition, int bodyLength) {
+        long offset = buffer.getLong(bodyPosition);
+        long timestampMillis = buffer.getLong(bodyPosition + 8);
+        int count = buffer.getInt(bodyPosition + 16);
+        byte[] itemId = new byte[bodyLength - BODY_FIXED_BYTES];
+        slice(bodyPosition + BODY_FIXED_BYTES, itemId.length).get(itemId);
+        return new OrderRecord(offset, timestampMillis, new String(itemId, StandardCharsets.UTF_8), count);
+    }
+
+    private int crc(int position, int length) {
+        CRC32 crc = new CRC32();
+        crc.update(slice(position, length));
+        return (int) crc.getValue();
+    }
+
+    /**
+     * position 부터 length 만큼의 독립된 view (공유 buffer 의 position 을 바꾸지 않음)
+     */
+    private ByteBuffer slice(int position, int length) {
+        ByteBuffer view = buffer.duplicate();
+        view.position(position).limit(position + length);
+        return view;
+    }
+
+    /**
+     * 끊긴 기록과 그 뒤에 남은 값을 지움 (다음 장애 복구에서 잘못 읽지 않도록)
+     */
+    private void clearFrom(int position) {
+        int capacity = buffer.capacity();
+        for (int i = position; i < capacity; i++) {
+            if (buffer.get(i) != 0) {
+                buffer.put(i, (byte) 0);
+            }
+        }
+        buffer.force();
+    }
+
+    /**
+     * 매핑은 GC 가 정리함 (Java 11 에는 unmap 공개 API 가 없음). 파일 채널만 닫음
+     */
+    void close() {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    Path getPath() {
+        return path;
+    }
+
+    long getBaseOffset() {
+        return baseOffset;
+    }
+
+    long getNextOffset() {
+        return nextOffset;
+    }
+
+    int getCapacity() {
+        return buffer.capacity();
+    }
+
+    static String fileName(long baseOffset) {
+        return String.format("%020d%s", baseOffset, SUFFIX);
+    }
+
+    static long parseBaseOffset(Path path) {
+        String name = path.getFileName().toString();
+        return Long.parseLong(name.substring(0, name.length() - SUFFIX.length()));
+    }
+
+    @Override
+    public String toString() {
+        return "LogSegment[" + path.getFileName() + "]";
+    }
+}
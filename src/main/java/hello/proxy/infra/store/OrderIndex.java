@@ -0,0 +1,272 @@
+package hello.proxy.infra.store;
+
+import java.util.Arrays;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * itemId 별 주문 수와 마지막 주문을 담는 메모리 인덱스
+ * - 항목마다 객체를 만들지 않고 기본형 배열에 저장함 (주문이 수천만 건이어도 GC 가 볼 객체가 몇 개 안 됨)
+ *   slots       : open addressing 해시 테이블 (linear probing). 값은 entry 번호 + 1, 0 은 빈 칸
+ *   keyChars    : 모든 itemId 의 문자를 이어 붙인 배열 (keyStarts, keyLengths 로 위치를 찾음)
+ *   hashes, counts, lastOffsets, lastTimestamps : entry 번호로 찾는 값
+ * - 해시는 String.hashCode() (String 안에 캐시됨) 를 섞어서 사용하므로 조회할 때 새 객체를 만들지 않음
+ * - 쓰기는 StampedLock 쓰기 잠금 하나로 순서를 정하고, 읽기는 낙관적 읽기로 잠금 없이 진행함
+ *   읽는 중에 쓰기가 있었으면(validate 실패) 그때만 읽기 잠금을 잡고 다시 읽음
+ */
+public class OrderIndex {
+
+    private static final float LOAD_FACTOR = 0.6f;
+
+    private final StampedLock lock = new StampedLock();
+
+    private int[] slots;
+    private char[] keyChars;
+    private int keyCharsUsed;
+    private int[] keyStarts;
+    private int[] keyLengths;
+    private int[] hashes;
+    private int[] counts;
+    private long[] lastOffsets;
+    private long[] lastTimestamps;
+    private int size;
+    private long totalCount;
+    private long nextOffset;
+
+    public OrderIndex() {
+        this(1024);
+    }
+
+    public OrderIndex(int expectedKeys) {
+        expectedKeys = Math.max(16, expectedKeys);
+        int capacity = Integer.highestOneBit((int) (expectedKeys / LOAD_FACTOR) - 1) << 1;
+        this.slots = new int[capacity];
+        this.keyChars = new char[expectedKeys * 8];
+        this.keyStarts = new int[expectedKeys];
+        this.keyLengths = new int[expectedKeys];
+        this.hashes = new int[expectedKeys];
+        this.counts = new int[expectedKeys];
+        this.lastOffsets = new long[expectedKeys];
+        this.lastTimestamps = new long[expectedKeys];
+    }
+
+    /**
+     * 인덱스가 offset 을 정함 (메모리 저장소용)
+     */
+    public long add(String itemId) {
+        long stamp = lock.writeLock();
+        try {
+            long offset = nextOffset;
+            put(itemId, 1, offset, System.currentTimeMillis());
+            return offset;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * 저장소가 정한 offset 으로 추가 (ex. OrderLog 의 offset)
+     */
+    public void add(String itemId, long offset, long timestampMillis) {
+        add(itemId, 1, offset, timestampMillis);
+    }
+
+    /**
+     * 주문 count 건을 한 번에 추가 (ex. 압축된 OrderLog 기록). offset, timestampMillis 는 그중 마지막 주문
+     */
+    public void add(String itemId, int count, long offset, long timestampMillis) {
+        long stamp = lock.writeLock();
+        try {
+            put(itemId, count, offset, timestampMillis);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * itemId 의 마지막 주문. 없으면 null
+     */
+    public OrderRecord findLatest(String itemId) {
+        long stamp = lock.tryOptimisticRead();
+        if (stamp != 0) {
+            try {
+                int entry = find(itemId);
+                OrderRecord record = entry < 0 ? null : new OrderRecord(lastOffsets[entry], lastTimestamps[entry], itemId);
+                if (lock.validate(stamp)) {
+                    return record;
+                }
+            } catch (RuntimeException e) {
+                //쓰기와 겹쳐서 배열을 잘못 읽은 경우 -> 아래에서 잠금을 잡고 다시 읽음
+            }
+        }
+        stamp = lock.readLock();
+        try {
+            int entry = find(itemId);
+            return entry < 0 ? null : new OrderRecord(lastOffsets[entry], lastTimestamps[entry], itemId);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    public int count(String itemId) {
+        long stamp = lock.tryOptimisticRead();
+        if (stamp != 0) {
+            try {
+                int entry = find(itemId);
+                int count = entry < 0 ? 0 : counts[entry];
+                if (lock.validate(stamp)) {
+                    return count;
+                }
+            } catch (RuntimeException e) {
+                //쓰기와 겹쳐서 배열을 잘못 읽은 경우 -> 아래에서 잠금을 잡고 다시 읽음
+            }
+        }
+        stamp = lock.readLock();
+        try {
+            int entry = find(itemId);
+            return entry < 0 ? 0 : counts[entry];
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * 전체 주문 수
+     */
+    public long totalCount() {
+        long stamp = lock.readLock();
+        try {
+            return totalCount;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * itemId 종류 수
+     */
+    public int keyCount() {
+        long stamp = lock.readLock();
+        try {
+            return size;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * entry 번호. 없으면 -1
+     * 배열은 지역 변수로 한 번만 읽고, 탐색은 테이블 크기만큼만 함 (쓰기와 겹쳐도 끝나도록)
+     */
+    private int find(String itemId) {
+        int[] slots = this.slots;
+        int[] hashes = this.hashes;
+        int mask = slots.length - 1;
+        int hash = mix(itemId.hashCode());
+        int index = hash & mask;
+        for (int probe = 0; probe <= mask; probe++) {
+            int slot = slots[index];
+            if (slot == 0) {
+                return -1;
+            }
+            int entry = slot - 1;
+            if (hashes[entry] == hash && keyEquals(entry, itemId)) {
+                return entry;
+            }
+            index = (index + 1) & mask;
+        }
+        return -1;
+    }
+
+    private boolean keyEquals(int entry, String itemId) {
+        int length = keyLengths[entry];
+        if (length != itemId.length()) {
+            return false;
+        }
+        char[] chars = this.keyChars;
+        int start = keyStarts[entry];
+        for (int i = 0; i < length; i++) {
+            if (chars[start + i] != itemId.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void put(String itemId, int count, long offset, long timestampMillis) {
+        int entry = find(itemId);
+        if (entry < 0) {
+            entry = insert(itemId);
+        }
+        counts[entry] += count;
+        lastOffsets[entry] = offset;
+        lastTimestamps[entry] = timestampMillis;
+        totalCount += count;
+        nextOffset = Math.max(nextOffset, offset + 1);
+    }
+
+    private int insert(String itemId) {
+        if (size + 1 > slots.length * LOAD_FACTOR) {
+            rehash(slots.length << 1);
+        }
+        if (size == hashes.length) {
+            growEntries(size << 1);
+        }
+        int length = itemId.length();
+        if (keyCharsUsed + length > keyChars.length) {
+            keyChars = Arrays.copyOf(keyChars, Math.max(keyChars.length << 1, keyCharsUsed + length));
+        }
+        itemId.getChars(0, length, keyChars, keyCharsUsed);
+
+        int entry = size;
+        keyStarts[entry] = keyCharsUsed;
+        keyLengths[entry] = length;
+        hashes[entry] = mix(itemId.hashCode());
+        keyCharsUsed += length;
+        placeSlot(slots, entry);
+        size++;
+        return entry;
+    }
+
+    private void placeSlot(int[] table, int entry) {
+        int mask = table.length - 1;
+        int index = hashes[entry] & mask;
+        while (table[index] != 0) {
+            index = (index + 1) & mask;
+        }
+        table[index] = entry + 1;
+    }
+
+    private void rehash(int capacity) {
+        int[] table = new int[capacity];
+        for (int entry = 0; entry < size; entry++) {
+            placeSlot(table, entry);
+        }
+        slots = table;
+    }
+
+    private void growEntries(int capacity) {
+        keyStarts = Arrays.copyOf(keyStarts, capacity);
+        keyLengths = Arrays.copyOf(keyLengths, capacity);
+        hashes = Arrays.copyOf(hashes, capacity);
+        counts = Arrays.copyOf(counts, capacity);
+        lastOffsets = Arrays.copyOf(lastOffsets, capacity);
+        lastTimestamps = Arrays.copyOf(lastTimestamps, capacity);
+    }
+
+    /**
+     * hashCode 의 아래 비트가 고르지 않은 경우(ex. "item1", "item2") 대비 (murmur3 finalizer)
+     */
+    private static int mix(int hash) {
+        hash ^= hash >>> 16;
+        hash *= 0x85ebca6b;
+        hash ^= hash >>> 13;
+        hash *= 0xc2b2ae35;
+        hash ^= hash >>> 16;
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        return "OrderIndex[keys=" + keyCount() + " orders=" + totalCount() + "]";
+    }
+}
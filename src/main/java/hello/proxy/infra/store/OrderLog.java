@@ -0,0 +1,393 @@
+package hello.proxy.infra.store;
+
+import hello.proxy.infra.batch.GroupCommitter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedOperation;
+import org.springframework.jmx.export.annotation.ManagedResource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * 주문 기록을 세그먼트 파일에 이어서 쓰는 append-only 로그 (memory-mapped)
+ * - append : 현재 세그먼트(tail)에 기록을 쓰고 offset 을 반환. 공간이 부족하면 tail 을 force 하고 새 세그먼트로 넘어감(roll)
+ * - 디스크 반영 시점은 FsyncPolicy (ALWAYS, PERIODIC, GROUP)
+ * - 장애 복구 : 시작할 때 tail 세그먼트만 처음부터 다시 읽어서 끊긴 기록 이후를 지우고 그 자리부터 이어서 씀
+ *   (roll 된 세그먼트는 roll 할 때 force 했으므로 다시 검사하지 않음)
+ * - 압축(compact) : roll 된 세그먼트마다 같은 itemId 의 기록을 그 세그먼트의 마지막 기록 하나로 합침 (합친 기록의 count = 합친 주문 수)
+ *   주문은 각각 별개의 사건이므로 지우지 않고 수를 남김 -> 압축 후 다시 만든 인덱스의 주문 수도 그대로임
+ *   새 파일에 쓰고 force 한 뒤 원래 파일 위로 옮기므로(atomic move) 압축 중 장애가 나도 원래 세그먼트는 그대로임
+ *   (세그먼트를 넘어서 합치면 파일 두 개를 바꿔야 해서, 그 사이에 장애가 나면 주문 수가 틀어지므로 세그먼트 안에서만 합침)
+ *   옮긴 뒤 디렉토리도 force 해서 파일 이름 변경까지 디스크에 반영함
+ * - 쓰기는 잠금 하나로 순서를 정하고, force 는 정책에 따라 잠금 밖에서 함
+ */
+@Slf4j
+@ManagedResource(description = "Memory-mapped order log")
+public class OrderLog implements AutoCloseable {
+
+    private static final String COMPACTING_SUFFIX = ".compacting";
+
+    private final Path directory;
+    private final int segmentBytes;
+    private final FsyncPolicy fsyncPolicy;
+
+    private final ReentrantLock appendLock = new ReentrantLock();
+    private final Object compactionLock = new Object();
+    //마지막이 tail. 바꿀 때는 appendLock 안에서 새 리스트로 교체
+    private volatile List<LogSegment> segments;
+    private long nextOffset;
+    private boolean closed;
+
+    private final ScheduledExecutorService periodicFsync;
+    private final GroupCommitter<Long> groupFsync;
+
+    private final LongAdder appendCount = new LongAdder();
+    private final LongAdder fsyncCount = new LongAdder();
+    private final LongAdder fsyncNanos = new LongAdder();
+    private final LongAdder rollCount = new LongAdder();
+    private final LongAdder compactedCount = new LongAdder();
+
+    /**
+     * @param fsyncInterval PERIODIC : force 주기, GROUP : append 를 모으는 최대 시간
+     */
+    public OrderLog(Path directory, int segmentBytes, FsyncPolicy fsyncPolicy, Duration fsyncInterval) {
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        this.fsyncPolicy = fsyncPolicy;
+        this.segments = open(directory, segmentBytes);
+        this.nextOffset = tail().getNextOffset();
+        log.info("order log opened: {} segments={} nextOffset={} fsync={}", directory, segments.size(), nextOffset, fsyncPolicy);
+
+        if (fsyncPolicy == FsyncPolicy.PERIODIC) {
+            this.periodicFsync = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "order-log-fsync");
+                thread.setDaemon(true);
+                return thread;
+            });
+            long intervalNanos = fsyncInterval.toNanos();
+            periodicFsync.scheduleWithFixedDelay(this::forceTail, intervalNanos, intervalNanos, TimeUnit.NANOSECONDS);
+        } else {
+            this.periodicFsync = null;
+        }
+        this.groupFsync = fsyncPolicy == FsyncPolicy.GROUP
+                ? new GroupCommitter<>("order-log", offsets -> forceTail(), 1024, fsyncInterval)
+                : null;
+    }
+
+    private static List<LogSegment> open(Path directory, int segmentBytes) {
+        try {
+            Files.createDirectories(directory);
+            List<Path> files;
+            try (Stream<Path> list = Files.list(directory)) {
+                files = list.sorted().collect(Collectors.toList());
+            }
+            List<Path> segmentFiles = new ArrayList<>();
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                if (name.endsWith(COMPACTING_SUFFIX)) {
+                    //압축 중 장애로 남은 파일. 원래 세그먼트는 그대로 있음
+                    Files.delete(file);
+                } else if (name.endsWith(LogSegment.SUFFIX)) {
+                    segmentFiles.add(file);
+                }
+            }
+
+            List<LogSegment> segments = new ArrayList<>();
+            if (segmentFiles.isEmpty()) {
+                segments.add(LogSegment.create(directory.resolve(LogSegment.fileName(0)), 0, segmentBytes));
+                return Collections.unmodifiableList(segments);
+            }
+            for (int i = 0; i < segmentFiles.size() - 1; i++) {
+                segments.add(LogSegment.openSealed(segmentFiles.get(i)));
+            }
+            segments.add(LogSegment.recover(segmentFiles.get(segmentFiles.size() - 1)));
+            return Collections.unmodifiableList(segments);
+        } catch (IOException e) {
+            throw new UncheckedIOException("cannot open order log: " + directory, e);
+        }
+    }
+
+    /**
+     * 기록을 추가하고 offset 을 반환. 반환 시점의 저장 보장은 FsyncPolicy 에 따름
+     */
+    public long append(String itemId) {
+        return appendRecord(itemId).getOffset();
+    }
+
+    /**
+     * append 와 같고, 로그에 쓴 그대로의 기록(offset, timestamp)을 반환 (인덱스를 로그와 같은 값으로 갱신할 때 사용)
+     */
+    public OrderRecord appendRecord(String itemId) {
+        byte[] bytes = itemId.getBytes(StandardCharsets.UTF_8);
+        int recordBytes = LogSegment.recordBytes(bytes);
+        if (recordBytes > segmentBytes) {
+            throw new IllegalArgumentException("record too large: " + recordBytes + " > segment " + segmentBytes);
+        }
+
+        long offset;
+        long timestampMillis;
+        appendLock.lock();
+        try {
+            if (closed) {
+                throw new IllegalStateException("order log closed: " + directory);
+            }
+            LogSegment tail = tail();
+            if (!tail.hasRoom(recordBytes)) {
+                tail = roll(tail);
+            }
+            timestampMillis = System.currentTimeMillis();
+            offset = tail.append(nextOffset++, timestampMillis, 1, bytes);
+            if (fsyncPolicy == FsyncPolicy.ALWAYS) {
+                force(tail);
+            }
+        } finally {
+            appendLock.unlock();
+        }
+        appendCount.increment();
+
+        if (fsyncPolicy == FsyncPolicy.GROUP) {
+            groupFsync.commit(offset);
+        }
+        return new OrderRecord(offset, timestampMillis, itemId);
+    }
+
+    /**
+     * 모든 기록을 offset 순서로 전달 (압축으로 합쳐진 기록은 마지막 기록 하나로, count 에 합친 주문 수를 담아 전달)
+     */
+    public void forEach(Consumer<OrderRecord> consumer) {
+        for (LogSegment segment : segments) {
+            segment.forEach(consumer);
+        }
+    }
+
+    /**
+     * roll 된 세그먼트마다 같은 itemId 의 기록을 그 세그먼트 안의 마지막 기록 하나로 합치고, 없앤 기록 수를 반환
+     * tail 은 읽지도 다시 쓰지도 않으므로 압축 중에도 append 는 계속 진행됨
+     */
+    @ManagedOperation
+    public int compact() {
+        synchronized (compactionLock) {
+            List<LogSegment> snapshot = segments;
+            List<LogSegment> sealed = snapshot.subList(0, snapshot.size() - 1);
+
+            Map<LogSegment, LogSegment> replaced = new HashMap<>();
+            int removed = 0;
+            for (LogSegment segment : sealed) {
+                List<OrderRecord> records = new ArrayList<>();
+                segment.forEach(records::add);
+                List<OrderRecord> merged = mergeByItemId(records);
+                if (merged.size() == records.size()) {
+                    continue;
+                }
+                removed += records.size() - merged.size();
+                replaced.put(segment, rewrite(segment, merged));
+            }
+            if (replaced.isEmpty()) {
+                return 0;
+            }
+            forceDirectory();
+
+            appendLock.lock();
+            try {
+                List<LogSegment> next = new ArrayList<>();
+                for (LogSegment segment : segments) {
+                    next.add(replaced.getOrDefault(segment, segment));
+                }
+                segments = Collections.unmodifiableList(next);
+            } finally {
+                appendLock.unlock();
+            }
+            //읽는 중인 스레드가 있어도 매핑은 그대로 유효함 (파일 채널만 닫음)
+            replaced.keySet().forEach(LogSegment::close);
+            compactedCount.add(removed);
+            log.info("order log compacted: removed={} segments={}", removed, segments.size());
+            return removed;
+        }
+    }
+
+    /**
+     * itemId 별로 마지막 기록만 남기고, 그 기록의 count 에 합친 주문 수를 담음 (offset 순서 유지)
+     */
+    private static List<OrderRecord> mergeByItemId(List<OrderRecord> records) {
+        Map<String, OrderRecord> last = new HashMap<>();
+        Map<String, Integer> counts = new HashMap<>();
+        for (OrderRecord record : records) {
+            last.put(record.getItemId(), record);
+            counts.merge(record.getItemId(), record.getCount(), Integer::sum);
+        }
+        return records.stream()
+                .filter(record -> last.get(record.getItemId()) == record)
+                .map(record -> new OrderRecord(record.getOffset(), record.getTimestampMillis(),
+                        record.getItemId(), counts.get(record.getItemId())))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * survivors 만 담은 세그먼트로 교체
+     */
+    private LogSegment rewrite(LogSegment segment, List<OrderRecord> survivors) {
+        Path path = segment.getPath();
+        try {
+            List<byte[]> itemIds = new ArrayList<>(survivors.size());
+            int size = 0;
+            for (OrderRecord record : survivors) {
+                byte[] bytes = record.getItemId().getBytes(StandardCharsets.UTF_8);
+                itemIds.add(bytes);
+                size += LogSegment.recordBytes(bytes);
+            }
+            Path temp = path.resolveSibling(path.getFileName() + COMPACTING_SUFFIX);
+            LogSegment compacted = LogSegment.create(temp, segment.getBaseOffset(), size);
+            for (int i = 0; i < survivors.size(); i++) {
+                OrderRecord record = survivors.get(i);
+                compacted.append(record.getOffset(), record.getTimestampMillis(), record.getCount(), itemIds.get(i));
+            }
+            compacted.force();
+            compacted.close();
+            Files.move(temp, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            return LogSegment.openSealed(path);
+        } catch (IOException e) {
+            throw new UncheckedIOException("cannot compact segment: " + path, e);
+        }
+    }
+
+    /**
+     * 디렉토리 항목(파일 이름 변경)을 디스크에 반영
+     * 디렉토리를 채널로 열 수 없는 OS(Windows)에서는 건너뜀
+     */
+    private void forceDirectory() {
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            if (!System.getProperty("os.name").startsWith("Windows")) {
+                throw new UncheckedIOException("cannot force directory: " + directory, e);
+            }
+        }
+    }
+
+    private LogSegment roll(LogSegment tail) {
+        force(tail);
+        LogSegment next = LogSegment.create(directory.resolve(LogSegment.fileName(nextOffset)), nextOffset, segmentBytes);
+        List<LogSegment> rolled = new ArrayList<>(segments);
+        rolled.add(next);
+        segments = Collections.unmodifiableList(rolled);
+        rollCount.increment();
+        return next;
+    }
+
+    private void forceTail() {
+        force(tail());
+    }
+
+    private void force(LogSegment segment) {
+        long startNanos = System.nanoTime();
+        segment.force();
+        fsyncNanos.add(System.nanoTime() - startNanos);
+        fsyncCount.increment();
+    }
+
+    private LogSegment tail() {
+        List<LogSegment> snapshot = segments;
+        return snapshot.get(snapshot.size() - 1);
+    }
+
+    /**
+     * 남은 append 의 force 를 마치고 파일을 닫음
+     */
+    @Override
+    public void close() throws InterruptedException {
+        appendLock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+        } finally {
+            appendLock.unlock();
+        }
+        if (periodicFsync != null) {
+            periodicFsync.shutdown();
+            periodicFsync.awaitTermination(1, TimeUnit.SECONDS);
+        }
+        if (groupFsync != null) {
+            groupFsync.close();
+        }
+        forceTail();
+        segments.forEach(LogSegment::close);
+        log.info("order log closed: {} nextOffset={}", directory, nextOffset);
+    }
+
+    @ManagedAttribute
+    public long getAppendCount() {
+        return appendCount.sum();
+    }
+
+    @ManagedAttribute
+    public long getFsyncCount() {
+        return fsyncCount.sum();
+    }
+
+    @ManagedAttribute
+    public double getAverageFsyncMillis() {
+        long count = fsyncCount.sum();
+        return count == 0 ? 0 : fsyncNanos.sum() / 1_000_000.0 / count;
+    }
+
+    @ManagedAttribute
+    public long getRollCount() {
+        return rollCount.sum();
+    }
+
+    @ManagedAttribute
+    public long getCompactedCount() {
+        return compactedCount.sum();
+    }
+
+    @ManagedAttribute
+    public int getSegmentCount() {
+        return segments.size();
+    }
+
+    /**
+     * 다음 append 가 받을 offset
+     */
+    @ManagedAttribute
+    public long getNextOffset() {
+        appendLock.lock();
+        try {
+            return nextOffset;
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    @ManagedAttribute
+    public String getFsyncPolicy() {
+        return fsyncPolicy.name();
+    }
+
+    @Override
+    public String toString() {
+        return "OrderLog[" + directory + " segments=" + segments.size() + " fsync=" + fsyncPolicy + "]";
+    }
+}
@@ -0,0 +1,46 @@
+package hello.proxy.infra.store;
+
+/**
+ * OrderLog 에 저장된 주문 기록 한 건
+ * offset : 로그 전체에서 증가하는 번호 (압축 후에도 바뀌지 않음)
+ * count  : 이 기록이 나타내는 주문 수. 보통 1이고, 압축이 같은 itemId 의 이전 기록을 합친 기록이면 합친 주문 수
+ */
+public class OrderRecord {
+
+    private final long offset;
+    private final long timestampMillis;
+    private final String itemId;
+    private final int count;
+
+    public OrderRecord(long offset, long timestampMillis, String itemId) {
+        this(offset, timestampMillis, itemId, 1);
+    }
+
+    public OrderRecord(long offset, long timestampMillis, String itemId, int count) {
+        this.offset = offset;
+        this.timestampMillis = timestampMillis;
+        this.itemId = itemId;
+        this.count = count;
+    }
+
+    public long getOffset() {
+        return offset;
+    }
+
+    public long getTimestampMillis() {
+        return timestampMillis;
+    }
+
+    public String getItemId() {
+        return itemId;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    @Override
+    public String toString() {
+        return "OrderRecord[" + offset + " " + itemId + (count == 1 ? "" : " x" + count) + "]";
+    }
+}
@@ -0,0 +1,88 @@
+package hello.proxy.trace;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MutableCallSite;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 요청을 끝내야 하는 시각. TraceId 에 담겨서 같은 요청의 모든 계층(다른 스레드로 넘긴 추적 포함)에 전달됨
+ * - System.nanoTime() 기준이므로 같은 JVM 안에서만 의미가 있음
+ * - 확인 스위치 : 처음에는 꺼져 있어서 각 계층의 LogTrace.checkDeadline() 이 트레이스 조회 없이 바로 끝남
+ *   DeadlineFilter 가 처음으로 요청에 deadline 을 담을 때 켜고, 이후에는 끄지 않음
+ *   TraceSwitch 와 같은 static final MutableCallSite 라서 꺼져 있는 동안 JIT 가 확인 코드 자체를 없앰 (켜면 deopt)
+ */
+public class Deadline {
+
+    private static final MutableCallSite CHECKS = new MutableCallSite(MethodHandles.constant(boolean.class, false));
+    private static final MethodHandle CHECKS_ENABLED = CHECKS.dynamicInvoker();
+
+    private final long budgetNanos;
+    private final long deadlineNanos;
+
+    private Deadline(long budgetNanos, long deadlineNanos) {
+        this.budgetNanos = budgetNanos;
+        this.deadlineNanos = deadlineNanos;
+    }
+
+    /**
+     * deadline 을 담은 요청이 한 번이라도 있었는지 (없었으면 확인할 deadline 도 없음)
+     */
+    public static boolean checksEnabled() {
+        try {
+            return (boolean) CHECKS_ENABLED.invokeExact();
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * 각 계층의 deadline 확인을 켬 (DeadlineFilter 에서 호출, 이미 켜져 있으면 아무것도 하지 않음)
+     */
+    public static void enableChecks() {
+        if (checksEnabled()) {
+            return;
+        }
+        synchronized (CHECKS) {
+            CHECKS.setTarget(MethodHandles.constant(boolean.class, true));
+            MutableCallSite.syncAll(new MutableCallSite[]{CHECKS});
+        }
+    }
+
+    /**
+     * 지금부터 budget 만큼 남은 deadline
+     */
+    public static Deadline after(Duration budget) {
+        long budgetNanos = budget.toNanos();
+        return new Deadline(budgetNanos, System.nanoTime() + budgetNanos);
+    }
+
+    public long remainingNanos() {
+        return deadlineNanos - System.nanoTime();
+    }
+
+    public long remainingMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(remainingNanos());
+    }
+
+    public boolean isExpired() {
+        return remainingNanos() <= 0;
+    }
+
+    /**
+     * deadline 이 지났으면 DeadlineExceededException
+     */
+    public void check() {
+        long remaining = remainingNanos();
+        if (remaining <= 0) {
+            throw new DeadlineExceededException("deadline exceeded: budget=" + TimeUnit.NANOSECONDS.toMillis(budgetNanos)
+                    + "ms, over by " + TimeUnit.NANOSECONDS.toMillis(-remaining) + "ms");
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "Deadline[remaining=" + remainingMillis() + "ms]";
+    }
+}
@@ -0,0 +1,11 @@
+package hello.proxy.trace;
+
+/**
+ * 요청의 deadline 이 지나서 다음 계층을 호출하지 않고 중단함
+ */
+public class DeadlineExceededException extends RuntimeException {
+
+    public DeadlineExceededException(String message) {
+        super(message);
+    }
+}
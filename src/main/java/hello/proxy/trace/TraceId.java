@@ -6,27 +6,37 @@ public class TraceId {
 
     private String id;
     private int level;
+    private Deadline deadline;
 
     public TraceId() {
         this.id = createId();
         this.level = 0;
     }
 
-    private TraceId(String id, int level) {
+    private TraceId(String id, int level, Deadline deadline) {
         this.id = id;
         this.level = level;
+        this.deadline = deadline;
     }
 
-    private String createId() {
+    /**
+     * 요청 시작 시점(필터)에 만드는 TraceId. 추적 로그를 남기지 않는 level -1 이고 deadline 만 담음
+     * 첫 begin() 에서 level 0 이 되므로 로그 형식은 그대로임
+     */
+    public static TraceId requestRoot(Deadline deadline) {
+        return new TraceId(createId(), -1, deadline);
+    }
+
+    private static String createId() {
         return UUID.randomUUID().toString().substring(0, 8);
     }
 
     public TraceId createNextId() {
-        return new TraceId(id, level + 1);
+        return new TraceId(id, level + 1, deadline);
     }
 
     public TraceId createPreviousId() {
-        return new TraceId(id, level - 1);
+        return new TraceId(id, level - 1, deadline);
     }
 
     public boolean isFirstLevel() {
@@ -40,4 +50,11 @@ public class TraceId {
     public int getLevel() {
         return level;
     }
+
+    /**
+     * 없으면 null
+     */
+    public Deadline getDeadline() {
+        return deadline;
+    }
 }
@@ -1,5 +1,7 @@
 package hello.proxy.trace.logtrace;
 
+import hello.proxy.trace.Deadline;
+import hello.proxy.trace.TraceId;
 import hello.proxy.trace.TraceStatus;
 
 public interface LogTrace {
@@ -7,4 +9,37 @@ public interface LogTrace {
     TraceStatus begin(String message);
     void end(TraceStatus status);
     void exception(TraceStatus status, Exception e);
+
+    /**
+     * 다른 스레드에서 같은 추적을 이어갈 때 사용 (기본 구현은 스레드를 넘어가지 않음)
+     * - currentTraceId() : 현재 스레드의 TraceId. 추적 중이 아니면 null
+     * - attach(traceId) : 넘겨받은 TraceId 를 현재 스레드에 설정하고, 원래 값을 반환
+     * - restore(previous) : attach 가 반환한 값으로 되돌림
+     */
+    default TraceId currentTraceId() {
+        return null;
+    }
+
+    default TraceId attach(TraceId traceId) {
+        return null;
+    }
+
+    default void restore(TraceId previous) {
+    }
+
+    /**
+     * 현재 추적에 deadline 이 있고 이미 지났으면 DeadlineExceededException
+     * 추적 지점(프록시, 어드바이스, 핸들러, 에이전트)마다 TraceSwitch 확인보다 먼저 한 번 호출함 (추적이 꺼져 있어도 deadline 은 지킴)
+     * begin() 은 다시 확인하지 않음
+     * deadline 을 담은 요청이 없었으면(Deadline.checksEnabled) 트레이스를 조회하지 않고 끝남
+     */
+    default void checkDeadline() {
+        if (!Deadline.checksEnabled()) {
+            return;
+        }
+        TraceId traceId = currentTraceId();
+        if (traceId != null && traceId.getDeadline() != null) {
+            traceId.getDeadline().check();
+        }
+    }
 }
@@ -0,0 +1,34 @@
+package hello.proxy.trace.logtrace;
+
+import hello.proxy.trace.TraceId;
+import org.springframework.core.task.TaskDecorator;
+
+/**
+ * 작업을 넘기는 스레드의 TraceId 를 실행 스레드에 붙여서 같은 추적으로 이어지게 함
+ * - deadline 도 TraceId 에 있으므로 같이 넘어감 (큐에서 기다리는 동안 지나면 다음 계층에서 중단됨)
+ * - 작업이 끝나면 실행 스레드를 원래 상태로 되돌림
+ */
+public class LogTraceTaskDecorator implements TaskDecorator {
+
+    private final LogTrace logTrace;
+
+    public LogTraceTaskDecorator(LogTrace logTrace) {
+        this.logTrace = logTrace;
+    }
+
+    @Override
+    public Runnable decorate(Runnable runnable) {
+        TraceId traceId = logTrace.currentTraceId();
+        if (traceId == null) {
+            return runnable;
+        }
+        return () -> {
+            TraceId previous = logTrace.attach(traceId);
+            try {
+                runnable.run();
+            } finally {
+                logTrace.restore(previous);
+            }
+        };
+    }
+}
@@ -1,5 +1,6 @@
 package hello.proxy.trace.logtrace;
 
+import hello.proxy.trace.Deadline;
 import hello.proxy.trace.TraceId;
 import hello.proxy.trace.TraceStatus;
 import lombok.extern.slf4j.Slf4j;
@@ -18,7 +19,12 @@ public class ThreadLocalLogTrace implements LogTrace {
         syncTraceId();
         TraceId traceId = traceIdHolder.get();
         Long startTimeMs = System.currentTimeMillis();
-        log.info("[{}] {}{}", traceId.getId(), addSpace(START_PREFIX, traceId.getLevel()), message);
+        Deadline deadline = traceId.getDeadline();
+        if (deadline == null) {
+            log.info("[{}] {}{}", traceId.getId(), addSpace(START_PREFIX, traceId.getLevel()), message);
+        } else {
+            log.info("[{}] {}{} budget={}ms", traceId.getId(), addSpace(START_PREFIX, traceId.getLevel()), message, deadline.remainingMillis());
+        }
 
         return new TraceStatus(traceId, startTimeMs, message);
     }
@@ -34,6 +40,9 @@ public class ThreadLocalLogTrace implements LogTrace {
     }
 
     private void complete(TraceStatus status, Exception e) {
+        if (status == null) {
+            return;
+        }
         Long stopTimeMs = System.currentTimeMillis();
         long resultTimeMs = stopTimeMs - status.getStartTimeMs();
         TraceId traceId = status.getTraceId();
@@ -46,6 +55,31 @@ public class ThreadLocalLogTrace implements LogTrace {
         releaseTraceId();
     }
 
+    @Override
+    public TraceId currentTraceId() {
+        return traceIdHolder.get();
+    }
+
+    @Override
+    public TraceId attach(TraceId traceId) {
+        TraceId previous = traceIdHolder.get();
+        setTraceId(traceId);
+        return previous;
+    }
+
+    @Override
+    public void restore(TraceId previous) {
+        setTraceId(previous);
+    }
+
+    private void setTraceId(TraceId traceId) {
+        if (traceId == null) {
+            traceIdHolder.remove();
+        } else {
+            traceIdHolder.set(traceId);
+        }
+    }
+
     private void syncTraceId() {
         TraceId traceId = traceIdHolder.get();
         if (traceId == null) {
@@ -57,7 +91,8 @@ public class ThreadLocalLogTrace implements LogTrace {
 
     private void releaseTraceId() {
         TraceId traceId = traceIdHolder.get();
-        if (traceId.isFirstLevel()) {
+        //deadline 이 있으면 요청 필터가 만든 requestRoot(level -1)로 돌아감. 정리는 필터가 함
+        if (traceId.isFirstLevel() && traceId.getDeadline() == null) {
             traceIdHolder.remove();//destroy
         } else {
             traceIdHolder.set(traceId.createPreviousId());
@@ -0,0 +1,62 @@
+package hello.proxy.agent;
+
+import hello.proxy.app.v2.OrderControllerV2;
+import net.bytebuddy.agent.ByteBuddyAgent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.instrument.Instrumentation;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 이미 로딩된 클래스에 에이전트를 붙였다가 떼어내면 원래 동작으로 돌아와야 함
+ */
+public class TraceAgentTest {
+
+    private final Instrumentation instrumentation = ByteBuddyAgent.install();
+    private final RecordingSink sink = new RecordingSink();
+
+    @AfterEach
+    void tearDown() {
+        TraceAgent.agentmain("off", instrumentation);
+        TraceAgentBridge.uninstall(sink);
+    }
+
+    @Test
+    void attachAndDetach() {
+        TraceAgentBridge.install(sink);
+        OrderControllerV2 controller = new OrderControllerV2(null);
+        controller.noLog();
+        assertThat(sink.origins).isEmpty();
+
+        TraceAgent.agentmain("on:hello.proxy.app.v2.OrderControllerV2#noLog", instrumentation);
+        assertThat(controller.noLog()).isEqualTo("ok");
+        assertThat(sink.origins).containsExactly("hello.proxy.app.v2.OrderControllerV2.noLog");
+        assertThat(sink.exits).isEqualTo(1);
+
+        TraceAgent.agentmain("off", instrumentation);
+        controller.noLog();
+        assertThat(sink.origins).hasSize(1);
+        assertThat(TraceAgent.getActivePatterns()).isNull();
+    }
+
+    static class RecordingSink implements TraceAgentBridge.TraceSink {
+
+        private final List<String> origins = new ArrayList<>();
+        private int exits;
+
+        @Override
+        public Object enter(String origin) {
+            origins.add(origin);
+            return origin;
+        }
+
+        @Override
+        public void exit(Object token, Throwable thrown) {
+            exits++;
+        }
+    }
+}
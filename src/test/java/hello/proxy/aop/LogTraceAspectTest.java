@@ -0,0 +1,102 @@
+package hello.proxy.aop;
+
+import hello.proxy.app.v2.OrderControllerV2;
+import hello.proxy.config.pointcut.IndexedPointcut;
+import hello.proxy.config.pointcut.TracePointcuts;
+import hello.proxy.config.v6_aop.aspect.LogTraceAspect;
+import hello.proxy.config.v6_aop.aspect.LogTraceInterceptor;
+import hello.proxy.config.v6_aop.metadata.TraceMetadataCache;
+import hello.proxy.trace.TraceStatus;
+import hello.proxy.trace.logtrace.LogTrace;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @Aspect 방식과 MethodInterceptor 방식이 같은 메타데이터 캐시로 같은 로그를 남기는지 확인
+ */
+public class LogTraceAspectTest {
+
+    @Test
+    void aspect() {
+        RecordingLogTrace logTrace = new RecordingLogTrace();
+        TraceMetadataCache cache = new TraceMetadataCache();
+
+        AspectJProxyFactory proxyFactory = new AspectJProxyFactory(new OrderControllerV2(null));
+        proxyFactory.addAspect(new LogTraceAspect(logTrace, cache));
+        OrderControllerV2 proxy = proxyFactory.getProxy();
+
+        proxy.noLog();
+        proxy.noLog();
+
+        assertThat(logTrace.messages).containsExactly("OrderControllerV2.noLog()", "OrderControllerV2.noLog()");
+        //메타데이터는 메서드당 한 번만 만들어짐
+        assertThat(cache.size()).isEqualTo(1);
+    }
+
+    @Test
+    void interceptor() {
+        RecordingLogTrace logTrace = new RecordingLogTrace();
+        TraceMetadataCache cache = new TraceMetadataCache();
+
+        ProxyFactory proxyFactory = new ProxyFactory(new OrderControllerV2(null));
+        proxyFactory.addAdvisor(new DefaultPointcutAdvisor(IndexedPointcut.of(TracePointcuts.APP_ID), new LogTraceInterceptor(logTrace, cache)));
+        OrderControllerV2 proxy = (OrderControllerV2) proxyFactory.getProxy();
+
+        proxy.noLog();
+
+        assertThat(logTrace.messages).containsExactly("OrderControllerV2.noLog()");
+        assertThat(cache.size()).isEqualTo(1);
+    }
+
+    @Test
+    void labelUsesShortStringFormat() throws NoSuchMethodException {
+        TraceMetadataCache cache = new TraceMetadataCache();
+
+        assertThat(cache.get(OrderControllerV2.class.getMethod("noLog")).getLabel()).isEqualTo("OrderControllerV2.noLog()");
+        assertThat(cache.get(OrderControllerV2.class.getMethod("request", String.class)).getLabel()).isEqualTo("OrderControllerV2.request(..)");
+    }
+
+    @Test
+    void excluded() {
+        RecordingLogTrace logTrace = new RecordingLogTrace();
+        TraceMetadataCache cache = TraceMetadataCache.excluding("*.noLog");
+
+        AspectJProxyFactory proxyFactory = new AspectJProxyFactory(new OrderControllerV2(null));
+        proxyFactory.addAspect(new LogTraceAspect(logTrace, cache));
+        OrderControllerV2 proxy = proxyFactory.getProxy();
+
+        assertThat(proxy.noLog()).isEqualTo("ok");
+        assertThat(logTrace.messages).isEmpty();
+        assertThat(cache.entries()).singleElement().matches(metadata -> !metadata.isSampled());
+    }
+
+    static class RecordingLogTrace implements LogTrace {
+
+        private final List<String> messages = new ArrayList<>();
+
+        List<String> messages() {
+            return messages;
+        }
+
+        @Override
+        public TraceStatus begin(String message) {
+            messages.add(message);
+            return new TraceStatus(null, System.currentTimeMillis(), message);
+        }
+
+        @Override
+        public void end(TraceStatus status) {
+        }
+
+        @Override
+        public void exception(TraceStatus status, Exception e) {
+        }
+    }
+}
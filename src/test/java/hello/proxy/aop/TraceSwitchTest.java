@@ -0,0 +1,142 @@
+package hello.proxy.aop;
+
+import hello.proxy.app.v1.OrderControllerV1;
+import hello.proxy.app.v1.OrderControllerV1Impl;
+import hello.proxy.app.v2.OrderControllerV2;
+import hello.proxy.config.agent.LogTraceAgentSink;
+import hello.proxy.config.tracing.TraceSwitch;
+import hello.proxy.config.v2_dynamicproxy.handler.LogTraceBasicHandler;
+import hello.proxy.config.v3_proxyfactory.advice.LogTraceAdvice;
+import hello.proxy.config.v6_aop.aspect.LogTraceAspect;
+import hello.proxy.config.v6_aop.metadata.TraceMetadataCache;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.aop.framework.ProxyFactory;
+
+import java.lang.reflect.Proxy;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 프록시를 다시 만들지 않고 스위치만으로 로그 추적이 켜지고 꺼져야 함
+ */
+public class TraceSwitchTest {
+
+    private final LogTraceAspectTest.RecordingLogTrace logTrace = new LogTraceAspectTest.RecordingLogTrace();
+    private final TraceMetadataCache cache = new TraceMetadataCache();
+    private final TraceSwitch traceSwitch = new TraceSwitch(cache);
+    private OrderControllerV2 proxy;
+
+    @BeforeEach
+    void setUp() {
+        AspectJProxyFactory proxyFactory = new AspectJProxyFactory(new OrderControllerV2(null));
+        proxyFactory.addAspect(new LogTraceAspect(logTrace, cache));
+        proxy = proxyFactory.getProxy();
+    }
+
+    @AfterEach
+    void tearDown() {
+        traceSwitch.reset();
+    }
+
+    @Test
+    void global() {
+        traceSwitch.setGlobalEnabled(false);
+        proxy.noLog();
+        assertThat(logTrace.messages()).isEmpty();
+
+        traceSwitch.setGlobalEnabled(true);
+        proxy.noLog();
+        assertThat(logTrace.messages()).hasSize(1);
+    }
+
+    @Test
+    void packageAndMethod() {
+        //이미 캐시된 메서드도 바뀌어야 함
+        proxy.noLog();
+
+        traceSwitch.setPackageEnabled("hello.proxy.app.v2", false);
+        proxy.noLog();
+        assertThat(logTrace.messages()).hasSize(1);
+
+        traceSwitch.setPackageEnabled("hello.proxy.app.v2", true);
+        traceSwitch.setMethodEnabled("OrderControllerV2.no*", false);
+        proxy.noLog();
+        assertThat(logTrace.messages()).hasSize(1);
+
+        traceSwitch.reset();
+        proxy.noLog();
+        assertThat(logTrace.messages()).hasSize(2);
+        assertThat(cache.size()).isEqualTo(1);
+    }
+
+    @Test
+    void pathsWithoutMetadataCacheFollowSameRules() {
+        OrderControllerV1 target = new OrderControllerV1Impl(null);
+        OrderControllerV1 handlerProxy = (OrderControllerV1) Proxy.newProxyInstance(OrderControllerV1.class.getClassLoader(),
+                new Class[]{OrderControllerV1.class}, new LogTraceBasicHandler(target, logTrace));
+        ProxyFactory proxyFactory = new ProxyFactory(new OrderControllerV2(null));
+        proxyFactory.addAdvice(new LogTraceAdvice(logTrace));
+        OrderControllerV2 adviceProxy = (OrderControllerV2) proxyFactory.getProxy();
+
+        traceSwitch.setMethodEnabled("OrderControllerV1Impl.noLog", false);
+        handlerProxy.noLog();
+        adviceProxy.noLog();
+        assertThat(logTrace.messages()).hasSize(1);
+
+        traceSwitch.setPackageEnabled("hello.proxy.app.v2", false);
+        adviceProxy.noLog();
+        assertThat(logTrace.messages()).hasSize(1);
+
+        traceSwitch.reset();
+        handlerProxy.noLog();
+        assertThat(logTrace.messages()).hasSize(2);
+    }
+
+    @Test
+    void oneRuleKeyAcrossAspectAdviceHandlerAndAgent() {
+        //모두 인터페이스(JDK 동적 프록시)로 호출하지만 규칙은 구현 클래스 이름으로 판단함
+        AspectJProxyFactory aspectFactory = new AspectJProxyFactory(new OrderControllerV1Impl(null));
+        aspectFactory.addAspect(new LogTraceAspect(logTrace, cache));
+        OrderControllerV1 aspectProxy = aspectFactory.getProxy();
+        ProxyFactory adviceFactory = new ProxyFactory(new OrderControllerV1Impl(null));
+        adviceFactory.addAdvice(new LogTraceAdvice(logTrace));
+        OrderControllerV1 adviceProxy = (OrderControllerV1) adviceFactory.getProxy();
+        OrderControllerV1 handlerProxy = (OrderControllerV1) Proxy.newProxyInstance(OrderControllerV1.class.getClassLoader(),
+                new Class[]{OrderControllerV1.class}, new LogTraceBasicHandler(new OrderControllerV1Impl(null), logTrace));
+        LogTraceAgentSink agentSink = new LogTraceAgentSink(logTrace);
+        String agentOrigin = "hello.proxy.app.v1.OrderControllerV1Impl.noLog";
+
+        //인터페이스 이름의 규칙은 어느 경로에도 적용되지 않음
+        traceSwitch.setMethodEnabled("OrderControllerV1.noLog", false);
+        aspectProxy.noLog();
+        adviceProxy.noLog();
+        handlerProxy.noLog();
+        assertThat(agentSink.enter(agentOrigin)).isNotNull();
+        assertThat(logTrace.messages()).hasSize(4);
+
+        traceSwitch.setMethodEnabled("OrderControllerV1Impl.noLog", false);
+        aspectProxy.noLog();
+        adviceProxy.noLog();
+        handlerProxy.noLog();
+        assertThat(agentSink.enter(agentOrigin)).isNull();
+        assertThat(logTrace.messages()).hasSize(4);
+
+        traceSwitch.setMethodEnabled("OrderControllerV1Impl.noLog", true);
+        traceSwitch.setPackageEnabled("hello.proxy.app.v1", false);
+        aspectProxy.noLog();
+        adviceProxy.noLog();
+        handlerProxy.noLog();
+        assertThat(agentSink.enter(agentOrigin)).isNull();
+        assertThat(logTrace.messages()).hasSize(4);
+
+        traceSwitch.reset();
+        aspectProxy.noLog();
+        adviceProxy.noLog();
+        handlerProxy.noLog();
+        assertThat(agentSink.enter(agentOrigin)).isNotNull();
+        assertThat(logTrace.messages()).hasSize(8);
+    }
+}
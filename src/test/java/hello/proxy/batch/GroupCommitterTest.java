@@ -0,0 +1,98 @@
+package hello.proxy.batch;
+
+import hello.proxy.app.v1.BatchingOrderRepositoryV1;
+import hello.proxy.app.v1.OrderRepositoryV1;
+import hello.proxy.infra.batch.BatchWriter;
+import hello.proxy.infra.batch.GroupCommitter;
+import hello.proxy.infra.batch.OrderBatchWriter;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@Slf4j
+public class GroupCommitterTest {
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(50);
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void concurrentSavesShareFlushes() throws Exception {
+        try (GroupCommitter<String> committer = new GroupCommitter<>("test", new OrderBatchWriter(200), 100, Duration.ofMillis(5))) {
+            OrderRepositoryV1 repository = new BatchingOrderRepositoryV1(committer);
+
+            long start = System.nanoTime();
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < 50; i++) {
+                String itemId = "item" + i;
+                futures.add(executor.submit(() -> repository.save(itemId)));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+            log.info("elapsed={}ms {}", elapsed.toMillis(), committer);
+
+            //하나씩 저장하면 50 * 200ms
+            assertThat(elapsed).isLessThan(Duration.ofSeconds(2));
+            assertThat(committer.getCommittedCount()).isEqualTo(50);
+            assertThat(committer.getFlushCount()).isLessThan(10);
+            assertThat(committer.getMaxBatchSize()).isGreaterThan(1);
+        }
+    }
+
+    @Test
+    void failureOnlyForItsOwnCaller() throws Exception {
+        try (GroupCommitter<String> committer = new GroupCommitter<>("test", new OrderBatchWriter(50), 100, Duration.ofMillis(50))) {
+            OrderRepositoryV1 repository = new BatchingOrderRepositoryV1(committer);
+
+            Future<?> ok = executor.submit(() -> repository.save("itemA"));
+            Future<?> ex = executor.submit(() -> repository.save("ex"));
+
+            ok.get();
+            assertThatThrownBy(ex::get).hasCauseInstanceOf(IllegalStateException.class);
+            assertThat(committer.getCommittedCount()).isEqualTo(1);
+            assertThat(committer.getFailedCount()).isEqualTo(1);
+        }
+    }
+
+    @Test
+    void writeFailureFailsWholeBatch() throws Exception {
+        BatchWriter<String> writer = items -> {
+            throw new IllegalStateException("disk full");
+        };
+        try (GroupCommitter<String> committer = new GroupCommitter<>("test", writer, 100, Duration.ofMillis(20))) {
+            assertThatThrownBy(() -> committer.commit("itemA")).hasMessage("disk full");
+        }
+    }
+
+    @Test
+    void batchSizeLimit() throws Exception {
+        List<Integer> sizes = new CopyOnWriteArrayList<>();
+        BatchWriter<String> writer = items -> sizes.add(items.size());
+        GroupCommitter<String> committer = new GroupCommitter<>("test", writer, 4, Duration.ofMillis(50));
+        for (int i = 0; i < 10; i++) {
+            committer.submit("item" + i);
+        }
+        //close() 는 이미 받은 요청을 모두 저장할 때까지 기다림
+        committer.close();
+
+        assertThat(sizes).allMatch(size -> size <= 4);
+        assertThat(sizes.stream().mapToInt(Integer::intValue).sum()).isEqualTo(10);
+        assertThatThrownBy(() -> committer.submit("late")).isInstanceOf(IllegalStateException.class);
+    }
+}
@@ -0,0 +1,286 @@
+package hello.proxy.bulk;
+
+import hello.proxy.app.bulk.BulkOrderRunner;
+import hello.proxy.app.bulk.OrderResult;
+import hello.proxy.infra.partition.PartitionedExecutor;
+import hello.proxy.trace.TraceId;
+import hello.proxy.trace.TraceStatus;
+import hello.proxy.trace.logtrace.LogTrace;
+import hello.proxy.trace.logtrace.LogTraceTaskDecorator;
+import hello.proxy.trace.logtrace.ThreadLocalLogTrace;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+public class BulkOrderRunnerTest {
+
+    @Test
+    void itemsRunInParallelAndKeepRequestOrder() throws Exception {
+        try (PartitionedExecutor executor = new PartitionedExecutor("test", 4, 100, runnable -> runnable)) {
+            BulkOrderRunner runner = runner(executor);
+            List<String> itemIds = distinctShards(executor, 4);
+
+            long start = System.nanoTime();
+            List<OrderResult> results = runner.run(itemIds, itemId -> sleep(itemId.equals(itemIds.get(2)) ? 400 : 200));
+            Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+            //순서대로 실행하면 1000ms
+            assertThat(elapsed).isLessThan(Duration.ofMillis(800));
+            assertThat(results).extracting(OrderResult::getItemId).containsExactlyElementsOf(itemIds);
+            assertThat(results).allMatch(OrderResult::isSuccess);
+            assertThat(results).filteredOn(OrderResult::isCriticalPath)
+                    .extracting(OrderResult::getItemId).containsExactly(itemIds.get(2));
+        }
+    }
+
+    @Test
+    void itemsRunOnOwnThreadsWithoutPartitions() {
+        try (BulkOrderRunner runner = new BulkOrderRunner(4, 100, null, Runnable::run, runnable -> runnable, Duration.ofSeconds(5))) {
+            Set<String> threadNames = ConcurrentHashMap.newKeySet();
+
+            long start = System.nanoTime();
+            List<OrderResult> results = runner.run(List.of("itemA", "itemA", "itemB", "itemC"), itemId -> {
+                threadNames.add(Thread.currentThread().getName());
+                sleep(200);
+            });
+            Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+            //요청 스레드에서 순서대로 실행하면 800ms. 같은 itemId 도 동시에 실행됨
+            assertThat(elapsed).isLessThan(Duration.ofMillis(600));
+            assertThat(results).allMatch(OrderResult::isSuccess);
+            assertThat(threadNames).allMatch(name -> name.startsWith("bulk-order-"));
+        }
+    }
+
+    @Test
+    void itemsBeyondQueueCapacityFail() {
+        try (BulkOrderRunner runner = new BulkOrderRunner(1, 1, null, Runnable::run, runnable -> runnable, Duration.ofSeconds(5))) {
+            //스레드 1개가 첫 항목을 실행하는 동안 큐에 1개만 들어감
+            List<OrderResult> results = runner.run(List.of("itemA", "itemB", "itemC"), itemId -> sleep(200));
+
+            assertThat(results).extracting(OrderResult::isSuccess).containsExactly(true, true, false);
+            assertThat(results.get(2).getError()).startsWith("RejectedExecutionException");
+        }
+    }
+
+    @Test
+    void criticalPathIncludesWaitOnSameShard() throws Exception {
+        try (PartitionedExecutor executor = new PartitionedExecutor("test", 2, 100, runnable -> runnable)) {
+            BulkOrderRunner runner = runner(executor);
+            List<String> sameShard = sameShard(executor, 2);
+            String other = IntStream.range(0, 1000)
+                    .mapToObj(i -> "item" + i)
+                    .filter(itemId -> executor.shardOf(itemId) != executor.shardOf(sameShard.get(0)))
+                    .findFirst().orElseThrow();
+
+            //other 가 가장 오래 실행되지만, 같은 shard 의 두 번째 항목이 250 + 250ms 에 가장 늦게 끝남
+            List<OrderResult> results = runner.run(List.of(sameShard.get(0), sameShard.get(1), other),
+                    itemId -> sleep(itemId.equals(other) ? 400 : 250));
+
+            assertThat(results.get(2).getElapsedMillis()).isGreaterThan(results.get(1).getElapsedMillis());
+            assertThat(results.get(1).getCompletedMillis()).isGreaterThanOrEqualTo(500);
+            assertThat(results).filteredOn(OrderResult::isCriticalPath)
+                    .extracting(OrderResult::getItemId).containsExactly(sameShard.get(1));
+        }
+    }
+
+    @Test
+    void failedItemDoesNotStopOthers() throws Exception {
+        try (PartitionedExecutor executor = new PartitionedExecutor("test", 2, 100, runnable -> runnable)) {
+            BulkOrderRunner runner = runner(executor);
+            Consumer<String> order = itemId -> {
+                if (itemId.equals("ex")) {
+                    throw new IllegalStateException("예외 발생!");
+                }
+            };
+
+            List<OrderResult> results = runner.run(List.of("itemA", "ex", "itemB"), order);
+
+            assertThat(results).extracting(OrderResult::isSuccess).containsExactly(true, false, true);
+            assertThat(results.get(1).getError()).isEqualTo("IllegalStateException: 예외 발생!");
+        }
+    }
+
+    @Test
+    void allItemsAreChildrenOfOneRoot() throws Exception {
+        LogTrace logTrace = new ThreadLocalLogTrace();
+        try (PartitionedExecutor executor = new PartitionedExecutor("test", 4, 100, new LogTraceTaskDecorator(logTrace))) {
+            BulkOrderRunner runner = runner(executor);
+            Set<String> traceIds = ConcurrentHashMap.newKeySet();
+            Set<Integer> levels = ConcurrentHashMap.newKeySet();
+
+            TraceId root = new TraceId();
+            TraceId previous = logTrace.attach(root);
+            try {
+                runner.run(List.of("itemA", "itemB", "itemC", "itemD"), itemId -> {
+                    logTrace.end(logTrace.begin("OrderService.orderItem()"));
+                    TraceId current = logTrace.currentTraceId();
+                    traceIds.add(current.getId());
+                    levels.add(current.getLevel());
+                });
+            } finally {
+                logTrace.restore(previous);
+            }
+
+            assertThat(traceIds).containsExactly(root.getId());
+            //각 항목의 추적이 끝나면 root 로 돌아옴
+            assertThat(levels).containsExactly(root.getLevel());
+        }
+    }
+
+    @Test
+    void streamWritesOneJsonLinePerItem() throws Exception {
+        try (PartitionedExecutor executor = new PartitionedExecutor("test", 2, 100, runnable -> runnable)) {
+            BulkOrderRunner runner = runner(executor);
+            MockMvc mvc = MockMvcBuilders.standaloneSetup(new StreamController(runner, itemId -> {
+                if (itemId.equals("ex")) {
+                    throw new IllegalStateException("예외 발생!");
+                }
+            })).build();
+
+            MvcResult result = mvc.perform(post("/stream")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("[\"itemA\", \"ex\", \"itemB\"]"))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+            result.getAsyncResult(5000);
+
+            assertThat(result.getResponse().getContentType()).startsWith(MediaType.APPLICATION_NDJSON_VALUE);
+            String[] lines = result.getResponse().getContentAsString(StandardCharsets.UTF_8).split("\n");
+            assertThat(lines).hasSize(3);
+            assertThat(lines).allMatch(line -> line.startsWith("{") && line.endsWith("}"));
+            assertThat(lines).anyMatch(line -> line.contains("\"itemId\":\"ex\"") && line.contains("\"success\":false"));
+        }
+    }
+
+    @Test
+    void streamedItemsKeepRequestTraceWithoutPartitions() throws Exception {
+        LogTrace logTrace = new ThreadLocalLogTrace();
+        ExecutorService streamThread = Executors.newSingleThreadExecutor();
+        try (BulkOrderRunner runner = new BulkOrderRunner(2, 100, null, streamThread, new LogTraceTaskDecorator(logTrace), Duration.ofSeconds(5))) {
+            Set<String> traceIds = ConcurrentHashMap.newKeySet();
+            CountDownLatch done = new CountDownLatch(2);
+
+            TraceId root = new TraceId();
+            TraceId previous = logTrace.attach(root);
+            try {
+                runner.streaming(List.of("itemA", "itemB"), itemId -> {
+                    TraceStatus status = logTrace.begin("OrderService.orderItem()");
+                    traceIds.add(logTrace.currentTraceId().getId());
+                    logTrace.end(status);
+                    done.countDown();
+                });
+            } finally {
+                //컨트롤러 추적이 먼저 끝남
+                logTrace.restore(previous);
+            }
+
+            assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+            assertThat(traceIds).containsExactly(root.getId());
+        } finally {
+            streamThread.shutdownNow();
+        }
+    }
+
+    @Test
+    void slowReaderLimitsItemsInFlight() throws Exception {
+        try (PartitionedExecutor executor = new PartitionedExecutor("test", 2, 1000, runnable -> runnable)) {
+            BulkOrderRunner runner = runner(executor);
+            List<String> itemIds = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                itemIds.add("item" + i);
+            }
+            AtomicInteger started = new AtomicInteger();
+            AtomicInteger written = new AtomicInteger();
+            AtomicInteger maxAhead = new AtomicInteger();
+
+            runner.stream(itemIds, itemId -> {
+                int ahead = started.incrementAndGet() - written.get();
+                maxAhead.accumulateAndGet(ahead, Math::max);
+            }, result -> {
+                //느린 클라이언트
+                sleep(1);
+                written.incrementAndGet();
+            });
+
+            assertThat(written.get()).isEqualTo(200);
+            //shard 2개 * 4
+            assertThat(maxAhead.get()).isLessThanOrEqualTo(8);
+        }
+    }
+
+    /**
+     * 항목은 partitions 의 shard 에서 실행 (order.bulk.partitioned=true), streaming 응답은 테스트 스레드에서 바로 만듦
+     */
+    private static BulkOrderRunner runner(PartitionedExecutor executor) {
+        return new BulkOrderRunner(1, 100, executor, Runnable::run, runnable -> runnable, Duration.ofSeconds(5));
+    }
+
+    private static List<String> distinctShards(PartitionedExecutor executor, int count) {
+        return IntStream.range(0, 1000)
+                .mapToObj(i -> "item" + i)
+                .collect(Collectors.toMap(executor::shardOf, itemId -> itemId, (a, b) -> a))
+                .values().stream()
+                .limit(count)
+                .collect(Collectors.toList());
+    }
+
+    private static List<String> sameShard(PartitionedExecutor executor, int count) {
+        int shard = executor.shardOf("item0");
+        return IntStream.range(0, 1000)
+                .mapToObj(i -> "item" + i)
+                .filter(itemId -> executor.shardOf(itemId) == shard)
+                .limit(count)
+                .collect(Collectors.toList());
+    }
+
+    @RestController
+    static class StreamController {
+
+        private final BulkOrderRunner runner;
+        private final Consumer<String> order;
+
+        StreamController(BulkOrderRunner runner, Consumer<String> order) {
+            this.runner = runner;
+            this.order = order;
+        }
+
+        @PostMapping("/stream")
+        public ResponseBodyEmitter stream(@RequestBody List<String> itemIds) {
+            return runner.streaming(itemIds, order);
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
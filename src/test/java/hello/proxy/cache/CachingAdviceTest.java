@@ -0,0 +1,155 @@
+package hello.proxy.cache;
+
+import hello.proxy.config.v3_proxyfactory.advice.CachingAdvice;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.ProxyFactory;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * CacheProxy 와 달리 인자별로 캐시하고, 크기 제한과 통계를 제공
+ */
+public class CachingAdviceTest {
+
+    @Test
+    void cachedByArguments() {
+        CountingRepository target = new CountingRepository();
+        CachingAdvice advice = new CachingAdvice("test", "maximumSize=100");
+        CountingRepository proxy = proxy(target, advice);
+
+        assertThat(proxy.find("a")).isEqualTo("item-a");
+        assertThat(proxy.find("a")).isEqualTo("item-a");
+        assertThat(proxy.find("b")).isEqualTo("item-b");
+        assertThat(proxy.find(null)).isNull();
+        assertThat(proxy.find(null)).isNull();
+
+        //"a", "b", null 각각 한번씩만 target 호출
+        assertThat(target.calls.get()).isEqualTo(3);
+        assertThat(advice.getHitCount()).isEqualTo(2);
+        assertThat(advice.getMissCount()).isEqualTo(3);
+    }
+
+    @Test
+    void exceptionNotCached() {
+        CountingRepository target = new CountingRepository();
+        CountingRepository proxy = proxy(target, new CachingAdvice("test", "maximumSize=100"));
+
+        assertThatThrownBy(() -> proxy.find("ex")).isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> proxy.find("ex")).isInstanceOf(IllegalStateException.class);
+        assertThat(target.calls.get()).isEqualTo(2);
+    }
+
+    @Test
+    void weightBounded() {
+        CountingRepository target = new CountingRepository();
+        CachingAdvice advice = new CachingAdvice("test", "maximumWeight=20", value -> ((String) value).length());
+        CountingRepository proxy = proxy(target, advice);
+
+        for (int i = 0; i < 100; i++) {
+            proxy.find("key" + i);
+        }
+        advice.cleanUp();
+
+        //"item-keyNN" 은 무게가 10 전후 -> 최대 무게 20 안에 2개 정도만 남음
+        assertThat(advice.getEstimatedSize()).isLessThanOrEqualTo(2);
+        assertThat(advice.getEvictionCount()).isGreaterThanOrEqualTo(98);
+    }
+
+    @Test
+    void refreshRunsDownstreamAdvice() throws InterruptedException {
+        CountingRepository target = new CountingRepository();
+        AtomicInteger downstreamCalls = new AtomicInteger();
+        ProxyFactory proxyFactory = new ProxyFactory(target);
+        proxyFactory.addAdvice(new CachingAdvice("test", "maximumSize=100,refreshAfterWrite=1s"));
+        proxyFactory.addAdvice((MethodInterceptor) invocation -> {
+            downstreamCalls.incrementAndGet();
+            return invocation.proceed();
+        });
+        CountingRepository proxy = (CountingRepository) proxyFactory.getProxy();
+
+        proxy.find("a");
+        Thread.sleep(1100);
+        //이전 값을 반환하고 백그라운드에서 갱신
+        assertThat(proxy.find("a")).isEqualTo("item-a");
+        for (int i = 0; i < 100 && target.calls.get() < 2; i++) {
+            Thread.sleep(10);
+        }
+
+        //갱신도 다음 어드바이스를 거쳐서 target 을 호출해야 함
+        assertThat(target.calls.get()).isEqualTo(2);
+        assertThat(downstreamCalls.get()).isEqualTo(2);
+    }
+
+    @Test
+    void refreshReplacesValueAndKeepsOldOnFailure() throws InterruptedException {
+        VersionedRepository target = new VersionedRepository();
+        //갱신을 읽는 스레드에서 바로 실행 (이전 값을 반환하기 전에 갱신이 끝남)
+        CachingAdvice advice = new CachingAdvice("test", "maximumSize=100,refreshAfterWrite=200ms", null, Runnable::run);
+        ProxyFactory proxyFactory = new ProxyFactory(target);
+        proxyFactory.addAdvice(advice);
+        VersionedRepository proxy = (VersionedRepository) proxyFactory.getProxy();
+
+        assertThat(proxy.find("a")).isEqualTo("a-v1");
+        Thread.sleep(250);
+        assertThat(proxy.find("a")).isEqualTo("a-v1");
+        assertThat(proxy.find("a")).isEqualTo("a-v2");
+
+        //갱신이 실패하면 이전 값을 유지하고, 다음 읽기에서 다시 갱신함
+        target.failing = true;
+        Thread.sleep(250);
+        assertThat(proxy.find("a")).isEqualTo("a-v2");
+        target.failing = false;
+        assertThat(proxy.find("a")).isEqualTo("a-v2");
+        assertThat(proxy.find("a")).isEqualTo("a-v3");
+        assertThat(advice.getEstimatedSize()).isEqualTo(1);
+    }
+
+    @Test
+    void sharedAdviceKeepsTargetsApart() {
+        CachingAdvice advice = new CachingAdvice("test", "maximumSize=100");
+        CountingRepository first = new CountingRepository();
+        CountingRepository second = new CountingRepository();
+
+        proxy(first, advice).find("a");
+        proxy(second, advice).find("a");
+
+        assertThat(first.calls.get()).isEqualTo(1);
+        assertThat(second.calls.get()).isEqualTo(1);
+    }
+
+    private static CountingRepository proxy(CountingRepository target, CachingAdvice advice) {
+        ProxyFactory proxyFactory = new ProxyFactory(target);
+        proxyFactory.addAdvice(advice);
+        return (CountingRepository) proxyFactory.getProxy();
+    }
+
+    static class CountingRepository {
+
+        private final AtomicInteger calls = new AtomicInteger();
+
+        public String find(String id) {
+            calls.incrementAndGet();
+            if ("ex".equals(id)) {
+                throw new IllegalStateException("예외 발생!");
+            }
+            return id == null ? null : "item-" + id;
+        }
+    }
+
+    static class VersionedRepository {
+
+        private final AtomicInteger version = new AtomicInteger();
+        private volatile boolean failing;
+
+        public String find(String id) {
+            if (failing) {
+                throw new IllegalStateException("예외 발생!");
+            }
+            return id + "-v" + version.incrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package hello.proxy.coalesce;
+
+import hello.proxy.config.v3_proxyfactory.advice.CoalescingAdvice;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.ProxyFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 같은 키로 동시에 들어온 호출은 target 을 한 번만 호출하고 결과를 나눠 받음
+ */
+public class CoalescingAdviceTest {
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(8);
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void coalesceSameKey() throws Exception {
+        SlowRepository target = new SlowRepository();
+        CoalescingAdvice advice = new CoalescingAdvice(new int[]{0}, 100, Duration.ofSeconds(5));
+        SlowRepository proxy = proxy(target, advice);
+
+        List<Future<String>> results = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            //두번째 인자는 키에 포함되지 않음
+            int requestNo = i;
+            results.add(executor.submit(() -> proxy.save("itemA", requestNo)));
+        }
+        awaitWaiters(advice, 7);
+        target.release.countDown();
+
+        for (Future<String> result : results) {
+            assertThat(result.get()).isEqualTo("saved-itemA");
+        }
+        assertThat(target.calls.get()).isEqualTo(1);
+        assertThat(advice.getInFlightCount()).isZero();
+    }
+
+    @Test
+    void exceptionFansOut() throws Exception {
+        SlowRepository target = new SlowRepository();
+        CoalescingAdvice advice = new CoalescingAdvice(new int[0], 100, Duration.ofSeconds(5));
+        SlowRepository proxy = proxy(target, advice);
+
+        Future<String> first = executor.submit(() -> proxy.save("ex", 0));
+        Future<String> second = executor.submit(() -> proxy.save("ex", 0));
+        awaitWaiters(advice, 1);
+        target.release.countDown();
+
+        assertThatThrownBy(first::get).isInstanceOf(ExecutionException.class).hasCauseInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(second::get).isInstanceOf(ExecutionException.class).hasCauseInstanceOf(IllegalStateException.class);
+        assertThat(target.calls.get()).isEqualTo(1);
+    }
+
+    @Test
+    void timeoutAndOverflow() throws Exception {
+        SlowRepository target = new SlowRepository();
+        CoalescingAdvice advice = new CoalescingAdvice(new int[]{0}, 1, Duration.ofMillis(50));
+        SlowRepository proxy = proxy(target, advice);
+
+        Future<String> leader = executor.submit(() -> proxy.save("itemA", 0));
+        while (target.calls.get() == 0) {
+            Thread.sleep(1);
+        }
+        //waiter 는 50ms 만 기다림
+        assertThatThrownBy(() -> proxy.save("itemA", 1)).isInstanceOf(CoalescingAdvice.CoalescingTimeoutException.class);
+
+        target.release.countDown();
+        assertThat(leader.get()).isEqualTo("saved-itemA");
+        assertThat(advice.getTimeoutCount()).isEqualTo(1);
+    }
+
+    private static void awaitWaiters(CoalescingAdvice advice, int waiters) throws InterruptedException {
+        while (advice.getCoalescedCount() < waiters) {
+            Thread.sleep(1);
+        }
+    }
+
+    private static SlowRepository proxy(SlowRepository target, CoalescingAdvice advice) {
+        ProxyFactory proxyFactory = new ProxyFactory(target);
+        proxyFactory.addAdvice(advice);
+        return (SlowRepository) proxyFactory.getProxy();
+    }
+
+    static class SlowRepository {
+
+        private final AtomicInteger calls = new AtomicInteger();
+        private final CountDownLatch release = new CountDownLatch(1);
+
+        public String save(String itemId, int requestNo) throws InterruptedException {
+            calls.incrementAndGet();
+            release.await();
+            if (itemId.equals("ex")) {
+                throw new IllegalStateException("예외 발생!");
+            }
+            return "saved-" + itemId;
+        }
+    }
+}
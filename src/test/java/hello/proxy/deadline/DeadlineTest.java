@@ -0,0 +1,125 @@
+package hello.proxy.deadline;
+
+import hello.proxy.app.v2.OrderControllerV2;
+import hello.proxy.app.v2.OrderRepositoryV2;
+import hello.proxy.app.v2.OrderServiceV2;
+import hello.proxy.config.deadline.DeadlineFilter;
+import hello.proxy.config.tracing.TraceSwitch;
+import hello.proxy.config.v3_proxyfactory.advice.LogTraceAdvice;
+import hello.proxy.trace.Deadline;
+import hello.proxy.trace.DeadlineExceededException;
+import hello.proxy.trace.TraceId;
+import hello.proxy.trace.logtrace.LogTrace;
+import hello.proxy.trace.logtrace.ThreadLocalLogTrace;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class DeadlineTest {
+
+    @Test
+    void expiredDeadlineStopsAtFirstLayer() {
+        LogTrace logTrace = new ThreadLocalLogTrace();
+        CountingRepository repository = new CountingRepository();
+        OrderControllerV2 controller = controller(logTrace, repository);
+
+        //평소에는 DeadlineFilter 가 처음 deadline 을 담을 때 켬
+        Deadline.enableChecks();
+        TraceId previous = logTrace.attach(TraceId.requestRoot(Deadline.after(Duration.ofMillis(300))));
+        try {
+            //save() 가 1초 걸리는 동안 deadline 이 지남 -> 이미 시작한 호출은 끝까지 진행
+            assertThat(controller.request("itemA")).isEqualTo("ok");
+            assertThat(repository.calls.get()).isEqualTo(1);
+
+            //같은 요청에서 다시 호출 -> 컨트롤러 계층에서 바로 중단
+            assertThatThrownBy(() -> controller.request("itemB")).isInstanceOf(DeadlineExceededException.class);
+            assertThat(repository.calls.get()).isEqualTo(1);
+            //요청 TraceId(level -1)로 돌아옴
+            assertThat(logTrace.currentTraceId().getLevel()).isEqualTo(-1);
+        } finally {
+            logTrace.restore(previous);
+        }
+        assertThat(logTrace.currentTraceId()).isNull();
+    }
+
+    @Test
+    void expiredDeadlineStopsWhenTracingIsOff() {
+        LogTrace logTrace = new ThreadLocalLogTrace();
+        CountingRepository repository = new CountingRepository();
+        OrderControllerV2 controller = controller(logTrace, repository);
+        TraceSwitch traceSwitch = new TraceSwitch();
+
+        Deadline.enableChecks();
+        TraceId previous = logTrace.attach(TraceId.requestRoot(Deadline.after(Duration.ofMillis(300))));
+        traceSwitch.setGlobalEnabled(false);
+        try {
+            assertThat(controller.request("itemA")).isEqualTo("ok");
+            //추적이 꺼져 있어도 deadline 은 각 계층에서 확인함
+            assertThatThrownBy(() -> controller.request("itemB")).isInstanceOf(DeadlineExceededException.class);
+            assertThat(repository.calls.get()).isEqualTo(1);
+        } finally {
+            traceSwitch.reset();
+            logTrace.restore(previous);
+        }
+    }
+
+    @Test
+    void filterUsesShorterOfHeaderAndEndpointDefault() throws Exception {
+        LogTrace logTrace = new ThreadLocalLogTrace();
+        DeadlineFilter filter = new DeadlineFilter(logTrace, "X-Request-Timeout", null, Map.of("/v1/**", Duration.ofSeconds(2)));
+        AtomicReference<TraceId> captured = new AtomicReference<>();
+
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/v1/request");
+        request.setServletPath("/v1/request");
+        request.addHeader("X-Request-Timeout", "100");
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> captured.set(logTrace.currentTraceId()));
+        assertThat(captured.get().getDeadline().remainingMillis()).isBetween(0L, 100L);
+        assertThat(Deadline.checksEnabled()).isTrue();
+
+        request = new MockHttpServletRequest("GET", "/v1/request");
+        request.setServletPath("/v1/request");
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> captured.set(logTrace.currentTraceId()));
+        assertThat(captured.get().getDeadline().remainingMillis()).isBetween(1_000L, 2_000L);
+
+        //deadline 이 없는 경로
+        request = new MockHttpServletRequest("GET", "/v2/request");
+        request.setServletPath("/v2/request");
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> captured.set(logTrace.currentTraceId()));
+        assertThat(captured.get()).isNull();
+        assertThat(logTrace.currentTraceId()).isNull();
+    }
+
+    private static OrderControllerV2 controller(LogTrace logTrace, OrderRepositoryV2 repository) {
+        OrderRepositoryV2 repositoryProxy = proxy(repository, logTrace);
+        OrderServiceV2 serviceProxy = proxy(new OrderServiceV2(repositoryProxy), logTrace);
+        return proxy(new OrderControllerV2(serviceProxy), logTrace);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(T target, LogTrace logTrace) {
+        ProxyFactory proxyFactory = new ProxyFactory(target);
+        proxyFactory.setProxyTargetClass(true);
+        proxyFactory.addAdvice(new LogTraceAdvice(logTrace));
+        return (T) proxyFactory.getProxy();
+    }
+
+    static class CountingRepository extends OrderRepositoryV2 {
+
+        private final AtomicInteger calls = new AtomicInteger();
+
+        @Override
+        public void save(String itemId) {
+            calls.incrementAndGet();
+            super.save(itemId);
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package hello.proxy.hedge;
+
+import hello.proxy.config.v3_proxyfactory.advice.HedgingAdvice;
+import hello.proxy.trace.TraceStatus;
+import hello.proxy.trace.logtrace.ThreadLocalLogTrace;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.ProxyFactory;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class HedgingAdviceTest {
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void backupWinsWhenPrimaryIsSlow() {
+        RecordingLogTrace logTrace = new RecordingLogTrace();
+        HedgingAdvice advice = new HedgingAdvice(executor, logTrace, 95, 10, Duration.ofSeconds(5), Map.of(), true);
+        //11번째 호출만 느림 -> backup(12번째 호출)이 먼저 끝남
+        SlowRepository target = new SlowRepository(11);
+        SlowRepository proxy = proxy(target, advice);
+
+        for (int i = 0; i < 10; i++) {
+            assertThat(proxy.find("item")).isEqualTo("item");
+        }
+        assertThat(advice.getHedgedCount()).isZero();
+
+        TraceStatus status = logTrace.begin("OrderService.orderItem()");
+        long start = System.nanoTime();
+        assertThat(proxy.find("item")).isEqualTo("item");
+        logTrace.end(status);
+
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(1));
+        assertThat(advice.getHedgedCount()).isEqualTo(1);
+        assertThat(advice.getBackupWinCount()).isEqualTo(1);
+        assertThat(advice.getPrimaryWinCount()).isEqualTo(10);
+        //두 호출 모두 호출한 스레드의 추적 아래(level 1)에 표시됨
+        assertThat(logTrace.lines).contains(
+                status.getTraceId().getId() + " 1 hedge:primary SlowRepository.find(..)",
+                status.getTraceId().getId() + " 1 hedge:backup SlowRepository.find(..)");
+    }
+
+    @Test
+    void hardTimeout() {
+        HedgingAdvice advice = new HedgingAdvice(executor, new ThreadLocalLogTrace(), 95, 10, Duration.ofSeconds(5),
+                Map.of("SlowRepository.find", Duration.ofMillis(100)), true);
+        SlowRepository proxy = proxy(new SlowRepository(1), advice);
+
+        assertThatThrownBy(() -> proxy.find("item")).isInstanceOf(HedgingAdvice.HedgeTimeoutException.class);
+        assertThat(advice.getTimeoutCount()).isEqualTo(1);
+    }
+
+    @Test
+    void failureOfBothAttemptsIsRethrown() {
+        HedgingAdvice advice = new HedgingAdvice(executor, new ThreadLocalLogTrace(), 95, 10, Duration.ZERO, Map.of(), true);
+        SlowRepository proxy = proxy(new SlowRepository(0), advice);
+
+        assertThatThrownBy(() -> proxy.find("ex")).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void primaryRunsInlineUntilHedgingIsPossible() {
+        HedgingAdvice advice = new HedgingAdvice(executor, new ThreadLocalLogTrace(), 95, 10, Duration.ZERO, Map.of(), true);
+        SlowRepository target = new SlowRepository(0);
+        SlowRepository proxy = proxy(target, advice);
+
+        //최근 호출이 minSamples 보다 적으면 executor 를 거치지 않음
+        for (int i = 0; i < 10; i++) {
+            proxy.find("item");
+        }
+        assertThat(target.threads).containsOnly(Thread.currentThread());
+
+        proxy.find("item");
+        assertThat(target.threads.get(10)).isNotSameAs(Thread.currentThread());
+        assertThat(advice.getPrimaryWinCount() + advice.getBackupWinCount()).isEqualTo(11);
+    }
+
+    @Test
+    void rejectedPrimaryRunsInline() {
+        ThreadPoolExecutor saturated = new ThreadPoolExecutor(0, 1, 0, TimeUnit.MILLISECONDS, new SynchronousQueue<>());
+        saturated.shutdown();
+        HedgingAdvice advice = new HedgingAdvice(saturated, new ThreadLocalLogTrace(), 95, 10, Duration.ofSeconds(5), Map.of(), true);
+        SlowRepository target = new SlowRepository(0);
+
+        assertThat(proxy(target, advice).find("item")).isEqualTo("item");
+        assertThat(target.threads).containsOnly(Thread.currentThread());
+    }
+
+    private static SlowRepository proxy(SlowRepository target, HedgingAdvice advice) {
+        ProxyFactory proxyFactory = new ProxyFactory(target);
+        proxyFactory.addAdvice(advice);
+        return (SlowRepository) proxyFactory.getProxy();
+    }
+
+    static class SlowRepository {
+
+        private final AtomicInteger calls = new AtomicInteger();
+        private final List<Thread> threads = new CopyOnWriteArrayList<>();
+        private final int slowCall;
+
+        SlowRepository(int slowCall) {
+            this.slowCall = slowCall;
+        }
+
+        public String find(String itemId) throws InterruptedException {
+            if (itemId.equals("ex")) {
+                throw new IllegalStateException("예외 발생!");
+            }
+            threads.add(Thread.currentThread());
+            if (calls.incrementAndGet() == slowCall) {
+                Thread.sleep(2_000);
+            } else {
+                Thread.sleep(5);
+            }
+            return itemId;
+        }
+    }
+
+    static class RecordingLogTrace extends ThreadLocalLogTrace {
+
+        private final List<String> lines = new CopyOnWriteArrayList<>();
+
+        @Override
+        public TraceStatus begin(String message) {
+            TraceStatus status = super.begin(message);
+            lines.add(status.getTraceId().getId() + " " + status.getTraceId().getLevel() + " " + message);
+            return status;
+        }
+    }
+}
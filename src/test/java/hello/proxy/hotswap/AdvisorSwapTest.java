@@ -0,0 +1,101 @@
+package hello.proxy.hotswap;
+
+import hello.proxy.common.service.ServiceImpl;
+import hello.proxy.common.service.ServiceInterface;
+import hello.proxy.config.hotswap.AdvisorSwapRegistry;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.NameMatchMethodPointcut;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 프록시를 다시 만들지 않고 어드바이저를 추가/교체/삭제
+ */
+public class AdvisorSwapTest {
+
+    private final List<String> calls = new ArrayList<>();
+    private final AdvisorSwapRegistry registry = new AdvisorSwapRegistry();
+
+    @Test
+    void addReplaceRemove() {
+        registry.defineAdvisor("a", advisor("a", "save"));
+        registry.defineAdvisor("b", advisor("b", "save", "find"));
+        ServiceInterface proxy = proxy("serviceImpl", Map.of("a", advisor("a", "save")));
+
+        proxy.save();
+        proxy.find();
+        assertThat(calls).containsExactly("a.save");
+
+        calls.clear();
+        assertThat(registry.add("b", "service*", null)).containsExactly("serviceImpl");
+        proxy.save();
+        proxy.find();
+        assertThat(calls).containsExactly("a.save", "b.save", "b.find");
+
+        calls.clear();
+        registry.replace("a", "b", null, "hello.proxy.common");
+        assertThat(registry.getAdvisors()).containsEntry("serviceImpl", List.of("b"));
+
+        registry.remove("b", null, null);
+        proxy.save();
+        assertThat(calls).isEmpty();
+    }
+
+    @Test
+    void filterNotMatched() {
+        registry.defineAdvisor("b", advisor("b", "save"));
+        ServiceInterface proxy = proxy("serviceImpl", Map.of());
+
+        assertThat(registry.add("b", "order*", null)).isEmpty();
+        assertThat(registry.add("b", null, "hello.proxy.app")).isEmpty();
+        proxy.save();
+        assertThat(calls).isEmpty();
+    }
+
+    @Test
+    void inFlightCallKeepsItsChain() {
+        registry.defineAdvisor("b", advisor("b", "save"));
+        //첫번째 어드바이스 실행 중에 어드바이저를 바꿈 -> 이번 호출은 원래 체인(swap, a)을 끝까지 사용
+        MethodInterceptor swap = invocation -> {
+            calls.add("swap");
+            registry.replace("a", "b", null, null);
+            return invocation.proceed();
+        };
+        ServiceInterface proxy = proxy("serviceImpl", Map.of(
+                "swap", new DefaultPointcutAdvisor(swap)));
+        registry.defineAdvisor("a", advisor("a", "save"));
+        registry.add("a", null, null);
+
+        proxy.save();
+        assertThat(calls).containsExactly("swap", "a.save");
+
+        calls.clear();
+        proxy.save();
+        assertThat(calls).containsExactly("swap", "b.save");
+    }
+
+    private ServiceInterface proxy(String beanName, Map<String, Advisor> advisors) {
+        ServiceImpl target = new ServiceImpl();
+        ProxyFactory proxyFactory = new ProxyFactory(target);
+        proxyFactory.addAdvice(registry.register(beanName, target.getClass(), advisors));
+        return (ServiceInterface) proxyFactory.getProxy();
+    }
+
+    private Advisor advisor(String name, String... methodNames) {
+        NameMatchMethodPointcut pointcut = new NameMatchMethodPointcut();
+        pointcut.setMappedNames(methodNames);
+        MethodInterceptor advice = invocation -> {
+            calls.add(name + "." + invocation.getMethod().getName());
+            return invocation.proceed();
+        };
+        return new DefaultPointcutAdvisor(pointcut, advice);
+    }
+}
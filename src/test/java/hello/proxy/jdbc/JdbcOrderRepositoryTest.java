@@ -0,0 +1,106 @@
+package hello.proxy.jdbc;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import hello.proxy.app.v3.JdbcOrderRepositoryV3;
+import hello.proxy.app.v3.OrderRepositoryV3;
+import hello.proxy.infra.batch.GroupCommitter;
+import hello.proxy.infra.jdbc.JdbcOrderStore;
+import hello.proxy.infra.store.OrderRecord;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@Slf4j
+public class JdbcOrderRepositoryTest {
+
+    @TempDir
+    Path directory;
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(20);
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void perCallInsert() {
+        try (HikariDataSource dataSource = dataSource()) {
+            JdbcOrderStore store = new JdbcOrderStore(dataSource);
+            OrderRepositoryV3 repository = new JdbcOrderRepositoryV3(store, null);
+
+            repository.save("itemA");
+            repository.save("itemB");
+            repository.save("itemA");
+            assertThatThrownBy(() -> repository.save("ex")).isInstanceOf(IllegalStateException.class);
+
+            assertThat(repository.countOrders("itemA")).isEqualTo(2);
+            assertThat(repository.countOrders("itemC")).isZero();
+            assertThat(repository.findOrder("itemC")).isEmpty();
+            assertThat(store.getStatementCount()).isEqualTo(3);
+            assertThat(store.getInsertedRows()).isEqualTo(3);
+        }
+    }
+
+    @Test
+    void batchedInsertSharesStatements() throws Exception {
+        try (HikariDataSource dataSource = dataSource()) {
+            JdbcOrderStore store = new JdbcOrderStore(dataSource);
+            try (GroupCommitter<String> committer = new GroupCommitter<>("test", store, 100, Duration.ofMillis(20))) {
+                OrderRepositoryV3 repository = new JdbcOrderRepositoryV3(store, committer);
+
+                List<Future<?>> futures = new ArrayList<>();
+                for (int i = 0; i < 200; i++) {
+                    String itemId = "item" + (i % 10);
+                    futures.add(executor.submit(() -> repository.save(itemId)));
+                }
+                Future<?> ex = executor.submit(() -> repository.save("ex"));
+                for (Future<?> future : futures) {
+                    future.get();
+                }
+                assertThatThrownBy(ex::get).hasCauseInstanceOf(IllegalStateException.class);
+                log.info("{} {}", store, committer);
+
+                assertThat(store.getInsertedRows()).isEqualTo(200);
+                assertThat(store.getStatementCount()).isLessThan(200);
+                assertThat(repository.countOrders("item3")).isEqualTo(20);
+            }
+        }
+    }
+
+    @Test
+    void ordersSurviveRestart() {
+        OrderRecord latest;
+        try (HikariDataSource dataSource = dataSource()) {
+            OrderRepositoryV3 repository = new JdbcOrderRepositoryV3(new JdbcOrderStore(dataSource), null);
+            repository.save("itemA");
+            repository.save("itemA");
+            latest = repository.findOrder("itemA").orElseThrow();
+        }
+        try (HikariDataSource dataSource = dataSource()) {
+            OrderRepositoryV3 repository = new JdbcOrderRepositoryV3(new JdbcOrderStore(dataSource), null);
+            assertThat(repository.countOrders("itemA")).isEqualTo(2);
+            assertThat(repository.findOrder("itemA").orElseThrow().getOffset()).isEqualTo(latest.getOffset());
+        }
+    }
+
+    private HikariDataSource dataSource() {
+        HikariConfig config = new HikariConfig();
+        config.setJdbcUrl("jdbc:h2:file:" + directory.resolve("order-db").toAbsolutePath());
+        config.setMaximumPoolSize(5);
+        return new HikariDataSource(config);
+    }
+}
@@ -0,0 +1,91 @@
+package hello.proxy.lazy;
+
+import hello.proxy.common.service.ConcreteService;
+import hello.proxy.common.service.ServiceImpl;
+import hello.proxy.common.service.ServiceInterface;
+import hello.proxy.config.lazy.LazyAdvisedInvocationHandler;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.framework.AopInfrastructureBean;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.NameMatchMethodPointcut;
+
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class LazyProxyTest {
+
+    @Test
+    void adviceAppliedOnlyToMatchedMethod(){
+        AtomicInteger adviceCount = new AtomicInteger();
+        NameMatchMethodPointcut pointcut = new NameMatchMethodPointcut();
+        pointcut.setMappedNames("save");
+        MethodInterceptor advice = invocation -> {
+            adviceCount.incrementAndGet();
+            return invocation.proceed();
+        };
+        List<Advisor> advisors = List.of(new DefaultPointcutAdvisor(pointcut, advice));
+
+        ServiceInterface proxy = (ServiceInterface) LazyAdvisedInvocationHandler.createProxy(new ServiceImpl(), advisors);
+
+        //자동 프록시 생성기가 다시 감싸지 않도록 AopInfrastructureBean 을 구현
+        assertThat(proxy).isInstanceOf(AopInfrastructureBean.class);
+
+        proxy.save();
+        proxy.find();
+        proxy.save();
+        assertThat(adviceCount.get()).isEqualTo(2);
+    }
+
+    @Test
+    void methodMatchingDeferredToFirstCall(){
+        AtomicInteger matchCount = new AtomicInteger();
+        NameMatchMethodPointcut pointcut = new NameMatchMethodPointcut() {
+            @Override
+            public boolean matches(Method method, Class<?> targetClass) {
+                matchCount.incrementAndGet();
+                return super.matches(method, targetClass);
+            }
+        };
+        pointcut.setMappedNames("save");
+        List<Advisor> advisors = List.of(new DefaultPointcutAdvisor(pointcut, (MethodInterceptor) MethodInvocation::proceed));
+
+        ServiceInterface proxy = (ServiceInterface) LazyAdvisedInvocationHandler.createProxy(new ServiceImpl(), advisors);
+        //자리 표시자를 만들 때는 메서드 매칭을 하지 않음
+        assertThat(matchCount.get()).isZero();
+
+        proxy.save();
+        assertThat(matchCount.get()).isPositive();
+    }
+
+    @Test
+    void noMatchedMethodCallsTargetDirectly(){
+        AtomicInteger adviceCount = new AtomicInteger();
+        NameMatchMethodPointcut pointcut = new NameMatchMethodPointcut();
+        pointcut.setMappedNames("none");
+        MethodInterceptor advice = invocation -> {
+            adviceCount.incrementAndGet();
+            return invocation.proceed();
+        };
+
+        //클래스 조건은 통과하므로 자리 표시자는 만들어짐
+        ServiceInterface proxy = (ServiceInterface) LazyAdvisedInvocationHandler.createProxy(new ServiceImpl(),
+                List.of(new DefaultPointcutAdvisor(pointcut, advice)));
+        proxy.save();
+        proxy.find();
+
+        assertThat(adviceCount.get()).isZero();
+    }
+
+    @Test
+    void noInterface(){
+        //인터페이스가 없으면 자리 표시자를 만들 수 없음 -> 호출한 쪽에서 바로 프록시 생성
+        Object proxy = LazyAdvisedInvocationHandler.createProxy(new ConcreteService(), List.of());
+        assertThat(proxy).isNull();
+    }
+}
@@ -0,0 +1,117 @@
+package hello.proxy.limit;
+
+import hello.proxy.config.v3_proxyfactory.advice.ConcurrencyLimitAdvice;
+import hello.proxy.config.v3_proxyfactory.advice.limit.FixedLimit;
+import hello.proxy.config.v3_proxyfactory.advice.limit.GradientLimit;
+import hello.proxy.config.v3_proxyfactory.advice.limit.VegasLimit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.ProxyFactory;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class ConcurrencyLimitAdviceTest {
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void rejectOverLimit() throws Exception {
+        BlockingRepository target = new BlockingRepository();
+        ConcurrencyLimitAdvice advice = new ConcurrencyLimitAdvice(new FixedLimit(2));
+        BlockingRepository proxy = proxy(target, advice);
+
+        Future<String> first = executor.submit(proxy::save);
+        Future<String> second = executor.submit(proxy::save);
+        target.started.await();
+
+        assertThatThrownBy(proxy::save).isInstanceOf(ConcurrencyLimitAdvice.LimitExceededException.class);
+        assertThat(advice.getInFlight()).isEqualTo(2);
+        assertThat(advice.getRejectedCount()).isEqualTo(1);
+
+        target.release.countDown();
+        assertThat(first.get()).isEqualTo("ok");
+        assertThat(second.get()).isEqualTo("ok");
+        assertThat(advice.getInFlight()).isZero();
+    }
+
+    @Test
+    void queuedUntilReleased() throws Exception {
+        BlockingRepository target = new BlockingRepository();
+        ConcurrencyLimitAdvice advice = new ConcurrencyLimitAdvice(new FixedLimit(2), 1, Duration.ofSeconds(5));
+        BlockingRepository proxy = proxy(target, advice);
+
+        Future<String> first = executor.submit(proxy::save);
+        Future<String> second = executor.submit(proxy::save);
+        target.started.await();
+        //대기열에 들어감
+        Future<String> third = executor.submit(proxy::save);
+        while (advice.getQueued() == 0) {
+            Thread.sleep(1);
+        }
+        //대기열이 가득 참 -> 바로 거절
+        assertThatThrownBy(proxy::save).isInstanceOf(ConcurrencyLimitAdvice.LimitExceededException.class);
+
+        target.release.countDown();
+        assertThat(first.get()).isEqualTo("ok");
+        assertThat(second.get()).isEqualTo("ok");
+        assertThat(third.get()).isEqualTo("ok");
+        assertThat(advice.getAcceptedCount()).isEqualTo(3);
+    }
+
+    @Test
+    void vegasShrinksWhenLatencyGrows() {
+        VegasLimit limit = new VegasLimit(20, 1, 200);
+        limit.onSample(1_000_000, 20);
+        //대기 없는 rtt -> limit 증가
+        limit.onSample(1_000_000, 20);
+        assertThat(limit.getLimit()).isGreaterThan(20);
+
+        //rtt 가 10배로 늘어남 -> limit 감소
+        int before = limit.getLimit();
+        limit.onSample(10_000_000, before);
+        assertThat(limit.getLimit()).isLessThan(before);
+    }
+
+    @Test
+    void gradientShrinksWhenLatencyGrows() {
+        GradientLimit limit = new GradientLimit(50, 1, 200);
+        for (int i = 0; i < 100; i++) {
+            limit.onSample(1_000_000, 50);
+        }
+        int before = limit.getLimit();
+        for (int i = 0; i < 20; i++) {
+            limit.onSample(20_000_000, limit.getLimit());
+        }
+        assertThat(limit.getLimit()).isLessThan(before);
+    }
+
+    private static BlockingRepository proxy(BlockingRepository target, ConcurrencyLimitAdvice advice) {
+        ProxyFactory proxyFactory = new ProxyFactory(target);
+        proxyFactory.addAdvice(advice);
+        return (BlockingRepository) proxyFactory.getProxy();
+    }
+
+    static class BlockingRepository {
+
+        private final CountDownLatch started = new CountDownLatch(2);
+        private final CountDownLatch release = new CountDownLatch(1);
+
+        public String save() throws InterruptedException {
+            started.countDown();
+            release.await();
+            return "ok";
+        }
+    }
+}
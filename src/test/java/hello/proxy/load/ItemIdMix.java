@@ -0,0 +1,77 @@
+package hello.proxy.load;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * 부하 생성기가 요청마다 사용할 itemId 분포
+ * - uniform : item0 ~ item{keys-1} 를 고르게 사용
+ * - zipf    : 앞쪽 itemId 에 요청이 몰림 (k 번째 itemId 의 비율이 1/k^exponent 에 비례)
+ * - exRatio 비율만큼은 "ex" 를 사용해서 저장소의 예외 경로(추적기의 exception 로그)를 같이 지나가게 함
+ */
+public class ItemIdMix {
+
+    public static final String ERROR_ITEM = "ex";
+
+    private final String[] itemIds;
+    private final double[] cumulative; //uniform 이면 null
+    private final double exRatio;
+
+    private ItemIdMix(int keys, double[] cumulative, double exRatio) {
+        if (keys < 1) {
+            throw new IllegalArgumentException("keys must be positive: " + keys);
+        }
+        if (exRatio < 0 || exRatio > 1) {
+            throw new IllegalArgumentException("exRatio must be between 0 and 1: " + exRatio);
+        }
+        this.itemIds = new String[keys];
+        for (int i = 0; i < keys; i++) {
+            itemIds[i] = "item" + i;
+        }
+        this.cumulative = cumulative;
+        this.exRatio = exRatio;
+    }
+
+    public static ItemIdMix uniform(int keys, double exRatio) {
+        return new ItemIdMix(keys, null, exRatio);
+    }
+
+    public static ItemIdMix zipf(int keys, double exponent, double exRatio) {
+        double[] cumulative = new double[keys];
+        double sum = 0;
+        for (int k = 0; k < keys; k++) {
+            sum += 1 / Math.pow(k + 1, exponent);
+            cumulative[k] = sum;
+        }
+        for (int k = 0; k < keys; k++) {
+            cumulative[k] /= sum;
+        }
+        return new ItemIdMix(keys, cumulative, exRatio);
+    }
+
+    /**
+     * (ex) uniform, zipf
+     */
+    public static ItemIdMix of(String distribution, int keys, double exRatio) {
+        switch (distribution) {
+            case "uniform":
+                return uniform(keys, exRatio);
+            case "zipf":
+                return zipf(keys, 1.0, exRatio);
+            default:
+                throw new IllegalArgumentException("unknown item distribution: " + distribution);
+        }
+    }
+
+    public String next(Random random) {
+        if (exRatio > 0 && random.nextDouble() < exRatio) {
+            return ERROR_ITEM;
+        }
+        if (cumulative == null) {
+            return itemIds[random.nextInt(itemIds.length)];
+        }
+        int index = Arrays.binarySearch(cumulative, random.nextDouble());
+        //찾지 못하면 (-(삽입 위치) - 1)
+        return itemIds[Math.min(index < 0 ? -index - 1 : index, itemIds.length - 1)];
+    }
+}
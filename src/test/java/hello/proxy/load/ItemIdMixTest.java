@@ -0,0 +1,55 @@
+package hello.proxy.load;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class ItemIdMixTest {
+
+    private static final int SAMPLES = 100_000;
+
+    @Test
+    void exRatioIsRespected() {
+        Map<String, Integer> counts = sample(ItemIdMix.uniform(100, 0.1));
+
+        assertThat(counts.get(ItemIdMix.ERROR_ITEM)).isBetween(9_000, 11_000);
+    }
+
+    @Test
+    void zipfConcentratesOnFirstItems() {
+        Map<String, Integer> counts = sample(ItemIdMix.zipf(1000, 1.0, 0));
+
+        //item0 의 비율은 1/H(1000) (약 13%)
+        assertThat(counts.get("item0")).isBetween(12_000, 15_500);
+        assertThat(counts.get("item0")).isGreaterThan(counts.get("item1"));
+        assertThat(counts).doesNotContainKey(ItemIdMix.ERROR_ITEM);
+    }
+
+    @Test
+    void uniformUsesAllItems() {
+        Map<String, Integer> counts = sample(ItemIdMix.uniform(10, 0));
+
+        assertThat(counts).hasSize(10);
+        assertThat(counts.values()).allMatch(count -> count > 9_000 && count < 11_000);
+    }
+
+    @Test
+    void unknownDistributionFails() {
+        assertThatThrownBy(() -> ItemIdMix.of("gaussian", 10, 0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static Map<String, Integer> sample(ItemIdMix mix) {
+        Random random = new Random(42);
+        Map<String, Integer> counts = new HashMap<>();
+        for (int i = 0; i < SAMPLES; i++) {
+            counts.merge(mix.next(random), 1, Integer::sum);
+        }
+        return counts;
+    }
+}
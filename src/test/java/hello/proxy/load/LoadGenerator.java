@@ -0,0 +1,472 @@
+package hello.proxy.load;
+
+import hello.proxy.ProxyApplication;
+import hello.proxy.config.ProxyConfigSelector;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.zip.DataFormatException;
+
+/**
+ * HTTP 부하 생성기 - 로그 추적을 켜고 끈 상태의 응답 시간 꼬리(p99, p99.9)와 처리량 비교 (build.gradle 의 loadGenerator 태스크에서 실행)
+ * - tracing 에 적은 모드마다 새 JVM 에서 애플리케이션을 임의 포트로 띄우고, warmup 후 duration 동안 부하를 주고 종료함
+ *   (앞 모드의 JIT, 클래스 로딩, 힙 상태가 다음 모드의 측정값에 섞이지 않게 함)
+ *   app (추적 없음) | proxy.config 의 다른 값 (ex. aop, auto-proxy) | interceptor (aop + trace.aop.advice-style=interceptor)
+ * - loop=open   : 정해진 도착률(rate, 초당 요청 수)로 요청. 응답을 기다리지 않으므로 서버가 느려져도 요청은 계속 도착함
+ *                 응답 시간은 "보내려고 했던 시각"부터 잼 -> 생성기가 밀려서 늦게 보낸 시간도 포함 (coordinated omission 보정)
+ * - loop=closed : connections 개의 스레드가 응답을 받으면 바로 다음 요청 (서버가 느려지면 요청도 줄어듦)
+ *                 측정값은 warmup 의 엔드포인트별 중앙값을 기대 간격으로 HdrHistogram 의 coordinated omission 보정을 적용
+ * - 엔드포인트는 endpoints 중에서 고르게, itemId 는 ItemIdMix(items=uniform|zipf, keys, ex 비율)로 고름
+ *   "ex" 요청은 500 응답이므로 errors 로 집계하지만 응답 시간은 같이 기록함
+ * - 결과 : 모드 x 엔드포인트 별 요청 수, 오류 수, 처리량, p50/p99/p99.9/max (ms). 첫 모드 대비 p99 배율
+ *   {out}/{모드}.log 에 JVM 로그, {out}/{모드}_{엔드포인트}.hgrm 에 백분위 분포, {out}/{모드}.properties 에 모드별 결과를 남기고
+ *   표는 부모 JVM 이 모드별 결과 파일을 모아서 출력함
+ *
+ * 사용법: LoadGenerator [key=value ...]
+ *   loop=open rate=100 connections=32 warmup=10 duration=30 tracing=app,aop,interceptor
+ *   endpoints=/v1/request,/v2/request,/v3/request,/v1/no-log,/v2/no-log,/v3/no-log items=uniform keys=1000 ex=0.05 out=build/load-generator
+ *        LoadGenerator --run {모드} [key=value ...]  (새 JVM 에서 실행되는 쪽)
+ * (주의) /vN/request 는 저장소에서 1초 대기하므로 Tomcat 스레드 수(기본 200)를 넘는 도착률은 대기열에 쌓임
+ */
+public class LoadGenerator {
+
+    private static final long HIGHEST_MICROS = TimeUnit.MINUTES.toMicros(2);
+
+    public static void main(String[] args) throws Exception {
+        if (args.length >= 2 && args[0].equals("--run")) {
+            runOnce(args[1], Options.parse(Arrays.copyOfRange(args, 2, args.length)));
+            return;
+        }
+        Options options = Options.parse(args);
+        Files.createDirectories(options.out);
+
+        Map<String, Result> results = new LinkedHashMap<>();
+        for (String mode : options.tracing) {
+            System.out.printf("%s : warmup %ds, measure %ds (%s)%n", mode, options.warmup, options.duration, options.describeLoop());
+            Path result = options.out.resolve(mode + ".properties");
+            fork(mode, args, result, options.out.resolve(mode + ".log"));
+            results.put(mode, Result.load(result, options.endpoints));
+        }
+        printTable(results, options);
+    }
+
+    /**
+     * 같은 클래스패스로 새 JVM 을 띄워서 --run 으로 한 모드를 측정. 옵션은 그대로 넘김
+     */
+    private static void fork(String mode, String[] args, Path result, Path log) throws IOException, InterruptedException {
+        String java = Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+        List<String> command = new ArrayList<>(List.of(java, "-cp", System.getProperty("java.class.path"),
+                LoadGenerator.class.getName(), "--run", mode));
+        command.addAll(Arrays.asList(args));
+        Files.deleteIfExists(result);
+        Process process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(log.toFile())
+                .start();
+        if (process.waitFor() != 0 || !Files.exists(result)) {
+            throw new IllegalStateException(mode + " failed, see " + log);
+        }
+    }
+
+    private static void runOnce(String mode, Options options) throws Exception {
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        ConfigurableApplicationContext context = boot(mode);
+        try {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            Run warmup = drive(options, client, port, options.warmup);
+            Run measured = drive(options, client, port, options.duration);
+            if (!options.open) {
+                measured.correct(warmup);
+            }
+            measured.writeDistributions(options.out, mode);
+            measured.result().store(options.out.resolve(mode + ".properties"), mode);
+        } finally {
+            context.close();
+        }
+    }
+
+    /**
+     * 애플리케이션 로그는 콘솔로 남기고, 부모 JVM 이 {out}/{모드}.log 로 받음 (추적 로그 비용은 그대로 포함)
+     */
+    private static ConfigurableApplicationContext boot(String mode) {
+        List<String> properties = new ArrayList<>(List.of(
+                "server.port=0",
+                "spring.main.banner-mode=off"));
+        if (mode.equals("interceptor")) {
+            properties.add(ProxyConfigSelector.PROPERTY + "=aop");
+            properties.add("trace.aop.advice-style=interceptor");
+        } else {
+            properties.add(ProxyConfigSelector.PROPERTY + "=" + mode);
+        }
+        return new SpringApplicationBuilder(ProxyApplication.class)
+                .properties(properties.toArray(new String[0]))
+                .run();
+    }
+
+    private static Run drive(Options options, HttpClient client, int port, int seconds) throws InterruptedException {
+        Run run = new Run(options.endpoints, options.open);
+        long start = System.nanoTime();
+        long end = start + TimeUnit.SECONDS.toNanos(seconds);
+        if (options.open) {
+            driveOpen(options, client, port, run, start, end);
+        } else {
+            driveClosed(options, client, port, run, end);
+        }
+        run.elapsedNanos = System.nanoTime() - start;
+        return run;
+    }
+
+    /**
+     * 요청 i 는 start + i * period 에 보내려고 함. 생성기가 늦어져도 그 시각부터 응답 시간을 잼
+     */
+    private static void driveOpen(Options options, HttpClient client, int port, Run run, long start, long end) throws InterruptedException {
+        long period = TimeUnit.SECONDS.toNanos(1) / options.rate;
+        AtomicInteger inFlight = new AtomicInteger();
+        Random random = ThreadLocalRandom.current();
+        for (long i = 0; ; i++) {
+            long intended = start + i * period;
+            if (intended >= end) {
+                break;
+            }
+            long wait;
+            while ((wait = intended - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            String endpoint = options.pickEndpoint(random);
+            HttpRequest request = request(port, endpoint, options.items.next(random));
+            long sent = System.nanoTime();
+            inFlight.incrementAndGet();
+            client.sendAsync(request, HttpResponse.BodyHandlers.discarding()).whenComplete((response, error) -> {
+                run.record(endpoint, intended, sent, System.nanoTime(), error == null && response.statusCode() == 200);
+                inFlight.decrementAndGet();
+            });
+        }
+        //남은 응답을 기다림
+        long deadline = System.nanoTime() + TimeUnit.MINUTES.toNanos(2);
+        while (inFlight.get() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+
+    private static void driveClosed(Options options, HttpClient client, int port, Run run, long end) throws InterruptedException {
+        ExecutorService connections = Executors.newFixedThreadPool(options.connections);
+        for (int c = 0; c < options.connections; c++) {
+            connections.execute(() -> {
+                Random random = ThreadLocalRandom.current();
+                while (System.nanoTime() < end) {
+                    String endpoint = options.pickEndpoint(random);
+                    HttpRequest request = request(port, endpoint, options.items.next(random));
+                    long sent = System.nanoTime();
+                    boolean success;
+                    try {
+                        success = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200;
+                    } catch (IOException e) {
+                        success = false;
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                    run.record(endpoint, sent, sent, System.nanoTime(), success);
+                }
+            });
+        }
+        connections.shutdown();
+        connections.awaitTermination(2, TimeUnit.MINUTES);
+    }
+
+    private static HttpRequest request(int port, String endpoint, String itemId) {
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + port + endpoint + "?itemId=" + itemId))
+                .timeout(Duration.ofMinutes(1))
+                .build();
+    }
+
+    private static void printTable(Map<String, Result> results, Options options) {
+        String baseline = results.keySet().iterator().next();
+        System.out.println();
+        System.out.printf("%-12s %-14s %9s %7s %9s %9s %9s %9s %9s %10s%n",
+                "tracing", "endpoint", "requests", "errors", "req/s", "p50(ms)", "p99(ms)", "p99.9(ms)", "max(ms)", "p99/" + baseline);
+        for (Map.Entry<String, Result> entry : results.entrySet()) {
+            Result run = entry.getValue();
+            for (String endpoint : options.endpoints) {
+                Histogram latency = run.latency(endpoint);
+                Histogram base = results.get(baseline).latency(endpoint);
+                double p99 = millis(latency.getValueAtPercentile(99));
+                double baseP99 = millis(base.getValueAtPercentile(99));
+                System.out.printf("%-12s %-14s %9d %7d %9.1f %9.2f %9.2f %9.2f %9.2f %10s%n",
+                        entry.getKey(), endpoint,
+                        run.count(endpoint), run.errors(endpoint),
+                        run.count(endpoint) / (run.elapsedNanos / 1e9),
+                        millis(latency.getValueAtPercentile(50)), p99,
+                        millis(latency.getValueAtPercentile(99.9)), millis(latency.getMaxValue()),
+                        baseP99 == 0 ? "-" : String.format("x%.2f", p99 / baseP99));
+            }
+        }
+        System.out.println("(" + options.describeLoop() + ", latency corrected for coordinated omission, distributions in " + options.out.toAbsolutePath() + ")");
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+
+    /**
+     * 한 번의 부하 구간 결과. 엔드포인트별 응답 시간(us)
+     * - intended : 보내려고 했던 시각부터 (open)
+     * - service  : 실제로 보낸 시각부터 (보정 전)
+     */
+    static class Run {
+
+        private final Map<String, Histogram> intended = new LinkedHashMap<>();
+        private final Map<String, Histogram> service = new LinkedHashMap<>();
+        private final Map<String, Histogram> corrected = new LinkedHashMap<>();
+        private final Map<String, LongAdder> counts = new LinkedHashMap<>();
+        private final Map<String, LongAdder> errors = new LinkedHashMap<>();
+        private final boolean open;
+        private long elapsedNanos;
+
+        Run(List<String> endpoints, boolean open) {
+            this.open = open;
+            for (String endpoint : endpoints) {
+                intended.put(endpoint, new ConcurrentHistogram(HIGHEST_MICROS, 3));
+                service.put(endpoint, new ConcurrentHistogram(HIGHEST_MICROS, 3));
+                counts.put(endpoint, new LongAdder());
+                errors.put(endpoint, new LongAdder());
+            }
+        }
+
+        void record(String endpoint, long intendedNanos, long sentNanos, long doneNanos, boolean success) {
+            intended.get(endpoint).recordValue(Math.min(HIGHEST_MICROS, (doneNanos - intendedNanos) / 1000));
+            service.get(endpoint).recordValue(Math.min(HIGHEST_MICROS, (doneNanos - sentNanos) / 1000));
+            counts.get(endpoint).increment();
+            if (!success) {
+                errors.get(endpoint).increment();
+            }
+        }
+
+        /**
+         * closed loop : warmup 의 중앙값을 요청 간 기대 간격으로 보고, 그보다 긴 응답 동안 보내지 못한 요청을 채워 넣음
+         */
+        void correct(Run warmup) {
+            for (Map.Entry<String, Histogram> entry : service.entrySet()) {
+                long expectedInterval = Math.max(1, warmup.service.get(entry.getKey()).getValueAtPercentile(50));
+                corrected.put(entry.getKey(), entry.getValue().copyCorrectedForCoordinatedOmission(expectedInterval));
+            }
+        }
+
+        Histogram latency(String endpoint) {
+            if (open) {
+                return intended.get(endpoint);
+            }
+            return corrected.getOrDefault(endpoint, service.get(endpoint));
+        }
+
+        long count(String endpoint) {
+            return counts.get(endpoint).sum();
+        }
+
+        long errors(String endpoint) {
+            return errors.get(endpoint).sum();
+        }
+
+        Result result() {
+            Result result = new Result(elapsedNanos);
+            for (String endpoint : service.keySet()) {
+                result.put(endpoint, latency(endpoint), count(endpoint), errors(endpoint));
+            }
+            return result;
+        }
+
+        void writeDistributions(Path out, String mode) throws IOException {
+            for (String endpoint : service.keySet()) {
+                Path file = out.resolve(mode + endpoint.replace('/', '_') + ".hgrm");
+                try (PrintStream stream = new PrintStream(Files.newOutputStream(file))) {
+                    stream.println("# corrected (ms)");
+                    latency(endpoint).outputPercentileDistribution(stream, 1000.0);
+                    stream.println("# service time, not corrected (ms)");
+                    service.get(endpoint).outputPercentileDistribution(stream, 1000.0);
+                }
+            }
+        }
+    }
+
+    /**
+     * 한 모드의 측정 결과. 자식 JVM 이 properties 로 저장하고 부모 JVM 이 읽어서 표로 모음
+     * - 응답 시간 분포는 HdrHistogram 압축 인코딩을 Base64 로 저장 (보정 후 값)
+     */
+    static class Result {
+
+        private final Map<String, Histogram> latency = new LinkedHashMap<>();
+        private final Map<String, Long> counts = new LinkedHashMap<>();
+        private final Map<String, Long> errors = new LinkedHashMap<>();
+        private final long elapsedNanos;
+
+        Result(long elapsedNanos) {
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        void put(String endpoint, Histogram histogram, long count, long errorCount) {
+            latency.put(endpoint, histogram);
+            counts.put(endpoint, count);
+            errors.put(endpoint, errorCount);
+        }
+
+        Histogram latency(String endpoint) {
+            return latency.get(endpoint);
+        }
+
+        long count(String endpoint) {
+            return counts.get(endpoint);
+        }
+
+        long errors(String endpoint) {
+            return errors.get(endpoint);
+        }
+
+        void store(Path file, String mode) throws IOException {
+            Properties properties = new Properties();
+            properties.setProperty("elapsedNanos", String.valueOf(elapsedNanos));
+            for (Map.Entry<String, Histogram> entry : latency.entrySet()) {
+                String endpoint = entry.getKey();
+                Histogram histogram = entry.getValue();
+                ByteBuffer buffer = ByteBuffer.allocate(histogram.getNeededByteBufferCapacity());
+                int length = histogram.encodeIntoCompressedByteBuffer(buffer);
+                properties.setProperty(endpoint + ".count", String.valueOf(counts.get(endpoint)));
+                properties.setProperty(endpoint + ".errors", String.valueOf(errors.get(endpoint)));
+                properties.setProperty(endpoint + ".latency", Base64.getEncoder().encodeToString(Arrays.copyOf(buffer.array(), length)));
+            }
+            try (Writer writer = Files.newBufferedWriter(file)) {
+                properties.store(writer, mode);
+            }
+        }
+
+        static Result load(Path file, List<String> endpoints) throws IOException, DataFormatException {
+            Properties properties = new Properties();
+            try (Reader reader = Files.newBufferedReader(file)) {
+                properties.load(reader);
+            }
+            Result result = new Result(Long.parseLong(properties.getProperty("elapsedNanos")));
+            for (String endpoint : endpoints) {
+                byte[] encoded = Base64.getDecoder().decode(properties.getProperty(endpoint + ".latency"));
+                result.put(endpoint,
+                        Histogram.decodeFromCompressedByteBuffer(ByteBuffer.wrap(encoded), HIGHEST_MICROS),
+                        Long.parseLong(properties.getProperty(endpoint + ".count")),
+                        Long.parseLong(properties.getProperty(endpoint + ".errors")));
+            }
+            return result;
+        }
+    }
+
+    static class Options {
+
+        boolean open = true;
+        int rate = 100;
+        int connections = 32;
+        int warmup = 10;
+        int duration = 30;
+        List<String> tracing = List.of("app", "aop", "interceptor");
+        List<String> endpoints = List.of("/v1/request", "/v2/request", "/v3/request", "/v1/no-log", "/v2/no-log", "/v3/no-log");
+        ItemIdMix items;
+        Path out = Paths.get("build", "load-generator");
+
+        static Options parse(String[] args) {
+            Options options = new Options();
+            String distribution = "uniform";
+            int keys = 1000;
+            double exRatio = 0.05;
+            for (String arg : args) {
+                int separator = arg.indexOf('=');
+                if (separator < 0) {
+                    throw new IllegalArgumentException("expected key=value: " + arg);
+                }
+                String key = arg.substring(0, separator);
+                String value = arg.substring(separator + 1);
+                switch (key) {
+                    case "loop":
+                        if (!value.equals("open") && !value.equals("closed")) {
+                            throw new IllegalArgumentException("loop must be open or closed: " + value);
+                        }
+                        options.open = value.equals("open");
+                        break;
+                    case "rate":
+                        options.rate = Integer.parseInt(value);
+                        break;
+                    case "connections":
+                        options.connections = Integer.parseInt(value);
+                        break;
+                    case "warmup":
+                        options.warmup = Integer.parseInt(value);
+                        break;
+                    case "duration":
+                        options.duration = Integer.parseInt(value);
+                        break;
+                    case "tracing":
+                        options.tracing = Arrays.asList(value.split(","));
+                        break;
+                    case "endpoints":
+                        options.endpoints = Arrays.asList(value.split(","));
+                        break;
+                    case "items":
+                        distribution = value;
+                        break;
+                    case "keys":
+                        keys = Integer.parseInt(value);
+                        break;
+                    case "ex":
+                        exRatio = Double.parseDouble(value);
+                        break;
+                    case "out":
+                        options.out = Paths.get(value);
+                        break;
+                    default:
+                        throw new IllegalArgumentException("unknown option: " + key);
+                }
+            }
+            if (options.rate < 1 || options.connections < 1) {
+                throw new IllegalArgumentException("rate and connections must be positive");
+            }
+            options.items = ItemIdMix.of(distribution, keys, exRatio);
+            return options;
+        }
+
+        String pickEndpoint(Random random) {
+            return endpoints.get(random.nextInt(endpoints.size()));
+        }
+
+        String describeLoop() {
+            return open ? "open loop " + rate + " req/s" : "closed loop " + connections + " connections";
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package hello.proxy.partition;
+
+import hello.proxy.app.v2.OrderControllerV2;
+import hello.proxy.app.v2.OrderRepositoryV2;
+import hello.proxy.app.v2.OrderServiceV2;
+import hello.proxy.infra.partition.PartitionedExecutor;
+import hello.proxy.trace.TraceId;
+import hello.proxy.trace.logtrace.LogTrace;
+import hello.proxy.trace.logtrace.LogTraceTaskDecorator;
+import hello.proxy.trace.logtrace.ThreadLocalLogTrace;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class PartitionedExecutorTest {
+
+    @Test
+    void sameKeyRunsInOrderOnOneThread() throws Exception {
+        try (PartitionedExecutor executor = new PartitionedExecutor("test", 4, 1000, runnable -> runnable)) {
+            //shard 스레드만 사용하므로 동기화하지 않은 리스트여도 안전
+            List<Integer> applied = new ArrayList<>();
+            List<String> threads = new ArrayList<>();
+            List<CompletableFuture<Void>> futures = new ArrayList<>();
+            for (int i = 0; i < 100; i++) {
+                int sequence = i;
+                futures.add(executor.execute("itemA", () -> {
+                    applied.add(sequence);
+                    threads.add(Thread.currentThread().getName());
+                }));
+            }
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).get(5, TimeUnit.SECONDS);
+
+            assertThat(applied).hasSize(100).isSorted();
+            assertThat(threads).containsOnly("partition-test-" + executor.shardOf("itemA"));
+        }
+    }
+
+    @Test
+    void differentShardsRunInParallel() throws Exception {
+        try (PartitionedExecutor executor = new PartitionedExecutor("test", 4, 1000, runnable -> runnable)) {
+            String first = "itemA";
+            String second = keyOnOtherShard(executor, first);
+            CountDownLatch bothRunning = new CountDownLatch(2);
+
+            CompletableFuture<Boolean> a = executor.submit(first, () -> await(bothRunning));
+            CompletableFuture<Boolean> b = executor.submit(second, () -> await(bothRunning));
+
+            assertThat(a.get(5, TimeUnit.SECONDS)).isTrue();
+            assertThat(b.get(5, TimeUnit.SECONDS)).isTrue();
+        }
+    }
+
+    @Test
+    void fullShardRejectsAndQueueDepthIsVisible() throws Exception {
+        try (PartitionedExecutor executor = new PartitionedExecutor("test", 1, 2, runnable -> runnable)) {
+            CountDownLatch release = new CountDownLatch(1);
+            CountDownLatch started = new CountDownLatch(1);
+            executor.execute("itemA", () -> {
+                started.countDown();
+                block(release);
+            });
+            started.await();
+            executor.execute("itemA", () -> { });
+            executor.execute("itemA", () -> { });
+            CompletableFuture<Void> rejected = executor.execute("itemA", () -> { });
+
+            assertThat(executor.getQueueDepths()).containsExactly(2);
+            assertThat(executor.getMaxQueueDepths()).containsExactly(2L);
+            assertThat(executor.getRejectedCount()).isEqualTo(1);
+            assertThatThrownBy(rejected::join).hasCauseInstanceOf(RejectedExecutionException.class);
+            release.countDown();
+        }
+    }
+
+    @Test
+    void traceContinuesOnShardThread() throws Exception {
+        LogTrace logTrace = new ThreadLocalLogTrace();
+        CapturingRepository repository = new CapturingRepository(logTrace);
+        try (PartitionedExecutor executor = new PartitionedExecutor("test", 2, 100, new LogTraceTaskDecorator(logTrace))) {
+            OrderControllerV2 controller = new OrderControllerV2(new OrderServiceV2(repository), executor, null);
+
+            TraceId requestTraceId = new TraceId();
+            TraceId previous = logTrace.attach(requestTraceId);
+            CompletableFuture<String> result;
+            try {
+                result = controller.requestAsync("itemA");
+            } finally {
+                logTrace.restore(previous);
+            }
+
+            assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo("ok");
+            assertThat(repository.traceId.get().getId()).isEqualTo(requestTraceId.getId());
+            assertThat(repository.thread.get()).startsWith("partition-test-");
+        }
+    }
+
+    private static String keyOnOtherShard(PartitionedExecutor executor, String key) {
+        for (int i = 0; ; i++) {
+            String candidate = "item" + i;
+            if (executor.shardOf(candidate) != executor.shardOf(key)) {
+                return candidate;
+            }
+        }
+    }
+
+    /**
+     * 두 작업이 동시에 실행 중이어야 통과
+     */
+    private static boolean await(CountDownLatch latch) {
+        latch.countDown();
+        return block(latch);
+    }
+
+    private static boolean block(CountDownLatch latch) {
+        try {
+            return latch.await(Duration.ofSeconds(5).toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    static class CapturingRepository extends OrderRepositoryV2 {
+
+        private final LogTrace logTrace;
+        private final AtomicReference<TraceId> traceId = new AtomicReference<>();
+        private final AtomicReference<String> thread = new AtomicReference<>();
+
+        CapturingRepository(LogTrace logTrace) {
+            this.logTrace = logTrace;
+        }
+
+        @Override
+        public void save(String itemId) {
+            traceId.set(logTrace.currentTraceId());
+            thread.set(Thread.currentThread().getName());
+        }
+    }
+}
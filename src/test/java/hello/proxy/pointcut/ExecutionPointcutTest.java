@@ -0,0 +1,80 @@
+package hello.proxy.pointcut;
+
+import hello.proxy.app.v1.OrderControllerV1Impl;
+import hello.proxy.app.v1.OrderRepositoryV1Impl;
+import hello.proxy.app.v1.OrderServiceV1Impl;
+import hello.proxy.app.v2.OrderControllerV2;
+import hello.proxy.app.v2.OrderRepositoryV2;
+import hello.proxy.app.v2.OrderServiceV2;
+import hello.proxy.app.v3.OrderControllerV3;
+import hello.proxy.common.service.ServiceImpl;
+import hello.proxy.config.pointcut.ExecutionPointcut;
+import hello.proxy.config.pointcut.TracePointcuts;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.Pointcut;
+import org.springframework.aop.aspectj.AspectJExpressionPointcut;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Method;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * ExecutionPointcut 은 지원하는 표현식에 대해 AspectJExpressionPointcut 과 같은 결과를 내야 함
+ * (매칭 비용 비교는 src/jmh 의 PointcutMatchingBenchmark)
+ */
+public class ExecutionPointcutTest {
+
+    private static final List<String> EXPRESSIONS = List.of(
+            TracePointcuts.APP,
+            TracePointcuts.APP_EXCEPT_NO_LOG,
+            "execution(* hello.proxy.app..*Service*.order*(String))",
+            "execution(public void hello.proxy.app.v1.OrderRepositoryV1.save(..))",
+            "execution(* hello.proxy.app.v2.*.*(*)) || execution(* hello.proxy.app.v3..request(..))",
+            "!(execution(* hello.proxy.app..noLog()) || execution(* *..ServiceImpl.find(..)))",
+            "execution(String hello.proxy.app..*(java.lang.String, ..))"
+    );
+
+    private static final List<Class<?>> TARGETS = List.of(
+            OrderControllerV1Impl.class, OrderServiceV1Impl.class, OrderRepositoryV1Impl.class,
+            OrderControllerV2.class, OrderServiceV2.class, OrderRepositoryV2.class,
+            OrderControllerV3.class, ServiceImpl.class
+    );
+
+    @Test
+    void sameResultAsAspectJ() {
+        for (String expression : EXPRESSIONS) {
+            ExecutionPointcut pointcut = ExecutionPointcut.parse(expression);
+            Pointcut aspectJ = aspectJ(expression);
+            for (Class<?> target : TARGETS) {
+                boolean anyMatched = false;
+                for (Method method : ReflectionUtils.getAllDeclaredMethods(target)) {
+                    boolean expected = aspectJ.getMethodMatcher().matches(method, target);
+                    anyMatched |= expected;
+                    assertThat(pointcut.matches(method, target))
+                            .as("%s.%s %s", target.getSimpleName(), method.getName(), expression)
+                            .isEqualTo(expected);
+                }
+                //클래스 필터는 보수적으로 판단함 -> 매칭되는 메서드가 있는 클래스는 반드시 통과해야 함
+                if (anyMatched) {
+                    assertThat(pointcut.matches(target)).as("class %s %s", target.getSimpleName(), expression).isTrue();
+                }
+            }
+        }
+    }
+
+    @Test
+    void unsupportedExpressionFallsBackToAspectJ() {
+        assertThat(ExecutionPointcut.forExpression(TracePointcuts.APP)).isInstanceOf(ExecutionPointcut.class);
+        assertThat(ExecutionPointcut.forExpression("within(hello.proxy.app..*)")).isInstanceOf(AspectJExpressionPointcut.class);
+        assertThat(ExecutionPointcut.forExpression("execution(* hello.proxy.app..*(..)) && args(itemId)")).isInstanceOf(AspectJExpressionPointcut.class);
+        assertThat(ExecutionPointcut.forExpression("execution(* *(..) throws Exception)")).isInstanceOf(AspectJExpressionPointcut.class);
+    }
+
+    private static Pointcut aspectJ(String expression) {
+        AspectJExpressionPointcut pointcut = new AspectJExpressionPointcut();
+        pointcut.setExpression(expression);
+        return pointcut;
+    }
+}
@@ -0,0 +1,66 @@
+package hello.proxy.pointcut;
+
+import hello.proxy.app.v1.OrderControllerV1;
+import hello.proxy.app.v1.OrderControllerV1Impl;
+import hello.proxy.app.v2.OrderServiceV2;
+import hello.proxy.common.service.ServiceImpl;
+import hello.proxy.config.pointcut.IndexedPointcut;
+import hello.proxy.config.pointcut.PointcutIndex;
+import hello.proxy.config.pointcut.TracePointcuts;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.AspectJExpressionPointcut;
+import org.springframework.util.ClassUtils;
+import org.springframework.web.servlet.DispatcherServlet;
+
+import java.lang.reflect.Method;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 빌드 시점에 생성된 인덱스(generatePointcutIndex)와 AspectJ 표현식의 매칭 결과가 같아야 함
+ */
+public class IndexedPointcutTest {
+
+    @Test
+    void sameResultAsAspectJ() throws NoSuchMethodException {
+        PointcutIndex index = PointcutIndex.load(ClassUtils.getDefaultClassLoader());
+        IndexedPointcut indexed = new IndexedPointcut(TracePointcuts.APP_EXCEPT_NO_LOG_ID, TracePointcuts.APP_EXCEPT_NO_LOG, index);
+        AspectJExpressionPointcut aspectJ = new AspectJExpressionPointcut();
+        aspectJ.setExpression(TracePointcuts.APP_EXCEPT_NO_LOG);
+
+        Method request = OrderControllerV1.class.getMethod("request", String.class);
+        Method noLog = OrderControllerV1.class.getMethod("noLog");
+        Method orderItem = OrderServiceV2.class.getMethod("orderItem", String.class);
+
+        assertThat(indexed.matches(request, OrderControllerV1Impl.class)).isTrue().isEqualTo(aspectJ.matches(request, OrderControllerV1Impl.class));
+        assertThat(indexed.matches(noLog, OrderControllerV1Impl.class)).isFalse().isEqualTo(aspectJ.matches(noLog, OrderControllerV1Impl.class));
+        assertThat(indexed.matches(orderItem, OrderServiceV2.class)).isTrue();
+
+        //hello.proxy.app 의 클래스는 모두 인덱스에서 찾음
+        assertThat(index.getMissCount()).isZero();
+        assertThat(index.getHitCount()).isEqualTo(3);
+    }
+
+    @Test
+    void missOutsidePackageSkipsFallback() throws NoSuchMethodException {
+        PointcutIndex index = PointcutIndex.load(ClassUtils.getDefaultClassLoader());
+        IndexedPointcut indexed = new IndexedPointcut(TracePointcuts.APP_ID, TracePointcuts.APP, index);
+
+        //인덱스에 없고 hello.proxy.app 밖의 클래스 (스프링 인프라 빈 등) -> 표현식 포인트컷을 만들지 않고 false
+        Method save = ServiceImpl.class.getMethod("save");
+        assertThat(indexed.matches(save, ServiceImpl.class)).isFalse();
+        assertThat(indexed.matches(DispatcherServlet.class)).isFalse();
+        assertThat(index.getMissCount()).isEqualTo(2);
+        assertThat(indexed.isFallbackCreated()).isFalse();
+    }
+
+    @Test
+    void missInsidePackageFallsBackToExpression() throws NoSuchMethodException {
+        //인덱스가 없으면 hello.proxy.app 의 클래스는 표현식으로 매칭
+        IndexedPointcut indexed = new IndexedPointcut(TracePointcuts.APP_ID, TracePointcuts.APP, PointcutIndex.empty());
+
+        Method orderItem = OrderServiceV2.class.getMethod("orderItem", String.class);
+        assertThat(indexed.matches(orderItem, OrderServiceV2.class)).isTrue();
+        assertThat(indexed.isFallbackCreated()).isTrue();
+    }
+}
@@ -0,0 +1,40 @@
+package hello.proxy.postprocessor;
+
+import hello.proxy.common.advice.TimeAdvice;
+import hello.proxy.common.service.ConcreteService;
+import hello.proxy.common.service.ServiceImpl;
+import hello.proxy.config.v4_postprocessor.postprocessor.PackageLogTracePostProcessor;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.NameMatchMethodPointcut;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 포인트컷에 매칭되는 메서드가 없는 빈은 패키지 조건을 만족해도 프록시를 만들지 않음
+ */
+public class PackageLogTracePostProcessorTest {
+
+    @Test
+    void skipBeanWithoutAdvisedMethod(){
+        NameMatchMethodPointcut pointcut = new NameMatchMethodPointcut();
+        pointcut.setMappedNames("save*");
+        PackageLogTracePostProcessor postProcessor = new PackageLogTracePostProcessor("hello.proxy.common", new DefaultPointcutAdvisor(pointcut, new TimeAdvice()));
+
+        //ServiceImpl 은 save() 가 있으므로 프록시 적용
+        Object service = postProcessor.postProcessAfterInitialization(new ServiceImpl(), "serviceImpl");
+        //ConcreteService 는 call() 만 있으므로 원본 그대로
+        Object concrete = postProcessor.postProcessAfterInitialization(new ConcreteService(), "concreteService");
+        //패키지 대상이 아니면 원본 그대로
+        Object other = postProcessor.postProcessAfterInitialization("notTarget", "string");
+
+        assertThat(AopUtils.isAopProxy(service)).isTrue();
+        assertThat(AopUtils.isAopProxy(concrete)).isFalse();
+        assertThat(other).isEqualTo("notTarget");
+
+        assertThat(postProcessor.getScannedCount()).isEqualTo(3);
+        assertThat(postProcessor.getProxiedCount()).isEqualTo(1);
+        assertThat(postProcessor.getSkippedCount()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,55 @@
+package hello.proxy.startup;
+
+import hello.proxy.config.AppV1Config;
+import hello.proxy.config.AppV2Config;
+import hello.proxy.config.ProxyConfigSelector;
+import hello.proxy.config.tracing.TraceSwitchConfig;
+import hello.proxy.config.v1_proxy.InterfaceProxyConfig;
+import hello.proxy.config.v6_aop.AopConfig;
+import hello.proxy.config.v7_weaving.CompileTimeWeavingConfig;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class ProxyConfigSelectorTest {
+
+    @Test
+    void defaultIsAop() {
+        assertThat(select(new MockEnvironment())).containsExactly(AopConfig.class.getName(), TraceSwitchConfig.class.getName());
+    }
+
+    @Test
+    void selectsByProperty() {
+        MockEnvironment environment = new MockEnvironment().withProperty(ProxyConfigSelector.PROPERTY, "interface-proxy");
+        assertThat(select(environment)).containsExactly(InterfaceProxyConfig.class.getName(), TraceSwitchConfig.class.getName());
+    }
+
+    @Test
+    void appRegistersBothVersionsWithoutProxy() {
+        MockEnvironment environment = new MockEnvironment().withProperty(ProxyConfigSelector.PROPERTY, "app");
+        assertThat(select(environment)).containsExactly(AppV1Config.class.getName(), AppV2Config.class.getName(), TraceSwitchConfig.class.getName());
+    }
+
+    @Test
+    void weavingProfileSelectsNothing() {
+        MockEnvironment environment = new MockEnvironment().withProperty(ProxyConfigSelector.PROPERTY, "auto-proxy");
+        environment.setActiveProfiles(CompileTimeWeavingConfig.PROFILE);
+        assertThat(select(environment)).isEmpty();
+    }
+
+    @Test
+    void unknownConfigFails() {
+        MockEnvironment environment = new MockEnvironment().withProperty(ProxyConfigSelector.PROPERTY, "v9");
+        assertThatThrownBy(() -> select(environment))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("v9");
+    }
+
+    private static String[] select(MockEnvironment environment) {
+        ProxyConfigSelector selector = new ProxyConfigSelector();
+        selector.setEnvironment(environment);
+        return selector.selectImports(null);
+    }
+}
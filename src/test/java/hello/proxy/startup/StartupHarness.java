@@ -0,0 +1,193 @@
+package hello.proxy.startup;
+
+import hello.proxy.ProxyApplication;
+import hello.proxy.app.v1.OrderControllerV1;
+import hello.proxy.config.ProxyConfigSelector;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.util.ClassUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Proxy;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+
+/**
+ * 프록시 설정(proxy.config)별 시작 비용 비교 (build.gradle 의 startupHarness 태스크에서 실행)
+ * - 설정마다 새 JVM 을 여러 번 띄워서 JIT, 클래스 로딩 상태가 이전 실행에 영향받지 않게 함
+ * - 기록 항목
+ *   ready(ms)    : JVM 시작부터 SpringApplication.run() 이 끝날 때까지 (ApplicationReadyEvent 이후)
+ *   first(ms)    : 준비된 직후 첫 /v1/request 가 성공할 때까지 (v2 만 등록하는 설정은 /v2/request, 저장소의 1초 대기 포함)
+ *   classes      : 로드된 클래스 수
+ *   proxies      : 빈으로 등록된 생성 프록시 클래스 수 (JDK 동적 프록시, CGLIB. @Configuration 의 CGLIB 클래스는 제외)
+ *   metaspace/heap(MB) : 시작 직후 GC 한 뒤 사용량
+ * - 실행별 결과는 {결과 디렉토리}/{설정}-{n}.properties, JVM 로그는 {설정}-{n}.log 로 남기고 설정별 중앙값을 표로 출력
+ *   ./gradlew startupHarness  (설정, 반복 횟수 지정 : -Pconfigs=aop,auto-proxy -Pruns=3)
+ *
+ * 사용법: StartupHarness {결과 디렉토리} {반복 횟수} [설정 ...]
+ *        StartupHarness --run {설정} {결과 파일}  (새 JVM 에서 실행되는 쪽)
+ */
+public class StartupHarness {
+
+    private static final String[] METRICS = {"readyMs", "firstRequestMs", "classes", "proxyClasses", "metaspaceMb", "heapMb"};
+
+    public static void main(String[] args) throws Exception {
+        if (args.length == 3 && args[0].equals("--run")) {
+            runOnce(args[1], Paths.get(args[2]));
+            return;
+        }
+        if (args.length < 2) {
+            throw new IllegalArgumentException("usage: StartupHarness <resultDir> <runs> [config ...]");
+        }
+        Path resultDir = Paths.get(args[0]);
+        int runs = Integer.parseInt(args[1]);
+        List<String> configs = args.length > 2
+                ? Arrays.asList(args).subList(2, args.length)
+                : new ArrayList<>(ProxyConfigSelector.CONFIGS.keySet());
+
+        Files.createDirectories(resultDir);
+        for (String config : configs) {
+            for (int run = 1; run <= runs; run++) {
+                Path result = resultDir.resolve(config + "-" + run + ".properties");
+                fork(config, result, resultDir.resolve(config + "-" + run + ".log"));
+                System.out.printf("%s #%d done%n", config, run);
+            }
+        }
+        printTable(resultDir, configs, runs);
+    }
+
+    /**
+     * 같은 클래스패스로 새 JVM 을 띄워서 --run 으로 한 번 측정
+     */
+    private static void fork(String config, Path result, Path log) throws IOException, InterruptedException {
+        String java = Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+        Process process = new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"),
+                StartupHarness.class.getName(), "--run", config, result.toString())
+                .redirectErrorStream(true)
+                .redirectOutput(log.toFile())
+                .start();
+        if (process.waitFor() != 0 || !Files.exists(result)) {
+            throw new IllegalStateException(config + " failed, see " + log);
+        }
+    }
+
+    private static void runOnce(String config, Path resultFile) throws Exception {
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(ProxyApplication.class)
+                .properties(ProxyConfigSelector.PROPERTY + "=" + config,
+                        "server.port=0",
+                        "spring.main.banner-mode=off",
+                        "logging.level.hello.proxy.trace=WARN")
+                .run();
+        long readyMs = ManagementFactory.getRuntimeMXBean().getUptime();
+
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        String path = context.getBeanNamesForType(OrderControllerV1.class).length > 0 ? "/v1/request" : "/v2/request";
+        long firstRequestMs = firstSuccess(URI.create("http://localhost:" + port + path + "?itemId=hello"));
+
+        int proxyClasses = countProxyClasses(context.getBeanFactory());
+        System.gc();
+        Properties result = new Properties();
+        result.setProperty("readyMs", String.valueOf(readyMs));
+        result.setProperty("firstRequestMs", String.valueOf(firstRequestMs));
+        result.setProperty("firstRequestPath", path);
+        result.setProperty("classes", String.valueOf(ManagementFactory.getClassLoadingMXBean().getLoadedClassCount()));
+        result.setProperty("proxyClasses", String.valueOf(proxyClasses));
+        result.setProperty("metaspaceMb", String.valueOf(metaspaceUsed() / (1024 * 1024)));
+        result.setProperty("heapMb", String.valueOf(ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed() / (1024 * 1024)));
+        context.close();
+
+        try (Writer writer = Files.newBufferedWriter(resultFile)) {
+            result.store(writer, config);
+        }
+    }
+
+    /**
+     * 200 응답을 받을 때까지 다시 요청하고, 처음 요청부터 걸린 시간을 반환
+     */
+    private static long firstSuccess(URI uri) throws InterruptedException {
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+        HttpRequest request = HttpRequest.newBuilder(uri).timeout(Duration.ofSeconds(30)).build();
+        long start = System.nanoTime();
+        for (int attempt = 0; attempt < 100; attempt++) {
+            try {
+                if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return (System.nanoTime() - start) / 1_000_000;
+                }
+            } catch (IOException e) {
+                //아직 요청을 받을 수 없음
+            }
+            Thread.sleep(10);
+        }
+        throw new IllegalStateException("no successful response from " + uri);
+    }
+
+    private static int countProxyClasses(ConfigurableListableBeanFactory beanFactory) {
+        Set<Class<?>> proxyClasses = new HashSet<>();
+        for (String name : beanFactory.getSingletonNames()) {
+            Object bean = beanFactory.getSingleton(name);
+            if (bean == null) {
+                continue;
+            }
+            Class<?> beanClass = bean.getClass();
+            boolean generated = Proxy.isProxyClass(beanClass) || beanClass.getName().contains(ClassUtils.CGLIB_CLASS_SEPARATOR);
+            if (generated && !AnnotatedElementUtils.hasAnnotation(ClassUtils.getUserClass(beanClass), Configuration.class)) {
+                proxyClasses.add(beanClass);
+            }
+        }
+        return proxyClasses.size();
+    }
+
+    private static long metaspaceUsed() {
+        return ManagementFactory.getMemoryPoolMXBeans().stream()
+                .filter(pool -> pool.getName().equals("Metaspace"))
+                .mapToLong(pool -> pool.getUsage().getUsed())
+                .sum();
+    }
+
+    private static void printTable(Path resultDir, List<String> configs, int runs) throws IOException {
+        System.out.println();
+        System.out.printf("%-21s %10s %10s %8s %8s %14s %9s%n",
+                "config", "ready(ms)", "first(ms)", "classes", "proxies", "metaspace(MB)", "heap(MB)");
+        for (String config : configs) {
+            long[][] values = new long[METRICS.length][runs];
+            for (int run = 1; run <= runs; run++) {
+                Properties result = new Properties();
+                try (Reader reader = Files.newBufferedReader(resultDir.resolve(config + "-" + run + ".properties"))) {
+                    result.load(reader);
+                }
+                for (int m = 0; m < METRICS.length; m++) {
+                    values[m][run - 1] = Long.parseLong(result.getProperty(METRICS[m]));
+                }
+            }
+            System.out.printf("%-21s %10d %10d %8d %8d %14d %9d%n", config,
+                    median(values[0]), median(values[1]), median(values[2]), median(values[3]), median(values[4]), median(values[5]));
+        }
+        System.out.println("(median of " + runs + " fresh JVMs per config, results in " + resultDir.toAbsolutePath() + File.separator + ")");
+    }
+
+    private static long median(long[] values) {
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+}
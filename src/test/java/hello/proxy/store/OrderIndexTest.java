@@ -0,0 +1,91 @@
+package hello.proxy.store;
+
+import hello.proxy.infra.store.OrderIndex;
+import hello.proxy.infra.store.OrderRecord;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class OrderIndexTest {
+
+    @Test
+    void findLatestAndCount() {
+        OrderIndex index = new OrderIndex();
+        index.add("itemA", 0, 100);
+        index.add("itemB", 1, 110);
+        index.add("itemA", 2, 120);
+
+        OrderRecord latest = index.findLatest("itemA");
+        assertThat(latest.getOffset()).isEqualTo(2);
+        assertThat(latest.getTimestampMillis()).isEqualTo(120);
+        assertThat(index.count("itemA")).isEqualTo(2);
+        assertThat(index.count("itemB")).isEqualTo(1);
+
+        assertThat(index.findLatest("itemC")).isNull();
+        assertThat(index.count("itemC")).isZero();
+        assertThat(index.totalCount()).isEqualTo(3);
+        assertThat(index.keyCount()).isEqualTo(2);
+    }
+
+    @Test
+    void indexAssignsOffsets() {
+        OrderIndex index = new OrderIndex();
+        assertThat(index.add("itemA")).isEqualTo(0);
+        assertThat(index.add("itemB")).isEqualTo(1);
+        assertThat(index.add("itemA")).isEqualTo(2);
+        assertThat(index.findLatest("itemA").getOffset()).isEqualTo(2);
+    }
+
+    @Test
+    void growsBeyondExpectedKeys() {
+        OrderIndex index = new OrderIndex(16);
+        for (int i = 0; i < 100_000; i++) {
+            index.add("item" + i, i, i);
+        }
+        assertThat(index.keyCount()).isEqualTo(100_000);
+        for (int i = 0; i < 100_000; i += 997) {
+            assertThat(index.findLatest("item" + i).getOffset()).isEqualTo(i);
+            assertThat(index.count("item" + i)).isEqualTo(1);
+        }
+    }
+
+    @Test
+    void readersDuringWrites() throws Exception {
+        OrderIndex index = new OrderIndex(16);
+        index.add("fixed", 0, 0);
+        AtomicBoolean writing = new AtomicBoolean(true);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Long>> readers = new ArrayList<>();
+            for (int r = 0; r < 3; r++) {
+                readers.add(executor.submit(() -> {
+                    long reads = 0;
+                    do {
+                        //쓰기로 테이블이 커지는 중에도 이미 있는 값은 항상 보여야 함
+                        assertThat(index.count("fixed")).isEqualTo(1);
+                        assertThat(index.findLatest("fixed").getOffset()).isEqualTo(0);
+                        reads++;
+                    } while (writing.get());
+                    return reads;
+                }));
+            }
+            for (int i = 1; i <= 200_000; i++) {
+                index.add("item" + i, i, i);
+            }
+            writing.set(false);
+            for (Future<Long> reader : readers) {
+                assertThat(reader.get()).isPositive();
+            }
+            assertThat(index.totalCount()).isEqualTo(200_001);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
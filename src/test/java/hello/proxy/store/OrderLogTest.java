@@ -0,0 +1,156 @@
+package hello.proxy.store;
+
+import hello.proxy.app.v1.OrderLogRepositoryV1;
+import hello.proxy.infra.store.FsyncPolicy;
+import hello.proxy.infra.store.OrderLog;
+import hello.proxy.infra.store.OrderRecord;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class OrderLogTest {
+
+    //기록 1건 = header 8 + offset 8 + timestamp 8 + count 4 + itemId
+    private static final int ITEM_RECORD_BYTES = 8 + 8 + 8 + 4 + "itemA".length();
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void reopenContinuesAfterLastRecord() throws Exception {
+        try (OrderLog log = new OrderLog(directory, 1024, FsyncPolicy.ALWAYS, Duration.ofMillis(1))) {
+            assertThat(log.append("itemA")).isEqualTo(0);
+            assertThat(log.append("itemB")).isEqualTo(1);
+        }
+        try (OrderLog log = new OrderLog(directory, 1024, FsyncPolicy.ALWAYS, Duration.ofMillis(1))) {
+            assertThat(log.append("itemC")).isEqualTo(2);
+            assertThat(itemIds(log)).containsExactly("itemA", "itemB", "itemC");
+        }
+    }
+
+    @Test
+    void recoveryDropsTornTail() throws Exception {
+        try (OrderLog log = new OrderLog(directory, 1024, FsyncPolicy.ALWAYS, Duration.ofMillis(1))) {
+            log.append("itemA");
+            log.append("itemB");
+        }
+        //세 번째 기록을 쓰다가 장애가 난 상황 : 길이는 써졌지만 crc 와 body 가 맞지 않음
+        Path segment = segmentFiles().get(0);
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            ByteBuffer torn = ByteBuffer.allocate(12).putInt(21).putInt(12345).putInt(7);
+            torn.flip();
+            channel.write(torn, 2L * ITEM_RECORD_BYTES);
+        }
+
+        try (OrderLog log = new OrderLog(directory, 1024, FsyncPolicy.ALWAYS, Duration.ofMillis(1))) {
+            assertThat(itemIds(log)).containsExactly("itemA", "itemB");
+            assertThat(log.append("itemC")).isEqualTo(2);
+        }
+        try (OrderLog log = new OrderLog(directory, 1024, FsyncPolicy.ALWAYS, Duration.ofMillis(1))) {
+            assertThat(itemIds(log)).containsExactly("itemA", "itemB", "itemC");
+        }
+    }
+
+    @Test
+    void rollAndCompact() throws Exception {
+        //세그먼트 하나에 기록 4건
+        int segmentBytes = ITEM_RECORD_BYTES * 4;
+        try (OrderLog log = new OrderLog(directory, segmentBytes, FsyncPolicy.PERIODIC, Duration.ofMillis(10))) {
+            for (String itemId : List.of("itemA", "itemB", "itemA", "itemA", "itemC", "itemA", "itemB", "itemB", "itemD")) {
+                log.append(itemId);
+            }
+            assertThat(log.getSegmentCount()).isEqualTo(3);
+
+            //offset 0~3 : itemA(0, 2, 3) -> 3 (x3), offset 4~7 : itemB(6, 7) -> 7 (x2)
+            assertThat(log.compact()).isEqualTo(3);
+            List<OrderRecord> records = new ArrayList<>();
+            log.forEach(records::add);
+            assertThat(records).extracting(OrderRecord::getOffset).containsExactly(1L, 3L, 4L, 5L, 7L, 8L);
+            assertThat(records).extracting(OrderRecord::getCount).containsExactly(1, 3, 1, 1, 2, 1);
+            assertThat(log.getSegmentCount()).isEqualTo(3);
+            assertThat(log.compact()).isZero();
+        }
+        try (OrderLog log = new OrderLog(directory, segmentBytes, FsyncPolicy.PERIODIC, Duration.ofMillis(10))) {
+            assertThat(itemIds(log)).containsExactly("itemB", "itemA", "itemC", "itemA", "itemB", "itemD");
+            assertThat(log.append("itemE")).isEqualTo(9);
+        }
+    }
+
+    @Test
+    void compactKeepsOrderCount() throws Exception {
+        int segmentBytes = ITEM_RECORD_BYTES * 2;
+        try (OrderLog log = new OrderLog(directory, segmentBytes, FsyncPolicy.PERIODIC, Duration.ofMillis(10))) {
+            OrderLogRepositoryV1 repository = new OrderLogRepositoryV1(log);
+            repository.save("itemA");
+            repository.save("itemA");
+            repository.save("itemA");
+
+            assertThat(log.compact()).isEqualTo(1);
+        }
+        try (OrderLog log = new OrderLog(directory, segmentBytes, FsyncPolicy.PERIODIC, Duration.ofMillis(10))) {
+            OrderLogRepositoryV1 repository = new OrderLogRepositoryV1(log);
+            assertThat(repository.countOrders("itemA")).isEqualTo(3);
+            assertThat(repository.findOrder("itemA").orElseThrow().getOffset()).isEqualTo(2);
+        }
+    }
+
+    @Test
+    void repositoryIndexMatchesRebuiltIndex() throws Exception {
+        try (OrderLog log = new OrderLog(directory, 1024, FsyncPolicy.PERIODIC, Duration.ofMillis(10))) {
+            OrderLogRepositoryV1 repository = new OrderLogRepositoryV1(log);
+            repository.save("itemA");
+            OrderRecord saved = repository.findOrder("itemA").orElseThrow();
+
+            //시작할 때 로그에서 다시 만든 인덱스와 같아야 함
+            OrderRecord rebuilt = new OrderLogRepositoryV1(log).findOrder("itemA").orElseThrow();
+            assertThat(saved.getOffset()).isEqualTo(rebuilt.getOffset());
+            assertThat(saved.getTimestampMillis()).isEqualTo(rebuilt.getTimestampMillis());
+        }
+    }
+
+    @Test
+    void groupFsyncSharesForce() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        try (OrderLog log = new OrderLog(directory, 1 << 20, FsyncPolicy.GROUP, Duration.ofMillis(2))) {
+            List<Future<Long>> futures = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                String itemId = "item" + i;
+                futures.add(executor.submit(() -> log.append(itemId)));
+            }
+            for (Future<Long> future : futures) {
+                future.get();
+            }
+            assertThat(log.getAppendCount()).isEqualTo(200);
+            assertThat(log.getFsyncCount()).isLessThan(200);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static List<String> itemIds(OrderLog log) {
+        List<String> itemIds = new ArrayList<>();
+        log.forEach(record -> itemIds.add(record.getItemId()));
+        return itemIds;
+    }
+
+    private List<Path> segmentFiles() throws Exception {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.sorted().collect(Collectors.toList());
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package hello.proxy.weaving;
+
+import hello.proxy.ProxyApplication;
+import hello.proxy.app.v2.OrderControllerV2;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Properties;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * 프록시 빌드와 컴파일 시점 위빙 빌드의 비교 (build.gradle 의 weavingHarness 태스크에서 실행)
+ * - 시작 시간(스프링 컨테이너 생성)과 로그 추적이 적용된 메서드의 호출당 비용을 측정
+ * - 결과는 {결과 디렉토리}/{mode}.properties 로 남기고, 지금까지 기록된 결과를 표로 출력
+ *   ./gradlew weavingHarness && ./gradlew weavingHarness -Pweaving=ctw
+ * - 로그 출력 비용은 제외하기 위해 hello.proxy.trace 로그 레벨은 WARN 으로 실행
+ *
+ * 사용법: WeavingHarness {mode} {결과 디렉토리}
+ */
+public class WeavingHarness {
+
+    private static final int WARMUP = 200_000;
+    private static final int CALLS = 2_000_000;
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            throw new IllegalArgumentException("usage: WeavingHarness <mode> <resultDir>");
+        }
+        String mode = args[0];
+        Path resultDir = Paths.get(args[1]);
+
+        long startNanos = System.nanoTime();
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(ProxyApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties("logging.level.hello.proxy.trace=WARN")
+                .run();
+        long startupMs = (System.nanoTime() - startNanos) / 1_000_000;
+
+        OrderControllerV2 controller = context.getBean(OrderControllerV2.class);
+        boolean proxied = AopUtils.isAopProxy(controller);
+        call(controller, WARMUP);
+        long callNanos = System.nanoTime();
+        int sink = call(controller, CALLS);
+        long nsPerCall = (System.nanoTime() - callNanos) / CALLS;
+        context.close();
+
+        Properties result = new Properties();
+        result.setProperty("startupMs", String.valueOf(startupMs));
+        result.setProperty("nsPerCall", String.valueOf(nsPerCall));
+        result.setProperty("proxied", String.valueOf(proxied));
+        Files.createDirectories(resultDir);
+        try (Writer writer = Files.newBufferedWriter(resultDir.resolve(mode + ".properties"))) {
+            result.store(writer, "sink=" + sink);
+        }
+        printTable(resultDir);
+    }
+
+    private static int call(OrderControllerV2 controller, int count) {
+        int sink = 0;
+        for (int i = 0; i < count; i++) {
+            sink += controller.noLog().length();
+        }
+        return sink;
+    }
+
+    private static void printTable(Path resultDir) throws IOException {
+        List<Path> files;
+        try (Stream<Path> paths = Files.list(resultDir)) {
+            files = paths.filter(path -> path.toString().endsWith(".properties")).sorted().collect(Collectors.toList());
+        }
+        System.out.printf("%-8s %-8s %12s %12s%n", "mode", "proxied", "startup(ms)", "call(ns)");
+        for (Path file : files) {
+            Properties result = new Properties();
+            try (Reader reader = Files.newBufferedReader(file)) {
+                result.load(reader);
+            }
+            String name = file.getFileName().toString();
+            System.out.printf("%-8s %-8s %12s %12s%n", name.substring(0, name.length() - ".properties".length()),
+                    result.getProperty("proxied"), result.getProperty("startupMs"), result.getProperty("nsPerCall"));
+        }
+    }
+}